@@ -0,0 +1,97 @@
+#!/usr/bin/env bash
+#
+# Measures time from JVM launch to the first successful request, for the regular Boot jar
+# and for the fast-startup build (AOT + AppCDS + lazy init).
+#
+#   ./mvnw -DskipTests package                 # target/booking-api-*.jar
+#   ./mvnw -DskipTests -Pfast-startup package  # target/fast-startup/ (needs the database)
+#   scripts/startup-benchmark.sh [runs]
+#
+# Results are appended to target/startup-benchmark.csv. The database must be reachable
+# with the usual DB_* variables; PROBE_PATH picks the request that counts as "first success".
+
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS="${1:-5}"
+PORT="${BENCH_PORT:-28081}"
+PROBE_PATH="${PROBE_PATH:-/actuator/health}"
+TIMEOUT_SECONDS="${TIMEOUT_SECONDS:-120}"
+RESULTS="target/startup-benchmark.csv"
+
+BOOT_JAR="$(ls target/booking-api-*.jar 2>/dev/null | grep -v -e fast-startup -e '\.original$' | head -n 1 || true)"
+FAST_DIR="target/fast-startup"
+
+now_ms() {
+    date +%s%3N
+}
+
+# Prints the milliseconds until PROBE_PATH answers 2xx, or fails after TIMEOUT_SECONDS
+measure() {
+    local label="$1"
+    shift
+    local started pid elapsed
+    started="$(now_ms)"
+    SERVER_PORT="$PORT" "$@" > "target/startup-$label.log" 2>&1 &
+    pid=$!
+    trap 'kill "$pid" 2>/dev/null || true' EXIT
+
+    while true; do
+        if curl -fs -o /dev/null "http://localhost:$PORT$PROBE_PATH"; then
+            elapsed=$(( $(now_ms) - started ))
+            break
+        fi
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "$label: application exited during startup, see target/startup-$label.log" >&2
+            return 1
+        fi
+        if (( $(now_ms) - started > TIMEOUT_SECONDS * 1000 )); then
+            echo "$label: no successful response within ${TIMEOUT_SECONDS}s" >&2
+            kill "$pid"
+            return 1
+        fi
+        sleep 0.05
+    done
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    trap - EXIT
+    echo "$elapsed"
+}
+
+run_mode() {
+    local label="$1"
+    shift
+    local run ms
+    for run in $(seq 1 "$RUNS"); do
+        ms="$(measure "$label" "$@")"
+        echo "$(date -u +%Y-%m-%dT%H:%M:%SZ),$label,$run,$ms" >> "$RESULTS"
+        echo "$label run $run: ${ms} ms"
+    done
+}
+
+[[ -f "$RESULTS" ]] || echo "timestamp,mode,run,time_to_first_success_ms" > "$RESULTS"
+
+if [[ -n "$BOOT_JAR" ]]; then
+    run_mode default java -jar "$BOOT_JAR"
+else
+    echo "Skipping default mode: build target/booking-api-*.jar first" >&2
+fi
+
+if [[ -f "$FAST_DIR/booking-api-fast-startup.jar" ]]; then
+    cds_arg=""
+    if [[ -f "$FAST_DIR/app.jsa" ]]; then
+        cds_arg="-XX:SharedArchiveFile=app.jsa"
+    else
+        echo "No CDS archive in $FAST_DIR; measuring AOT + lazy init only" >&2
+    fi
+    # Launched from the archive's directory: CDS only maps the archive when the class path
+    # matches the one recorded by the training run
+    run_mode fast-startup bash -c "cd $FAST_DIR && exec java $cds_arg -Dspring.aot.enabled=true \
+        -Dspring.profiles.active=fast-startup -jar booking-api-fast-startup.jar"
+else
+    echo "Skipping fast-startup mode: build with -Pfast-startup first" >&2
+fi
+
+echo "Results appended to $RESULTS"
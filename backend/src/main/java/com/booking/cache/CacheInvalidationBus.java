@@ -0,0 +1,216 @@
+package com.booking.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Evicts cache entries on this node and, when broadcasting is enabled, on every other node.
+ * Invalidations raised inside a transaction are applied once it commits, so readers never
+ * re-cache the old rows. Outgoing invalidations are de-duplicated and queued until
+ * {@link PgNotifyInvalidationRelay} sends them; if the queue overflows or a send fails, the
+ * next message asks the other nodes to flush everything instead.
+ */
+@Slf4j
+@Component
+public class CacheInvalidationBus {
+
+    public static final String ALL_KEYS = "*";
+
+    static final String FLUSH_EVERYTHING = "*";
+
+    private final Map<String, InvalidatableCache> caches = new ConcurrentHashMap<>();
+    private final String nodeId = UUID.randomUUID().toString();
+    private final boolean broadcast;
+    private final int maxPending;
+    private final Set<String> pending = new LinkedHashSet<>();
+    private boolean overflowed;
+    private final Counter localInvalidations;
+    private final Counter remoteInvalidations;
+    private final Counter fullFlushes;
+
+    public CacheInvalidationBus(
+            MeterRegistry meterRegistry,
+            @Value("${app.cache-bus.enabled:false}") boolean broadcast,
+            @Value("${app.cache-bus.max-pending:10000}") int maxPending) {
+        this.broadcast = broadcast;
+        this.maxPending = maxPending;
+        this.localInvalidations = counter(meterRegistry, "local");
+        this.remoteInvalidations = counter(meterRegistry, "remote");
+        this.fullFlushes = Counter.builder("booking.cache.full-flushes")
+                .description("Times every registered cache was emptied")
+                .register(meterRegistry);
+    }
+
+    public void register(InvalidatableCache cache) {
+        if (caches.putIfAbsent(cache.cacheName(), cache) != null) {
+            throw new IllegalStateException("A cache named " + cache.cacheName() + " is already registered");
+        }
+    }
+
+    /**
+     * Evicts {@code key} from the named cache on every node, after the current transaction
+     * commits or right away without one.
+     */
+    public void invalidate(String cacheName, String key) {
+        String line = cacheName + ":" + key;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            dispatch(Set.of(line));
+            return;
+        }
+
+        // Looked up per transaction rather than bound as a resource, so a nested
+        // REQUIRES_NEW transaction publishes its own invalidations when it commits
+        PendingInvalidations pendingInvalidations = TransactionSynchronizationManager.getSynchronizations().stream()
+                .filter(PendingInvalidations.class::isInstance)
+                .map(PendingInvalidations.class::cast)
+                .findFirst()
+                .orElse(null);
+        if (pendingInvalidations == null) {
+            pendingInvalidations = new PendingInvalidations();
+            TransactionSynchronizationManager.registerSynchronization(pendingInvalidations);
+        }
+        pendingInvalidations.lines.add(line);
+    }
+
+    public void invalidateAll(String cacheName) {
+        invalidate(cacheName, ALL_KEYS);
+    }
+
+    /**
+     * Empties every registered cache, for when invalidations from other nodes may have been missed.
+     */
+    public void evictEverything() {
+        caches.values().forEach(InvalidatableCache::evictAll);
+        fullFlushes.increment();
+    }
+
+    /**
+     * Takes the queued invalidations as notification payloads of at most {@code maxBytes}
+     * each. Every payload starts with this node's id so the node can skip its own messages.
+     */
+    synchronized List<String> drainPayloads(int maxBytes) {
+        List<String> payloads = new ArrayList<>();
+        if (overflowed) {
+            overflowed = false;
+            pending.clear();
+            payloads.add(nodeId + "\n" + FLUSH_EVERYTHING);
+            return payloads;
+        }
+
+        StringBuilder payload = new StringBuilder(nodeId);
+        int bytes = payload.length();
+        for (String line : pending) {
+            int lineBytes = line.getBytes(StandardCharsets.UTF_8).length + 1;
+            if (bytes + lineBytes > maxBytes && payload.length() > nodeId.length()) {
+                payloads.add(payload.toString());
+                payload = new StringBuilder(nodeId);
+                bytes = payload.length();
+            }
+            payload.append('\n').append(line);
+            bytes += lineBytes;
+        }
+        if (payload.length() > nodeId.length()) {
+            payloads.add(payload.toString());
+        }
+        pending.clear();
+        return payloads;
+    }
+
+    /**
+     * Marks queued invalidations as lost; the other nodes are told to flush everything.
+     */
+    synchronized void sendFailed() {
+        overflowed = true;
+        pending.clear();
+    }
+
+    /**
+     * Applies a payload received from another node.
+     */
+    void receive(String payload) {
+        String[] lines = payload.split("\n");
+        if (lines[0].equals(nodeId)) {
+            return;
+        }
+        for (int i = 1; i < lines.length; i++) {
+            if (lines[i].equals(FLUSH_EVERYTHING)) {
+                evictEverything();
+                return;
+            }
+        }
+        for (int i = 1; i < lines.length; i++) {
+            apply(lines[i]);
+            remoteInvalidations.increment();
+        }
+    }
+
+    private void dispatch(Collection<String> lines) {
+        for (String line : lines) {
+            apply(line);
+            localInvalidations.increment();
+        }
+        if (broadcast) {
+            enqueue(lines);
+        }
+    }
+
+    private synchronized void enqueue(Collection<String> lines) {
+        if (overflowed) {
+            return;
+        }
+        pending.addAll(lines);
+        if (pending.size() > maxPending) {
+            overflowed = true;
+            pending.clear();
+        }
+    }
+
+    private void apply(String line) {
+        int separator = line.indexOf(':');
+        InvalidatableCache cache = separator < 0 ? null : caches.get(line.substring(0, separator));
+        if (cache == null) {
+            log.debug("Ignoring invalidation for unknown cache: {}", line);
+            return;
+        }
+        String key = line.substring(separator + 1);
+        if (key.equals(ALL_KEYS)) {
+            cache.evictAll();
+        } else {
+            cache.evict(key);
+        }
+    }
+
+    private class PendingInvalidations implements TransactionSynchronization {
+
+        private final Set<String> lines = new LinkedHashSet<>();
+
+        @Override
+        public void afterCompletion(int status) {
+            if (status == STATUS_COMMITTED) {
+                dispatch(lines);
+            }
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String origin) {
+        return Counter.builder("booking.cache.invalidations")
+                .description("Cache invalidations applied on this node by where they came from")
+                .tag("origin", origin)
+                .register(meterRegistry);
+    }
+}
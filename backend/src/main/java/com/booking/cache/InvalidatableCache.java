@@ -0,0 +1,15 @@
+package com.booking.cache;
+
+/**
+ * A node-local cache that {@link CacheInvalidationBus} can evict entries from. Evictions
+ * arrive from this node's own writes and from writes on other nodes, so they only drop
+ * entries and never call back into the bus.
+ */
+public interface InvalidatableCache {
+
+    String cacheName();
+
+    void evict(String key);
+
+    void evictAll();
+}
@@ -0,0 +1,152 @@
+package com.booking.cache;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Carries {@link CacheInvalidationBus} messages between nodes over PostgreSQL LISTEN/NOTIFY.
+ * Queued invalidations are sent with pg_notify every {@code app.cache-bus.flush-interval-ms},
+ * so a burst of writes costs one notification per interval rather than one per write.
+ * Notifications are received on a dedicated connection outside the pool. Whenever that
+ * connection is (re)established every local cache is emptied, because notifications sent
+ * while it was down are gone.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.cache-bus.enabled", havingValue = "true")
+public class PgNotifyInvalidationRelay {
+
+    // PostgreSQL rejects payloads of 8000 bytes or more
+    static final int MAX_PAYLOAD_BYTES = 7900;
+
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+    private static final long MAX_BACKOFF_MS = 30_000;
+
+    private final CacheInvalidationBus bus;
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final String channel;
+    private final int pollTimeoutMs;
+    private volatile boolean running;
+    private volatile Thread listener;
+
+    public PgNotifyInvalidationRelay(
+            CacheInvalidationBus bus,
+            JdbcTemplate jdbcTemplate,
+            DataSourceProperties dataSourceProperties,
+            @Value("${app.cache-bus.channel:cache_invalidation}") String channel,
+            @Value("${app.cache-bus.poll-timeout-ms:5000}") int pollTimeoutMs) {
+        if (!CHANNEL_NAME.matcher(channel).matches()) {
+            throw new IllegalArgumentException("app.cache-bus.channel must be a lower-case identifier: " + channel);
+        }
+        this.bus = bus;
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.channel = channel;
+        this.pollTimeoutMs = pollTimeoutMs;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        listener = new Thread(this::listen, "cache-invalidation-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        Thread thread = listener;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.cache-bus.flush-interval-ms:50}")
+    public void flush() {
+        List<String> payloads = bus.drainPayloads(MAX_PAYLOAD_BYTES);
+        try {
+            for (String payload : payloads) {
+                jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, channel, payload);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Could not publish cache invalidations, other nodes will flush instead: {}", ex.getMessage());
+            bus.sendFailed();
+        }
+    }
+
+    private void listen() {
+        long backoffMs = 500;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                bus.evictEverything();
+                log.info("Listening for cache invalidations on channel {}", channel);
+                backoffMs = 500;
+                receive(connection);
+            } catch (SQLException ex) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Cache invalidation listener lost its connection, retrying in {} ms: {}",
+                        backoffMs, ex.getMessage());
+                if (!sleep(backoffMs)) {
+                    return;
+                }
+                backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+            }
+        }
+    }
+
+    private void receive(Connection connection) throws SQLException {
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        while (running) {
+            PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMs);
+            if (notifications == null || notifications.length == 0) {
+                // An idle socket does not notice a dead server on its own
+                if (!connection.isValid(5)) {
+                    throw new SQLException("Listener connection is no longer valid");
+                }
+                continue;
+            }
+            for (PGNotification notification : notifications) {
+                try {
+                    bus.receive(notification.getParameter());
+                } catch (RuntimeException ex) {
+                    log.warn("Could not apply cache invalidation '{}': {}", notification.getParameter(), ex.getMessage());
+                }
+            }
+        }
+    }
+
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.booking.config;
+
+import com.booking.dto.booking.BookingResponse;
+import com.booking.dto.booking.CompactBooking;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JacksonConfig {
+
+    public static final String FIELDS_FILTER = "fields";
+
+    /**
+     * Attaches the sparse fieldset filter to the booking DTOs without annotating them, so
+     * mappers that don't know about it (tests, tools) still serialize them. Responses that
+     * carry no ?fields= selection fall through to the default filter and keep every property.
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer sparseFieldsetCustomizer() {
+        return builder -> builder
+                .mixIn(BookingResponse.class, FieldsFilterMixin.class)
+                .mixIn(CompactBooking.class, FieldsFilterMixin.class)
+                .filters(new SimpleFilterProvider()
+                        .setDefaultFilter(SimpleBeanPropertyFilter.serializeAll())
+                        .setFailOnUnknownId(false));
+    }
+
+    @JsonFilter(FIELDS_FILTER)
+    private interface FieldsFilterMixin {
+    }
+}
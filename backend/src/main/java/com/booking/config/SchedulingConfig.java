@@ -0,0 +1,28 @@
+package com.booking.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    /**
+     * With spring.main.lazy-initialization, beans that nothing injects are never created,
+     * so their @Scheduled jobs and event listeners would silently never run. Keep those eager.
+     */
+    @Bean
+    static LazyInitializationExcludeFilter scheduledAndListenerBeansAreEager() {
+        return (beanName, beanDefinition, beanType) -> !MethodIntrospector.selectMethods(beanType,
+                (MethodIntrospector.MetadataLookup<Boolean>) method ->
+                        AnnotatedElementUtils.hasAnnotation(method, Scheduled.class)
+                                || AnnotatedElementUtils.hasAnnotation(method, EventListener.class) ? true : null
+        ).isEmpty();
+    }
+}
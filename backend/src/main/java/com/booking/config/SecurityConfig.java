@@ -1,6 +1,13 @@
 package com.booking.config;
 
+import com.booking.security.CalendarFeedTokens;
 import com.booking.security.JwtAuthenticationFilter;
+import com.booking.security.RateLimitFilter;
+import com.booking.security.RateLimiter;
+import com.booking.service.IdempotencyService;
+import com.booking.service.WaitingRoom;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -33,6 +40,9 @@ public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
     private final UserDetailsService userDetailsService;
+    private final RateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+    private final CalendarFeedTokens feedTokens;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -42,15 +52,21 @@ public class SecurityConfig {
                 .sessionManagement(session ->
                         session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/swagger-ui/**", "/api-docs/**", "/swagger-ui.html").permitAll()
                         .requestMatchers("/actuator/health").permitAll()
+                        // Calendar clients cannot log in; feeds are authorized by the signed token in the URL
+                        .requestMatchers(HttpMethod.GET, "/api/calendar/resources/*.ics", "/api/calendar/users/*.ics").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/api/calendar/resources/*/feed/rotate").hasRole("ADMIN")
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .authenticationProvider(authenticationProvider())
-                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterAfter(new RateLimitFilter(rateLimiter, objectMapper, feedTokens), JwtAuthenticationFilter.class);
 
         return http.build();
     }
@@ -61,6 +77,8 @@ public class SecurityConfig {
         configuration.setAllowedOriginPatterns(List.of("*"));
         configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(List.of("*"));
+        configuration.setExposedHeaders(List.of(
+                "Location", "Retry-After", WaitingRoom.TICKET_HEADER, IdempotencyService.REPLAYED_HEADER));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
 
@@ -1,20 +1,37 @@
 package com.booking.controller;
 
+import com.booking.dto.analytics.OccupancyHeatmapResponse;
 import com.booking.dto.booking.BookingResponse;
+import com.booking.dto.booking.CompactBooking;
+import com.booking.dto.booking.CompactBookingPage;
+import com.booking.dto.booking.WaitingRoomStatus;
+import com.booking.dto.importer.ImportReport;
 import com.booking.dto.resource.ResourceRequest;
 import com.booking.dto.resource.ResourceResponse;
+import com.booking.dto.utilization.UtilizationBackfillResponse;
+import com.booking.dto.utilization.UtilizationResponse;
+import com.booking.exception.BookingException;
+import com.booking.importer.BulkImportService;
 import com.booking.service.BookingService;
+import com.booking.service.OccupancyAnalyticsService;
 import com.booking.service.ResourceService;
+import com.booking.service.UtilizationService;
+import com.booking.service.WaitingRoom;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
@@ -24,8 +41,14 @@ import java.util.UUID;
 @Tag(name = "Admin", description = "Administrative operations")
 public class AdminController {
 
+    public static final String COMPACT_MEDIA_TYPE = "application/vnd.booking.compact+json";
+
     private final ResourceService resourceService;
     private final BookingService bookingService;
+    private final WaitingRoom waitingRoom;
+    private final UtilizationService utilizationService;
+    private final OccupancyAnalyticsService occupancyAnalyticsService;
+    private final BulkImportService bulkImportService;
 
     @GetMapping("/resources")
     @Operation(summary = "Get all resources (including inactive)")
@@ -50,12 +73,48 @@ public class AdminController {
     }
 
     @GetMapping("/bookings")
-    @Operation(summary = "Get all bookings with optional filters")
-    public ResponseEntity<List<BookingResponse>> getAllBookings(
+    @Operation(summary = "Get all bookings with optional filters",
+            description = "view=compact (or Accept: " + COMPACT_MEDIA_TYPE + ") returns resource and user ids "
+                    + "with the referenced objects side-loaded once; fields= limits the booking properties returned")
+    public ResponseEntity<MappingJacksonValue> getAllBookings(
+            @RequestParam(required = false) UUID resourceId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant endDate,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            @RequestParam(defaultValue = "full") String view,
+            @RequestParam(required = false) String fields) {
+        if ("compact".equals(view)) {
+            return getAllBookingsCompact(resourceId, startDate, endDate, includeArchived, fields);
+        }
+        if (!"full".equals(view)) {
+            throw BookingException.badRequest("view must be 'full' or 'compact'", "INVALID_VIEW");
+        }
+
+        SparseFieldset fieldset = SparseFieldset.parse(fields, BookingResponse.class);
+        List<BookingResponse> bookings =
+                bookingService.getAllBookings(resourceId, startDate, endDate, includeArchived);
+        return ResponseEntity.ok(fieldset.apply(bookings));
+    }
+
+    @GetMapping(value = "/bookings", produces = COMPACT_MEDIA_TYPE)
+    @Operation(summary = "Get all bookings with resources and users side-loaded")
+    public ResponseEntity<MappingJacksonValue> getAllBookingsCompact(
             @RequestParam(required = false) UUID resourceId,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant startDate,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant endDate) {
-        return ResponseEntity.ok(bookingService.getAllBookings(resourceId, startDate, endDate));
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant endDate,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            @RequestParam(required = false) String fields) {
+        SparseFieldset fieldset = SparseFieldset.parse(fields, CompactBooking.class);
+        CompactBookingPage page =
+                bookingService.getAllBookingsCompact(resourceId, startDate, endDate, includeArchived);
+        // Dictionaries nobody refers to are dead weight
+        if (!fieldset.includes("resourceId")) {
+            page.setResources(null);
+        }
+        if (!fieldset.includes("userId")) {
+            page.setUsers(null);
+        }
+        return ResponseEntity.ok(fieldset.apply(page));
     }
 
     @DeleteMapping("/bookings/{id}")
@@ -63,4 +122,74 @@ public class AdminController {
     public ResponseEntity<BookingResponse> cancelBooking(@PathVariable UUID id) {
         return ResponseEntity.ok(bookingService.adminCancelBooking(id));
     }
+
+    @PutMapping("/resources/{id}/hot")
+    @Operation(summary = "Send booking requests for a resource through the waiting room")
+    public ResponseEntity<Void> flagHot(@PathVariable UUID id) {
+        resourceService.findResourceById(id);
+        waitingRoom.flagHot(id, true);
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping("/resources/{id}/hot")
+    @Operation(summary = "Stop queueing booking requests for a resource")
+    public ResponseEntity<Void> unflagHot(@PathVariable UUID id) {
+        waitingRoom.flagHot(id, false);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/waiting-room")
+    @Operation(summary = "Resources currently queueing booking requests")
+    public ResponseEntity<List<WaitingRoomStatus>> getWaitingRoom() {
+        return ResponseEntity.ok(waitingRoom.status());
+    }
+
+    @GetMapping("/utilization")
+    @Operation(summary = "Utilization per resource by day, week or month, served from the daily rollup")
+    public ResponseEntity<List<UtilizationResponse>> getUtilization(
+            @RequestParam(required = false) UUID resourceId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "DAY") UtilizationService.Granularity granularity) {
+        return ResponseEntity.ok(utilizationService.getUtilization(resourceId, from, to, granularity));
+    }
+
+    @PostMapping("/utilization/backfill")
+    @Operation(summary = "Rebuild the utilization rollup for a date range from bookings and the archive")
+    public ResponseEntity<UtilizationBackfillResponse> backfillUtilization(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(utilizationService.backfill(from, to));
+    }
+
+    @GetMapping("/analytics/occupancy-heatmap")
+    @Operation(summary = "Occupancy by hour of week across resources (defaults to the last 52 weeks)")
+    public ResponseEntity<OccupancyHeatmapResponse> getOccupancyHeatmap(
+            @RequestParam(required = false) UUID resourceId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String timezone) {
+        return ResponseEntity.ok(occupancyAnalyticsService.getOccupancyHeatmap(resourceId, from, to, timezone));
+    }
+
+    @PostMapping(value = "/import/resources",
+            consumes = {"text/csv", "application/x-ndjson"})
+    @Operation(summary = "Bulk import resources from CSV or NDJSON",
+            description = "Columns: name, description, active. Invalid rows are reported and skipped")
+    public ResponseEntity<ImportReport> importResources(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) {
+        return ResponseEntity.ok(bulkImportService.importResources(body, MediaType.parseMediaType(contentType)));
+    }
+
+    @PostMapping(value = "/import/bookings",
+            consumes = {"text/csv", "application/x-ndjson"})
+    @Operation(summary = "Bulk import bookings from CSV or NDJSON",
+            description = "Columns: resourceId or resourceName, userEmail, startAt, endAt, status, notes. "
+                    + "Rows that overlap an existing booking or an earlier row are rejected")
+    public ResponseEntity<ImportReport> importBookings(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) {
+        return ResponseEntity.ok(bulkImportService.importBookings(body, MediaType.parseMediaType(contentType)));
+    }
 }
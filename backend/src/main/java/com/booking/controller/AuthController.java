@@ -4,12 +4,14 @@ import com.booking.dto.auth.AuthResponse;
 import com.booking.dto.auth.LoginRequest;
 import com.booking.dto.auth.RegisterRequest;
 import com.booking.dto.user.UserResponse;
+import com.booking.security.JwtService;
 import com.booking.security.UserPrincipal;
 import com.booking.service.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -37,6 +39,14 @@ public class AuthController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/logout")
+    @Operation(summary = "Revoke the bearer token sent with this request")
+    public ResponseEntity<Void> logout(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        authService.logout(JwtService.extractBearerToken(authorization));
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("/me")
     @Operation(summary = "Get current user info")
     public ResponseEntity<UserResponse> getCurrentUser(
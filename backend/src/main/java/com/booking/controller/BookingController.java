@@ -2,18 +2,30 @@ package com.booking.controller;
 
 import com.booking.dto.booking.BookingRequest;
 import com.booking.dto.booking.BookingResponse;
+import com.booking.dto.booking.BookingTicketResponse;
+import com.booking.dto.booking.QueueTicketResponse;
 import com.booking.security.UserPrincipal;
+import com.booking.service.AsyncBookingPipeline;
 import com.booking.service.BookingService;
+import com.booking.service.IdempotencyService;
+import com.booking.service.WaitingRoom;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.net.URI;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @RestController
@@ -22,7 +34,18 @@ import java.util.UUID;
 @Tag(name = "Bookings", description = "User booking management")
 public class BookingController {
 
+    private static final String RESPOND_ASYNC = "respond-async";
+
     private final BookingService bookingService;
+    private final IdempotencyService idempotencyService;
+    private final AsyncBookingPipeline asyncBookingPipeline;
+    private final WaitingRoom waitingRoom;
+
+    @Value("${app.booking.async.enabled:true}")
+    private boolean asyncEnabled;
+
+    @Value("${app.booking.async.sse-timeout-ms:30000}")
+    private long sseTimeoutMs;
 
     @GetMapping
     @Operation(summary = "Get current user's bookings")
@@ -40,12 +63,101 @@ public class BookingController {
     }
 
     @PostMapping
-    @Operation(summary = "Create a new booking")
-    public ResponseEntity<BookingResponse> createBooking(
+    @Operation(summary = "Create a new booking",
+            description = "Send `Prefer: respond-async` to queue the request and receive a ticket (202)")
+    public ResponseEntity<?> createBooking(
             @Valid @RequestBody BookingRequest request,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @RequestHeader(value = "Prefer", required = false) String prefer,
+            @RequestHeader(value = WaitingRoom.TICKET_HEADER, required = false) String queueTicket,
             @AuthenticationPrincipal UserPrincipal principal) {
-        BookingResponse response = bookingService.createBooking(request, principal);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        boolean async = asyncEnabled && prefer != null && prefer.contains(RESPOND_ASYNC);
+        if (idempotencyKey != null) {
+            Class<?> responseType = async ? BookingTicketResponse.class : BookingResponse.class;
+            Optional<? extends ResponseEntity<?>> replayed = idempotencyService.findReplay(
+                    principal.getId(), idempotencyKey, request, responseType);
+            if (replayed.isPresent()) {
+                return replayed.get();
+            }
+        }
+        WaitingRoom.Admission admission = waitingRoom.admit(request.getResourceId(), principal.getId(), queueTicket);
+        if (!admission.admitted()) {
+            return queued(admission);
+        }
+        if (async) {
+            if (idempotencyKey == null) {
+                return submit(request, principal);
+            }
+            return idempotencyService.execute(
+                    principal.getId(), idempotencyKey, request, BookingTicketResponse.class,
+                    () -> submit(request, principal));
+        }
+        if (idempotencyKey == null) {
+            return create(request, principal);
+        }
+        return idempotencyService.execute(
+                principal.getId(), idempotencyKey, request, BookingResponse.class,
+                () -> create(request, principal));
+    }
+
+    @GetMapping("/tickets/{ticketId}")
+    @Operation(summary = "Get the outcome of an asynchronous booking request")
+    public ResponseEntity<BookingTicketResponse> getTicket(
+            @PathVariable UUID ticketId,
+            @AuthenticationPrincipal UserPrincipal principal) {
+        return ResponseEntity.ok(asyncBookingPipeline.getTicket(ticketId, principal));
+    }
+
+    @GetMapping(value = "/tickets/{ticketId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream the outcome of an asynchronous booking request as a server-sent event")
+    public SseEmitter streamTicket(
+            @PathVariable UUID ticketId,
+            @AuthenticationPrincipal UserPrincipal principal) {
+        SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+        asyncBookingPipeline.whenCompleted(ticketId, principal).thenAccept(result -> {
+            try {
+                emitter.send(SseEmitter.event().name("result").data(result, MediaType.APPLICATION_JSON));
+                emitter.complete();
+            } catch (IOException | IllegalStateException ex) {
+                // Client went away or the emitter already timed out
+                emitter.completeWithError(ex);
+            }
+        });
+        return emitter;
+    }
+
+    @PostMapping("/holds")
+    @Operation(summary = "Hold a slot temporarily while the booking is completed")
+    public ResponseEntity<?> createHold(
+            @Valid @RequestBody BookingRequest request,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @RequestHeader(value = WaitingRoom.TICKET_HEADER, required = false) String queueTicket,
+            @AuthenticationPrincipal UserPrincipal principal) {
+        if (idempotencyKey != null) {
+            Optional<ResponseEntity<BookingResponse>> replayed = idempotencyService.findReplay(
+                    principal.getId(), idempotencyKey, request, BookingResponse.class);
+            if (replayed.isPresent()) {
+                return replayed.get();
+            }
+        }
+        WaitingRoom.Admission admission = waitingRoom.admit(request.getResourceId(), principal.getId(), queueTicket);
+        if (!admission.admitted()) {
+            return queued(admission);
+        }
+        if (idempotencyKey == null) {
+            return hold(request, principal);
+        }
+        return idempotencyService.execute(
+                principal.getId(), idempotencyKey, request, BookingResponse.class,
+                () -> hold(request, principal));
+    }
+
+    @PostMapping("/{id}/confirm")
+    @Operation(summary = "Confirm a held slot as a booking")
+    public ResponseEntity<BookingResponse> confirmHold(
+            @PathVariable UUID id,
+            @AuthenticationPrincipal UserPrincipal principal) {
+        return ResponseEntity.ok(bookingService.confirmHold(id, principal));
     }
 
     @DeleteMapping("/{id}")
@@ -55,4 +167,30 @@ public class BookingController {
             @AuthenticationPrincipal UserPrincipal principal) {
         return ResponseEntity.ok(bookingService.cancelBooking(id, principal));
     }
+
+    private ResponseEntity<QueueTicketResponse> queued(WaitingRoom.Admission admission) {
+        QueueTicketResponse ticket = admission.ticket();
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ticket.getEstimatedWaitSeconds()))
+                .header(WaitingRoom.TICKET_HEADER, ticket.getTicket())
+                .body(ticket);
+    }
+
+    private ResponseEntity<BookingTicketResponse> submit(BookingRequest request, UserPrincipal principal) {
+        BookingTicketResponse ticket = asyncBookingPipeline.submit(request, principal);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/bookings/tickets/" + ticket.getTicketId()))
+                .header("Preference-Applied", RESPOND_ASYNC)
+                .body(ticket);
+    }
+
+    private ResponseEntity<BookingResponse> create(BookingRequest request, UserPrincipal principal) {
+        BookingResponse response = bookingService.createBooking(request, principal);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    private ResponseEntity<BookingResponse> hold(BookingRequest request, UserPrincipal principal) {
+        BookingResponse response = bookingService.createHold(request, principal);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
 }
@@ -0,0 +1,116 @@
+package com.booking.controller;
+
+import com.booking.dto.calendar.CalendarFeedResponse;
+import com.booking.exception.BookingException;
+import com.booking.security.CalendarFeedTokens;
+import com.booking.security.CalendarFeedTokens.Scope;
+import com.booking.security.UserPrincipal;
+import com.booking.service.CalendarFeed;
+import com.booking.service.CalendarFeedService;
+import com.booking.service.CalendarFeedVersions;
+import com.booking.service.ResourceService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.OptionalInt;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/calendar")
+@RequiredArgsConstructor
+@Tag(name = "Calendar", description = "iCalendar feeds for calendar applications")
+public class CalendarController {
+
+    public static final MediaType TEXT_CALENDAR = new MediaType("text", "calendar", StandardCharsets.UTF_8);
+
+    private final CalendarFeedService calendarFeedService;
+    private final CalendarFeedTokens feedTokens;
+    private final CalendarFeedVersions feedVersions;
+    private final ResourceService resourceService;
+
+    @GetMapping("/resources/{id}/feed")
+    @Operation(summary = "Get the subscription URL of a resource's calendar")
+    public ResponseEntity<CalendarFeedResponse> getResourceFeedUrl(@PathVariable UUID id) {
+        resourceService.getResourceById(id);
+        return ResponseEntity.ok(feedUrl("resources", Scope.RESOURCE, id));
+    }
+
+    @PostMapping("/resources/{id}/feed/rotate")
+    @Operation(summary = "Revoke the subscription URLs of a resource's calendar and issue a new one (admin)")
+    public ResponseEntity<CalendarFeedResponse> rotateResourceFeedUrl(@PathVariable UUID id) {
+        feedVersions.rotate(Scope.RESOURCE, id);
+        return ResponseEntity.ok(feedUrl("resources", Scope.RESOURCE, id));
+    }
+
+    @GetMapping("/me/feed")
+    @Operation(summary = "Get the subscription URL of the current user's calendar")
+    public ResponseEntity<CalendarFeedResponse> getMyFeedUrl(@AuthenticationPrincipal UserPrincipal principal) {
+        return ResponseEntity.ok(feedUrl("users", Scope.USER, principal.getId()));
+    }
+
+    @PostMapping("/me/feed/rotate")
+    @Operation(summary = "Revoke the subscription URLs of the current user's calendar and issue a new one")
+    public ResponseEntity<CalendarFeedResponse> rotateMyFeedUrl(@AuthenticationPrincipal UserPrincipal principal) {
+        feedVersions.rotate(Scope.USER, principal.getId());
+        return ResponseEntity.ok(feedUrl("users", Scope.USER, principal.getId()));
+    }
+
+    @GetMapping("/resources/{id}.ics")
+    @Operation(summary = "Resource calendar feed (authorized by the signed token in the URL)")
+    public ResponseEntity<byte[]> getResourceFeed(
+            @PathVariable UUID id, @RequestParam(required = false) String token, WebRequest request) {
+        checkToken(Scope.RESOURCE, id, token);
+        return respond(calendarFeedService.getResourceFeed(id), request);
+    }
+
+    @GetMapping("/users/{id}.ics")
+    @Operation(summary = "User calendar feed (authorized by the signed token in the URL)")
+    public ResponseEntity<byte[]> getUserFeed(
+            @PathVariable UUID id, @RequestParam(required = false) String token, WebRequest request) {
+        checkToken(Scope.USER, id, token);
+        return respond(calendarFeedService.getUserFeed(id), request);
+    }
+
+    // The signature is checked first, so forged tokens never cost a version lookup
+    private void checkToken(Scope scope, UUID id, String token) {
+        OptionalInt version = feedTokens.signedVersion(scope, id, token);
+        if (version.isEmpty() || version.getAsInt() != feedVersions.current(scope, id)) {
+            throw BookingException.forbidden("Invalid calendar feed token");
+        }
+    }
+
+    // checkNotModified sets ETag and Last-Modified and turns the response into a 304 when they match
+    private static ResponseEntity<byte[]> respond(CalendarFeed feed, WebRequest request) {
+        if (request.checkNotModified(feed.etag(), feed.lastModified().toEpochMilli())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .contentType(TEXT_CALENDAR)
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5)).cachePrivate())
+                .body(feed.body());
+    }
+
+    private CalendarFeedResponse feedUrl(String collection, Scope scope, UUID id) {
+        String url = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/calendar/{collection}/{id}.ics")
+                .queryParam("token", feedTokens.sign(scope, id, feedVersions.current(scope, id)))
+                .buildAndExpand(collection, id)
+                .toUriString();
+        return CalendarFeedResponse.builder().url(url).build();
+    }
+}
@@ -2,7 +2,9 @@ package com.booking.controller;
 
 import com.booking.dto.booking.AvailabilitySlot;
 import com.booking.dto.resource.ResourceResponse;
+import com.booking.dto.resource.ResourceSearchResponse;
 import com.booking.service.BookingService;
+import com.booking.service.FreeResourceService;
 import com.booking.service.ResourceService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -11,6 +13,7 @@ import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
@@ -23,6 +26,7 @@ public class ResourceController {
 
     private final ResourceService resourceService;
     private final BookingService bookingService;
+    private final FreeResourceService freeResourceService;
 
     @GetMapping
     @Operation(summary = "Get all active resources")
@@ -30,6 +34,27 @@ public class ResourceController {
         return ResponseEntity.ok(resourceService.getActiveResources());
     }
 
+    @GetMapping("/search")
+    @Operation(summary = "Search active resources by name and description")
+    public ResponseEntity<ResourceSearchResponse> searchResources(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(resourceService.searchResources(q, page, size));
+    }
+
+    @GetMapping("/free")
+    @Operation(summary = "Find active resources with the given capacity and tags that are free for a window "
+            + "(defaults to the next hour)")
+    public ResponseEntity<List<ResourceResponse>> findFreeResources(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant end,
+            @RequestParam(required = false) Integer minCapacity,
+            @RequestParam(required = false) List<String> tags,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(freeResourceService.findFree(start, end, minCapacity, tags, limit));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get resource by ID")
     public ResponseEntity<ResourceResponse> getResource(@PathVariable UUID id) {
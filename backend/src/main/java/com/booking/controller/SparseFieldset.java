@@ -0,0 +1,78 @@
+package com.booking.controller;
+
+import com.booking.config.JacksonConfig;
+import com.booking.exception.BookingException;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * A ?fields= selection of top-level properties, applied at serialization time through the
+ * Jackson filter registered in {@link JacksonConfig}. The id is always kept so that elements
+ * of a trimmed list can still be told apart.
+ */
+final class SparseFieldset {
+
+    private static final SparseFieldset ALL = new SparseFieldset(null);
+
+    private final Set<String> fields;
+
+    private SparseFieldset(Set<String> fields) {
+        this.fields = fields;
+    }
+
+    static SparseFieldset parse(String fields, Class<?> type) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+
+        Set<String> known = propertiesOf(type);
+        Set<String> selected = new LinkedHashSet<>();
+        selected.add("id");
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!known.contains(name)) {
+                throw BookingException.badRequest(
+                        String.format("Unknown field '%s'; expected any of %s", name, known),
+                        "INVALID_FIELDS"
+                );
+            }
+            selected.add(name);
+        }
+        return new SparseFieldset(selected);
+    }
+
+    boolean includes(String field) {
+        return fields == null || fields.contains(field);
+    }
+
+    MappingJacksonValue apply(Object body) {
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        SimpleBeanPropertyFilter filter = fields == null
+                ? SimpleBeanPropertyFilter.serializeAll()
+                : SimpleBeanPropertyFilter.filterOutAllExcept(fields);
+        value.setFilters(new SimpleFilterProvider()
+                .addFilter(JacksonConfig.FIELDS_FILTER, filter)
+                .setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()));
+        return value;
+    }
+
+    private static Set<String> propertiesOf(Class<?> type) {
+        Set<String> names = new TreeSet<>();
+        Arrays.stream(type.getDeclaredFields())
+                .filter(field -> !Modifier.isStatic(field.getModifiers()))
+                .map(Field::getName)
+                .forEach(names::add);
+        return names;
+    }
+}
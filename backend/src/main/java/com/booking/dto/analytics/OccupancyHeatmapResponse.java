@@ -0,0 +1,32 @@
+package com.booking.dto.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Hour-of-week heatmap: each matrix has one row per day (Monday first) and one column per hour.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OccupancyHeatmapResponse {
+
+    private LocalDate from;
+    private LocalDate to;
+    private String timezone;
+    private UUID resourceId;
+    private long resources;
+    private long bookingsScanned;
+    private long elapsedMs;
+    private List<String> days;
+    private long[][] bookedMinutes;
+    private int[][] bookingStarts;
+    private double[][] occupancy;
+}
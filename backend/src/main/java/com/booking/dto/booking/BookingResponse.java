@@ -2,6 +2,7 @@ package com.booking.dto.booking;
 
 import com.booking.dto.resource.ResourceResponse;
 import com.booking.dto.user.UserResponse;
+import com.booking.entity.ArchivedBooking;
 import com.booking.entity.Booking;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -24,8 +25,10 @@ public class BookingResponse {
     private Instant endAt;
     private String status;
     private String notes;
+    private Instant holdExpiresAt;
     private Instant createdAt;
     private Instant updatedAt;
+    private boolean archived;
 
     public static BookingResponse from(Booking booking) {
         return BookingResponse.builder()
@@ -36,8 +39,24 @@ public class BookingResponse {
                 .endAt(booking.getEndAt())
                 .status(booking.getStatus().name())
                 .notes(booking.getNotes())
+                .holdExpiresAt(booking.getHoldExpiresAt())
                 .createdAt(booking.getCreatedAt())
                 .updatedAt(booking.getUpdatedAt())
                 .build();
     }
+
+    public static BookingResponse from(ArchivedBooking booking) {
+        return BookingResponse.builder()
+                .id(booking.getId())
+                .resource(ResourceResponse.from(booking.getResource()))
+                .user(UserResponse.from(booking.getUser()))
+                .startAt(booking.getStartAt())
+                .endAt(booking.getEndAt())
+                .status(booking.getStatus().name())
+                .notes(booking.getNotes())
+                .createdAt(booking.getCreatedAt())
+                .updatedAt(booking.getUpdatedAt())
+                .archived(true)
+                .build();
+    }
 }
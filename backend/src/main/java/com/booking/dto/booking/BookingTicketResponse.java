@@ -0,0 +1,28 @@
+package com.booking.dto.booking;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingTicketResponse {
+
+    public static final String PENDING = "PENDING";
+    public static final String CONFIRMED = "CONFIRMED";
+    public static final String REJECTED = "REJECTED";
+
+    private UUID ticketId;
+    private String status;
+    private BookingResponse booking;
+    private String errorCode;
+    private String message;
+    private Instant submittedAt;
+    private Instant completedAt;
+}
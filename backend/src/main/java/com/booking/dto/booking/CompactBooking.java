@@ -0,0 +1,64 @@
+package com.booking.dto.booking;
+
+import com.booking.entity.ArchivedBooking;
+import com.booking.entity.Booking;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A booking that refers to its resource and user by id; the referenced objects are sent
+ * once per response in {@link CompactBookingPage}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompactBooking {
+
+    private UUID id;
+    private UUID resourceId;
+    private UUID userId;
+    private Instant startAt;
+    private Instant endAt;
+    private String status;
+    private String notes;
+    private Instant holdExpiresAt;
+    private Instant createdAt;
+    private Instant updatedAt;
+    private boolean archived;
+
+    public static CompactBooking from(Booking booking) {
+        return CompactBooking.builder()
+                .id(booking.getId())
+                .resourceId(booking.getResource().getId())
+                .userId(booking.getUser().getId())
+                .startAt(booking.getStartAt())
+                .endAt(booking.getEndAt())
+                .status(booking.getStatus().name())
+                .notes(booking.getNotes())
+                .holdExpiresAt(booking.getHoldExpiresAt())
+                .createdAt(booking.getCreatedAt())
+                .updatedAt(booking.getUpdatedAt())
+                .build();
+    }
+
+    public static CompactBooking from(ArchivedBooking booking) {
+        return CompactBooking.builder()
+                .id(booking.getId())
+                .resourceId(booking.getResource().getId())
+                .userId(booking.getUser().getId())
+                .startAt(booking.getStartAt())
+                .endAt(booking.getEndAt())
+                .status(booking.getStatus().name())
+                .notes(booking.getNotes())
+                .createdAt(booking.getCreatedAt())
+                .updatedAt(booking.getUpdatedAt())
+                .archived(true)
+                .build();
+    }
+}
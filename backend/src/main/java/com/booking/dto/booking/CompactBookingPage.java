@@ -0,0 +1,48 @@
+package com.booking.dto.booking;
+
+import com.booking.dto.resource.ResourceResponse;
+import com.booking.dto.user.UserResponse;
+import com.booking.entity.ArchivedBooking;
+import com.booking.entity.Booking;
+import com.booking.entity.Resource;
+import com.booking.entity.User;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Bookings with their resources and users side-loaded: each resource and user appears once
+ * in the dictionaries however many bookings refer to it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CompactBookingPage {
+
+    private List<CompactBooking> bookings = new ArrayList<>();
+    private Map<UUID, ResourceResponse> resources = new LinkedHashMap<>();
+    private Map<UUID, UserResponse> users = new LinkedHashMap<>();
+
+    public void add(Booking booking) {
+        bookings.add(CompactBooking.from(booking));
+        sideLoad(booking.getResource(), booking.getUser());
+    }
+
+    public void add(ArchivedBooking booking) {
+        bookings.add(CompactBooking.from(booking));
+        sideLoad(booking.getResource(), booking.getUser());
+    }
+
+    private void sideLoad(Resource resource, User user) {
+        resources.computeIfAbsent(resource.getId(), id -> ResourceResponse.from(resource));
+        users.computeIfAbsent(user.getId(), id -> UserResponse.from(user));
+    }
+}
@@ -0,0 +1,20 @@
+package com.booking.dto.booking;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitingRoomStatus {
+
+    private UUID resourceId;
+    private boolean flaggedHot;
+    private boolean overloaded;
+    private long waiting;
+}
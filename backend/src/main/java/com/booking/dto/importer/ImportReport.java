@@ -0,0 +1,32 @@
+package com.booking.dto.importer;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportReport {
+
+    private String type;
+    private long rowsRead;
+    private long imported;
+    private long failed;
+    private long elapsedMs;
+    private List<RowError> errors;
+    private boolean errorsTruncated;
+    private boolean rowLimitReached;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private long row;
+        private String message;
+    }
+}
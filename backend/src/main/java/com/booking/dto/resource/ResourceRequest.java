@@ -1,12 +1,17 @@
 package com.booking.dto.resource;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -21,4 +26,20 @@ public class ResourceRequest {
     private String description;
 
     private Boolean active;
+
+    @Positive(message = "Capacity must be positive")
+    private Integer capacity;
+
+    // Whether the JSON named capacity at all: an explicit null clears it, an absent field keeps it
+    @JsonIgnore
+    private boolean capacityPresent;
+
+    @Size(max = 20, message = "At most 20 tags are allowed")
+    private List<@Pattern(regexp = "[A-Za-z0-9][A-Za-z0-9-]{0,49}",
+            message = "Tags are letters, digits and hyphens, up to 50 characters") String> tags;
+
+    public void setCapacity(Integer capacity) {
+        this.capacity = capacity;
+        this.capacityPresent = true;
+    }
 }
@@ -7,6 +7,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 
 @Data
@@ -19,6 +20,8 @@ public class ResourceResponse {
     private String name;
     private String description;
     private Boolean active;
+    private Integer capacity;
+    private List<String> tags;
     private Instant createdAt;
     private Instant updatedAt;
 
@@ -28,6 +31,8 @@ public class ResourceResponse {
                 .name(resource.getName())
                 .description(resource.getDescription())
                 .active(resource.getActive())
+                .capacity(resource.getCapacity())
+                .tags(List.of(resource.getTags()))
                 .createdAt(resource.getCreatedAt())
                 .updatedAt(resource.getUpdatedAt())
                 .build();
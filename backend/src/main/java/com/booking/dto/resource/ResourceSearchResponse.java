@@ -0,0 +1,23 @@
+package com.booking.dto.resource;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of search results, best match first.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResourceSearchResponse {
+
+    private List<ResourceResponse> results;
+    private int page;
+    private int size;
+    private long totalResults;
+}
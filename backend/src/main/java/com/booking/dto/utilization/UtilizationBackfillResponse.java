@@ -0,0 +1,19 @@
+package com.booking.dto.utilization;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UtilizationBackfillResponse {
+
+    private LocalDate from;
+    private LocalDate to;
+    private int days;
+}
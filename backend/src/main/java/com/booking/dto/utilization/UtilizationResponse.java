@@ -0,0 +1,25 @@
+package com.booking.dto.utilization;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UtilizationResponse {
+
+    private UUID resourceId;
+    private String resourceName;
+    private LocalDate periodStart;
+    private LocalDate periodEnd;
+    private int days;
+    private long bookedMinutes;
+    private int bookingCount;
+    private double utilization;
+}
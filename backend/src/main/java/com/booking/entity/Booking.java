@@ -20,7 +20,7 @@ import java.util.UUID;
 public class Booking {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -45,6 +45,9 @@ public class Booking {
     @Column(columnDefinition = "TEXT")
     private String notes;
 
+    @Column(name = "hold_expires_at")
+    private Instant holdExpiresAt;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt;
@@ -54,6 +57,6 @@ public class Booking {
     private Instant updatedAt;
 
     public enum Status {
-        ACTIVE, CANCELLED
+        ACTIVE, HELD, CANCELLED
     }
 }
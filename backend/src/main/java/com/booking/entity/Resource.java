@@ -1,10 +1,12 @@
 package com.booking.entity;
 
+import com.booking.sharding.ReferenceDataListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -12,6 +14,7 @@ import java.time.Instant;
 import java.util.UUID;
 
 @Entity
+@EntityListeners(ReferenceDataListener.class)
 @Table(name = "resources")
 @Data
 @Builder
@@ -20,7 +23,7 @@ import java.util.UUID;
 public class Resource {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     @Column(nullable = false)
@@ -33,6 +36,18 @@ public class Resource {
     @Builder.Default
     private Boolean active = true;
 
+    private Integer capacity;
+
+    // Lowercase, sorted and distinct; see ResourceAttributeIndex.normalizeTags
+    @Column(nullable = false)
+    @Builder.Default
+    private String[] tags = new String[0];
+
+    // Maintained by CalendarFeedVersions only, so entity saves never overwrite a rotation
+    @ColumnDefault("0")
+    @Column(name = "calendar_feed_version", nullable = false, insertable = false, updatable = false)
+    private int calendarFeedVersion;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt;
@@ -1,10 +1,12 @@
 package com.booking.entity;
 
+import com.booking.sharding.ReferenceDataListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -12,6 +14,7 @@ import java.time.Instant;
 import java.util.UUID;
 
 @Entity
+@EntityListeners(ReferenceDataListener.class)
 @Table(name = "users")
 @Data
 @Builder
@@ -20,7 +23,7 @@ import java.util.UUID;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     @Column(nullable = false, unique = true)
@@ -33,6 +36,11 @@ public class User {
     @Column(nullable = false)
     private Role role;
 
+    // Maintained by CalendarFeedVersions only, so entity saves never overwrite a rotation
+    @ColumnDefault("0")
+    @Column(name = "calendar_feed_version", nullable = false, insertable = false, updatable = false)
+    private int calendarFeedVersion;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt;
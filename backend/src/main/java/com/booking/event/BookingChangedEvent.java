@@ -0,0 +1,47 @@
+package com.booking.event;
+
+import com.booking.entity.Booking;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Published inside the transaction that creates or changes a booking.
+ */
+public record BookingChangedEvent(
+        Type type,
+        UUID bookingId,
+        UUID resourceId,
+        UUID userId,
+        Instant startAt,
+        Instant endAt) {
+
+    // HOLD_CANCELLED is a hold cancelled before it was confirmed; CANCELLED is always a booking
+    public enum Type {
+        CREATED, HELD, CONFIRMED, CANCELLED, HOLD_CANCELLED, EXPIRED
+    }
+
+    public static BookingChangedEvent of(Type type, Booking booking) {
+        return new BookingChangedEvent(
+                type,
+                booking.getId(),
+                booking.getResource().getId(),
+                booking.getUser().getId(),
+                booking.getStartAt(),
+                booking.getEndAt());
+    }
+
+    public List<LocalDate> utcDates() {
+        LocalDate first = LocalDate.ofInstant(startAt, ZoneOffset.UTC);
+        LocalDate last = LocalDate.ofInstant(endAt.minusNanos(1), ZoneOffset.UTC);
+        List<LocalDate> dates = new ArrayList<>();
+        for (LocalDate date = first; !date.isAfter(last); date = date.plusDays(1)) {
+            dates.add(date);
+        }
+        return dates;
+    }
+}
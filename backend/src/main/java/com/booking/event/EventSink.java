@@ -0,0 +1,15 @@
+package com.booking.event;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destination for relayed outbox events. A batch counts as delivered only if
+ * {@link #publish} returns normally; otherwise it is retried on the next relay run.
+ */
+public interface EventSink {
+
+    String name();
+
+    void publish(List<OutboxMessage> batch) throws IOException;
+}
@@ -0,0 +1,35 @@
+package com.booking.event;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps relayed events in memory; used by tests and local runs without a downstream.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.sink", havingValue = "memory")
+public class InMemoryEventSink implements EventSink {
+
+    private final List<OutboxMessage> published = new ArrayList<>();
+
+    @Override
+    public String name() {
+        return "memory";
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxMessage> batch) {
+        published.addAll(batch);
+    }
+
+    public synchronized List<OutboxMessage> published() {
+        return List.copyOf(published);
+    }
+
+    public synchronized void clear() {
+        published.clear();
+    }
+}
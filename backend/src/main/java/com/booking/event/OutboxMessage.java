@@ -0,0 +1,21 @@
+package com.booking.event;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * An outbox row as handed to an {@link EventSink}. The eventId is unique across shards and
+ * stable across redeliveries, so consumers use it to drop duplicates. The id only orders
+ * events within one shard; every shard has its own sequence, so ids repeat across shards.
+ */
+public record OutboxMessage(
+        UUID eventId,
+        long id,
+        String aggregateType,
+        UUID aggregateId,
+        String eventType,
+        @JsonRawValue String payload,
+        Instant createdAt) {
+}
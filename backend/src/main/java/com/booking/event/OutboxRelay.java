@@ -0,0 +1,149 @@
+package com.booking.event;
+
+import com.booking.sharding.ShardRouter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Array;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Drains unpublished outbox events to the configured sink in id order. Every node runs a
+ * relay, but each batch first takes a transaction-scoped advisory lock per sink on the
+ * shard, so only one relay drains a shard at a time and batches reach the sink in order;
+ * the others skip the shard until the next poll. A batch is claimed, delivered, then
+ * marked published in the same transaction, so a failed delivery simply leaves the rows
+ * for the next run (at-least-once).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.outbox.relay.enabled", havingValue = "true")
+public class OutboxRelay {
+
+    // First key of the two-key advisory lock form; ResourceAdvisoryLock uses 1
+    static final int LOCK_NAMESPACE = 2;
+
+    private static final String TRY_LOCK_SQL = "SELECT pg_try_advisory_xact_lock(?, hashtext(?))";
+
+    private static final String CLAIM_BATCH_SQL = """
+            SELECT event_id, id, aggregate_type, aggregate_id, event_type, payload, created_at
+            FROM outbox_events
+            WHERE published_at IS NULL
+            ORDER BY id
+            LIMIT ?
+            """;
+
+    private static final String MARK_PUBLISHED_SQL =
+            "UPDATE outbox_events SET published_at = NOW() WHERE id = ANY(?)";
+
+    private static final String ADVANCE_OFFSET_SQL = """
+            INSERT INTO outbox_offsets (sink, last_event_id, updated_at)
+            VALUES (?, ?, NOW())
+            ON CONFLICT (sink) DO UPDATE
+            SET last_event_id = GREATEST(outbox_offsets.last_event_id, EXCLUDED.last_event_id),
+                updated_at = NOW()
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EventSink sink;
+    private final ShardRouter shardRouter;
+
+    @Value("${app.outbox.relay.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.outbox.relay.max-batches-per-run:50}")
+    private int maxBatchesPerRun;
+
+    @Value("${app.outbox.retention-hours:72}")
+    private long retentionHours;
+
+    @Scheduled(fixedDelayString = "${app.outbox.relay.poll-interval-ms:500}")
+    public void relay() {
+        shardRouter.forEachShard(this::relayShard);
+    }
+
+    // Event ids are per shard and one relay drains a shard at a time, so ordering holds per
+    // shard and thus per resource
+    private void relayShard() {
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            int delivered;
+            try {
+                Integer count = transactionTemplate.execute(status -> relayBatch());
+                delivered = count == null ? 0 : count;
+            } catch (RuntimeException ex) {
+                log.warn("Outbox delivery to {} failed, retrying on next run: {}", sink.name(), ex.getMessage());
+                return;
+            }
+            if (delivered < batchSize) {
+                return;
+            }
+        }
+    }
+
+    @Scheduled(cron = "${app.outbox.purge-cron:0 15 * * * *}", zone = "UTC")
+    public void purgePublished() {
+        shardRouter.forEachShard(this::purgeShard);
+    }
+
+    private void purgeShard() {
+        Instant cutoff = Instant.now().minus(retentionHours, ChronoUnit.HOURS);
+        int purged = jdbcTemplate.update(
+                "DELETE FROM outbox_events WHERE published_at < ?", Timestamp.from(cutoff));
+        if (purged > 0) {
+            log.info("Purged {} published outbox events", purged);
+        }
+    }
+
+    private int relayBatch() {
+        if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(TRY_LOCK_SQL, Boolean.class, LOCK_NAMESPACE, sink.name()))) {
+            log.debug("Another relay is draining this shard to {}", sink.name());
+            return 0;
+        }
+
+        List<OutboxMessage> messages = jdbcTemplate.query(
+                CLAIM_BATCH_SQL,
+                (rs, rowNum) -> new OutboxMessage(
+                        rs.getObject("event_id", UUID.class),
+                        rs.getLong("id"),
+                        rs.getString("aggregate_type"),
+                        rs.getObject("aggregate_id", UUID.class),
+                        rs.getString("event_type"),
+                        rs.getString("payload"),
+                        rs.getTimestamp("created_at").toInstant()),
+                batchSize);
+
+        if (messages.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            sink.publish(messages);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        Long[] ids = messages.stream().map(OutboxMessage::id).toArray(Long[]::new);
+        jdbcTemplate.update(MARK_PUBLISHED_SQL, ps -> {
+            Array array = ps.getConnection().createArrayOf("bigint", ids);
+            ps.setArray(1, array);
+        });
+        jdbcTemplate.update(ADVANCE_OFFSET_SQL, sink.name(), ids[ids.length - 1]);
+
+        log.debug("Relayed {} outbox events to {}", messages.size(), sink.name());
+        return messages.size();
+    }
+}
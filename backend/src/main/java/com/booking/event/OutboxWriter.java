@@ -0,0 +1,48 @@
+package com.booking.event;
+
+import com.booking.entity.OutboxEvent;
+import com.booking.entity.UuidV7Generator;
+import com.booking.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Locale;
+
+/**
+ * Records booking events in outbox_events as part of the transaction that produced them,
+ * so an event exists if and only if the change was committed.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxWriter {
+
+    static final String BOOKING_AGGREGATE = "booking";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onBookingChanged(BookingChangedEvent event) {
+        outboxEventRepository.save(OutboxEvent.builder()
+                .eventId(UuidV7Generator.next())
+                .aggregateType(BOOKING_AGGREGATE)
+                .aggregateId(event.bookingId())
+                .eventType(BOOKING_AGGREGATE + "." + event.type().name().toLowerCase(Locale.ROOT))
+                .payload(toJson(event))
+                .build());
+    }
+
+    private String toJson(BookingChangedEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize booking event", ex);
+        }
+    }
+}
@@ -0,0 +1,536 @@
+package com.booking.importer;
+
+import com.booking.dto.importer.ImportReport;
+import com.booking.dto.resource.ResourceRequest;
+import com.booking.entity.Booking;
+import com.booking.entity.Resource;
+import com.booking.entity.User;
+import com.booking.event.BookingChangedEvent;
+import com.booking.exception.BookingException;
+import com.booking.repository.BookingRepository;
+import com.booking.repository.ResourceRepository;
+import com.booking.repository.UserRepository;
+import com.booking.service.BookingWindows;
+import com.booking.service.HoldExpiryService;
+import com.booking.service.ResourceAdvisoryLock;
+import com.booking.service.ResourceAttributeIndex;
+import com.booking.service.ResourceCache;
+import com.booking.sharding.ShardRouter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Loads resources and historical bookings from CSV or NDJSON uploads. Rows are validated as
+ * they stream in and written in batches through Hibernate's JDBC batching; a batch that fails
+ * is retried row by row, so the report names every row that was not imported and why.
+ *
+ * Each imported booking publishes the same events as the live path, inside the transaction
+ * that writes it: CREATED, followed by CANCELLED for a booking imported as cancelled. The
+ * outbox, the utilization rollup and the caches therefore see imports like any other write.
+ * Each booking batch also takes the same per-resource advisory lock and re-checks its active
+ * rows against the stored bookings before writing them.
+ */
+@Slf4j
+@Service
+public class BulkImportService {
+
+    private final ResourceRepository resourceRepository;
+    private final BookingRepository bookingRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ResourceCache resourceCache;
+    private final ResourceAdvisoryLock resourceAdvisoryLock;
+    private final HoldExpiryService holdExpiryService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+    private final int maxRows;
+    private final int maxErrors;
+    private final Duration maxDuration;
+
+    public BulkImportService(
+            ResourceRepository resourceRepository,
+            BookingRepository bookingRepository,
+            UserRepository userRepository,
+            TransactionTemplate transactionTemplate,
+            ShardRouter shardRouter,
+            Validator validator,
+            ObjectMapper objectMapper,
+            ResourceCache resourceCache,
+            ResourceAdvisoryLock resourceAdvisoryLock,
+            HoldExpiryService holdExpiryService,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${app.import.batch-size:500}") int batchSize,
+            @Value("${app.import.max-rows:500000}") int maxRows,
+            @Value("${app.import.max-errors:1000}") int maxErrors,
+            @Value("${app.booking.max-duration-hours:8}") int maxDurationHours) {
+        this.resourceRepository = resourceRepository;
+        this.bookingRepository = bookingRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.shardRouter = shardRouter;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.resourceCache = resourceCache;
+        this.resourceAdvisoryLock = resourceAdvisoryLock;
+        this.holdExpiryService = holdExpiryService;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+        this.maxRows = maxRows;
+        this.maxErrors = maxErrors;
+        this.maxDuration = Duration.ofHours(maxDurationHours);
+    }
+
+    /**
+     * Columns: name, description, active, capacity, tags (separated by ';', or a JSON array in
+     * NDJSON). Resources are
+     * written as they arrive, so an upload over the row limit is not rejected as a whole: the
+     * rows up to the limit are imported and the report flags the rest as not read.
+     */
+    public ImportReport importResources(InputStream body, MediaType contentType) {
+        Report report = new Report("resources");
+        List<Row<ResourceRequest>> batch = new ArrayList<>(batchSize);
+
+        long firstUnread = readRows(body, contentType, report, row -> {
+            ResourceRequest request;
+            try {
+                request = ResourceRequest.builder()
+                        .name(row.get("name"))
+                        .description(row.get("description"))
+                        .active(row.get("active") == null ? null : Boolean.parseBoolean(row.get("active")))
+                        .capacity(parseCapacity(row.get("capacity")))
+                        .tags(parseTags(row.get("tags")))
+                        .build();
+            } catch (RowException ex) {
+                report.reject(row.row(), ex.getMessage());
+                return;
+            }
+            Optional<String> violation = validator.validate(request).stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .findFirst();
+            if (violation.isPresent()) {
+                report.reject(row.row(), violation.get());
+                return;
+            }
+
+            batch.add(new Row<>(row.row(), request));
+            if (batch.size() >= batchSize) {
+                write(batch, rows -> { }, this::toResource, resourceRepository, report, saved -> { });
+                batch.clear();
+            }
+        });
+        write(batch, rows -> { }, this::toResource, resourceRepository, report, saved -> { });
+        if (firstUnread > 0) {
+            report.rowLimitReached = true;
+            report.reject(firstUnread, String.format(
+                    "Uploads are limited to %d rows; this row and the ones after it were not read", maxRows));
+        }
+        if (report.imported > 0) {
+            resourceCache.invalidateAll();
+        }
+
+        return report.finish();
+    }
+
+    /**
+     * Columns: resourceId or resourceName, userEmail, startAt, endAt, status (ACTIVE or
+     * CANCELLED, default ACTIVE), notes. All rows are validated first; active bookings are
+     * then sorted per resource and swept against each other and the bookings already stored,
+     * so overlaps are rejected per row before anything is written. That includes the row
+     * limit: an upload over it is rejected as a whole.
+     */
+    public ImportReport importBookings(InputStream body, MediaType contentType) {
+        Report report = new Report("bookings");
+        Lookups lookups = new Lookups();
+        List<PendingBooking> pending = new ArrayList<>();
+
+        long firstUnread = readRows(body, contentType, report,
+                row -> parseBooking(row, lookups, report).ifPresent(pending::add));
+        if (firstUnread > 0) {
+            throw BookingException.badRequest(
+                    String.format("Uploads are limited to %d rows; split the file", maxRows),
+                    "IMPORT_TOO_LARGE"
+            );
+        }
+
+        List<PendingBooking> accepted = rejectOverlaps(pending, report);
+        accepted.sort(Comparator.comparing(PendingBooking::resourceId).thenComparing(PendingBooking::startAt));
+
+        // A batch never mixes shards; each shard's rows are written while routed to it
+        Map<Integer, List<PendingBooking>> byShard = accepted.stream().collect(Collectors.groupingBy(
+                booking -> shardRouter.shardFor(booking.resourceId()), TreeMap::new, Collectors.toList()));
+        byShard.forEach((shard, bookings) -> shardRouter.onShard(shard, () -> {
+            List<Row<PendingBooking>> batch = new ArrayList<>(batchSize);
+            for (PendingBooking booking : bookings) {
+                batch.add(new Row<>(booking.row(), booking));
+                if (batch.size() >= batchSize) {
+                    write(batch, this::lockAndRecheck, this::toBooking, bookingRepository, report, this::publishImported);
+                    batch.clear();
+                }
+            }
+            write(batch, this::lockAndRecheck, this::toBooking, bookingRepository, report, this::publishImported);
+        }));
+
+        return report.finish();
+    }
+
+    // Returns the number of the first row past the row limit, or 0 when the whole upload was read
+    private long readRows(InputStream body, MediaType contentType, Report report, Consumer<ImportRow> handler) {
+        try (ImportRowReader reader = ImportRowReader.open(body, contentType, objectMapper)) {
+            ImportRow row;
+            while ((row = reader.next()) != null) {
+                if (report.rowsRead >= maxRows) {
+                    return row.row();
+                }
+                report.rowsRead++;
+                if (row.parseError() != null) {
+                    report.reject(row.row(), row.parseError());
+                } else {
+                    handler.accept(row);
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not read import upload", ex);
+        }
+        return 0;
+    }
+
+    private Optional<PendingBooking> parseBooking(ImportRow row, Lookups lookups, Report report) {
+        try {
+            UUID resourceId = lookups.resourceId(row);
+            UUID userId = lookups.userId(required(row, "userEmail"));
+            Instant startAt = parseInstant(required(row, "startAt"), "startAt");
+            Instant endAt = parseInstant(required(row, "endAt"), "endAt");
+            if (!startAt.isBefore(endAt)) {
+                throw new RowException("startAt must be before endAt");
+            }
+            if (BookingWindows.exceedsMaxDuration(startAt, endAt, maxDuration)) {
+                throw new RowException(String.format("Bookings cannot exceed %d hours", maxDuration.toHours()));
+            }
+
+            Booking.Status status = parseStatus(row.get("status"));
+            String notes = row.get("notes");
+            if (notes != null && notes.length() > 1000) {
+                throw new RowException("Notes must not exceed 1000 characters");
+            }
+            return Optional.of(new PendingBooking(row.row(), resourceId, userId, startAt, endAt, status, notes));
+        } catch (RowException ex) {
+            report.reject(row.row(), ex.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private List<PendingBooking> rejectOverlaps(List<PendingBooking> pending, Report report) {
+        List<PendingBooking> accepted = new ArrayList<>();
+        Map<UUID, List<PendingBooking>> activeByResource = new HashMap<>();
+        for (PendingBooking booking : pending) {
+            if (booking.status() == Booking.Status.ACTIVE) {
+                activeByResource.computeIfAbsent(booking.resourceId(), id -> new ArrayList<>()).add(booking);
+            } else {
+                accepted.add(booking);
+            }
+        }
+
+        activeByResource.forEach((resourceId, bookings) -> {
+            bookings.sort(Comparator.comparing(PendingBooking::startAt).thenComparingLong(PendingBooking::row));
+            Instant from = bookings.get(0).startAt();
+            Instant to = bookings.stream().map(PendingBooking::endAt).max(Comparator.naturalOrder()).orElseThrow();
+            List<Booking> existing = new ArrayList<>(shardRouter.read(resourceId,
+                    () -> bookingRepository.findOverlappingBookings(resourceId, from, to,
+                            BookingWindows.earliestOverlappingStart(from))));
+            existing.sort(Comparator.comparing(Booking::getStartAt));
+
+            // Merge both sorted lists; an import row is kept only if it starts after everything before it ends
+            Instant blockedUntil = Instant.MIN;
+            String blockedBy = null;
+            int next = 0;
+            for (PendingBooking booking : bookings) {
+                while (next < existing.size() && !existing.get(next).getStartAt().isAfter(booking.startAt())) {
+                    Booking stored = existing.get(next++);
+                    if (stored.getEndAt().isAfter(blockedUntil)) {
+                        blockedUntil = stored.getEndAt();
+                        blockedBy = "existing booking " + stored.getId();
+                    }
+                }
+                if (next < existing.size() && existing.get(next).getStartAt().isBefore(booking.endAt())) {
+                    report.reject(booking.row(), "Overlaps existing booking " + existing.get(next).getId());
+                } else if (booking.startAt().isBefore(blockedUntil)) {
+                    report.reject(booking.row(), "Overlaps " + blockedBy);
+                } else {
+                    accepted.add(booking);
+                    blockedUntil = booking.endAt();
+                    blockedBy = "row " + booking.row();
+                }
+            }
+        });
+        return accepted;
+    }
+
+    // Entities are built inside the transaction, so a retried row never reuses state from a failed flush.
+    // beforeSave and onSaved run in the same transaction, before the entities are built and after the flush.
+    private <T, E> void write(List<Row<T>> batch, Consumer<List<T>> beforeSave, Function<T, E> toEntity,
+                              JpaRepository<E, UUID> repository, Report report, Consumer<List<E>> onSaved) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(tx -> {
+                beforeSave.accept(batch.stream().map(Row::value).toList());
+                List<E> entities = batch.stream().map(row -> toEntity.apply(row.value())).toList();
+                repository.saveAll(entities);
+                repository.flush();
+                onSaved.accept(entities);
+            });
+            report.imported += batch.size();
+        } catch (RuntimeException batchFailure) {
+            log.debug("Import batch of {} failed, retrying row by row: {}", batch.size(), batchFailure.getMessage());
+            for (Row<T> row : batch) {
+                try {
+                    transactionTemplate.executeWithoutResult(tx -> {
+                        beforeSave.accept(List.of(row.value()));
+                        E entity = toEntity.apply(row.value());
+                        repository.save(entity);
+                        repository.flush();
+                        onSaved.accept(List.of(entity));
+                    });
+                    report.imported++;
+                } catch (RuntimeException ex) {
+                    report.reject(row.row(), rootMessage(ex));
+                }
+            }
+        }
+    }
+
+    // rejectOverlaps read the stored bookings without a lock, so another node may have taken a
+    // slot since; each resource is locked as in BookingService, in id order, and checked again
+    private void lockAndRecheck(List<PendingBooking> bookings) {
+        Map<UUID, List<PendingBooking>> active = bookings.stream()
+                .filter(booking -> booking.status() == Booking.Status.ACTIVE)
+                .collect(Collectors.groupingBy(PendingBooking::resourceId, TreeMap::new, Collectors.toList()));
+        bookings.stream().map(PendingBooking::resourceId).distinct().sorted().forEach(resourceAdvisoryLock::lock);
+        active.forEach((resourceId, rows) -> holdExpiryService.releaseExpiredOverlapping(resourceId,
+                rows.stream().map(PendingBooking::startAt).min(Comparator.naturalOrder()).orElseThrow(),
+                rows.stream().map(PendingBooking::endAt).max(Comparator.naturalOrder()).orElseThrow()));
+        for (PendingBooking booking : bookings) {
+            if (booking.status() == Booking.Status.ACTIVE && bookingRepository.existsOverlappingBooking(
+                    booking.resourceId(), booking.startAt(), booking.endAt(),
+                    BookingWindows.earliestOverlappingStart(booking.startAt()))) {
+                throw new RowException("Overlaps a booking stored during the import");
+            }
+        }
+    }
+
+    private Resource toResource(ResourceRequest request) {
+        return Resource.builder()
+                .name(request.getName().trim())
+                .description(request.getDescription())
+                .active(request.getActive() == null || request.getActive())
+                .capacity(request.getCapacity())
+                .tags(ResourceAttributeIndex.normalizeTags(request.getTags()))
+                .build();
+    }
+
+    private Booking toBooking(PendingBooking booking) {
+        return Booking.builder()
+                .resource(resourceRepository.getReferenceById(booking.resourceId()))
+                .user(userRepository.getReferenceById(booking.userId()))
+                .startAt(booking.startAt())
+                .endAt(booking.endAt())
+                .status(booking.status())
+                .notes(booking.notes())
+                .build();
+    }
+
+    // A cancelled row is a booking that was created and then cancelled, so the rollup nets it to zero
+    private void publishImported(List<Booking> bookings) {
+        for (Booking booking : bookings) {
+            eventPublisher.publishEvent(BookingChangedEvent.of(BookingChangedEvent.Type.CREATED, booking));
+            if (booking.getStatus() == Booking.Status.CANCELLED) {
+                eventPublisher.publishEvent(BookingChangedEvent.of(BookingChangedEvent.Type.CANCELLED, booking));
+            }
+        }
+    }
+
+    private static String required(ImportRow row, String column) {
+        String value = row.get(column);
+        if (value == null || value.isBlank()) {
+            throw new RowException(column + " is required");
+        }
+        return value.trim();
+    }
+
+    private static Integer parseCapacity(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value.trim());
+        } catch (NumberFormatException ex) {
+            throw new RowException("capacity must be a whole number");
+        }
+    }
+
+    private static List<String> parseTags(String value) {
+        if (value == null) {
+            return null;
+        }
+        return Arrays.stream(value.split(";"))
+                .map(String::trim)
+                .filter(tag -> !tag.isEmpty())
+                .toList();
+    }
+
+    private static Instant parseInstant(String value, String column) {
+        try {
+            return OffsetDateTime.parse(value).toInstant();
+        } catch (DateTimeParseException ex) {
+            throw new RowException(column + " must be an ISO-8601 timestamp with offset, e.g. 2024-05-01T09:00:00Z");
+        }
+    }
+
+    private static Booking.Status parseStatus(String value) {
+        if (value == null || value.isBlank()) {
+            return Booking.Status.ACTIVE;
+        }
+        return switch (value.trim().toUpperCase(Locale.ROOT)) {
+            case "ACTIVE" -> Booking.Status.ACTIVE;
+            case "CANCELLED" -> Booking.Status.CANCELLED;
+            default -> throw new RowException("status must be ACTIVE or CANCELLED");
+        };
+    }
+
+    private static String rootMessage(Throwable ex) {
+        Throwable root = ex;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+
+    /**
+     * Resolves resource and user references once per import rather than once per row.
+     */
+    private final class Lookups {
+
+        private Map<String, List<UUID>> resourcesByName;
+        private final Map<UUID, Boolean> knownResources = new HashMap<>();
+        private final Map<String, Optional<UUID>> usersByEmail = new HashMap<>();
+
+        UUID resourceId(ImportRow row) {
+            String id = row.get("resourceId");
+            if (id != null) {
+                UUID resourceId;
+                try {
+                    resourceId = UUID.fromString(id.trim());
+                } catch (IllegalArgumentException ex) {
+                    throw new RowException("resourceId is not a valid UUID");
+                }
+                if (!knownResources.computeIfAbsent(resourceId, resourceRepository::existsById)) {
+                    throw new RowException("Resource " + resourceId + " does not exist");
+                }
+                return resourceId;
+            }
+
+            String name = required(row, "resourceName");
+            if (resourcesByName == null) {
+                resourcesByName = resourceRepository.findAll().stream().collect(Collectors.groupingBy(
+                        resource -> resource.getName().toLowerCase(Locale.ROOT),
+                        Collectors.mapping(Resource::getId, Collectors.toList())));
+            }
+            List<UUID> matches = resourcesByName.getOrDefault(name.toLowerCase(Locale.ROOT), List.of());
+            if (matches.size() != 1) {
+                throw new RowException(matches.isEmpty()
+                        ? "No resource named '" + name + "'"
+                        : "Resource name '" + name + "' is ambiguous; use resourceId");
+            }
+            return matches.get(0);
+        }
+
+        UUID userId(String email) {
+            return usersByEmail.computeIfAbsent(email.toLowerCase(Locale.ROOT),
+                            key -> userRepository.findByEmail(key).map(User::getId))
+                    .orElseThrow(() -> new RowException("No user with email " + email));
+        }
+    }
+
+    private final class Report {
+
+        private final String type;
+        private final long startedNanos = System.nanoTime();
+        private final List<ImportReport.RowError> errors = new ArrayList<>();
+        private long rowsRead;
+        private long imported;
+        private long failed;
+        private boolean rowLimitReached;
+
+        Report(String type) {
+            this.type = type;
+        }
+
+        void reject(long row, String message) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                errors.add(new ImportReport.RowError(row, message));
+            }
+        }
+
+        ImportReport finish() {
+            errors.sort(Comparator.comparingLong(ImportReport.RowError::getRow));
+            return ImportReport.builder()
+                    .type(type)
+                    .rowsRead(rowsRead)
+                    .imported(imported)
+                    .failed(failed)
+                    .elapsedMs((System.nanoTime() - startedNanos) / 1_000_000)
+                    .errors(errors)
+                    .errorsTruncated(failed > errors.size())
+                    .rowLimitReached(rowLimitReached)
+                    .build();
+        }
+    }
+
+    private record Row<T>(long row, T value) {
+    }
+
+    private record PendingBooking(long row, UUID resourceId, UUID userId, Instant startAt, Instant endAt,
+                                  Booking.Status status, String notes) {
+    }
+
+    private static final class RowException extends RuntimeException {
+        RowException(String message) {
+            super(message, null, false, false);
+        }
+    }
+}
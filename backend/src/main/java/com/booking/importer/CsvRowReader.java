@@ -0,0 +1,105 @@
+package com.booking.importer;
+
+import com.booking.exception.BookingException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RFC 4180 CSV with a header row. Quoted fields may contain commas, doubled quotes and line
+ * breaks; empty fields are treated as missing.
+ */
+final class CsvRowReader implements ImportRowReader {
+
+    private static final char BOM = '\uFEFF';
+
+    private final Reader reader;
+    private final List<String> headers;
+    private long row;
+
+    CsvRowReader(Reader reader) throws IOException {
+        this.reader = reader;
+        List<String> header = readRecord();
+        if (header == null) {
+            throw BookingException.badRequest("The upload is empty", "INVALID_IMPORT");
+        }
+        if (!header.isEmpty() && !header.get(0).isEmpty() && header.get(0).charAt(0) == BOM) {
+            header.set(0, header.get(0).substring(1));
+        }
+        this.headers = header.stream().map(String::trim).toList();
+    }
+
+    @Override
+    public ImportRow next() throws IOException {
+        while (true) {
+            List<String> fields = readRecord();
+            if (fields == null) {
+                return null;
+            }
+            if (fields.size() == 1 && fields.get(0).isBlank()) {
+                continue;
+            }
+
+            row++;
+            if (fields.size() != headers.size()) {
+                return ImportRow.malformed(row, String.format(
+                        "Expected %d columns but found %d", headers.size(), fields.size()));
+            }
+            Map<String, String> values = new HashMap<>();
+            for (int i = 0; i < fields.size(); i++) {
+                if (!fields.get(i).isEmpty()) {
+                    values.put(headers.get(i), fields.get(i));
+                }
+            }
+            return ImportRow.of(row, values);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private List<String> readRecord() throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    fields.add(field.toString());
+                    return fields;
+                }
+                if (c == '"') {
+                    int next = reader.read();
+                    if (next != '"') {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                }
+                field.append((char) c);
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                fields.add(field.toString());
+                return fields;
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+    }
+}
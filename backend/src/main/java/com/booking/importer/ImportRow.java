@@ -0,0 +1,22 @@
+package com.booking.importer;
+
+import java.util.Map;
+
+/**
+ * One data row of an upload, numbered from 1 after the header. Rows that could not be
+ * parsed carry the reason instead of values.
+ */
+public record ImportRow(long row, Map<String, String> values, String parseError) {
+
+    static ImportRow of(long row, Map<String, String> values) {
+        return new ImportRow(row, values, null);
+    }
+
+    static ImportRow malformed(long row, String parseError) {
+        return new ImportRow(row, Map.of(), parseError);
+    }
+
+    public String get(String column) {
+        return values.get(column);
+    }
+}
@@ -0,0 +1,44 @@
+package com.booking.importer;
+
+import com.booking.exception.BookingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Pulls rows one at a time from an upload, so a file is never held in memory as a whole.
+ */
+public interface ImportRowReader extends Closeable {
+
+    MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+    MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    /**
+     * Returns the next row, or null at the end of the upload.
+     */
+    ImportRow next() throws IOException;
+
+    static ImportRowReader open(InputStream body, MediaType contentType, ObjectMapper objectMapper)
+            throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(
+                body, contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8));
+        if (TEXT_CSV.includes(contentType)) {
+            return new CsvRowReader(reader);
+        }
+        if (APPLICATION_NDJSON.includes(contentType)) {
+            return new NdjsonRowReader(reader, objectMapper);
+        }
+        throw new BookingException(
+                "Uploads must be text/csv or application/x-ndjson",
+                "UNSUPPORTED_IMPORT_FORMAT",
+                HttpStatus.UNSUPPORTED_MEDIA_TYPE
+        );
+    }
+}
@@ -0,0 +1,84 @@
+package com.booking.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * One JSON object per line. Scalar values are read as text so both formats share the same
+ * row validation; an array of scalars is joined with ';', the CSV list separator. Other
+ * nested values reject the row. Blank lines are skipped.
+ */
+final class NdjsonRowReader implements ImportRowReader {
+
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+    private long row;
+
+    NdjsonRowReader(BufferedReader reader, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public ImportRow next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank());
+
+        row++;
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (JsonProcessingException ex) {
+            return ImportRow.malformed(row, "Invalid JSON: " + ex.getOriginalMessage());
+        }
+        if (!node.isObject()) {
+            return ImportRow.malformed(row, "Each line must be a JSON object");
+        }
+
+        Map<String, String> values = new HashMap<>();
+        for (Iterator<Map.Entry<String, JsonNode>> fields = node.fields(); fields.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            JsonNode value = field.getValue();
+            if (value.isNull()) {
+                continue;
+            }
+            if (value.isValueNode()) {
+                values.put(field.getKey(), value.asText());
+            } else if (value.isArray() && allScalar(value)) {
+                StringJoiner joined = new StringJoiner(";");
+                value.forEach(element -> joined.add(element.asText()));
+                values.put(field.getKey(), joined.toString());
+            } else {
+                return ImportRow.malformed(row, field.getKey() + " must be a string, number, boolean or array of those");
+            }
+        }
+        return ImportRow.of(row, values);
+    }
+
+    private static boolean allScalar(JsonNode array) {
+        for (JsonNode element : array) {
+            if (!element.isValueNode() || element.isNull()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
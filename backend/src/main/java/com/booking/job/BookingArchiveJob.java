@@ -0,0 +1,134 @@
+package com.booking.job;
+
+import com.booking.sharding.ShardRouter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Moves finished and cancelled bookings into bookings_archive in small keyset-ordered
+ * batches. Each batch is a single statement that locks its rows with SKIP LOCKED, so
+ * bookings touched by live requests are simply picked up on a later run.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.archive.enabled", havingValue = "true")
+public class BookingArchiveJob {
+
+    private static final String ARCHIVE_BATCH_SQL = """
+            WITH batch AS (
+                SELECT id, start_at FROM bookings
+                WHERE (start_at, id) > (?, ?)
+                  AND (end_at < ? OR (status = 'CANCELLED' AND updated_at < ?))
+                ORDER BY start_at, id
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            ), moved AS (
+                DELETE FROM bookings b
+                USING batch
+                WHERE b.id = batch.id AND b.start_at = batch.start_at
+                RETURNING b.id, b.user_id, b.resource_id, b.start_at, b.end_at,
+                          b.status, b.notes, b.created_at, b.updated_at
+            )
+            INSERT INTO bookings_archive (id, user_id, resource_id, start_at, end_at,
+                                          status, notes, created_at, updated_at, archived_at)
+            SELECT id, user_id, resource_id, start_at, end_at,
+                   status, notes, created_at, updated_at, NOW()
+            FROM moved
+            RETURNING start_at, id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardRouter shardRouter;
+
+    @Value("${app.archive.retention-days:180}")
+    private int retentionDays;
+
+    @Value("${app.archive.cancelled-retention-days:30}")
+    private int cancelledRetentionDays;
+
+    @Value("${app.archive.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.archive.max-batches-per-run:200}")
+    private int maxBatchesPerRun;
+
+    @Value("${app.archive.pause-between-batches-ms:50}")
+    private long pauseBetweenBatchesMs;
+
+    @Scheduled(cron = "${app.archive.cron:0 30 3 * * *}", zone = "UTC")
+    public void archive() {
+        shardRouter.forEachShard(this::archiveShard);
+    }
+
+    private void archiveShard() {
+        Instant now = Instant.now();
+        OffsetDateTime finishedBefore = toOffset(now.minus(retentionDays, ChronoUnit.DAYS));
+        OffsetDateTime cancelledBefore = toOffset(now.minus(cancelledRetentionDays, ChronoUnit.DAYS));
+
+        OffsetDateTime lastStartAt = toOffset(Instant.EPOCH);
+        UUID lastId = new UUID(0L, 0L);
+        long archived = 0;
+
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            List<ArchivedKey> keys = jdbcTemplate.query(
+                    ARCHIVE_BATCH_SQL,
+                    (rs, rowNum) -> new ArchivedKey(
+                            rs.getObject("start_at", OffsetDateTime.class),
+                            rs.getObject("id", UUID.class)),
+                    lastStartAt, lastId, finishedBefore, cancelledBefore, batchSize);
+
+            if (keys.isEmpty()) {
+                break;
+            }
+
+            ArchivedKey last = keys.stream()
+                    .max(ArchivedKey.ORDER)
+                    .orElseThrow();
+            lastStartAt = last.startAt();
+            lastId = last.id();
+            archived += keys.size();
+
+            pause();
+        }
+
+        if (archived > 0) {
+            log.info("Archived {} bookings", archived);
+        }
+    }
+
+    private void pause() {
+        if (pauseBetweenBatchesMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(pauseBetweenBatchesMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static OffsetDateTime toOffset(Instant instant) {
+        return instant.atOffset(ZoneOffset.UTC);
+    }
+
+    private record ArchivedKey(OffsetDateTime startAt, UUID id) {
+        // PostgreSQL orders UUIDs as unsigned bytes, which matches their string form
+        static final Comparator<ArchivedKey> ORDER = Comparator
+                .comparing(ArchivedKey::startAt)
+                .thenComparing(key -> key.id().toString());
+    }
+}
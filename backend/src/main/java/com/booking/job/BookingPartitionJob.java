@@ -0,0 +1,69 @@
+package com.booking.job;
+
+import com.booking.sharding.ShardRouter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Keeps the monthly partitions of the bookings table ahead of time and detaches
+ * partitions that fall outside the retention window.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.partitioning.enabled", havingValue = "true")
+public class BookingPartitionJob {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardRouter shardRouter;
+
+    @Value("${app.partitioning.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${app.partitioning.retention-months:24}")
+    private int retentionMonths;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintainPartitions();
+    }
+
+    @Scheduled(cron = "${app.partitioning.cron:0 0 3 * * *}", zone = "UTC")
+    public void maintainPartitions() {
+        shardRouter.forEachShard(this::maintainShardPartitions);
+    }
+
+    private void maintainShardPartitions() {
+        LocalDate currentMonth = LocalDate.now(ZoneOffset.UTC).withDayOfMonth(1);
+
+        for (int i = 0; i <= monthsAhead; i++) {
+            String created = jdbcTemplate.queryForObject(
+                    "SELECT create_bookings_partition(?)",
+                    String.class,
+                    Date.valueOf(currentMonth.plusMonths(i)));
+            if (created != null) {
+                log.info("Created bookings partition {}", created);
+            }
+        }
+
+        if (retentionMonths > 0) {
+            List<String> detached = jdbcTemplate.queryForList(
+                    "SELECT detach_bookings_partitions_before(?)",
+                    String.class,
+                    Date.valueOf(currentMonth.minusMonths(retentionMonths)));
+            detached.forEach(name -> log.info("Detached bookings partition {}", name));
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.booking.job;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hashed timing wheel: deadlines are bucketed into a ring of slots by tick, and each call
+ * to {@link #advance} walks only the slots between the previous tick and now. Scheduling and
+ * cancelling are O(1); entries due within the same tick are returned together.
+ *
+ * Deadlines further away than one revolution share a slot with nearer ones and are simply
+ * skipped until their own tick comes round.
+ */
+public class HashedTimingWheel<K> {
+
+    private final long tickMillis;
+    private final int mask;
+    private final List<Map<K, Long>> slots;
+    private final Map<K, Integer> slotOf = new HashMap<>();
+    private long currentTick;
+
+    public HashedTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("tickMillis and wheelSize must be positive");
+        }
+        int size = wheelSize == 1 ? 1 : Integer.highestOneBit(wheelSize - 1) << 1;
+        this.tickMillis = tickMillis;
+        this.mask = size - 1;
+        this.slots = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            slots.add(new HashMap<>());
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    public synchronized void schedule(K key, long deadlineMillis) {
+        cancel(key);
+        // Anything already due fires on the next advance
+        long deadlineTick = Math.max(ceilDiv(deadlineMillis, tickMillis), currentTick + 1);
+        int slot = (int) (deadlineTick & mask);
+        slots.get(slot).put(key, deadlineTick);
+        slotOf.put(key, slot);
+    }
+
+    public synchronized boolean cancel(K key) {
+        Integer slot = slotOf.remove(key);
+        return slot != null && slots.get(slot).remove(key) != null;
+    }
+
+    public synchronized List<K> advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        if (targetTick <= currentTick) {
+            return List.of();
+        }
+
+        List<K> expired = new ArrayList<>();
+        long ticks = Math.min(targetTick - currentTick, slots.size());
+        for (long i = 1; i <= ticks; i++) {
+            Map<K, Long> slot = slots.get((int) ((currentTick + i) & mask));
+            slot.entrySet().removeIf(entry -> {
+                if (entry.getValue() > targetTick) {
+                    return false;
+                }
+                expired.add(entry.getKey());
+                slotOf.remove(entry.getKey());
+                return true;
+            });
+        }
+        currentTick = targetTick;
+        return expired;
+    }
+
+    public synchronized int size() {
+        return slotOf.size();
+    }
+
+    private static long ceilDiv(long value, long divisor) {
+        return -Math.floorDiv(-value, divisor);
+    }
+}
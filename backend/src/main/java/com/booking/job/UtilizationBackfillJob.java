@@ -0,0 +1,85 @@
+package com.booking.job;
+
+import com.booking.service.BookingWindows;
+import com.booking.sharding.ShardRouter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Rebuilds resource_utilization_daily from bookings and bookings_archive, one UTC day per
+ * transaction so a long backfill never holds more than a day's rows locked. Bookings that
+ * commit while a day is being rebuilt are either in its snapshot or upsert onto the new row.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.utilization.enabled", havingValue = "true")
+public class UtilizationBackfillJob {
+
+    private static final String DELETE_DAY_SQL =
+            "DELETE FROM resource_utilization_daily WHERE usage_date = ?";
+
+    // Same slicing and per-booking minute flooring as UtilizationRollup
+    private static final String REBUILD_DAY_SQL = """
+            INSERT INTO resource_utilization_daily
+                (resource_id, usage_date, booked_minutes, booking_count, updated_at)
+            SELECT resource_id, ?,
+                   SUM(FLOOR(EXTRACT(EPOCH FROM LEAST(end_at, ?) - GREATEST(start_at, ?)) / 60))::BIGINT,
+                   COUNT(*) FILTER (WHERE start_at >= ?),
+                   NOW()
+            FROM (
+                SELECT resource_id, start_at, end_at FROM bookings
+                WHERE status = 'ACTIVE' AND start_at >= ? AND start_at < ? AND end_at > ?
+                UNION ALL
+                SELECT resource_id, start_at, end_at FROM bookings_archive
+                WHERE status = 'ACTIVE' AND start_at >= ? AND start_at < ? AND end_at > ?
+            ) day_bookings
+            GROUP BY resource_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+
+    public int backfill(LocalDate from, LocalDate to) {
+        int days = 0;
+        int rows = 0;
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            LocalDate day = date;
+            // Rollup rows live next to the bookings they summarize, so each shard rebuilds its own
+            AtomicInteger rebuilt = new AtomicInteger();
+            shardRouter.forEachShard(() -> rebuilt.addAndGet(rebuild(day)));
+            rows += rebuilt.get();
+            days++;
+        }
+        log.info("Rebuilt utilization for {} days from {} to {} ({} resource-days)", days, from, to, rows);
+        return days;
+    }
+
+    private int rebuild(LocalDate date) {
+        OffsetDateTime dayStart = date.atStartOfDay().atOffset(ZoneOffset.UTC);
+        OffsetDateTime dayEnd = dayStart.plusDays(1);
+        // Bounds start_at from below as well, so the scan stays within the partitions that can overlap the day
+        OffsetDateTime earliestStart = BookingWindows
+                .earliestOverlappingStart(dayStart.toInstant())
+                .atOffset(ZoneOffset.UTC);
+
+        Integer inserted = transactionTemplate.execute(status -> {
+            jdbcTemplate.update(DELETE_DAY_SQL, date);
+            return jdbcTemplate.update(REBUILD_DAY_SQL,
+                    date, dayEnd, dayStart, dayStart,
+                    earliestStart, dayEnd, dayStart,
+                    earliestStart, dayEnd, dayStart);
+        });
+        return inserted == null ? 0 : inserted;
+    }
+}
@@ -0,0 +1,43 @@
+package com.booking.reactive;
+
+import com.booking.dto.ErrorResponse;
+import com.booking.exception.BookingException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ServerWebInputException;
+
+@Slf4j
+@RestControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveExceptionHandler {
+
+    @ExceptionHandler(BookingException.class)
+    public ResponseEntity<ErrorResponse> handleBookingException(
+            BookingException ex, ServerHttpRequest request) {
+        log.warn("Booking exception: {} - {}", ex.getErrorCode(), ex.getMessage());
+
+        return ResponseEntity.status(ex.getStatus())
+                .body(ErrorResponse.of(request.getPath().value(), ex.getErrorCode(), ex.getMessage()));
+    }
+
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidInput(
+            ServerWebInputException ex, ServerHttpRequest request) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(ErrorResponse.of(request.getPath().value(), "INVALID_REQUEST", ex.getReason()));
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ErrorResponse> handleGenericException(
+            Exception ex, ServerHttpRequest request) {
+        log.error("Unexpected error", ex);
+
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(ErrorResponse.of(request.getPath().value(), "INTERNAL_ERROR", "An unexpected error occurred"));
+    }
+}
@@ -0,0 +1,48 @@
+package com.booking.reactive;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Read-only WebFlux application serving resources and availability from the same schema as
+ * {@link com.booking.BookingApplication}, over R2DBC, so a slow client holds a socket rather
+ * than a request thread and a JDBC connection. Writes, auth and admin stay on the main app;
+ * a proxy routes the GET endpoints below /api/resources here.
+ *
+ * Started from the same jar with
+ * {@code java -Dloader.main=com.booking.reactive.ReactiveReadApplication -cp booking-api-1.0.0.jar org.springframework.boot.loader.launch.PropertiesLauncher}.
+ * Deliberately not a {@code @SpringBootApplication}, so tests of the main app do not find two
+ * configurations; everything in this package is conditional on a reactive web application.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableAutoConfiguration(exclude = {
+        DataSourceAutoConfiguration.class,
+        HibernateJpaAutoConfiguration.class,
+        FlywayAutoConfiguration.class,
+        R2dbcAutoConfiguration.class,
+        R2dbcTransactionManagerAutoConfiguration.class
+})
+@ComponentScan
+@EnableScheduling
+public class ReactiveReadApplication {
+
+    public static final String PROFILE = "reactive-read";
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(ReactiveReadApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .profiles(PROFILE)
+                .run(args);
+    }
+}
@@ -0,0 +1,77 @@
+package com.booking.reactive;
+
+import com.booking.security.JwtService;
+import com.booking.sharding.ShardRing;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveReadConfig {
+
+    // Tomcat is on the classpath for the main application and would otherwise be preferred
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean
+    public JwtService jwtService(
+            @Value("${app.jwt.secret}") String secret,
+            @Value("${app.jwt.expiration-ms}") long expirationMs) {
+        return new JwtService(secret, expirationMs);
+    }
+
+    /**
+     * Connects to the databases configured for the main application (spring.datasource.url,
+     * or app.sharding.urls when sharding is on), so both tiers always read the same data.
+     */
+    @Bean(destroyMethod = "close")
+    public ReadShards readShards(
+            @Value("${spring.datasource.url}") String url,
+            @Value("${spring.datasource.username}") String username,
+            @Value("${spring.datasource.password}") String password,
+            @Value("${app.sharding.enabled:false}") boolean sharded,
+            @Value("${app.sharding.urls:}") List<String> shardUrls,
+            @Value("${app.sharding.virtual-nodes:128}") int virtualNodes,
+            @Value("${app.read-tier.pool-size:10}") int poolSize) {
+        List<String> urls = sharded ? shardUrls.stream().map(String::trim).filter(u -> !u.isEmpty()).toList() : List.of(url);
+        if (urls.isEmpty()) {
+            throw new IllegalStateException("app.sharding.urls must list one JDBC url per shard");
+        }
+
+        List<ConnectionPool> pools = new ArrayList<>();
+        for (int shard = 0; shard < urls.size(); shard++) {
+            ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(toR2dbcUrl(urls.get(shard))).mutate()
+                    .option(ConnectionFactoryOptions.USER, username)
+                    .option(ConnectionFactoryOptions.PASSWORD, password)
+                    .build();
+            pools.add(new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                    .name("read-tier-" + shard)
+                    .maxSize(poolSize)
+                    .initialSize(Math.min(2, poolSize))
+                    .maxIdleTime(Duration.ofMinutes(10))
+                    .validationQuery("SELECT 1")
+                    .build()));
+        }
+        return new ReadShards(pools, sharded ? new ShardRing(urls.size(), virtualNodes) : null);
+    }
+
+    static String toR2dbcUrl(String jdbcUrl) {
+        if (!jdbcUrl.startsWith("jdbc:postgresql:")) {
+            throw new IllegalStateException("The reactive read tier only supports PostgreSQL, got " + jdbcUrl);
+        }
+        return "r2dbc:" + jdbcUrl.substring("jdbc:".length());
+    }
+}
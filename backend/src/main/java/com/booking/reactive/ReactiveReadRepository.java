@@ -0,0 +1,108 @@
+package com.booking.reactive;
+
+import com.booking.dto.booking.AvailabilitySlot;
+import com.booking.dto.resource.ResourceResponse;
+import com.booking.dto.resource.ResourceSearchResponse;
+import com.booking.service.PostgresResourceSearch;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The read queries of ResourceRepository and BookingRepository, in SQL over R2DBC. Rows are
+ * mapped into the same DTOs the blocking tier returns, so both produce identical JSON.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveReadRepository {
+
+    private static final String RESOURCE_COLUMNS = "id, name, description, active, capacity, tags, created_at, updated_at";
+
+    private final ReadShards shards;
+
+    public Flux<ResourceResponse> findActiveResources() {
+        return shards.primary()
+                .sql("SELECT " + RESOURCE_COLUMNS + " FROM resources WHERE active")
+                .map(ReactiveReadRepository::toResource)
+                .all();
+    }
+
+    public Mono<ResourceResponse> findResource(UUID id) {
+        return shards.primary()
+                .sql("SELECT " + RESOURCE_COLUMNS + " FROM resources WHERE id = $1")
+                .bind(0, id)
+                .map(ReactiveReadRepository::toResource)
+                .one();
+    }
+
+    public Mono<ResourceSearchResponse> searchResources(List<String> terms, int page, int size) {
+        String tsquery = PostgresResourceSearch.prefixQuery(terms);
+        Mono<List<ResourceResponse>> results = shards.primary()
+                .sql("SELECT " + RESOURCE_COLUMNS + " FROM resources r, to_tsquery('simple', $1) AS query "
+                        + "WHERE r.active AND r.search_vector @@ query "
+                        + "ORDER BY ts_rank(r.search_vector, query) DESC, r.name, r.id LIMIT $2 OFFSET $3")
+                .bind(0, tsquery)
+                .bind(1, size)
+                .bind(2, (long) page * size)
+                .map(ReactiveReadRepository::toResource)
+                .all()
+                .collectList();
+        Mono<Long> total = shards.primary()
+                .sql("SELECT count(*) AS total FROM resources WHERE active AND search_vector @@ to_tsquery('simple', $1)")
+                .bind(0, tsquery)
+                .map(row -> row.get("total", Long.class))
+                .one();
+
+        return Mono.zip(results, total, (found, count) -> ResourceSearchResponse.builder()
+                .results(found)
+                .page(page)
+                .size(size)
+                .totalResults(count)
+                .build());
+    }
+
+    public Flux<AvailabilitySlot> findAvailability(UUID resourceId, LocalDate date) {
+        Instant dayStart = date.atStartOfDay(ZoneOffset.UTC).toInstant();
+        Instant dayEnd = dayStart.plus(1, ChronoUnit.DAYS);
+
+        return shards.forResource(resourceId)
+                .sql("SELECT id, start_at, end_at FROM bookings "
+                        + "WHERE resource_id = $1 AND status IN ('ACTIVE', 'HELD') "
+                        + "AND (status = 'ACTIVE' OR hold_expires_at > now()) "
+                        + "AND start_at >= $2 AND start_at < $3 ORDER BY start_at")
+                .bind(0, resourceId)
+                .bind(1, dayStart)
+                .bind(2, dayEnd)
+                .map(row -> AvailabilitySlot.builder()
+                        .startAt(row.get("start_at", Instant.class))
+                        .endAt(row.get("end_at", Instant.class))
+                        .booked(true)
+                        .bookingId(row.get("id", UUID.class))
+                        .build())
+                .all();
+    }
+
+    private static ResourceResponse toResource(Readable row) {
+        return ResourceResponse.builder()
+                .id(row.get("id", UUID.class))
+                .name(row.get("name", String.class))
+                .description(row.get("description", String.class))
+                .active(row.get("active", Boolean.class))
+                .capacity(row.get("capacity", Integer.class))
+                .tags(List.of(row.get("tags", String[].class)))
+                .createdAt(row.get("created_at", Instant.class))
+                .updatedAt(row.get("updated_at", Instant.class))
+                .build();
+    }
+}
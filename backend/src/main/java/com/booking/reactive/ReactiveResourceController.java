@@ -0,0 +1,61 @@
+package com.booking.reactive;
+
+import com.booking.dto.booking.AvailabilitySlot;
+import com.booking.dto.resource.ResourceResponse;
+import com.booking.dto.resource.ResourceSearchResponse;
+import com.booking.exception.BookingException;
+import com.booking.service.ResourceSearch;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Same paths and responses as the read endpoints of ResourceController.
+ */
+@RestController
+@RequestMapping("/api/resources")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveResourceController {
+
+    private final ReactiveReadRepository repository;
+
+    // Collected before writing: a Flux would keep its connection until a slow client had read every row
+    @GetMapping
+    public Mono<List<ResourceResponse>> getActiveResources() {
+        return repository.findActiveResources().collectList();
+    }
+
+    @GetMapping("/search")
+    public Mono<ResourceSearchResponse> searchResources(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return Mono.fromCallable(() -> ResourceSearch.requestTerms(q, page))
+                .flatMap(terms -> repository.searchResources(terms, page, ResourceSearch.pageSize(size)));
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResourceResponse> getResource(@PathVariable UUID id) {
+        return repository.findResource(id)
+                .switchIfEmpty(Mono.error(() -> BookingException.notFound("Resource", id)));
+    }
+
+    @GetMapping("/{id}/availability")
+    public Flux<AvailabilitySlot> getAvailability(
+            @PathVariable UUID id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return repository.findAvailability(id, date);
+    }
+}
@@ -0,0 +1,39 @@
+package com.booking.reactive;
+
+import com.booking.sharding.ShardRing;
+import io.r2dbc.pool.ConnectionPool;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One R2DBC pool per database, routed the same way as the blocking tier: without sharding
+ * there is a single database; with it, bookings are read from the shard owning the resource
+ * and resources, which are replicated everywhere, from shard 0.
+ */
+public class ReadShards implements AutoCloseable {
+
+    private final List<ConnectionPool> pools;
+    private final List<DatabaseClient> clients;
+    private final ShardRing ring;
+
+    public ReadShards(List<ConnectionPool> pools, ShardRing ring) {
+        this.pools = List.copyOf(pools);
+        this.clients = this.pools.stream().map(DatabaseClient::create).toList();
+        this.ring = ring;
+    }
+
+    public DatabaseClient primary() {
+        return clients.get(0);
+    }
+
+    public DatabaseClient forResource(UUID resourceId) {
+        return ring == null ? primary() : clients.get(ring.shardFor(resourceId));
+    }
+
+    @Override
+    public void close() {
+        pools.forEach(ConnectionPool::dispose);
+    }
+}
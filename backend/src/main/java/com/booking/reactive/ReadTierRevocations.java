@@ -0,0 +1,77 @@
+package com.booking.reactive;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Revoked token ids for the read tier, polled from revoked_tokens. The read tier does not
+ * listen on the cache bus, so a logout takes up to {@code app.read-tier.revocation-poll-ms}
+ * to reach it. Each poll re-reads a minute before the newest revocation it has seen, since
+ * revoked_at is the inserting transaction's start time and can commit out of order.
+ */
+@Slf4j
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReadTierRevocations {
+
+    private static final Duration OVERLAP = Duration.ofMinutes(1);
+    private static final Duration QUERY_TIMEOUT = Duration.ofSeconds(30);
+
+    private final ReadShards shards;
+    private final ConcurrentMap<UUID, Instant> revoked = new ConcurrentHashMap<>();
+    private volatile Instant newestSeen = Instant.EPOCH;
+
+    public ReadTierRevocations(ReadShards shards) {
+        this.shards = shards;
+        // Loaded before the server starts so no revoked token is accepted in between
+        load(Instant.now());
+    }
+
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null) {
+            return false;
+        }
+        try {
+            return revoked.containsKey(UUID.fromString(tokenId));
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+    }
+
+    // Runs on the scheduler thread, never on an event loop, so blocking for the result is fine
+    @Scheduled(fixedDelayString = "${app.read-tier.revocation-poll-ms:5000}")
+    public void refresh() {
+        Instant now = Instant.now();
+        try {
+            load(now);
+        } catch (RuntimeException ex) {
+            log.warn("Could not refresh revoked tokens: {}", ex.getMessage());
+        }
+        revoked.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+    }
+
+    private void load(Instant now) {
+        shards.primary()
+                .sql("SELECT jti, expires_at, revoked_at FROM revoked_tokens WHERE revoked_at > $1 AND expires_at > $2")
+                .bind(0, newestSeen.minus(OVERLAP))
+                .bind(1, now)
+                .map(row -> {
+                    revoked.put(row.get("jti", UUID.class), row.get("expires_at", Instant.class));
+                    return row.get("revoked_at", Instant.class);
+                })
+                .all()
+                .reduce((a, b) -> a.isAfter(b) ? a : b)
+                .blockOptional(QUERY_TIMEOUT)
+                .filter(newest -> newest.isAfter(newestSeen))
+                .ifPresent(newest -> newestSeen = newest);
+    }
+}
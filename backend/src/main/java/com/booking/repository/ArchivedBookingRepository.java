@@ -0,0 +1,42 @@
+package com.booking.repository;
+
+import com.booking.entity.ArchivedBooking;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ArchivedBookingRepository extends JpaRepository<ArchivedBooking, UUID> {
+
+    // The casts type the null checks: PostgreSQL cannot infer the type of a bare "? IS NULL"
+    @Query("SELECT b FROM ArchivedBooking b JOIN FETCH b.user JOIN FETCH b.resource " +
+           "WHERE (:resourceId IS NULL OR b.resource.id = :resourceId) " +
+           "AND (CAST(:startDate AS Instant) IS NULL OR b.startAt >= :startDate) " +
+           "AND (CAST(:endDate AS Instant) IS NULL OR b.startAt <= :endDate) " +
+           "ORDER BY b.startAt DESC")
+    List<ArchivedBooking> findAllWithFilters(
+            @Param("resourceId") UUID resourceId,
+            @Param("startDate") Instant startDate,
+            @Param("endDate") Instant endDate);
+
+    // Keyset page of active booking intervals ordered by (startAt, id); resourceId is optional
+    @Query("SELECT new com.booking.repository.BookingInterval(b.id, b.startAt, b.endAt) FROM ArchivedBooking b " +
+           "WHERE b.status = 'ACTIVE' " +
+           "AND (:resourceId IS NULL OR b.resource.id = :resourceId) " +
+           "AND b.startAt >= :earliestStart AND b.startAt < :endBefore " +
+           "AND (b.startAt > :afterStart OR (b.startAt = :afterStart AND b.id > :afterId)) " +
+           "ORDER BY b.startAt, b.id")
+    List<BookingInterval> findIntervalsAfter(
+            @Param("resourceId") UUID resourceId,
+            @Param("earliestStart") Instant earliestStart,
+            @Param("endBefore") Instant endBefore,
+            @Param("afterStart") Instant afterStart,
+            @Param("afterId") UUID afterId,
+            Pageable pageable);
+}
@@ -0,0 +1,10 @@
+package com.booking.repository;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Just the time span of a booking, for scans that would otherwise load millions of entities.
+ */
+public record BookingInterval(UUID id, Instant startAt, Instant endAt) {
+}
@@ -1,8 +1,14 @@
 package com.booking.repository;
 
 import com.booking.entity.Booking;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -17,16 +23,20 @@ public interface BookingRepository extends JpaRepository<Booking, UUID> {
     List<Booking> findByUserIdOrderByStartAtDesc(@Param("userId") UUID userId);
 
     @Query("SELECT b FROM Booking b WHERE b.resource.id = :resourceId " +
-           "AND b.status = 'ACTIVE' " +
+           "AND b.status IN ('ACTIVE', 'HELD') " +
+           "AND (b.status = 'ACTIVE' OR b.holdExpiresAt > CURRENT_TIMESTAMP) " +
+           "AND b.startAt >= :earliestStart " +
            "AND b.startAt < :endAt " +
            "AND b.endAt > :startAt")
     List<Booking> findOverlappingBookings(
             @Param("resourceId") UUID resourceId,
             @Param("startAt") Instant startAt,
-            @Param("endAt") Instant endAt);
+            @Param("endAt") Instant endAt,
+            @Param("earliestStart") Instant earliestStart);
 
     @Query("SELECT b FROM Booking b WHERE b.resource.id = :resourceId " +
-           "AND b.status = 'ACTIVE' " +
+           "AND b.status IN ('ACTIVE', 'HELD') " +
+           "AND (b.status = 'ACTIVE' OR b.holdExpiresAt > CURRENT_TIMESTAMP) " +
            "AND b.startAt >= :dayStart " +
            "AND b.startAt < :dayEnd " +
            "ORDER BY b.startAt")
@@ -35,10 +45,11 @@ public interface BookingRepository extends JpaRepository<Booking, UUID> {
             @Param("dayStart") Instant dayStart,
             @Param("dayEnd") Instant dayEnd);
 
+    // The casts type the null checks: PostgreSQL cannot infer the type of a bare "? IS NULL"
     @Query("SELECT b FROM Booking b JOIN FETCH b.user JOIN FETCH b.resource " +
            "WHERE (:resourceId IS NULL OR b.resource.id = :resourceId) " +
-           "AND (:startDate IS NULL OR b.startAt >= :startDate) " +
-           "AND (:endDate IS NULL OR b.startAt <= :endDate) " +
+           "AND (CAST(:startDate AS Instant) IS NULL OR b.startAt >= :startDate) " +
+           "AND (CAST(:endDate AS Instant) IS NULL OR b.startAt <= :endDate) " +
            "ORDER BY b.startAt DESC")
     List<Booking> findAllWithFilters(
             @Param("resourceId") UUID resourceId,
@@ -46,11 +57,75 @@ public interface BookingRepository extends JpaRepository<Booking, UUID> {
             @Param("endDate") Instant endDate);
 
     @Query("SELECT COUNT(b) > 0 FROM Booking b WHERE b.resource.id = :resourceId " +
-           "AND b.status = 'ACTIVE' " +
+           "AND b.status IN ('ACTIVE', 'HELD') " +
+           "AND (b.status = 'ACTIVE' OR b.holdExpiresAt > CURRENT_TIMESTAMP) " +
+           "AND b.startAt >= :earliestStart " +
            "AND b.startAt < :endAt " +
            "AND b.endAt > :startAt")
     boolean existsOverlappingBooking(
             @Param("resourceId") UUID resourceId,
             @Param("startAt") Instant startAt,
-            @Param("endAt") Instant endAt);
+            @Param("endAt") Instant endAt,
+            @Param("earliestStart") Instant earliestStart);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = 'ACTIVE', b.holdExpiresAt = NULL, b.updatedAt = :now " +
+           "WHERE b.id = :id " +
+           "AND b.status = 'HELD' " +
+           "AND b.holdExpiresAt > :now " +
+           "AND (:asAdmin = true OR b.user.id = :userId)")
+    int confirmHold(
+            @Param("id") UUID id,
+            @Param("userId") UUID userId,
+            @Param("asAdmin") boolean asAdmin,
+            @Param("now") Instant now);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Booking b WHERE b.id IN :ids AND b.status = 'HELD'")
+    List<Booking> lockHeldBookings(@Param("ids") List<UUID> ids);
+
+    // Expired holds still count for the exclusion constraints until they are released
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Booking b WHERE b.resource.id = :resourceId " +
+           "AND b.status = 'HELD' " +
+           "AND b.holdExpiresAt <= CURRENT_TIMESTAMP " +
+           "AND b.startAt >= :earliestStart " +
+           "AND b.startAt < :endAt " +
+           "AND b.endAt > :startAt")
+    List<Booking> lockExpiredOverlappingHolds(
+            @Param("resourceId") UUID resourceId,
+            @Param("startAt") Instant startAt,
+            @Param("endAt") Instant endAt,
+            @Param("earliestStart") Instant earliestStart);
+
+    // SKIP LOCKED: nodes sweeping at the same time each take different rows
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT b FROM Booking b WHERE b.status = 'HELD' AND b.holdExpiresAt <= :now ORDER BY b.holdExpiresAt")
+    List<Booking> lockExpiredHolds(@Param("now") Instant now, Pageable pageable);
+
+    @Query("SELECT b.id AS id, b.holdExpiresAt AS holdExpiresAt FROM Booking b WHERE b.status = 'HELD'")
+    List<OutstandingHold> findOutstandingHolds();
+
+    interface OutstandingHold {
+
+        UUID getId();
+
+        Instant getHoldExpiresAt();
+    }
+
+    // Keyset page of active booking intervals ordered by (startAt, id); resourceId is optional
+    @Query("SELECT new com.booking.repository.BookingInterval(b.id, b.startAt, b.endAt) FROM Booking b " +
+           "WHERE b.status = 'ACTIVE' " +
+           "AND (:resourceId IS NULL OR b.resource.id = :resourceId) " +
+           "AND b.startAt >= :earliestStart AND b.startAt < :endBefore " +
+           "AND (b.startAt > :afterStart OR (b.startAt = :afterStart AND b.id > :afterId)) " +
+           "ORDER BY b.startAt, b.id")
+    List<BookingInterval> findIntervalsAfter(
+            @Param("resourceId") UUID resourceId,
+            @Param("earliestStart") Instant earliestStart,
+            @Param("endBefore") Instant endBefore,
+            @Param("afterStart") Instant afterStart,
+            @Param("afterId") UUID afterId,
+            Pageable pageable);
 }
@@ -0,0 +1,42 @@
+package com.booking.repository;
+
+import com.booking.entity.ResourceUtilizationDaily;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ResourceUtilizationDailyRepository
+        extends JpaRepository<ResourceUtilizationDaily, ResourceUtilizationDaily.Key> {
+
+    @Query("SELECT u FROM ResourceUtilizationDaily u " +
+           "WHERE (:resourceId IS NULL OR u.resourceId = :resourceId) " +
+           "AND u.usageDate >= :from AND u.usageDate <= :to " +
+           "ORDER BY u.resourceId, u.usageDate")
+    List<ResourceUtilizationDaily> findInRange(
+            @Param("resourceId") UUID resourceId,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to);
+
+    // PostgreSQL upsert: concurrent bookings for the same resource and day add up instead of racing
+    @Modifying
+    @Query(value = "INSERT INTO resource_utilization_daily " +
+                   "(resource_id, usage_date, booked_minutes, booking_count, updated_at) " +
+                   "VALUES (:resourceId, :usageDate, :minutes, :count, NOW()) " +
+                   "ON CONFLICT (resource_id, usage_date) DO UPDATE SET " +
+                   "booked_minutes = resource_utilization_daily.booked_minutes + EXCLUDED.booked_minutes, " +
+                   "booking_count = resource_utilization_daily.booking_count + EXCLUDED.booking_count, " +
+                   "updated_at = NOW()",
+           nativeQuery = true)
+    void addUsage(
+            @Param("resourceId") UUID resourceId,
+            @Param("usageDate") LocalDate usageDate,
+            @Param("minutes") long minutes,
+            @Param("count") int count);
+}
@@ -0,0 +1,76 @@
+package com.booking.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.OptionalInt;
+import java.util.UUID;
+
+/**
+ * Signs calendar feed URLs. Calendar clients cannot send an Authorization header, so a feed
+ * is authorized by an HMAC of its scope, id and version carried in the URL. Rotating the
+ * version of a feed (see CalendarFeedVersions) revokes its earlier URLs; changing
+ * {@code app.calendar.feed-secret} revokes every URL handed out. Tokens of version 0 have no
+ * version prefix, so URLs issued before versions existed stay valid.
+ */
+@Component
+public class CalendarFeedTokens {
+
+    public enum Scope {
+        RESOURCE, USER
+    }
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec key;
+
+    public CalendarFeedTokens(@Value("${app.calendar.feed-secret:${app.jwt.secret}}") String secret) {
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+    }
+
+    public String sign(Scope scope, UUID id, int version) {
+        String signature = Base64.getUrlEncoder().withoutPadding().encodeToString(mac(scope, id, version));
+        return version == 0 ? signature : version + "." + signature;
+    }
+
+    /**
+     * The version the token was signed for, or empty when it is not a valid token of this feed.
+     * Whether that version is still current is up to the caller.
+     */
+    public OptionalInt signedVersion(Scope scope, UUID id, String token) {
+        if (token == null) {
+            return OptionalInt.empty();
+        }
+        int separator = token.indexOf('.');
+        int version;
+        byte[] presented;
+        try {
+            version = separator < 0 ? 0 : Integer.parseInt(token.substring(0, separator));
+            presented = Base64.getUrlDecoder().decode(token.substring(separator + 1));
+        } catch (IllegalArgumentException ex) {
+            return OptionalInt.empty();
+        }
+        if (version < 0 || (version == 0 && separator >= 0)) {
+            return OptionalInt.empty();
+        }
+        return MessageDigest.isEqual(mac(scope, id, version), presented) ? OptionalInt.of(version) : OptionalInt.empty();
+    }
+
+    // Prefixed so a feed signature can never double as a signature for anything else
+    private byte[] mac(Scope scope, UUID id, int version) {
+        String message = "calendar-feed:" + scope.name() + ":" + id + (version == 0 ? "" : ":" + version);
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(message.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("HmacSHA256 is not available", ex);
+        }
+    }
+}
@@ -32,6 +32,7 @@ public class JwtService {
         Date expiry = new Date(now.getTime() + expirationMs);
 
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(userId.toString())
                 .claim("email", email)
                 .claim("role", role)
@@ -54,6 +55,17 @@ public class JwtService {
         }
     }
 
+    /**
+     * Returns the token from an {@code Authorization: Bearer} header value, or null.
+     */
+    public static String extractBearerToken(String authorizationHeader) {
+        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
+            String token = authorizationHeader.substring(7);
+            return token.isBlank() ? null : token;
+        }
+        return null;
+    }
+
     public boolean validateToken(String token) {
         return parseToken(token) != null;
     }
@@ -0,0 +1,123 @@
+package com.booking.security;
+
+import com.booking.dto.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Applies {@link RateLimiter} to API requests. Runs right after JwtAuthenticationFilter so
+ * authenticated callers are limited by user id; logins/registrations under /api/auth/** and
+ * anonymous callers are limited by client IP, except that each calendar feed URL with a valid
+ * token gets its own bucket. Not a Spring bean on purpose: it must only run inside the security
+ * filter chain, never as a standalone servlet filter ahead of authentication.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+    private static final String FEED_PATH = "/api/calendar/{collection}/{id}.ics";
+
+    private final RateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+    private final CalendarFeedTokens feedTokens;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !rateLimiter.isEnabled()
+                || !request.getRequestURI().startsWith("/api/")
+                || HttpMethod.OPTIONS.matches(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+
+        RateLimiter.EndpointClass endpointClass = classify(request);
+        RateLimiter.Decision decision = rateLimiter.tryAcquire(endpointClass, callerKey(request, endpointClass));
+
+        if (decision.allowed()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        log.debug("Rate limited {} {} ({})", request.getMethod(), request.getRequestURI(), endpointClass);
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(decision.retryAfterSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ErrorResponse.of(
+                request.getRequestURI(),
+                "RATE_LIMITED",
+                "Too many requests, retry after " + decision.retryAfterSeconds() + " seconds"
+        ));
+    }
+
+    private RateLimiter.EndpointClass classify(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        if (PATH_MATCHER.match("/api/auth/**", path) && HttpMethod.POST.matches(request.getMethod())) {
+            return RateLimiter.EndpointClass.AUTH;
+        }
+        if (PATH_MATCHER.match("/api/resources/*/availability", path)) {
+            return RateLimiter.EndpointClass.AVAILABILITY;
+        }
+        if (HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod())) {
+            return RateLimiter.EndpointClass.READ;
+        }
+        return RateLimiter.EndpointClass.WRITE;
+    }
+
+    private String callerKey(HttpServletRequest request, RateLimiter.EndpointClass endpointClass) {
+        // Calendar services poll many feeds from a few addresses, so each feed gets its own bucket
+        if (isSignedFeed(request)) {
+            return "feed:" + request.getRequestURI();
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (endpointClass != RateLimiter.EndpointClass.AUTH
+                && authentication != null
+                && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return "user:" + principal.getId();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    // Only a correctly signed URL gets a feed bucket; anything else would mint fresh buckets at will
+    private boolean isSignedFeed(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        if (!PATH_MATCHER.match(FEED_PATH, path)) {
+            return false;
+        }
+        Map<String, String> variables = PATH_MATCHER.extractUriTemplateVariables(FEED_PATH, path);
+        CalendarFeedTokens.Scope scope = switch (variables.get("collection")) {
+            case "resources" -> CalendarFeedTokens.Scope.RESOURCE;
+            case "users" -> CalendarFeedTokens.Scope.USER;
+            default -> null;
+        };
+        UUID id;
+        try {
+            id = UUID.fromString(variables.get("id"));
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+        return scope != null && feedTokens.signedVersion(scope, id, request.getParameter("token")).isPresent();
+    }
+}
@@ -0,0 +1,153 @@
+package com.booking.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token-bucket rate limiter keyed by endpoint class and caller.
+ *
+ * Each bucket is a single AtomicLong holding its "theoretical arrival time" (the GCRA
+ * formulation of a token bucket), so acquiring is one CAS and needs no lock. A bucket
+ * whose arrival time has passed is full again and indistinguishable from a new one,
+ * which is what lets idle buckets be evicted without losing state.
+ */
+@Slf4j
+@Component
+public class RateLimiter {
+
+    public enum EndpointClass {
+        AUTH, AVAILABILITY, WRITE, READ
+    }
+
+    public record Limit(int capacity, double refillPerSecond) {
+    }
+
+    public record Decision(boolean allowed, long retryAfterSeconds) {
+
+        static final Decision ALLOWED = new Decision(true, 0);
+    }
+
+    private static final Map<EndpointClass, Limit> DEFAULT_LIMITS = Map.of(
+            EndpointClass.AUTH, new Limit(20, 0.5),
+            EndpointClass.AVAILABILITY, new Limit(30, 5),
+            EndpointClass.WRITE, new Limit(20, 2),
+            EndpointClass.READ, new Limit(60, 20)
+    );
+
+    private final boolean enabled;
+    private final int maxBuckets;
+    private final LongSupplier nanoClock;
+    private final Map<EndpointClass, BucketSpec> specs = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, AtomicLong> overflowBuckets = new EnumMap<>(EndpointClass.class);
+    private final ConcurrentMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    @Autowired
+    public RateLimiter(Environment environment) {
+        this(environment.getProperty("app.rate-limit.enabled", Boolean.class, true),
+                limitsFrom(environment),
+                environment.getProperty("app.rate-limit.max-buckets", Integer.class, 100_000),
+                System::nanoTime);
+    }
+
+    RateLimiter(boolean enabled, Map<EndpointClass, Limit> limits, int maxBuckets, LongSupplier nanoClock) {
+        this.enabled = enabled;
+        this.maxBuckets = maxBuckets;
+        this.nanoClock = nanoClock;
+        limits.forEach((endpointClass, limit) -> {
+            specs.put(endpointClass, BucketSpec.of(limit));
+            overflowBuckets.put(endpointClass, new AtomicLong(nanoClock.getAsLong()));
+        });
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Decision tryAcquire(EndpointClass endpointClass, String callerKey) {
+        BucketSpec spec = specs.get(endpointClass);
+        if (!enabled || spec == null) {
+            return Decision.ALLOWED;
+        }
+        return acquire(bucketFor(endpointClass, callerKey), spec);
+    }
+
+    @Scheduled(fixedDelayString = "${app.rate-limit.sweep-interval-ms:30000}")
+    public void evictIdleBuckets() {
+        long now = nanoClock.getAsLong();
+        buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+    }
+
+    int bucketCount() {
+        return buckets.size();
+    }
+
+    private AtomicLong bucketFor(EndpointClass endpointClass, String callerKey) {
+        String key = endpointClass.ordinal() + ":" + callerKey;
+        AtomicLong bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+
+        if (buckets.size() >= maxBuckets) {
+            evictIdleBuckets();
+            if (buckets.size() >= maxBuckets) {
+                // Everyone without a bucket shares one per endpoint class until space frees up
+                log.warn("Rate limiter is tracking {} callers; using the shared {} bucket",
+                        buckets.size(), endpointClass);
+                return overflowBuckets.get(endpointClass);
+            }
+        }
+
+        return buckets.computeIfAbsent(key, k -> new AtomicLong(nanoClock.getAsLong()));
+    }
+
+    private Decision acquire(AtomicLong bucket, BucketSpec spec) {
+        while (true) {
+            long now = nanoClock.getAsLong();
+            long arrival = bucket.get();
+            long base = arrival - now > 0 ? arrival : now;
+            long next = base + spec.emissionIntervalNanos();
+            long waitNanos = next - spec.burstWindowNanos() - now;
+
+            if (waitNanos > 0) {
+                long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos - 1) + 1);
+                return new Decision(false, retryAfter);
+            }
+            if (bucket.compareAndSet(arrival, next)) {
+                return Decision.ALLOWED;
+            }
+        }
+    }
+
+    private static Map<EndpointClass, Limit> limitsFrom(Environment environment) {
+        Map<EndpointClass, Limit> limits = new EnumMap<>(EndpointClass.class);
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            String prefix = "app.rate-limit." + endpointClass.name().toLowerCase(Locale.ROOT);
+            Limit defaults = DEFAULT_LIMITS.get(endpointClass);
+            limits.put(endpointClass, new Limit(
+                    environment.getProperty(prefix + ".capacity", Integer.class, defaults.capacity()),
+                    environment.getProperty(prefix + ".refill-per-second", Double.class, defaults.refillPerSecond())));
+        }
+        return limits;
+    }
+
+    private record BucketSpec(long emissionIntervalNanos, long burstWindowNanos) {
+
+        static BucketSpec of(Limit limit) {
+            long interval = (long) (TimeUnit.SECONDS.toNanos(1) / limit.refillPerSecond());
+            return new BucketSpec(interval, interval * limit.capacity());
+        }
+    }
+}
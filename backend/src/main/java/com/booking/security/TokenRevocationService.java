@@ -0,0 +1,160 @@
+package com.booking.security;
+
+import com.booking.cache.BloomFilter;
+import com.booking.cache.CacheInvalidationBus;
+import com.booking.cache.InvalidatableCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Denylist of revoked token ids (jti), checked on every authenticated request without a
+ * database query. A Bloom filter rules out almost every token that was never revoked;
+ * only its rare positives are confirmed against the exact set. Entries are dropped once
+ * their token has expired, since the expiry check rejects it anyway.
+ *
+ * With {@code app.jwt.revocation.jdbc-enabled} revocations are stored in revoked_tokens,
+ * loaded at startup, and announced to other nodes through {@link CacheInvalidationBus},
+ * which fetch the new row; a full flush makes a node reload the whole table.
+ */
+@Slf4j
+@Service
+public class TokenRevocationService implements InvalidatableCache {
+
+    public static final String NAME = "revoked-tokens";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CacheInvalidationBus invalidationBus;
+    private final boolean jdbcEnabled;
+    private final int expectedTokens;
+    private final double falsePositiveRate;
+    private final ConcurrentMap<UUID, Instant> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter;
+    private int filterCapacity;
+
+    public TokenRevocationService(
+            JdbcTemplate jdbcTemplate,
+            CacheInvalidationBus invalidationBus,
+            @Value("${app.jwt.revocation.jdbc-enabled:false}") boolean jdbcEnabled,
+            @Value("${app.jwt.revocation.expected-tokens:100000}") int expectedTokens,
+            @Value("${app.jwt.revocation.false-positive-rate:0.001}") double falsePositiveRate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.invalidationBus = invalidationBus;
+        this.jdbcEnabled = jdbcEnabled;
+        this.expectedTokens = expectedTokens;
+        this.falsePositiveRate = falsePositiveRate;
+        rebuildFilter();
+        // Loaded here rather than on ApplicationReadyEvent so no request is served before it
+        if (jdbcEnabled) {
+            reload();
+        }
+        invalidationBus.register(this);
+    }
+
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null) {
+            return false;
+        }
+        UUID id;
+        try {
+            id = UUID.fromString(tokenId);
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+        return filter.mightContain(id) && revoked.containsKey(id);
+    }
+
+    public void revoke(UUID tokenId, UUID userId, Instant expiresAt) {
+        if (!expiresAt.isAfter(Instant.now())) {
+            return;
+        }
+        if (jdbcEnabled) {
+            jdbcTemplate.update(
+                    "INSERT INTO revoked_tokens (jti, user_id, expires_at) VALUES (?, ?, ?) ON CONFLICT (jti) DO NOTHING",
+                    tokenId, userId, Timestamp.from(expiresAt));
+        }
+        add(tokenId, expiresAt);
+        invalidationBus.invalidate(NAME, tokenId.toString());
+        log.info("Token {} of user {} revoked", tokenId, userId);
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        if (revoked.values().removeIf(expiresAt -> !expiresAt.isAfter(now))) {
+            rebuildFilter();
+        }
+        if (jdbcEnabled) {
+            try {
+                jdbcTemplate.update("DELETE FROM revoked_tokens WHERE expires_at <= ?", Timestamp.from(now));
+            } catch (RuntimeException ex) {
+                log.warn("Could not purge expired revoked tokens: {}", ex.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public String cacheName() {
+        return NAME;
+    }
+
+    // Another node revoked this token; its row is committed by the time the message arrives
+    @Override
+    public void evict(String key) {
+        UUID tokenId = UUID.fromString(key);
+        if (!jdbcEnabled || revoked.containsKey(tokenId)) {
+            return;
+        }
+        jdbcTemplate.query("SELECT expires_at FROM revoked_tokens WHERE jti = ?",
+                rs -> {
+                    add(tokenId, rs.getTimestamp("expires_at").toInstant());
+                },
+                tokenId);
+    }
+
+    @Override
+    public void evictAll() {
+        if (jdbcEnabled) {
+            reload();
+        }
+    }
+
+    int size() {
+        return revoked.size();
+    }
+
+    private void reload() {
+        jdbcTemplate.query("SELECT jti, expires_at FROM revoked_tokens WHERE expires_at > ?",
+                rs -> {
+                    revoked.put(rs.getObject("jti", UUID.class), rs.getTimestamp("expires_at").toInstant());
+                },
+                Timestamp.from(Instant.now()));
+        rebuildFilter();
+        log.info("Loaded {} revoked tokens", revoked.size());
+    }
+
+    // Adds and rebuilds are serialized so a key added during a rebuild cannot be missed
+    private synchronized void add(UUID tokenId, Instant expiresAt) {
+        revoked.put(tokenId, expiresAt);
+        if (revoked.size() > filterCapacity) {
+            rebuildFilter();
+        } else {
+            filter.add(tokenId);
+        }
+    }
+
+    private synchronized void rebuildFilter() {
+        filterCapacity = Math.max(expectedTokens, revoked.size() * 2);
+        BloomFilter rebuilt = new BloomFilter(filterCapacity, falsePositiveRate);
+        revoked.keySet().forEach(rebuilt::add);
+        filter = rebuilt;
+    }
+}
@@ -0,0 +1,420 @@
+package com.booking.service;
+
+import com.booking.cache.BoundedTtlCache;
+import com.booking.dto.booking.BookingRequest;
+import com.booking.dto.booking.BookingResponse;
+import com.booking.dto.booking.BookingTicketResponse;
+import com.booking.entity.Booking;
+import com.booking.entity.Resource;
+import com.booking.entity.User;
+import com.booking.event.BookingChangedEvent;
+import com.booking.exception.BookingException;
+import com.booking.repository.BookingRepository;
+import com.booking.repository.UserRepository;
+import com.booking.sharding.ShardRouter;
+import com.booking.security.UserPrincipal;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Asynchronous booking creation with group commit. Requests are queued in a lane per
+ * resource and a lane is drained by at most one worker at a time, a small batch per turn.
+ * Conflicts within a batch are decided in memory in arrival order against the bookings
+ * already stored for the batch's time span, and the accepted bookings are written in one
+ * transaction with a batched insert.
+ *
+ * When the resource's lock stripe stays busy, the batch goes back to the front of its lane
+ * and is retried on a later turn; only after {@value #MAX_BUSY_RETRIES} busy turns are its
+ * tickets rejected. A lane is dropped once it is drained and nothing is queued on it.
+ *
+ * Tickets live in memory only; requests still queued when the node stops are lost.
+ */
+@Slf4j
+@Service
+public class AsyncBookingPipeline {
+
+    static final int MAX_BUSY_RETRIES = 20;
+
+    private final BookingService bookingService;
+    private final BookingRepository bookingRepository;
+    private final UserRepository userRepository;
+    private final ResourceService resourceService;
+    private final ResourceLockStripe resourceLockStripe;
+    private final ResourceAdvisoryLock resourceAdvisoryLock;
+    private final HoldExpiryService holdExpiryService;
+    private final RecentBookings recentBookings;
+    private final ShardRouter shardRouter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+    private final int maxQueuedPerResource;
+    private final ExecutorService workers;
+    private final BoundedTtlCache<UUID, Ticket> tickets;
+    private final ConcurrentMap<UUID, Lane> lanes = new ConcurrentHashMap<>();
+    private final DistributionSummary batchSizes;
+
+    public AsyncBookingPipeline(
+            BookingService bookingService,
+            BookingRepository bookingRepository,
+            UserRepository userRepository,
+            ResourceService resourceService,
+            ResourceLockStripe resourceLockStripe,
+            ResourceAdvisoryLock resourceAdvisoryLock,
+            HoldExpiryService holdExpiryService,
+            RecentBookings recentBookings,
+            ShardRouter shardRouter,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry,
+            @Value("${app.booking.async.workers:4}") int workerCount,
+            @Value("${app.booking.async.batch-size:32}") int batchSize,
+            @Value("${app.booking.async.max-queued-per-resource:1000}") int maxQueuedPerResource,
+            @Value("${app.booking.async.ticket-ttl-seconds:600}") long ticketTtlSeconds) {
+        this.bookingService = bookingService;
+        this.bookingRepository = bookingRepository;
+        this.userRepository = userRepository;
+        this.resourceService = resourceService;
+        this.resourceLockStripe = resourceLockStripe;
+        this.resourceAdvisoryLock = resourceAdvisoryLock;
+        this.holdExpiryService = holdExpiryService;
+        this.recentBookings = recentBookings;
+        this.shardRouter = shardRouter;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+        this.maxQueuedPerResource = maxQueuedPerResource;
+        this.tickets = new BoundedTtlCache<>(100_000, Duration.ofSeconds(ticketTtlSeconds));
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "booking-pipeline-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.batchSizes = DistributionSummary.builder("booking.async.batch.size")
+                .description("Requests committed per group-commit batch")
+                .register(meterRegistry);
+    }
+
+    public BookingTicketResponse submit(BookingRequest request, UserPrincipal principal) {
+        bookingService.validateTimeRange(request.getStartAt(), request.getEndAt());
+
+        // Claimed under the map entry, so an idle lane cannot be dropped between claim and offer
+        Lane lane = lanes.compute(request.getResourceId(), (resourceId, existing) -> {
+            Lane claimed = existing != null ? existing : new Lane(resourceId);
+            if (claimed.queued.incrementAndGet() > maxQueuedPerResource) {
+                claimed.queued.decrementAndGet();
+                throw new BookingException(
+                        "Too many pending booking requests for this resource, please retry",
+                        "BOOKING_QUEUE_FULL",
+                        HttpStatus.SERVICE_UNAVAILABLE
+                );
+            }
+            return claimed;
+        });
+
+        Ticket ticket = new Ticket(UUID.randomUUID(), principal.getId(), Instant.now());
+        tickets.put(ticket.id, ticket);
+        lane.queue.offer(new PendingBooking(ticket, request, principal, 0));
+        scheduleDrain(lane);
+
+        return ticket.snapshot();
+    }
+
+    public BookingTicketResponse getTicket(UUID ticketId, UserPrincipal principal) {
+        return findTicket(ticketId, principal).snapshot();
+    }
+
+    public CompletableFuture<BookingTicketResponse> whenCompleted(UUID ticketId, UserPrincipal principal) {
+        return findTicket(ticketId, principal).result;
+    }
+
+    int laneCount() {
+        return lanes.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    private Ticket findTicket(UUID ticketId, UserPrincipal principal) {
+        return tickets.get(ticketId)
+                .filter(ticket -> principal.isAdmin() || ticket.userId.equals(principal.getId()))
+                .orElseThrow(() -> BookingException.notFound("Booking ticket", ticketId));
+    }
+
+    private void scheduleDrain(Lane lane) {
+        if (lane.draining.compareAndSet(false, true)) {
+            workers.execute(() -> drain(lane));
+        }
+    }
+
+    // One batch per turn, then the lane goes to the back of the executor queue so a hot
+    // resource cannot starve the others
+    private void drain(Lane lane) {
+        try {
+            List<PendingBooking> batch = new ArrayList<>(batchSize);
+            PendingBooking next;
+            while (batch.size() < batchSize && (next = lane.queue.poll()) != null) {
+                batch.add(next);
+            }
+            lane.queued.addAndGet(-batch.size());
+            if (!batch.isEmpty()) {
+                process(lane, batch);
+            }
+        } catch (RuntimeException ex) {
+            log.error("Booking pipeline lane {} failed", lane.resourceId, ex);
+        } finally {
+            lane.draining.set(false);
+            if (!lane.queue.isEmpty()) {
+                scheduleDrain(lane);
+            } else {
+                lanes.computeIfPresent(lane.resourceId,
+                        (resourceId, current) -> current == lane && current.queued.get() == 0 ? null : current);
+            }
+        }
+    }
+
+    private void process(Lane lane, List<PendingBooking> batch) {
+        UUID resourceId = lane.resourceId;
+        ResourceLockStripe.Permit permit;
+        try {
+            permit = resourceLockStripe.acquire(resourceId);
+        } catch (BookingException busy) {
+            requeue(lane, batch, busy);
+            return;
+        }
+
+        try (permit) {
+            List<Outcome> outcomes;
+            try {
+                outcomes = shardRouter.write(resourceId, status -> commitBatch(resourceId, batch));
+            } catch (BookingException ex) {
+                batch.forEach(pending -> pending.ticket.reject(ex));
+                return;
+            } catch (RuntimeException ex) {
+                // Typically a booking committed by another node between our read and insert;
+                // let the regular path sort out which requests still fit
+                log.warn("Group commit for resource {} failed, retrying {} requests one by one: {}",
+                        resourceId, batch.size(), ex.getMessage());
+                batch.forEach(this::processSingly);
+                return;
+            }
+
+            batchSizes.record(outcomes.stream().filter(Outcome::accepted).count());
+            for (Outcome outcome : outcomes) {
+                if (outcome.accepted()) {
+                    BookingResponse booking = outcome.booking();
+                    recentBookings.record(resourceId, booking.getId(), booking.getStartAt(), booking.getEndAt());
+                    outcome.pending().ticket.confirm(booking);
+                } else {
+                    outcome.pending().ticket.reject(outcome.error());
+                }
+            }
+        }
+    }
+
+    // Back to the front of the lane in arrival order; only this lane's single drainer takes from the front
+    private void requeue(Lane lane, List<PendingBooking> batch, BookingException busy) {
+        List<PendingBooking> retry = new ArrayList<>(batch.size());
+        for (PendingBooking pending : batch) {
+            if (pending.busyRetries >= MAX_BUSY_RETRIES) {
+                pending.ticket.reject(busy);
+            } else {
+                retry.add(pending.retried());
+            }
+        }
+        for (int i = retry.size() - 1; i >= 0; i--) {
+            lane.queue.offerFirst(retry.get(i));
+        }
+        lane.queued.addAndGet(retry.size());
+    }
+
+    private List<Outcome> commitBatch(UUID resourceId, List<PendingBooking> batch) {
+        Resource resource = resourceService.findResourceById(resourceId);
+        if (!resource.getActive()) {
+            throw BookingException.badRequest("Cannot book an inactive resource", "RESOURCE_INACTIVE");
+        }
+
+        resourceAdvisoryLock.lock(resourceId);
+        Instant windowStart = batch.stream().map(p -> p.request.getStartAt()).min(Comparator.naturalOrder()).orElseThrow();
+        Instant windowEnd = batch.stream().map(p -> p.request.getEndAt()).max(Comparator.naturalOrder()).orElseThrow();
+        holdExpiryService.releaseExpiredOverlapping(resourceId, windowStart, windowEnd);
+        Instant earliestStart = BookingWindows.earliestOverlappingStart(windowStart);
+        List<Interval> taken = bookingRepository.findOverlappingBookings(resourceId, windowStart, windowEnd, earliestStart)
+                .stream()
+                .map(booking -> new Interval(booking.getStartAt(), booking.getEndAt()))
+                .collect(Collectors.toCollection(ArrayList::new));
+
+        Set<UUID> userIds = new HashSet<>();
+        batch.forEach(pending -> userIds.add(pending.principal.getId()));
+        Map<UUID, User> users = userRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<Outcome> outcomes = new ArrayList<>(batch.size());
+        List<Booking> accepted = new ArrayList<>();
+        for (PendingBooking pending : batch) {
+            Interval requested = new Interval(pending.request.getStartAt(), pending.request.getEndAt());
+            User user = users.get(pending.principal.getId());
+            if (user == null) {
+                outcomes.add(Outcome.rejected(pending, BookingException.notFound("User", pending.principal.getId())));
+            } else if (taken.stream().anyMatch(requested::overlaps)) {
+                outcomes.add(Outcome.rejected(pending, BookingException.conflict(
+                        "The requested time slot overlaps with an existing booking", "BOOKING_OVERLAP")));
+            } else {
+                taken.add(requested);
+                Booking booking = Booking.builder()
+                        .user(user)
+                        .resource(resource)
+                        .startAt(requested.startAt())
+                        .endAt(requested.endAt())
+                        .notes(pending.request.getNotes())
+                        .status(Booking.Status.ACTIVE)
+                        .build();
+                accepted.add(booking);
+                outcomes.add(Outcome.pending(pending, booking));
+            }
+        }
+
+        bookingRepository.saveAll(accepted);
+        bookingRepository.flush();
+
+        List<Outcome> resolved = new ArrayList<>(outcomes.size());
+        for (Outcome outcome : outcomes) {
+            if (outcome.entity() == null) {
+                resolved.add(outcome);
+                continue;
+            }
+            eventPublisher.publishEvent(BookingChangedEvent.of(BookingChangedEvent.Type.CREATED, outcome.entity()));
+            resolved.add(Outcome.accepted(outcome.pending(), BookingResponse.from(outcome.entity())));
+        }
+        log.debug("Committed {} of {} queued bookings for resource {}", accepted.size(), batch.size(), resourceId);
+        return resolved;
+    }
+
+    private void processSingly(PendingBooking pending) {
+        try {
+            pending.ticket.confirm(bookingService.createBooking(pending.request, pending.principal));
+        } catch (BookingException ex) {
+            pending.ticket.reject(ex);
+        } catch (DataIntegrityViolationException ex) {
+            pending.ticket.reject(BookingException.conflict(
+                    "The requested time slot overlaps with an existing booking", "BOOKING_OVERLAP"));
+        } catch (RuntimeException ex) {
+            log.error("Booking request for ticket {} failed", pending.ticket.id, ex);
+            pending.ticket.reject(new BookingException(
+                    "An unexpected error occurred", "INTERNAL_ERROR", HttpStatus.INTERNAL_SERVER_ERROR));
+        }
+    }
+
+    private record PendingBooking(Ticket ticket, BookingRequest request, UserPrincipal principal, int busyRetries) {
+
+        PendingBooking retried() {
+            return new PendingBooking(ticket, request, principal, busyRetries + 1);
+        }
+    }
+
+    private record Interval(Instant startAt, Instant endAt) {
+
+        boolean overlaps(Interval other) {
+            return startAt.isBefore(other.endAt) && endAt.isAfter(other.startAt);
+        }
+    }
+
+    private record Outcome(PendingBooking pending, Booking entity, BookingResponse booking, BookingException error) {
+
+        static Outcome pending(PendingBooking pending, Booking entity) {
+            return new Outcome(pending, entity, null, null);
+        }
+
+        static Outcome accepted(PendingBooking pending, BookingResponse booking) {
+            return new Outcome(pending, null, booking, null);
+        }
+
+        static Outcome rejected(PendingBooking pending, BookingException error) {
+            return new Outcome(pending, null, null, error);
+        }
+
+        boolean accepted() {
+            return booking != null;
+        }
+    }
+
+    private static final class Lane {
+
+        private final UUID resourceId;
+        private final ConcurrentLinkedDeque<PendingBooking> queue = new ConcurrentLinkedDeque<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Lane(UUID resourceId) {
+            this.resourceId = resourceId;
+        }
+    }
+
+    private static final class Ticket {
+
+        private final UUID id;
+        private final UUID userId;
+        private final Instant submittedAt;
+        private final CompletableFuture<BookingTicketResponse> result = new CompletableFuture<>();
+
+        private Ticket(UUID id, UUID userId, Instant submittedAt) {
+            this.id = id;
+            this.userId = userId;
+            this.submittedAt = submittedAt;
+        }
+
+        void confirm(BookingResponse booking) {
+            result.complete(builder()
+                    .status(BookingTicketResponse.CONFIRMED)
+                    .booking(booking)
+                    .completedAt(Instant.now())
+                    .build());
+        }
+
+        void reject(BookingException error) {
+            result.complete(builder()
+                    .status(BookingTicketResponse.REJECTED)
+                    .errorCode(error.getErrorCode())
+                    .message(error.getMessage())
+                    .completedAt(Instant.now())
+                    .build());
+        }
+
+        BookingTicketResponse snapshot() {
+            return result.getNow(builder().status(BookingTicketResponse.PENDING).build());
+        }
+
+        private BookingTicketResponse.BookingTicketResponseBuilder builder() {
+            return BookingTicketResponse.builder()
+                    .ticketId(id)
+                    .submittedAt(submittedAt);
+        }
+    }
+}
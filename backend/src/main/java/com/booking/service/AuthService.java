@@ -8,6 +8,8 @@ import com.booking.entity.User;
 import com.booking.exception.BookingException;
 import com.booking.repository.UserRepository;
 import com.booking.security.JwtService;
+import com.booking.security.TokenRevocationService;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -16,6 +18,8 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.UUID;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -25,6 +29,7 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
+    private final TokenRevocationService tokenRevocationService;
 
     @Transactional
     public AuthResponse register(RegisterRequest request) {
@@ -74,4 +79,27 @@ public class AuthService {
 
         return AuthResponse.of(token, UserResponse.from(user));
     }
+
+    /**
+     * Revokes the given token until it expires. Tokens issued before ids were added
+     * cannot be revoked; the caller is told so rather than assuming the logout took effect.
+     */
+    public void logout(String token) {
+        Claims claims = token != null ? jwtService.parseToken(token) : null;
+        if (claims == null) {
+            throw BookingException.unauthorized("Invalid or expired token");
+        }
+        if (claims.getId() == null) {
+            throw BookingException.badRequest(
+                    "This token was issued without an id and cannot be revoked; it stays valid until it expires",
+                    "TOKEN_NOT_REVOCABLE"
+            );
+        }
+
+        tokenRevocationService.revoke(
+                UUID.fromString(claims.getId()),
+                UUID.fromString(claims.getSubject()),
+                claims.getExpiration().toInstant()
+        );
+    }
 }
@@ -0,0 +1,127 @@
+package com.booking.service;
+
+import com.booking.cache.BoundedTtlCache;
+import com.booking.cache.CacheInvalidationBus;
+import com.booking.cache.InvalidatableCache;
+import com.booking.cache.SingleFlight;
+import com.booking.dto.booking.AvailabilitySlot;
+import com.booking.event.BookingChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent availability reads for the same resource and day into one query
+ * and keeps the result for a short TTL. Every committed booking write bumps the
+ * resource's version; loads are keyed by version so a read that started before the
+ * write is neither shared with later callers nor cached. Writes on other nodes reach this
+ * cache through {@link CacheInvalidationBus}.
+ */
+@Component
+public class AvailabilityCache implements InvalidatableCache {
+
+    public static final String NAME = "availability";
+
+    private final CacheInvalidationBus invalidationBus;
+    private final boolean cacheEnabled;
+    private final BoundedTtlCache<Key, List<AvailabilitySlot>> results;
+    private final SingleFlight<Key, List<AvailabilitySlot>> inFlight = new SingleFlight<>();
+    private final ConcurrentMap<UUID, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter coalesced;
+    private final Counter misses;
+
+    public AvailabilityCache(
+            CacheInvalidationBus invalidationBus,
+            MeterRegistry meterRegistry,
+            @Value("${app.availability-cache.ttl-ms:1000}") long ttlMs,
+            @Value("${app.availability-cache.max-entries:10000}") int maxEntries) {
+        this.invalidationBus = invalidationBus;
+        this.cacheEnabled = ttlMs > 0;
+        this.results = new BoundedTtlCache<>(maxEntries, Duration.ofMillis(Math.max(ttlMs, 1)));
+        this.hits = counter(meterRegistry, "hit");
+        this.coalesced = counter(meterRegistry, "coalesced");
+        this.misses = counter(meterRegistry, "miss");
+        invalidationBus.register(this);
+    }
+
+    public List<AvailabilitySlot> get(UUID resourceId, LocalDate date, Supplier<List<AvailabilitySlot>> loader) {
+        Key key = new Key(resourceId, date, versionOf(resourceId).get());
+
+        if (cacheEnabled) {
+            Optional<List<AvailabilitySlot>> cached = results.get(key);
+            if (cached.isPresent()) {
+                hits.increment();
+                return cached.get();
+            }
+        }
+
+        SingleFlight.Result<List<AvailabilitySlot>> result = inFlight.execute(key, () -> {
+            List<AvailabilitySlot> slots = List.copyOf(loader.get());
+            if (cacheEnabled && versionOf(resourceId).get() == key.version()) {
+                results.put(key, slots);
+            }
+            return slots;
+        });
+
+        (result.shared() ? coalesced : misses).increment();
+        return result.value();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        invalidate(event.resourceId());
+    }
+
+    /**
+     * Drops the resource's availability on every node once the current transaction commits.
+     */
+    public void invalidate(UUID resourceId) {
+        invalidationBus.invalidate(NAME, resourceId.toString());
+    }
+
+    @Override
+    public String cacheName() {
+        return NAME;
+    }
+
+    @Override
+    public void evict(String key) {
+        UUID resourceId = UUID.fromString(key);
+        versionOf(resourceId).incrementAndGet();
+        results.removeIf(cached -> cached.resourceId().equals(resourceId));
+    }
+
+    @Override
+    public void evictAll() {
+        versions.values().forEach(AtomicLong::incrementAndGet);
+        results.clear();
+    }
+
+    private AtomicLong versionOf(UUID resourceId) {
+        return versions.computeIfAbsent(resourceId, id -> new AtomicLong());
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("booking.availability.requests")
+                .description("Availability lookups by how they were served")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record Key(UUID resourceId, LocalDate date, long version) {
+    }
+}
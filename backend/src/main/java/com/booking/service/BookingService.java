@@ -3,18 +3,25 @@ package com.booking.service;
 import com.booking.dto.booking.AvailabilitySlot;
 import com.booking.dto.booking.BookingRequest;
 import com.booking.dto.booking.BookingResponse;
+import com.booking.dto.booking.CompactBooking;
+import com.booking.dto.booking.CompactBookingPage;
+import com.booking.entity.ArchivedBooking;
 import com.booking.entity.Booking;
 import com.booking.entity.Resource;
 import com.booking.entity.User;
+import com.booking.event.BookingChangedEvent;
 import com.booking.exception.BookingException;
+import com.booking.repository.ArchivedBookingRepository;
 import com.booking.repository.BookingRepository;
 import com.booking.repository.UserRepository;
 import com.booking.security.UserPrincipal;
+import com.booking.sharding.ShardRouter;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Duration;
 import java.time.Instant;
@@ -22,53 +29,109 @@ import java.time.LocalDate;
 import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class BookingService {
 
+    private static final Comparator<Booking> NEWEST_FIRST = Comparator.comparing(Booking::getStartAt).reversed();
+    private static final Comparator<ArchivedBooking> NEWEST_ARCHIVED_FIRST =
+            Comparator.comparing(ArchivedBooking::getStartAt).reversed();
+
     private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
     private final UserRepository userRepository;
     private final ResourceService resourceService;
+    private final AvailabilityCache availabilityCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ResourceLockStripe resourceLockStripe;
+    private final RecentBookings recentBookings;
+    private final HoldExpiryService holdExpiryService;
+    private final ShardRouter shardRouter;
+    private final ResourceAdvisoryLock resourceAdvisoryLock;
 
     @Value("${app.booking.max-duration-hours:8}")
     private int maxDurationHours;
 
-    @Transactional(readOnly = true)
+    @Value("${app.booking.holds.ttl-seconds:300}")
+    private long holdTtlSeconds;
+
+    @PostConstruct
+    void checkMaxDuration() {
+        BookingWindows.requireStorable(Duration.ofHours(maxDurationHours));
+    }
+
+    // The reads below are not transactional. With sharding they scatter to every shard, and an
+    // outer transaction would hold a shard 0 connection while the scatter threads wait for theirs.
     public List<BookingResponse> getUserBookings(UUID userId) {
-        return bookingRepository.findByUserIdOrderByStartAtDesc(userId)
+        return shardRouter.gather(() -> bookingRepository.findByUserIdOrderByStartAtDesc(userId), NEWEST_FIRST)
                 .stream()
                 .map(BookingResponse::from)
                 .toList();
     }
 
-    @Transactional(readOnly = true)
     public List<BookingResponse> getAllBookings(UUID resourceId, Instant startDate, Instant endDate) {
-        return bookingRepository.findAllWithFilters(resourceId, startDate, endDate)
+        return getAllBookings(resourceId, startDate, endDate, false);
+    }
+
+    public List<BookingResponse> getAllBookings(
+            UUID resourceId, Instant startDate, Instant endDate, boolean includeArchived) {
+        List<BookingResponse> bookings = findAllWithFilters(resourceId, startDate, endDate)
                 .stream()
                 .map(BookingResponse::from)
                 .toList();
+
+        if (!includeArchived) {
+            return bookings;
+        }
+
+        List<BookingResponse> combined = new ArrayList<>(bookings);
+        findArchivedWithFilters(resourceId, startDate, endDate)
+                .stream()
+                .map(BookingResponse::from)
+                .forEach(combined::add);
+        combined.sort(Comparator.comparing(BookingResponse::getStartAt).reversed());
+        return combined;
     }
 
-    @Transactional(readOnly = true)
-    public BookingResponse getBookingById(UUID id, UserPrincipal principal) {
-        Booking booking = findBookingById(id);
-        if (!principal.isAdmin() && !booking.getUser().getId().equals(principal.getId())) {
-            throw BookingException.forbidden("You can only view your own bookings");
+    public CompactBookingPage getAllBookingsCompact(
+            UUID resourceId, Instant startDate, Instant endDate, boolean includeArchived) {
+        CompactBookingPage page = new CompactBookingPage();
+        findAllWithFilters(resourceId, startDate, endDate).forEach(page::add);
+
+        if (includeArchived) {
+            findArchivedWithFilters(resourceId, startDate, endDate).forEach(page::add);
+            page.getBookings().sort(Comparator.comparing(CompactBooking::getStartAt).reversed());
         }
-        return BookingResponse.from(booking);
+        return page;
+    }
+
+    public BookingResponse getBookingById(UUID id, UserPrincipal principal) {
+        return shardRouter.readBooking(id, () -> {
+            Booking booking = findBookingById(id);
+            if (!principal.isAdmin() && !booking.getUser().getId().equals(principal.getId())) {
+                throw BookingException.forbidden("You can only view your own bookings");
+            }
+            return BookingResponse.from(booking);
+        });
     }
 
-    @Transactional(readOnly = true)
+    // Not transactional: callers waiting on a coalesced load must not hold a connection
     public List<AvailabilitySlot> getAvailability(UUID resourceId, LocalDate date) {
+        return availabilityCache.get(resourceId, date, () -> loadAvailability(resourceId, date));
+    }
+
+    private List<AvailabilitySlot> loadAvailability(UUID resourceId, LocalDate date) {
         Instant dayStart = date.atStartOfDay(ZoneOffset.UTC).toInstant();
         Instant dayEnd = dayStart.plus(1, ChronoUnit.DAYS);
 
-        List<Booking> bookings = bookingRepository.findActiveBookingsForResourceOnDate(
-                resourceId, dayStart, dayEnd);
+        List<Booking> bookings = shardRouter.read(resourceId,
+                () -> bookingRepository.findActiveBookingsForResourceOnDate(resourceId, dayStart, dayEnd));
 
         List<AvailabilitySlot> slots = new ArrayList<>();
 
@@ -84,10 +147,50 @@ public class BookingService {
         return slots;
     }
 
-    @Transactional
+    // Not transactional: the transaction is opened only after the resource lock is held
     public BookingResponse createBooking(BookingRequest request, UserPrincipal principal) {
+        return create(request, principal, Booking.Status.ACTIVE);
+    }
+
+    public BookingResponse createHold(BookingRequest request, UserPrincipal principal) {
+        BookingResponse response = create(request, principal, Booking.Status.HELD);
+        holdExpiryService.schedule(response.getId(), response.getHoldExpiresAt());
+        return response;
+    }
+
+    public BookingResponse confirmHold(UUID bookingId, UserPrincipal principal) {
+        BookingResponse response = shardRouter.writeBooking(bookingId, status -> {
+            int confirmed = bookingRepository.confirmHold(
+                    bookingId, principal.getId(), principal.isAdmin(), Instant.now());
+            Booking booking = findBookingById(bookingId);
+            if (confirmed == 0) {
+                throw holdNotConfirmable(booking, principal);
+            }
+            eventPublisher.publishEvent(BookingChangedEvent.of(BookingChangedEvent.Type.CONFIRMED, booking));
+            log.info("Hold confirmed: {} by user {}", bookingId, principal.getEmail());
+            return BookingResponse.from(booking);
+        });
+        holdExpiryService.cancel(bookingId);
+        return response;
+    }
+
+    private BookingResponse create(BookingRequest request, UserPrincipal principal, Booking.Status status) {
         validateTimeRange(request.getStartAt(), request.getEndAt());
+        rejectKnownOverlap(request);
+
+        try (ResourceLockStripe.Permit ignored = resourceLockStripe.acquire(request.getResourceId())) {
+            // Whoever held the lock before us may just have taken this slot
+            rejectKnownOverlap(request);
+
+            BookingResponse response = shardRouter.write(
+                    request.getResourceId(), tx -> insertBooking(request, principal, status));
+            recentBookings.record(
+                    request.getResourceId(), response.getId(), request.getStartAt(), request.getEndAt());
+            return response;
+        }
+    }
 
+    private BookingResponse insertBooking(BookingRequest request, UserPrincipal principal, Booking.Status status) {
         Resource resource = resourceService.findResourceById(request.getResourceId());
 
         if (!resource.getActive()) {
@@ -97,14 +200,15 @@ public class BookingService {
             );
         }
 
+        // Other nodes do not see our lock stripe; this holds them off until we commit
+        resourceAdvisoryLock.lock(request.getResourceId());
+        holdExpiryService.releaseExpiredOverlapping(request.getResourceId(), request.getStartAt(), request.getEndAt());
         if (bookingRepository.existsOverlappingBooking(
                 request.getResourceId(),
                 request.getStartAt(),
-                request.getEndAt())) {
-            throw BookingException.conflict(
-                    "The requested time slot overlaps with an existing booking",
-                    "BOOKING_OVERLAP"
-            );
+                request.getEndAt(),
+                BookingWindows.earliestOverlappingStart(request.getStartAt()))) {
+            throw overlapConflict();
         }
 
         User user = userRepository.findById(principal.getId())
@@ -116,60 +220,100 @@ public class BookingService {
                 .startAt(request.getStartAt())
                 .endAt(request.getEndAt())
                 .notes(request.getNotes())
-                .status(Booking.Status.ACTIVE)
+                .status(status)
+                .holdExpiresAt(status == Booking.Status.HELD ? Instant.now().plusSeconds(holdTtlSeconds) : null)
                 .build();
 
         booking = bookingRepository.save(booking);
-        log.info("Booking created: {} for resource {} by user {}",
+        BookingChangedEvent.Type eventType = status == Booking.Status.HELD
+                ? BookingChangedEvent.Type.HELD
+                : BookingChangedEvent.Type.CREATED;
+        eventPublisher.publishEvent(BookingChangedEvent.of(eventType, booking));
+        log.info("Booking {}: {} for resource {} by user {}",
+                status == Booking.Status.HELD ? "held" : "created",
                 booking.getId(), resource.getName(), user.getEmail());
 
         return BookingResponse.from(booking);
     }
 
-    @Transactional
     public BookingResponse cancelBooking(UUID bookingId, UserPrincipal principal) {
-        Booking booking = findBookingById(bookingId);
+        return shardRouter.writeBooking(bookingId, status -> {
+            Booking booking = findBookingById(bookingId);
+
+            if (!principal.isAdmin() && !booking.getUser().getId().equals(principal.getId())) {
+                throw BookingException.forbidden("You can only cancel your own bookings");
+            }
+
+            if (booking.getStatus() == Booking.Status.CANCELLED) {
+                throw BookingException.badRequest(
+                        "Only active bookings and holds can be cancelled",
+                        "INVALID_STATUS"
+                );
+            }
+
+            BookingChangedEvent.Type eventType = booking.getStatus() == Booking.Status.HELD
+                    ? BookingChangedEvent.Type.HOLD_CANCELLED
+                    : BookingChangedEvent.Type.CANCELLED;
+            booking.setStatus(Booking.Status.CANCELLED);
+            booking = bookingRepository.save(booking);
+            eventPublisher.publishEvent(BookingChangedEvent.of(eventType, booking));
+
+            log.info("Booking cancelled: {} by user {}",
+                    booking.getId(), principal.getEmail());
+
+            return BookingResponse.from(booking);
+        });
+    }
+
+    public BookingResponse adminCancelBooking(UUID bookingId) {
+        return shardRouter.writeBooking(bookingId, status -> {
+            Booking booking = findBookingById(bookingId);
+
+            if (booking.getStatus() == Booking.Status.CANCELLED) {
+                throw BookingException.badRequest(
+                        "Only active bookings and holds can be cancelled",
+                        "INVALID_STATUS"
+                );
+            }
+
+            BookingChangedEvent.Type eventType = booking.getStatus() == Booking.Status.HELD
+                    ? BookingChangedEvent.Type.HOLD_CANCELLED
+                    : BookingChangedEvent.Type.CANCELLED;
+            booking.setStatus(Booking.Status.CANCELLED);
+            booking = bookingRepository.save(booking);
+            eventPublisher.publishEvent(BookingChangedEvent.of(eventType, booking));
+
+            log.info("Booking cancelled by admin: {}", booking.getId());
+
+            return BookingResponse.from(booking);
+        });
+    }
 
+    private BookingException holdNotConfirmable(Booking booking, UserPrincipal principal) {
         if (!principal.isAdmin() && !booking.getUser().getId().equals(principal.getId())) {
-            throw BookingException.forbidden("You can only cancel your own bookings");
+            return BookingException.forbidden("You can only confirm your own holds");
         }
-
-        if (booking.getStatus() != Booking.Status.ACTIVE) {
-            throw BookingException.badRequest(
-                    "Only active bookings can be cancelled",
-                    "INVALID_STATUS"
-            );
+        if (booking.getStatus() == Booking.Status.HELD) {
+            return BookingException.conflict("The hold has expired", "HOLD_EXPIRED");
         }
-
-        booking.setStatus(Booking.Status.CANCELLED);
-        booking = bookingRepository.save(booking);
-
-        log.info("Booking cancelled: {} by user {}",
-                booking.getId(), principal.getEmail());
-
-        return BookingResponse.from(booking);
+        return BookingException.badRequest("Only held bookings can be confirmed", "INVALID_STATUS");
     }
 
-    @Transactional
-    public BookingResponse adminCancelBooking(UUID bookingId) {
-        Booking booking = findBookingById(bookingId);
-
-        if (booking.getStatus() != Booking.Status.ACTIVE) {
-            throw BookingException.badRequest(
-                    "Only active bookings can be cancelled",
-                    "INVALID_STATUS"
-            );
+    private void rejectKnownOverlap(BookingRequest request) {
+        if (recentBookings.overlapsKnownBooking(
+                request.getResourceId(), request.getStartAt(), request.getEndAt())) {
+            throw overlapConflict();
         }
+    }
 
-        booking.setStatus(Booking.Status.CANCELLED);
-        booking = bookingRepository.save(booking);
-
-        log.info("Booking cancelled by admin: {}", booking.getId());
-
-        return BookingResponse.from(booking);
+    private static BookingException overlapConflict() {
+        return BookingException.conflict(
+                "The requested time slot overlaps with an existing booking",
+                "BOOKING_OVERLAP"
+        );
     }
 
-    private void validateTimeRange(Instant startAt, Instant endAt) {
+    void validateTimeRange(Instant startAt, Instant endAt) {
         if (!startAt.isBefore(endAt)) {
             throw BookingException.badRequest(
                     "Start time must be before end time",
@@ -177,8 +321,7 @@ public class BookingService {
             );
         }
 
-        Duration duration = Duration.between(startAt, endAt);
-        if (duration.toHours() > maxDurationHours) {
+        if (BookingWindows.exceedsMaxDuration(startAt, endAt, Duration.ofHours(maxDurationHours))) {
             throw BookingException.badRequest(
                     String.format("Booking duration cannot exceed %d hours", maxDurationHours),
                     "DURATION_EXCEEDED"
@@ -193,6 +336,20 @@ public class BookingService {
         }
     }
 
+    // A resource's bookings live on one shard; without a resource every shard is queried
+    private List<Booking> findAllWithFilters(UUID resourceId, Instant startDate, Instant endDate) {
+        Supplier<List<Booking>> query = () -> bookingRepository.findAllWithFilters(resourceId, startDate, endDate);
+        return resourceId != null ? shardRouter.read(resourceId, query) : shardRouter.gather(query, NEWEST_FIRST);
+    }
+
+    private List<ArchivedBooking> findArchivedWithFilters(UUID resourceId, Instant startDate, Instant endDate) {
+        Supplier<List<ArchivedBooking>> query =
+                () -> archivedBookingRepository.findAllWithFilters(resourceId, startDate, endDate);
+        return resourceId != null
+                ? shardRouter.read(resourceId, query)
+                : shardRouter.gather(query, NEWEST_ARCHIVED_FIRST);
+    }
+
     private Booking findBookingById(UUID id) {
         return bookingRepository.findById(id)
                 .orElseThrow(() -> BookingException.notFound("Booking", id));
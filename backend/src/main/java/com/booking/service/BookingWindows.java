@@ -0,0 +1,41 @@
+package com.booking.service;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * The maximum booking duration, and the lower bound on start_at it allows every overlap
+ * query to use. The bound lets the planner prune bookings partitions, so it must never cut
+ * off a booking that can still overlap: queries compare with {@code start_at >= bound}. It is
+ * derived from the duration the schema accepts (V17), not from the configured maximum, so
+ * lowering {@code app.booking.max-duration-hours} cannot hide longer bookings already stored.
+ */
+public final class BookingWindows {
+
+    // Matches chk_booking_max_duration on bookings and bookings_archive
+    public static final Duration MAX_STORED_DURATION = Duration.ofHours(24);
+
+    private BookingWindows() {
+    }
+
+    public static boolean exceedsMaxDuration(Instant startAt, Instant endAt, Duration maxDuration) {
+        return Duration.between(startAt, endAt).compareTo(maxDuration) > 0;
+    }
+
+    /**
+     * The earliest start of any stored booking that can overlap a window starting at {@code startAt}.
+     */
+    public static Instant earliestOverlappingStart(Instant startAt) {
+        return startAt.minus(MAX_STORED_DURATION);
+    }
+
+    /**
+     * Fails startup when the configured maximum would allow bookings the schema rejects.
+     */
+    public static void requireStorable(Duration maxDuration) {
+        if (maxDuration.compareTo(MAX_STORED_DURATION) > 0) {
+            throw new IllegalStateException(String.format(
+                    "app.booking.max-duration-hours cannot exceed %d", MAX_STORED_DURATION.toHours()));
+        }
+    }
+}
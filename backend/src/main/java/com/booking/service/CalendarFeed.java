@@ -0,0 +1,10 @@
+package com.booking.service;
+
+import java.time.Instant;
+
+/**
+ * A rendered .ics body with the validators sent alongside it. The ETag is a hash of the
+ * body, so a rebuild that produces the same calendar still answers If-None-Match with 304.
+ */
+public record CalendarFeed(byte[] body, String etag, Instant lastModified) {
+}
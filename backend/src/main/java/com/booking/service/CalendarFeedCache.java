@@ -0,0 +1,134 @@
+package com.booking.service;
+
+import com.booking.cache.BoundedTtlCache;
+import com.booking.cache.CacheInvalidationBus;
+import com.booking.cache.InvalidatableCache;
+import com.booking.cache.SingleFlight;
+import com.booking.event.BookingChangedEvent;
+import com.booking.security.CalendarFeedTokens.Scope;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Rendered calendar feeds, kept until a booking of the resource or user changes. Calendar
+ * clients poll every few minutes, so nearly every poll is served from here or answered
+ * with 304. Concurrent misses for one feed share a single build, and a build overlapping an
+ * invalidation of the same feed is returned but not stored. The TTL only bounds how long a
+ * resource rename takes to show in user feeds and when past bookings drop out.
+ */
+@Component
+public class CalendarFeedCache implements InvalidatableCache {
+
+    public static final String NAME = "calendar-feeds";
+
+    private final CacheInvalidationBus invalidationBus;
+    private final boolean cacheEnabled;
+    private final BoundedTtlCache<Key, CalendarFeed> feeds;
+    private final SingleFlight<Key, CalendarFeed> inFlight = new SingleFlight<>();
+    // Feeds being built, flagged when invalidated meanwhile; SingleFlight allows one build per feed
+    private final Map<Key, AtomicBoolean> building = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    public CalendarFeedCache(
+            CacheInvalidationBus invalidationBus,
+            MeterRegistry meterRegistry,
+            @Value("${app.calendar.cache-ttl-ms:3600000}") long ttlMs,
+            @Value("${app.calendar.cache-max-entries:20000}") int maxEntries) {
+        this.invalidationBus = invalidationBus;
+        this.cacheEnabled = ttlMs > 0;
+        this.feeds = new BoundedTtlCache<>(maxEntries, Duration.ofMillis(Math.max(ttlMs, 1)));
+        this.hits = counter(meterRegistry, "hit");
+        this.misses = counter(meterRegistry, "miss");
+        invalidationBus.register(this);
+    }
+
+    public CalendarFeed get(Scope scope, UUID id, Supplier<CalendarFeed> builder) {
+        Key key = new Key(scope, id);
+        if (cacheEnabled) {
+            Optional<CalendarFeed> cached = feeds.get(key);
+            if (cached.isPresent()) {
+                hits.increment();
+                return cached.get();
+            }
+        }
+        misses.increment();
+        return inFlight.execute(key, () -> {
+            building.put(key, new AtomicBoolean());
+            try {
+                CalendarFeed feed = builder.get();
+                // Checked and stored under the map's lock, which evict also takes for this key
+                building.computeIfPresent(key, (k, invalidated) -> {
+                    if (cacheEnabled && !invalidated.get()) {
+                        feeds.put(key, feed);
+                    }
+                    return invalidated;
+                });
+                return feed;
+            } finally {
+                building.remove(key);
+            }
+        }).value();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        invalidationBus.invalidate(NAME, new Key(Scope.RESOURCE, event.resourceId()).toString());
+        invalidationBus.invalidate(NAME, new Key(Scope.USER, event.userId()).toString());
+    }
+
+    @Override
+    public String cacheName() {
+        return NAME;
+    }
+
+    @Override
+    public void evict(String key) {
+        Key parsed = Key.parse(key);
+        building.computeIfPresent(parsed, (k, invalidated) -> {
+            invalidated.set(true);
+            return invalidated;
+        });
+        feeds.remove(parsed);
+    }
+
+    @Override
+    public void evictAll() {
+        building.values().forEach(invalidated -> invalidated.set(true));
+        feeds.clear();
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("booking.calendar.feed.requests")
+                .description("Calendar feed lookups by whether the rendered feed was cached")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record Key(Scope scope, UUID id) {
+
+        static Key parse(String key) {
+            int separator = key.indexOf(':');
+            return new Key(Scope.valueOf(key.substring(0, separator).toUpperCase(Locale.ROOT)),
+                    UUID.fromString(key.substring(separator + 1)));
+        }
+
+        @Override
+        public String toString() {
+            return scope.name().toLowerCase(Locale.ROOT) + ":" + id;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.booking.service;
+
+import com.booking.dto.resource.ResourceResponse;
+import com.booking.security.CalendarFeedTokens.Scope;
+import com.booking.sharding.ShardRouter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Builds the .ics feeds of a resource and of a user from their active bookings. Rows are
+ * written to the calendar as the cursor returns them, without loading entities. Resource
+ * feeds only show busy blocks; user feeds name the resource and include the notes.
+ */
+@Service
+public class CalendarFeedService {
+
+    private static final int FETCH_SIZE = 500;
+
+    private static final String RESOURCE_FEED_SQL =
+            "SELECT b.id, b.start_at, b.end_at, b.updated_at FROM bookings b "
+                    + "WHERE b.resource_id = ? AND b.status = 'ACTIVE' AND b.end_at >= ? ORDER BY b.start_at";
+
+    private static final String USER_FEED_SQL =
+            "SELECT b.id, b.start_at, b.end_at, b.updated_at, b.notes, r.name FROM bookings b "
+                    + "JOIN resources r ON r.id = b.resource_id "
+                    + "WHERE b.user_id = ? AND b.status = 'ACTIVE' AND b.end_at >= ? ORDER BY b.start_at";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnly;
+    private final ShardRouter shardRouter;
+    private final ResourceService resourceService;
+    private final CalendarFeedCache feedCache;
+    private final Duration pastWindow;
+
+    public CalendarFeedService(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            ShardRouter shardRouter,
+            ResourceService resourceService,
+            CalendarFeedCache feedCache,
+            @Value("${app.calendar.past-days:30}") int pastDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.shardRouter = shardRouter;
+        this.resourceService = resourceService;
+        this.feedCache = feedCache;
+        this.pastWindow = Duration.ofDays(pastDays);
+    }
+
+    public CalendarFeed getResourceFeed(UUID resourceId) {
+        ResourceResponse resource = resourceService.getResourceById(resourceId);
+        return feedCache.get(Scope.RESOURCE, resourceId, () -> render(resource.getName(), writer ->
+                shardRouter.onShard(shardRouter.shardFor(resourceId), () ->
+                        stream(RESOURCE_FEED_SQL, resourceId, rs -> writer.event(
+                                rs.getObject("id", UUID.class),
+                                rs.getTimestamp("start_at").toInstant(),
+                                rs.getTimestamp("end_at").toInstant(),
+                                rs.getTimestamp("updated_at").toInstant(),
+                                "Booked", null)))));
+    }
+
+    public CalendarFeed getUserFeed(UUID userId) {
+        return feedCache.get(Scope.USER, userId, () -> render("My bookings", writer ->
+                shardRouter.forEachShard(() ->
+                        stream(USER_FEED_SQL, userId, rs -> writer.event(
+                                rs.getObject("id", UUID.class),
+                                rs.getTimestamp("start_at").toInstant(),
+                                rs.getTimestamp("end_at").toInstant(),
+                                rs.getTimestamp("updated_at").toInstant(),
+                                rs.getString("name"),
+                                rs.getString("notes"))))));
+    }
+
+    // A transaction lets the driver fetch in batches instead of buffering the whole result
+    private void stream(String sql, UUID id, EventRow row) {
+        Timestamp notEndedBefore = Timestamp.from(Instant.now().minus(pastWindow));
+        readOnly.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setFetchSize(FETCH_SIZE);
+            statement.setObject(1, id);
+            statement.setTimestamp(2, notEndedBefore);
+            return statement;
+        }, (RowCallbackHandler) rs -> {
+            try {
+                row.write(rs);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }));
+    }
+
+    private static CalendarFeed render(String calendarName, Body body) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(8192);
+        IcsWriter writer = new IcsWriter(buffer);
+        try {
+            writer.begin(calendarName);
+            body.write(writer);
+            writer.end();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        byte[] bytes = buffer.toByteArray();
+        return new CalendarFeed(bytes, "\"" + DigestUtils.md5DigestAsHex(bytes) + "\"", Instant.now());
+    }
+
+    @FunctionalInterface
+    private interface Body {
+        void write(IcsWriter writer) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface EventRow {
+        void write(ResultSet rs) throws IOException, SQLException;
+    }
+}
@@ -0,0 +1,101 @@
+package com.booking.service;
+
+import com.booking.cache.BoundedTtlCache;
+import com.booking.cache.CacheInvalidationBus;
+import com.booking.cache.InvalidatableCache;
+import com.booking.exception.BookingException;
+import com.booking.security.CalendarFeedTokens.Scope;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The current version of each calendar feed, stored in calendar_feed_version of the user or
+ * resource and signed into its URLs. Rotating the version revokes every URL handed out so far.
+ * Feed polls check the version, so it is cached and evicted on every node when it rotates.
+ */
+@Component
+public class CalendarFeedVersions implements InvalidatableCache {
+
+    public static final String NAME = "calendar-feed-versions";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CacheInvalidationBus invalidationBus;
+    private final BoundedTtlCache<String, Integer> versions;
+    private final AtomicLong generation = new AtomicLong();
+
+    public CalendarFeedVersions(
+            JdbcTemplate jdbcTemplate,
+            CacheInvalidationBus invalidationBus,
+            @Value("${app.calendar.cache-ttl-ms:3600000}") long ttlMs,
+            @Value("${app.calendar.cache-max-entries:20000}") int maxEntries) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.invalidationBus = invalidationBus;
+        this.versions = new BoundedTtlCache<>(maxEntries, Duration.ofMillis(Math.max(ttlMs, 1)));
+        invalidationBus.register(this);
+    }
+
+    public int current(Scope scope, UUID id) {
+        String key = key(scope, id);
+        Optional<Integer> cached = versions.get(key);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        long loadedAt = generation.get();
+        List<Integer> found = jdbcTemplate.queryForList(
+                "SELECT calendar_feed_version FROM " + table(scope) + " WHERE id = ?", Integer.class, id);
+        if (found.isEmpty()) {
+            throw BookingException.notFound(scope == Scope.USER ? "User" : "Resource", id);
+        }
+        // A rotation evicted during the read may have been read before it committed
+        if (generation.get() == loadedAt) {
+            versions.put(key, found.get(0));
+        }
+        return found.get(0);
+    }
+
+    /**
+     * Moves the feed to a new version, so only URLs signed from now on are accepted.
+     */
+    public int rotate(Scope scope, UUID id) {
+        int updated = jdbcTemplate.update(
+                "UPDATE " + table(scope) + " SET calendar_feed_version = calendar_feed_version + 1 WHERE id = ?", id);
+        if (updated == 0) {
+            throw BookingException.notFound(scope == Scope.USER ? "User" : "Resource", id);
+        }
+        invalidationBus.invalidate(NAME, key(scope, id));
+        return current(scope, id);
+    }
+
+    @Override
+    public String cacheName() {
+        return NAME;
+    }
+
+    @Override
+    public void evict(String key) {
+        generation.incrementAndGet();
+        versions.remove(key);
+    }
+
+    @Override
+    public void evictAll() {
+        generation.incrementAndGet();
+        versions.clear();
+    }
+
+    private static String table(Scope scope) {
+        return scope == Scope.USER ? "users" : "resources";
+    }
+
+    private static String key(Scope scope, UUID id) {
+        return scope.name().toLowerCase(Locale.ROOT) + ":" + id;
+    }
+}
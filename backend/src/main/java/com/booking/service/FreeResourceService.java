@@ -0,0 +1,131 @@
+package com.booking.service;
+
+import com.booking.dto.resource.ResourceResponse;
+import com.booking.exception.BookingException;
+import com.booking.sharding.ShardRouter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Answers "which resource with these attributes is free for this window". The attribute
+ * index narrows the active resources to candidates in memory, smallest capacity first. The
+ * candidates are then probed in that order, a chunk at a time, with one anti-join per shard
+ * holding some of the chunk, instead of an availability lookup per resource. Probing stops as
+ * soon as enough free resources are found.
+ */
+@Service
+public class FreeResourceService {
+
+    public static final int MAX_LIMIT = 100;
+
+    private static final Duration DEFAULT_WINDOW = Duration.ofHours(1);
+
+    // The first chunk allows for some booked candidates; later chunks double, up to a size
+    // that stays well below the bind parameter limit of the PostgreSQL protocol
+    private static final int FIRST_CHUNK_FACTOR = 4;
+    private static final int MAX_CHUNK_SIZE = 1000;
+
+    private static final String FREE_SQL = """
+            SELECT c.id FROM (VALUES %s) AS c(id)
+            WHERE NOT EXISTS (
+                SELECT 1 FROM bookings b
+                WHERE b.resource_id = c.id
+                  AND b.status IN ('ACTIVE', 'HELD')
+                  AND (b.status = 'ACTIVE' OR b.hold_expires_at > now())
+                  AND b.start_at >= ? AND b.start_at < ? AND b.end_at > ?)""";
+
+    private final ResourceAttributeIndex attributeIndex;
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardRouter shardRouter;
+    private final Duration maxDuration;
+
+    public FreeResourceService(
+            ResourceAttributeIndex attributeIndex,
+            JdbcTemplate jdbcTemplate,
+            ShardRouter shardRouter,
+            @Value("${app.booking.max-duration-hours:8}") int maxDurationHours) {
+        this.attributeIndex = attributeIndex;
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardRouter = shardRouter;
+        this.maxDuration = Duration.ofHours(maxDurationHours);
+    }
+
+    /**
+     * Up to {@code limit} active resources matching the attributes with no active or held
+     * booking overlapping [startAt, endAt), smallest fitting capacity first. The window
+     * defaults to the next hour from the current minute.
+     */
+    public List<ResourceResponse> findFree(Instant from, Instant to, Integer minCapacity,
+                                           Collection<String> tags, int limit) {
+        Instant startAt = from != null ? from : Instant.now().truncatedTo(ChronoUnit.MINUTES);
+        Instant endAt = to != null ? to : startAt.plus(DEFAULT_WINDOW);
+        validate(startAt, endAt, minCapacity);
+        List<ResourceResponse> candidates = attributeIndex.candidates(minCapacity, tags);
+        int wanted = Math.min(Math.max(limit, 1), MAX_LIMIT);
+
+        List<ResourceResponse> found = new ArrayList<>(wanted);
+        int offset = 0;
+        int chunkSize = Math.min(wanted * FIRST_CHUNK_FACTOR, MAX_CHUNK_SIZE);
+        while (offset < candidates.size() && found.size() < wanted) {
+            List<ResourceResponse> chunk = candidates.subList(offset, Math.min(offset + chunkSize, candidates.size()));
+            Set<UUID> free = freeAmong(chunk, startAt, endAt);
+            for (ResourceResponse resource : chunk) {
+                if (free.contains(resource.getId()) && found.size() < wanted) {
+                    found.add(resource);
+                }
+            }
+            offset += chunk.size();
+            chunkSize = Math.min(chunkSize * 2, MAX_CHUNK_SIZE);
+        }
+        return found;
+    }
+
+    private Set<UUID> freeAmong(List<ResourceResponse> chunk, Instant startAt, Instant endAt) {
+        Map<Integer, List<UUID>> byShard = new LinkedHashMap<>();
+        chunk.forEach(resource -> byShard
+                .computeIfAbsent(shardRouter.shardFor(resource.getId()), shard -> new ArrayList<>())
+                .add(resource.getId()));
+
+        Set<UUID> free = new HashSet<>();
+        byShard.forEach((shard, ids) -> shardRouter.onShard(shard, () -> free.addAll(freeOnShard(ids, startAt, endAt))));
+        return free;
+    }
+
+    private List<UUID> freeOnShard(List<UUID> ids, Instant startAt, Instant endAt) {
+        String sql = FREE_SQL.formatted(String.join(", ", Collections.nCopies(ids.size(), "(?)")));
+        List<Object> args = new ArrayList<>(ids);
+        args.add(Timestamp.from(BookingWindows.earliestOverlappingStart(startAt)));
+        args.add(Timestamp.from(endAt));
+        args.add(Timestamp.from(startAt));
+        return jdbcTemplate.queryForList(sql, UUID.class, args.toArray());
+    }
+
+    private void validate(Instant startAt, Instant endAt, Integer minCapacity) {
+        if (!startAt.isBefore(endAt)) {
+            throw BookingException.badRequest("Start time must be before end time", "INVALID_TIME_RANGE");
+        }
+        if (BookingWindows.exceedsMaxDuration(startAt, endAt, maxDuration)) {
+            throw BookingException.badRequest(
+                    String.format("The window cannot exceed %d hours", maxDuration.toHours()),
+                    "DURATION_EXCEEDED");
+        }
+        if (minCapacity != null && minCapacity < 1) {
+            throw BookingException.badRequest("minCapacity must be positive", "INVALID_CAPACITY");
+        }
+    }
+}
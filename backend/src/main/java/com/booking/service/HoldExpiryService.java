@@ -0,0 +1,152 @@
+package com.booking.service;
+
+import com.booking.entity.Booking;
+import com.booking.event.BookingChangedEvent;
+import com.booking.job.HashedTimingWheel;
+import com.booking.repository.BookingRepository;
+import com.booking.sharding.ShardRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Releases expired holds. Hold deadlines live in a timing wheel on the node that created
+ * them (and are reloaded from the database on startup), so expiry needs neither a timer
+ * per hold nor a polling query; each tick turns the holds due in it into one batched update.
+ *
+ * A node can go away before its holds are due, so every node also sweeps all shards for
+ * expired holds every {@code app.booking.holds.sweep-interval-ms}. Until a hold is
+ * released, the overlap and availability queries ignore it once it has expired, and a
+ * booking for its slot releases it first, since the exclusion constraints still count it.
+ */
+@Slf4j
+@Service
+public class HoldExpiryService {
+
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ShardRouter shardRouter;
+    private final HashedTimingWheel<UUID> wheel;
+    private final int batchSize;
+
+    public HoldExpiryService(
+            BookingRepository bookingRepository,
+            TransactionTemplate transactionTemplate,
+            ApplicationEventPublisher eventPublisher,
+            ShardRouter shardRouter,
+            @Value("${app.booking.holds.tick-ms:1000}") long tickMs,
+            @Value("${app.booking.holds.wheel-size:512}") int wheelSize,
+            @Value("${app.booking.holds.batch-size:500}") int batchSize) {
+        this.bookingRepository = bookingRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.shardRouter = shardRouter;
+        this.wheel = new HashedTimingWheel<>(tickMs, wheelSize, System.currentTimeMillis());
+        this.batchSize = batchSize;
+    }
+
+    public void schedule(UUID bookingId, Instant expiresAt) {
+        wheel.schedule(bookingId, expiresAt.toEpochMilli());
+    }
+
+    public void cancel(UUID bookingId) {
+        wheel.cancel(bookingId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOutstandingHolds() {
+        List<BookingRepository.OutstandingHold> holds = shardRouter.gather(bookingRepository::findOutstandingHolds, null);
+        holds.forEach(hold -> schedule(hold.getId(), hold.getHoldExpiresAt()));
+        if (!holds.isEmpty()) {
+            log.info("Scheduled expiry for {} outstanding holds", holds.size());
+        }
+    }
+
+    @Scheduled(fixedRateString = "${app.booking.holds.tick-ms:1000}")
+    public void tick() {
+        List<UUID> due = wheel.advance(System.currentTimeMillis());
+        for (int from = 0; from < due.size(); from += batchSize) {
+            List<UUID> batch = due.subList(from, Math.min(from + batchSize, due.size()));
+            try {
+                // The wheel does not know which shard a hold is on; each shard locks only its own rows
+                shardRouter.forEachShard(() -> expire(batch));
+            } catch (RuntimeException ex) {
+                log.warn("Could not release {} expired holds, retrying: {}", batch.size(), ex.getMessage());
+                long retryAt = System.currentTimeMillis();
+                batch.forEach(id -> wheel.schedule(id, retryAt));
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.booking.holds.sweep-interval-ms:30000}",
+            initialDelayString = "${app.booking.holds.sweep-interval-ms:30000}")
+    public void sweep() {
+        shardRouter.forEachShard(() -> {
+            try {
+                int released;
+                do {
+                    released = transactionTemplate.execute(status -> release(
+                            bookingRepository.lockExpiredHolds(Instant.now(), PageRequest.of(0, batchSize))));
+                    if (released > 0) {
+                        log.info("Swept {} expired holds", released);
+                    }
+                } while (released == batchSize);
+            } catch (RuntimeException ex) {
+                log.warn("Expired hold sweep failed, retrying on the next run: {}", ex.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Releases the expired holds overlapping [startAt, endAt) of the resource, in the caller's
+     * transaction, so a booking can take their slot before the sweep gets to them.
+     */
+    public void releaseExpiredOverlapping(UUID resourceId, Instant startAt, Instant endAt) {
+        release(bookingRepository.lockExpiredOverlappingHolds(
+                resourceId, startAt, endAt, BookingWindows.earliestOverlappingStart(startAt)));
+    }
+
+    int scheduledCount() {
+        return wheel.size();
+    }
+
+    private void expire(List<UUID> bookingIds) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Instant now = Instant.now();
+            List<Booking> expired = new ArrayList<>();
+            for (Booking booking : bookingRepository.lockHeldBookings(bookingIds)) {
+                if (booking.getHoldExpiresAt().isAfter(now)) {
+                    // Extended or scheduled against a faster clock; check again at its deadline
+                    schedule(booking.getId(), booking.getHoldExpiresAt());
+                } else {
+                    expired.add(booking);
+                }
+            }
+            int released = release(expired);
+            if (released > 0) {
+                log.info("Released {} expired holds", released);
+            }
+        });
+    }
+
+    private int release(List<Booking> holds) {
+        for (Booking booking : holds) {
+            booking.setStatus(Booking.Status.CANCELLED);
+            eventPublisher.publishEvent(BookingChangedEvent.of(BookingChangedEvent.Type.EXPIRED, booking));
+            wheel.cancel(booking.getId());
+        }
+        return holds.size();
+    }
+}
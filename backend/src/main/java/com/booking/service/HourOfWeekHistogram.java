@@ -0,0 +1,123 @@
+package com.booking.service;
+
+import java.time.Instant;
+import java.time.zone.ZoneRules;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Fork/join task that spreads booking intervals over the 168 hours of the week (Monday 00:00
+ * first) in a zone. Leaves accumulate into their own arrays and partials are summed on join,
+ * so workers share no mutable state.
+ */
+final class HourOfWeekHistogram extends RecursiveTask<HourOfWeekHistogram.Partial> {
+
+    static final int BINS = 7 * 24;
+
+    private static final int LEAF_SIZE = 2048;
+    private static final long SECONDS_PER_HOUR = 3600;
+    private static final long SECONDS_PER_DAY = 86_400;
+    // 1970-01-01 was a Thursday
+    private static final long EPOCH_DAY_OF_WEEK = 3;
+
+    /**
+     * Occupied seconds and booking starts per hour of week. Seconds fit an int as long as a
+     * task covers fewer than ~590k hour-long slices, which chunked scans stay far below.
+     */
+    record Partial(int[] occupiedSeconds, int[] starts) {
+
+        static Partial empty() {
+            return new Partial(new int[BINS], new int[BINS]);
+        }
+
+        Partial merge(Partial other) {
+            for (int bin = 0; bin < BINS; bin++) {
+                occupiedSeconds[bin] += other.occupiedSeconds[bin];
+                starts[bin] += other.starts[bin];
+            }
+            return this;
+        }
+    }
+
+    private final long[] startSeconds;
+    private final long[] endSeconds;
+    private final int from;
+    private final int to;
+    private final long windowStart;
+    private final long windowEnd;
+    private final ZoneRules rules;
+
+    HourOfWeekHistogram(long[] startSeconds, long[] endSeconds, long windowStart, long windowEnd, ZoneRules rules) {
+        this(startSeconds, endSeconds, 0, startSeconds.length, windowStart, windowEnd, rules);
+    }
+
+    private HourOfWeekHistogram(long[] startSeconds, long[] endSeconds, int from, int to,
+                                long windowStart, long windowEnd, ZoneRules rules) {
+        this.startSeconds = startSeconds;
+        this.endSeconds = endSeconds;
+        this.from = from;
+        this.to = to;
+        this.windowStart = windowStart;
+        this.windowEnd = windowEnd;
+        this.rules = rules;
+    }
+
+    @Override
+    protected Partial compute() {
+        if (to - from <= LEAF_SIZE) {
+            Partial partial = Partial.empty();
+            for (int i = from; i < to; i++) {
+                add(partial, startSeconds[i], endSeconds[i]);
+            }
+            return partial;
+        }
+
+        int middle = (from + to) >>> 1;
+        HourOfWeekHistogram left = new HourOfWeekHistogram(
+                startSeconds, endSeconds, from, middle, windowStart, windowEnd, rules);
+        left.fork();
+        Partial right = new HourOfWeekHistogram(
+                startSeconds, endSeconds, middle, to, windowStart, windowEnd, rules).compute();
+        return left.join().merge(right);
+    }
+
+    /**
+     * Calls the slice consumer for each piece of [start, end) that falls in a single local
+     * hour. The zone offset is looked up per slice, so DST transitions land in the right bin.
+     */
+    static void forEachHourSlice(long start, long end, ZoneRules rules, SliceConsumer consumer) {
+        long t = start;
+        while (t < end) {
+            long local = t + rules.getOffset(Instant.ofEpochSecond(t)).getTotalSeconds();
+            long nextHour = t + (SECONDS_PER_HOUR - Math.floorMod(local, SECONDS_PER_HOUR));
+            long sliceEnd = Math.min(end, nextHour);
+            consumer.accept(bin(local), sliceEnd - t);
+            t = sliceEnd;
+        }
+    }
+
+    static int bin(long localEpochSecond) {
+        long day = Math.floorDiv(localEpochSecond, SECONDS_PER_DAY);
+        int dayOfWeek = (int) Math.floorMod(day + EPOCH_DAY_OF_WEEK, 7);
+        int hour = (int) (Math.floorMod(localEpochSecond, SECONDS_PER_DAY) / SECONDS_PER_HOUR);
+        return dayOfWeek * 24 + hour;
+    }
+
+    private void add(Partial partial, long start, long end) {
+        long clippedStart = Math.max(start, windowStart);
+        long clippedEnd = Math.min(end, windowEnd);
+        if (clippedStart >= clippedEnd) {
+            return;
+        }
+        if (start >= windowStart) {
+            long local = start + rules.getOffset(Instant.ofEpochSecond(start)).getTotalSeconds();
+            partial.starts[bin(local)]++;
+        }
+        forEachHourSlice(clippedStart, clippedEnd, rules,
+                (bin, seconds) -> partial.occupiedSeconds[bin] += (int) seconds);
+    }
+
+    @FunctionalInterface
+    interface SliceConsumer {
+        void accept(int bin, long seconds);
+    }
+}
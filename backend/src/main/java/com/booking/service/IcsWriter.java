@@ -0,0 +1,95 @@
+package com.booking.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.UUID;
+
+/**
+ * Writes an RFC 5545 calendar one event at a time, so a feed is produced straight from a
+ * result set. Lines end in CRLF and are folded at 75 octets without splitting a UTF-8
+ * character; text values are escaped.
+ */
+final class IcsWriter {
+
+    private static final DateTimeFormatter UTC_DATE_TIME =
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+    private static final int MAX_LINE_OCTETS = 75;
+    private static final byte[] CRLF = {'\r', '\n'};
+
+    private final OutputStream out;
+
+    IcsWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    void begin(String calendarName) throws IOException {
+        line("BEGIN:VCALENDAR");
+        line("VERSION:2.0");
+        line("PRODID:-//Booking MVP//Calendar Feed//EN");
+        line("CALSCALE:GREGORIAN");
+        line("METHOD:PUBLISH");
+        line("X-WR-CALNAME:" + escape(calendarName));
+    }
+
+    void event(UUID bookingId, Instant startAt, Instant endAt, Instant updatedAt,
+               String summary, String description) throws IOException {
+        line("BEGIN:VEVENT");
+        line("UID:" + bookingId + "@booking-mvp");
+        line("DTSTAMP:" + UTC_DATE_TIME.format(updatedAt));
+        line("LAST-MODIFIED:" + UTC_DATE_TIME.format(updatedAt));
+        line("DTSTART:" + UTC_DATE_TIME.format(startAt));
+        line("DTEND:" + UTC_DATE_TIME.format(endAt));
+        line("SUMMARY:" + escape(summary));
+        if (description != null && !description.isBlank()) {
+            line("DESCRIPTION:" + escape(description));
+        }
+        line("STATUS:CONFIRMED");
+        line("TRANSP:OPAQUE");
+        line("END:VEVENT");
+    }
+
+    void end() throws IOException {
+        line("END:VCALENDAR");
+        out.flush();
+    }
+
+    private void line(String content) throws IOException {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        int start = 0;
+        int limit = MAX_LINE_OCTETS;
+        while (bytes.length - start > limit) {
+            int end = start + limit;
+            // Back up to the start of a UTF-8 character (continuation bytes are 10xxxxxx)
+            while ((bytes[end] & 0xC0) == 0x80) {
+                end--;
+            }
+            out.write(bytes, start, end - start);
+            out.write(CRLF);
+            out.write(' ');
+            start = end;
+            // The leading space of a continuation line counts towards its 75 octets
+            limit = MAX_LINE_OCTETS - 1;
+        }
+        out.write(bytes, start, bytes.length - start);
+        out.write(CRLF);
+    }
+
+    static String escape(String text) {
+        StringBuilder escaped = new StringBuilder(text.length() + 8);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '\\', ';', ',' -> escaped.append('\\').append(c);
+                case '\n' -> escaped.append("\\n");
+                case '\r' -> {
+                }
+                default -> escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+}
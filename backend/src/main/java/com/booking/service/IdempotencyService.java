@@ -0,0 +1,360 @@
+package com.booking.service;
+
+import com.booking.cache.BoundedTtlCache;
+import com.booking.exception.BookingException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Replays the stored response for requests carrying an Idempotency-Key that was already
+ * handled for the same user. Completed responses are kept in a bounded in-memory cache
+ * and, optionally, in the idempotency_keys table so they survive restarts and are shared
+ * between nodes. Concurrent duplicates on one node wait for the request in flight; with
+ * the table enabled, a request first claims its key with a row, so duplicates on other
+ * nodes wait for it too. A claim left by a node that died is taken over once it expires.
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final long CLAIM_POLL_MS = 50;
+    // Replays must point the client at the same ticket as the original 202
+    private static final List<String> REPLAYED_RESPONSE_HEADERS = List.of(HttpHeaders.LOCATION, "Preference-Applied");
+    private static final TypeReference<Map<String, String>> HEADERS_TYPE = new TypeReference<>() {
+    };
+
+    // Takes the key unless a live row (a claim or a stored response) already holds it
+    private static final String CLAIM_SQL = """
+            INSERT INTO idempotency_keys (user_id, idempotency_key, request_fingerprint, expires_at)
+            VALUES (?, ?, ?, ?)
+            ON CONFLICT (user_id, idempotency_key) DO UPDATE
+                SET request_fingerprint = EXCLUDED.request_fingerprint, response_status = NULL,
+                    response_body = NULL, response_headers = NULL, created_at = NOW(),
+                    expires_at = EXCLUDED.expires_at
+                WHERE idempotency_keys.expires_at <= NOW()
+            """;
+
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean jdbcEnabled;
+    private final Duration ttl;
+    private final long waitTimeoutMs;
+    private final Duration claimTimeout;
+    private final BoundedTtlCache<String, StoredResponse> completed;
+    private final ConcurrentMap<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyService(
+            ObjectMapper objectMapper,
+            JdbcTemplate jdbcTemplate,
+            @Value("${app.idempotency.jdbc-enabled:false}") boolean jdbcEnabled,
+            @Value("${app.idempotency.ttl-seconds:86400}") long ttlSeconds,
+            @Value("${app.idempotency.max-entries:100000}") int maxEntries,
+            @Value("${app.idempotency.wait-timeout-ms:10000}") long waitTimeoutMs,
+            @Value("${app.idempotency.claim-timeout-ms:60000}") long claimTimeoutMs) {
+        this.objectMapper = objectMapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.jdbcEnabled = jdbcEnabled;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.waitTimeoutMs = waitTimeoutMs;
+        this.claimTimeout = Duration.ofMillis(claimTimeoutMs);
+        this.completed = new BoundedTtlCache<>(maxEntries, ttl);
+    }
+
+    public <T> ResponseEntity<T> execute(
+            UUID userId,
+            String idempotencyKey,
+            Object request,
+            Class<T> responseType,
+            Supplier<ResponseEntity<T>> action) {
+        validateKey(idempotencyKey);
+
+        String scopedKey = userId + ":" + idempotencyKey;
+        String fingerprint = fingerprint(request);
+
+        Optional<StoredResponse> stored = lookup(userId, idempotencyKey, scopedKey);
+        if (stored.isPresent()) {
+            return replay(stored.get(), fingerprint, responseType);
+        }
+
+        CompletableFuture<StoredResponse> pending = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> existing = inFlight.putIfAbsent(scopedKey, pending);
+        if (existing != null) {
+            return replay(awaitInFlight(existing), fingerprint, responseType);
+        }
+
+        boolean claimed = false;
+        try {
+            // The first request may have completed between the lookup and claiming the key
+            stored = completed.get(scopedKey);
+            if (stored.isEmpty() && jdbcEnabled) {
+                stored = claim(userId, idempotencyKey, fingerprint);
+                claimed = stored.isEmpty();
+                stored.ifPresent(row -> completed.put(scopedKey, row));
+            }
+            if (stored.isPresent()) {
+                pending.complete(stored.get());
+                return replay(stored.get(), fingerprint, responseType);
+            }
+
+            ResponseEntity<T> response = action.get();
+            StoredResponse result = new StoredResponse(
+                    fingerprint, response.getStatusCode().value(), toJson(response.getBody()),
+                    replayedHeaders(response));
+            store(userId, idempotencyKey, scopedKey, result);
+            pending.complete(result);
+            return response;
+        } catch (RuntimeException ex) {
+            if (claimed) {
+                release(userId, idempotencyKey);
+            }
+            pending.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(scopedKey, pending);
+        }
+    }
+
+    /**
+     * The stored response for a key that was already handled, replayed as {@link #execute}
+     * would. Lets callers answer retries before admission control, which only new work needs.
+     */
+    public <T> Optional<ResponseEntity<T>> findReplay(
+            UUID userId,
+            String idempotencyKey,
+            Object request,
+            Class<T> responseType) {
+        validateKey(idempotencyKey);
+        String scopedKey = userId + ":" + idempotencyKey;
+        return lookup(userId, idempotencyKey, scopedKey)
+                .map(stored -> replay(stored, fingerprint(request), responseType));
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        completed.evictExpired();
+        if (jdbcEnabled) {
+            int purged = jdbcTemplate.update("DELETE FROM idempotency_keys WHERE expires_at < NOW()");
+            if (purged > 0) {
+                log.debug("Purged {} expired idempotency keys", purged);
+            }
+        }
+    }
+
+    private Optional<StoredResponse> lookup(UUID userId, String idempotencyKey, String scopedKey) {
+        Optional<StoredResponse> cached = completed.get(scopedKey);
+        if (cached.isPresent() || !jdbcEnabled) {
+            return cached;
+        }
+
+        Optional<StoredResponse> row = findRow(userId, idempotencyKey).filter(StoredResponse::isComplete);
+        row.ifPresent(found -> completed.put(scopedKey, found));
+        return row;
+    }
+
+    /**
+     * Claims the key for this node, or waits for the node holding it. Empty once the claim is
+     * ours; otherwise the response the other node stored.
+     */
+    private Optional<StoredResponse> claim(UUID userId, String idempotencyKey, String fingerprint) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitTimeoutMs);
+        while (true) {
+            int claimed = jdbcTemplate.update(CLAIM_SQL, userId, idempotencyKey, fingerprint,
+                    Timestamp.from(Instant.now().plus(claimTimeout)));
+            if (claimed == 1) {
+                return Optional.empty();
+            }
+            // Gone again if its owner failed and released it; the next attempt claims it
+            Optional<StoredResponse> row = findRow(userId, idempotencyKey);
+            if (row.isPresent() && !row.get().fingerprint().equals(fingerprint)) {
+                throw keyReused();
+            }
+            if (row.isPresent() && row.get().isComplete()) {
+                return row;
+            }
+            if (System.nanoTime() >= deadline) {
+                throw stillInProgress();
+            }
+            try {
+                Thread.sleep(CLAIM_POLL_MS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw stillInProgress();
+            }
+        }
+    }
+
+    private Optional<StoredResponse> findRow(UUID userId, String idempotencyKey) {
+        return jdbcTemplate.query(
+                "SELECT request_fingerprint, response_status, response_body, response_headers " +
+                        "FROM idempotency_keys WHERE user_id = ? AND idempotency_key = ? AND expires_at > NOW()",
+                (rs, rowNum) -> new StoredResponse(
+                        rs.getString("request_fingerprint"),
+                        rs.getObject("response_status", Integer.class),
+                        rs.getString("response_body"),
+                        fromHeadersJson(rs.getString("response_headers"))),
+                userId, idempotencyKey).stream().findFirst();
+    }
+
+    private void store(UUID userId, String idempotencyKey, String scopedKey, StoredResponse result) {
+        completed.put(scopedKey, result);
+        if (!jdbcEnabled) {
+            return;
+        }
+        try {
+            jdbcTemplate.update(
+                    "UPDATE idempotency_keys SET response_status = ?, response_body = ?, " +
+                            "response_headers = ?, expires_at = ? WHERE user_id = ? AND idempotency_key = ?",
+                    result.status(), result.body(), toJson(result.headers()),
+                    Timestamp.from(Instant.now().plus(ttl)), userId, idempotencyKey);
+        } catch (RuntimeException ex) {
+            // The request itself succeeded; duplicates on other nodes wait until the claim expires
+            log.warn("Could not persist idempotency key {}: {}", scopedKey, ex.getMessage());
+        }
+    }
+
+    private void release(UUID userId, String idempotencyKey) {
+        try {
+            jdbcTemplate.update(
+                    "DELETE FROM idempotency_keys WHERE user_id = ? AND idempotency_key = ? " +
+                            "AND response_status IS NULL",
+                    userId, idempotencyKey);
+        } catch (RuntimeException ex) {
+            log.warn("Could not release idempotency key {}:{}: {}", userId, idempotencyKey, ex.getMessage());
+        }
+    }
+
+    private StoredResponse awaitInFlight(CompletableFuture<StoredResponse> existing) {
+        try {
+            return existing.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (TimeoutException ex) {
+            throw stillInProgress();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw stillInProgress();
+        }
+    }
+
+    private <T> ResponseEntity<T> replay(StoredResponse stored, String fingerprint, Class<T> responseType) {
+        if (!stored.fingerprint().equals(fingerprint)) {
+            throw keyReused();
+        }
+        try {
+            T body = objectMapper.readValue(stored.body(), responseType);
+            return ResponseEntity.status(stored.status())
+                    .headers(headers -> stored.headers().forEach(headers::set))
+                    .header(REPLAYED_HEADER, "true")
+                    .body(body);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Stored idempotent response is not readable", ex);
+        }
+    }
+
+    private static Map<String, String> replayedHeaders(ResponseEntity<?> response) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (String name : REPLAYED_RESPONSE_HEADERS) {
+            String value = response.getHeaders().getFirst(name);
+            if (value != null) {
+                headers.put(name, value);
+            }
+        }
+        return headers;
+    }
+
+    private Map<String, String> fromHeadersJson(String json) {
+        if (json == null) {
+            return Map.of();
+        }
+        try {
+            return objectMapper.readValue(json, HEADERS_TYPE);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Stored idempotent response headers are not readable", ex);
+        }
+    }
+
+    private static BookingException keyReused() {
+        return new BookingException(
+                "Idempotency-Key was already used with a different request",
+                "IDEMPOTENCY_KEY_REUSED",
+                HttpStatus.UNPROCESSABLE_ENTITY
+        );
+    }
+
+    private static BookingException stillInProgress() {
+        return BookingException.conflict(
+                "A request with this Idempotency-Key is still being processed",
+                "IDEMPOTENCY_REQUEST_IN_PROGRESS"
+        );
+    }
+
+    private void validateKey(String idempotencyKey) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw BookingException.badRequest(
+                    String.format("Idempotency-Key must be between 1 and %d characters", MAX_KEY_LENGTH),
+                    "INVALID_IDEMPOTENCY_KEY"
+            );
+        }
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(toJson(request).getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize value for idempotency store", ex);
+        }
+    }
+
+    // A claim has no status yet
+    private record StoredResponse(String fingerprint, Integer status, String body, Map<String, String> headers) {
+
+        boolean isComplete() {
+            return status != null;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.booking.service;
+
+import com.booking.dto.resource.ResourceResponse;
+import com.booking.dto.resource.ResourceSearchResponse;
+import com.booking.repository.ResourceRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Inverted index over active resources for databases without full-text search. Words map
+ * to the resources containing them in a sorted map, so a prefix is a range scan. The index
+ * is rebuilt on the next search after any resource write, detected through the
+ * {@link ResourceCache} generation, which every node bumps when a resource changes.
+ */
+@Component
+@ConditionalOnProperty(name = "app.resource-search.engine", havingValue = "memory")
+public class InMemoryResourceSearch implements ResourceSearch {
+
+    // Same relative weights as ts_rank gives to the A (name) and B (description) labels
+    private static final float NAME_WEIGHT = 1.0f;
+    private static final float DESCRIPTION_WEIGHT = 0.4f;
+
+    private final ResourceRepository resourceRepository;
+    private final ResourceCache resourceCache;
+    private volatile Index index = new Index(-1, new TreeMap<>(), Map.of());
+
+    public InMemoryResourceSearch(ResourceRepository resourceRepository, ResourceCache resourceCache) {
+        this.resourceRepository = resourceRepository;
+        this.resourceCache = resourceCache;
+    }
+
+    @Override
+    public ResourceSearchResponse search(List<String> terms, int page, int size) {
+        Index current = currentIndex();
+
+        Map<UUID, Float> scores = null;
+        for (String term : terms) {
+            Map<UUID, Float> termScores = new HashMap<>();
+            current.postings().subMap(term, true, term + Character.MAX_VALUE, false).values()
+                    .forEach(posting -> posting.forEach((id, weight) -> termScores.merge(id, weight, Math::max)));
+            if (scores == null) {
+                scores = termScores;
+            } else {
+                scores.keySet().retainAll(termScores.keySet());
+                scores.replaceAll((id, score) -> score + termScores.get(id));
+            }
+        }
+        Map<UUID, Float> matches = scores == null ? Map.of() : scores;
+
+        List<ResourceResponse> ranked = matches.keySet().stream()
+                .map(current.resources()::get)
+                .sorted(Comparator.comparing((ResourceResponse resource) -> -matches.get(resource.getId()))
+                        .thenComparing(ResourceResponse::getName)
+                        .thenComparing(ResourceResponse::getId))
+                .skip((long) page * size)
+                .limit(size)
+                .toList();
+
+        return ResourceSearchResponse.builder()
+                .results(ranked)
+                .page(page)
+                .size(size)
+                .totalResults(matches.size())
+                .build();
+    }
+
+    private Index currentIndex() {
+        Index current = index;
+        long generation = resourceCache.generation();
+        if (current.generation() == generation) {
+            return current;
+        }
+        synchronized (this) {
+            if (index.generation() != generation) {
+                // Generation read before loading: a write during the load triggers another rebuild
+                index = build(generation);
+            }
+            return index;
+        }
+    }
+
+    private Index build(long generation) {
+        NavigableMap<String, Map<UUID, Float>> postings = new TreeMap<>();
+        Map<UUID, ResourceResponse> resources = new HashMap<>();
+        resourceRepository.findByActiveTrue().forEach(entity -> {
+            ResourceResponse resource = ResourceResponse.from(entity);
+            resources.put(resource.getId(), resource);
+            addWords(postings, resource.getId(), resource.getDescription(), DESCRIPTION_WEIGHT);
+            addWords(postings, resource.getId(), resource.getName(), NAME_WEIGHT);
+        });
+        return new Index(generation, postings, resources);
+    }
+
+    private static void addWords(NavigableMap<String, Map<UUID, Float>> postings, UUID id, String text, float weight) {
+        for (String word : ResourceSearch.terms(text, Integer.MAX_VALUE)) {
+            postings.computeIfAbsent(word, w -> new HashMap<>()).merge(id, weight, Math::max);
+        }
+    }
+
+    private record Index(long generation, NavigableMap<String, Map<UUID, Float>> postings,
+                         Map<UUID, ResourceResponse> resources) {
+    }
+}
@@ -0,0 +1,233 @@
+package com.booking.service;
+
+import com.booking.cache.SingleFlight;
+import com.booking.dto.analytics.OccupancyHeatmapResponse;
+import com.booking.exception.BookingException;
+import com.booking.repository.ArchivedBookingRepository;
+import com.booking.repository.BookingInterval;
+import com.booking.repository.BookingRepository;
+import com.booking.repository.ResourceRepository;
+import com.booking.sharding.ShardRouter;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.time.zone.ZoneRules;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Builds hour-of-week occupancy heatmaps over long ranges. Booking intervals are read in
+ * keyset-ordered chunks, copied into primitive arrays and handed to a fork/join pool while
+ * the next chunk loads. At most a few chunks are in flight at once, so heap use depends on
+ * the chunk size, not on the number of bookings in the range.
+ */
+@Slf4j
+@Service
+public class OccupancyAnalyticsService {
+
+    @FunctionalInterface
+    interface IntervalSource {
+        List<BookingInterval> next(UUID resourceId, Instant earliestStart, Instant endBefore,
+                                   Instant afterStart, UUID afterId, Pageable pageable);
+    }
+
+    private record Query(UUID resourceId, LocalDate from, LocalDate to, ZoneId zone) {
+    }
+
+    private static final UUID MIN_UUID = new UUID(0L, 0L);
+
+    private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final ResourceRepository resourceRepository;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate snapshotRead;
+    private final ZoneId defaultZone;
+    private final int chunkSize;
+    private final int maxChunksInFlight;
+    private final int maxRangeDays;
+    private final ForkJoinPool pool;
+    private final SingleFlight<Query, OccupancyHeatmapResponse> inFlight = new SingleFlight<>();
+
+    @Autowired
+    public OccupancyAnalyticsService(
+            BookingRepository bookingRepository,
+            ArchivedBookingRepository archivedBookingRepository,
+            ResourceRepository resourceRepository,
+            ShardRouter shardRouter,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.booking.timezone:UTC}") String defaultZone,
+            @Value("${app.analytics.chunk-size:20000}") int chunkSize,
+            @Value("${app.analytics.max-chunks-in-flight:4}") int maxChunksInFlight,
+            @Value("${app.analytics.max-range-days:800}") int maxRangeDays,
+            @Value("${app.analytics.parallelism:0}") int parallelism) {
+        this.bookingRepository = bookingRepository;
+        this.archivedBookingRepository = archivedBookingRepository;
+        this.resourceRepository = resourceRepository;
+        this.shardRouter = shardRouter;
+        this.snapshotRead = new TransactionTemplate(transactionManager);
+        this.snapshotRead.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshotRead.setReadOnly(true);
+        this.defaultZone = ZoneId.of(defaultZone);
+        this.chunkSize = chunkSize;
+        this.maxChunksInFlight = maxChunksInFlight;
+        this.maxRangeDays = maxRangeDays;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Concurrent requests for the same heatmap share one computation.
+     */
+    public OccupancyHeatmapResponse getOccupancyHeatmap(UUID resourceId, LocalDate from, LocalDate to, String timezone) {
+        ZoneId zone = timezone == null ? defaultZone : parseZone(timezone);
+        LocalDate end = to == null ? LocalDate.now(zone) : to;
+        LocalDate start = from == null ? end.minusWeeks(52).plusDays(1) : from;
+        if (start.isAfter(end) || ChronoUnit.DAYS.between(start, end) >= maxRangeDays) {
+            throw BookingException.badRequest(
+                    String.format("from must not be after to, and the range cannot exceed %d days", maxRangeDays),
+                    "INVALID_DATE_RANGE"
+            );
+        }
+        return inFlight.execute(new Query(resourceId, start, end, zone), () -> compute(resourceId, start, end, zone))
+                .value();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private OccupancyHeatmapResponse compute(UUID resourceId, LocalDate from, LocalDate to, ZoneId zone) {
+        long startedNanos = System.nanoTime();
+        Instant windowStart = from.atStartOfDay(zone).toInstant();
+        Instant windowEnd = to.plusDays(1).atStartOfDay(zone).toInstant();
+        ZoneRules rules = zone.getRules();
+
+        long[] occupiedSeconds = new long[HourOfWeekHistogram.BINS];
+        int[] starts = new int[HourOfWeekHistogram.BINS];
+        Deque<ForkJoinTask<HourOfWeekHistogram.Partial>> pending = new ArrayDeque<>();
+
+        // Live table, then the archive, from one snapshot so a booking archived meanwhile is counted once
+        AtomicLong scanned = new AtomicLong();
+        Runnable scanShard = () -> snapshotRead.executeWithoutResult(status -> {
+            scanned.addAndGet(scan(bookingRepository::findIntervalsAfter, resourceId, windowStart, windowEnd,
+                    rules, pending, occupiedSeconds, starts));
+            scanned.addAndGet(scan(archivedBookingRepository::findIntervalsAfter, resourceId, windowStart,
+                    windowEnd, rules, pending, occupiedSeconds, starts));
+        });
+        if (resourceId != null) {
+            shardRouter.onShard(shardRouter.shardFor(resourceId), scanShard);
+        } else {
+            shardRouter.forEachShard(scanShard);
+        }
+        while (!pending.isEmpty()) {
+            accumulate(pending.poll().join(), occupiedSeconds, starts);
+        }
+
+        long resources = resourceId != null ? 1 : resourceRepository.count();
+        long[] secondsPerBin = new long[HourOfWeekHistogram.BINS];
+        HourOfWeekHistogram.forEachHourSlice(windowStart.getEpochSecond(), windowEnd.getEpochSecond(), rules,
+                (bin, seconds) -> secondsPerBin[bin] += seconds);
+
+        long[][] bookedMinutes = new long[7][24];
+        int[][] bookingStarts = new int[7][24];
+        double[][] occupancy = new double[7][24];
+        for (int bin = 0; bin < HourOfWeekHistogram.BINS; bin++) {
+            int day = bin / 24;
+            int hour = bin % 24;
+            bookedMinutes[day][hour] = occupiedSeconds[bin] / 60;
+            bookingStarts[day][hour] = starts[bin];
+            long capacitySeconds = secondsPerBin[bin] * resources;
+            occupancy[day][hour] = capacitySeconds == 0 ? 0 : (double) occupiedSeconds[bin] / capacitySeconds;
+        }
+
+        long elapsedMs = (System.nanoTime() - startedNanos) / 1_000_000;
+        log.info("Built occupancy heatmap for {}..{} from {} bookings in {} ms", from, to, scanned.get(), elapsedMs);
+
+        return OccupancyHeatmapResponse.builder()
+                .from(from)
+                .to(to)
+                .timezone(zone.getId())
+                .resourceId(resourceId)
+                .resources(resources)
+                .bookingsScanned(scanned.get())
+                .elapsedMs(elapsedMs)
+                .days(Arrays.stream(DayOfWeek.values()).map(DayOfWeek::name).toList())
+                .bookedMinutes(bookedMinutes)
+                .bookingStarts(bookingStarts)
+                .occupancy(occupancy)
+                .build();
+    }
+
+    private long scan(IntervalSource source, UUID resourceId, Instant windowStart, Instant windowEnd,
+                      ZoneRules rules, Deque<ForkJoinTask<HourOfWeekHistogram.Partial>> pending,
+                      long[] occupiedSeconds, int[] starts) {
+        Instant earliestStart = BookingWindows.earliestOverlappingStart(windowStart);
+        Instant afterStart = earliestStart.minusSeconds(1);
+        UUID afterId = MIN_UUID;
+        Pageable chunk = PageRequest.of(0, chunkSize);
+        long scanned = 0;
+
+        while (true) {
+            List<BookingInterval> intervals =
+                    source.next(resourceId, earliestStart, windowEnd, afterStart, afterId, chunk);
+            if (intervals.isEmpty()) {
+                return scanned;
+            }
+
+            long[] startSeconds = new long[intervals.size()];
+            long[] endSeconds = new long[intervals.size()];
+            for (int i = 0; i < intervals.size(); i++) {
+                startSeconds[i] = intervals.get(i).startAt().getEpochSecond();
+                endSeconds[i] = intervals.get(i).endAt().getEpochSecond();
+            }
+            BookingInterval last = intervals.get(intervals.size() - 1);
+            afterStart = last.startAt();
+            afterId = last.id();
+            scanned += intervals.size();
+
+            if (pending.size() >= maxChunksInFlight) {
+                accumulate(pending.poll().join(), occupiedSeconds, starts);
+            }
+            pending.add(pool.submit(new HourOfWeekHistogram(startSeconds, endSeconds,
+                    windowStart.getEpochSecond(), windowEnd.getEpochSecond(), rules)));
+
+            if (intervals.size() < chunkSize) {
+                return scanned;
+            }
+        }
+    }
+
+    private static void accumulate(HourOfWeekHistogram.Partial partial, long[] occupiedSeconds, int[] starts) {
+        for (int bin = 0; bin < HourOfWeekHistogram.BINS; bin++) {
+            occupiedSeconds[bin] += partial.occupiedSeconds()[bin];
+            starts[bin] += partial.starts()[bin];
+        }
+    }
+
+    private static ZoneId parseZone(String timezone) {
+        try {
+            return ZoneId.of(timezone);
+        } catch (RuntimeException ex) {
+            throw BookingException.badRequest("Unknown timezone: " + timezone, "INVALID_TIMEZONE");
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.booking.service;
+
+import com.booking.dto.resource.ResourceResponse;
+import com.booking.dto.resource.ResourceSearchResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Searches the generated resources.search_vector column through its GIN index. The count of
+ * all matches comes from a window function over the same scan, so a page costs one query.
+ */
+@Component
+@ConditionalOnProperty(name = "app.resource-search.engine", havingValue = "postgres", matchIfMissing = true)
+@RequiredArgsConstructor
+public class PostgresResourceSearch implements ResourceSearch {
+
+    private static final String SEARCH_SQL = """
+            SELECT r.id, r.name, r.description, r.active, r.capacity, r.tags, r.created_at, r.updated_at,
+                   count(*) OVER () AS total
+            FROM resources r, to_tsquery('simple', ?) AS query
+            WHERE r.active AND r.search_vector @@ query
+            ORDER BY ts_rank(r.search_vector, query) DESC, r.name, r.id
+            LIMIT ? OFFSET ?""";
+
+    private static final String COUNT_SQL = """
+            SELECT count(*) FROM resources r
+            WHERE r.active AND r.search_vector @@ to_tsquery('simple', ?)""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public ResourceSearchResponse search(List<String> terms, int page, int size) {
+        String tsquery = prefixQuery(terms);
+
+        List<ResourceResponse> results = new ArrayList<>();
+        long[] total = {0};
+        jdbcTemplate.query(SEARCH_SQL, rs -> {
+            total[0] = rs.getLong("total");
+            results.add(ResourceResponse.builder()
+                    .id(rs.getObject("id", UUID.class))
+                    .name(rs.getString("name"))
+                    .description(rs.getString("description"))
+                    .active(rs.getBoolean("active"))
+                    .capacity(rs.getObject("capacity", Integer.class))
+                    .tags(List.of((String[]) rs.getArray("tags").getArray()))
+                    .createdAt(rs.getTimestamp("created_at").toInstant())
+                    .updatedAt(rs.getTimestamp("updated_at").toInstant())
+                    .build());
+        }, tsquery, size, (long) page * size);
+
+        // A page past the last match has no row to carry the total
+        if (results.isEmpty() && page > 0) {
+            total[0] = jdbcTemplate.queryForObject(COUNT_SQL, Long.class, tsquery);
+        }
+
+        return ResourceSearchResponse.builder()
+                .results(results)
+                .page(page)
+                .size(size)
+                .totalResults(total[0])
+                .build();
+    }
+
+    /**
+     * A tsquery requiring every term as a word prefix. Terms are letters and digits only
+     * (ResourceSearch.terms), so they cannot alter the query.
+     */
+    public static String prefixQuery(List<String> terms) {
+        return terms.stream().map(term -> term + ":*").collect(Collectors.joining(" & "));
+    }
+}
@@ -0,0 +1,134 @@
+package com.booking.service;
+
+import com.booking.cache.CacheInvalidationBus;
+import com.booking.cache.InvalidatableCache;
+import com.booking.event.BookingChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Intervals booked on this node in the last few seconds, per resource. Lets requests
+ * that lost a race for the same slot be rejected without a database round trip.
+ * Only bookings committed here are known, so a miss always falls through to the
+ * regular overlap check. A booking cancelled or expired on any node is forgotten on
+ * every node through the cache bus, so its slot can be booked again right away.
+ */
+@Component
+public class RecentBookings implements InvalidatableCache {
+
+    public static final String NAME = "recent-bookings";
+
+    private final CacheInvalidationBus invalidationBus;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+    private final ConcurrentMap<UUID, List<Interval>> byResource = new ConcurrentHashMap<>();
+
+    @Autowired
+    public RecentBookings(
+            CacheInvalidationBus invalidationBus,
+            @Value("${app.booking-lock.recent-ttl-ms:10000}") long ttlMillis) {
+        this(invalidationBus, ttlMillis, System::currentTimeMillis);
+    }
+
+    RecentBookings(CacheInvalidationBus invalidationBus, long ttlMillis, LongSupplier clock) {
+        this.invalidationBus = invalidationBus;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+        invalidationBus.register(this);
+    }
+
+    public boolean overlapsKnownBooking(UUID resourceId, Instant startAt, Instant endAt) {
+        List<Interval> intervals = byResource.get(resourceId);
+        if (intervals == null) {
+            return false;
+        }
+        long now = clock.getAsLong();
+        synchronized (intervals) {
+            for (Interval interval : intervals) {
+                if (interval.expiresAt() > now
+                        && interval.startAt().isBefore(endAt)
+                        && interval.endAt().isAfter(startAt)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    public void record(UUID resourceId, UUID bookingId, Instant startAt, Instant endAt) {
+        if (ttlMillis <= 0) {
+            return;
+        }
+        long now = clock.getAsLong();
+        byResource.compute(resourceId, (id, intervals) -> {
+            List<Interval> updated = intervals == null ? new ArrayList<>() : intervals;
+            synchronized (updated) {
+                updated.removeIf(interval -> interval.expiresAt() <= now);
+                updated.add(new Interval(bookingId, startAt, endAt, now + ttlMillis));
+            }
+            return updated;
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        if (event.type() == BookingChangedEvent.Type.CANCELLED
+                || event.type() == BookingChangedEvent.Type.HOLD_CANCELLED
+                || event.type() == BookingChangedEvent.Type.EXPIRED) {
+            invalidationBus.invalidate(NAME, event.resourceId() + ":" + event.bookingId());
+        }
+    }
+
+    @Override
+    public String cacheName() {
+        return NAME;
+    }
+
+    @Override
+    public void evict(String key) {
+        int separator = key.indexOf(':');
+        forget(UUID.fromString(key.substring(0, separator)), UUID.fromString(key.substring(separator + 1)));
+    }
+
+    @Override
+    public void evictAll() {
+        byResource.clear();
+    }
+
+    private void forget(UUID resourceId, UUID bookingId) {
+        byResource.computeIfPresent(resourceId, (id, intervals) -> {
+            synchronized (intervals) {
+                intervals.removeIf(interval -> interval.bookingId().equals(bookingId));
+                return intervals.isEmpty() ? null : intervals;
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.booking-lock.recent-sweep-interval-ms:60000}")
+    public void evictExpired() {
+        long now = clock.getAsLong();
+        for (UUID resourceId : byResource.keySet()) {
+            byResource.computeIfPresent(resourceId, (id, intervals) -> {
+                synchronized (intervals) {
+                    intervals.removeIf(interval -> interval.expiresAt() <= now);
+                    return intervals.isEmpty() ? null : intervals;
+                }
+            });
+        }
+    }
+
+    private record Interval(UUID bookingId, Instant startAt, Instant endAt, long expiresAt) {
+    }
+}
@@ -0,0 +1,143 @@
+package com.booking.service;
+
+import com.booking.dto.resource.ResourceResponse;
+import com.booking.repository.ResourceRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Bitmap index of active resources by capacity and tag. Resources are numbered in order of
+ * capacity, so "at least N seats" is one contiguous bit range, and each tag has a BitSet of
+ * the resources carrying it. A filter is then a handful of word-wide ANDs, whatever the
+ * number of resources. Rebuilt on the next lookup after any resource write, detected
+ * through the {@link ResourceCache} generation.
+ */
+@Component
+public class ResourceAttributeIndex {
+
+    private static final Comparator<ResourceResponse> CAPACITY_ORDER = Comparator
+            .comparing((ResourceResponse resource) -> capacityOf(resource))
+            .thenComparing(ResourceResponse::getName)
+            .thenComparing(ResourceResponse::getId);
+
+    private final ResourceRepository resourceRepository;
+    private final ResourceCache resourceCache;
+    private volatile Index index = new Index(-1, List.of(), new int[0], 0, Map.of());
+
+    public ResourceAttributeIndex(ResourceRepository resourceRepository, ResourceCache resourceCache) {
+        this.resourceRepository = resourceRepository;
+        this.resourceCache = resourceCache;
+    }
+
+    /**
+     * Active resources with at least {@code minCapacity} seats (any, when null) carrying every
+     * one of {@code tags}, smallest fitting capacity first.
+     */
+    public List<ResourceResponse> candidates(Integer minCapacity, Collection<String> tags) {
+        Index current = currentIndex();
+        int size = current.resources().size();
+
+        BitSet matches = new BitSet(size);
+        if (minCapacity == null) {
+            matches.set(0, size);
+        } else {
+            matches.set(firstWithCapacity(current.capacities(), current.sized(), minCapacity), current.sized());
+        }
+        for (String tag : normalizeTags(tags)) {
+            BitSet tagged = current.tags().get(tag);
+            if (tagged == null) {
+                return List.of();
+            }
+            matches.and(tagged);
+        }
+
+        List<ResourceResponse> candidates = new ArrayList<>(matches.cardinality());
+        matches.stream().forEach(ordinal -> candidates.add(current.resources().get(ordinal)));
+        return candidates;
+    }
+
+    /**
+     * Tags as stored: trimmed, lowercase, distinct and sorted.
+     */
+    public static String[] normalizeTags(Collection<String> tags) {
+        if (tags == null) {
+            return new String[0];
+        }
+        return tags.stream()
+                .filter(Objects::nonNull)
+                .map(tag -> tag.trim().toLowerCase(Locale.ROOT))
+                .filter(tag -> !tag.isEmpty())
+                .distinct()
+                .sorted()
+                .toArray(String[]::new);
+    }
+
+    private Index currentIndex() {
+        Index current = index;
+        long generation = resourceCache.generation();
+        if (current.generation() == generation) {
+            return current;
+        }
+        synchronized (this) {
+            if (index.generation() != generation) {
+                // Generation read before loading: a write during the load triggers another rebuild
+                index = build(generation);
+            }
+            return index;
+        }
+    }
+
+    private Index build(long generation) {
+        List<ResourceResponse> resources = resourceRepository.findByActiveTrue().stream()
+                .map(ResourceResponse::from)
+                .sorted(CAPACITY_ORDER)
+                .toList();
+
+        int[] capacities = new int[resources.size()];
+        int sized = 0;
+        Map<String, BitSet> tags = new HashMap<>();
+        for (int ordinal = 0; ordinal < resources.size(); ordinal++) {
+            ResourceResponse resource = resources.get(ordinal);
+            capacities[ordinal] = capacityOf(resource);
+            if (resource.getCapacity() != null) {
+                sized++;
+            }
+            for (String tag : resource.getTags()) {
+                tags.computeIfAbsent(tag, t -> new BitSet(capacities.length)).set(ordinal);
+            }
+        }
+        return new Index(generation, resources, capacities, sized, tags);
+    }
+
+    // Lowest ordinal whose capacity is at least minCapacity; capacities are sorted ascending
+    private static int firstWithCapacity(int[] capacities, int sized, int minCapacity) {
+        int position = Arrays.binarySearch(capacities, 0, sized, minCapacity);
+        if (position < 0) {
+            return -position - 1;
+        }
+        while (position > 0 && capacities[position - 1] == minCapacity) {
+            position--;
+        }
+        return position;
+    }
+
+    // Resources without a capacity sort last and never satisfy a minimum
+    private static int capacityOf(ResourceResponse resource) {
+        return resource.getCapacity() == null ? Integer.MAX_VALUE : resource.getCapacity();
+    }
+
+    // The first sized ordinals are the resources that have a capacity
+    private record Index(long generation, List<ResourceResponse> resources, int[] capacities, int sized,
+                         Map<String, BitSet> tags) {
+    }
+}
@@ -0,0 +1,106 @@
+package com.booking.service;
+
+import com.booking.cache.BoundedTtlCache;
+import com.booking.cache.CacheInvalidationBus;
+import com.booking.cache.InvalidatableCache;
+import com.booking.dto.resource.ResourceResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Caches resource lookups and the resource lists, which every client reads far more often
+ * than an admin changes them. Any resource write empties both lists, so a load that started
+ * before the write is not stored.
+ */
+@Component
+public class ResourceCache implements InvalidatableCache {
+
+    public static final String NAME = "resources";
+
+    private final CacheInvalidationBus invalidationBus;
+    private final boolean cacheEnabled;
+    private final BoundedTtlCache<UUID, ResourceResponse> byId;
+    private final BoundedTtlCache<Boolean, List<ResourceResponse>> lists;
+    private final AtomicLong generation = new AtomicLong();
+
+    public ResourceCache(
+            CacheInvalidationBus invalidationBus,
+            @Value("${app.resource-cache.ttl-ms:60000}") long ttlMs,
+            @Value("${app.resource-cache.max-entries:10000}") int maxEntries) {
+        this.invalidationBus = invalidationBus;
+        this.cacheEnabled = ttlMs > 0;
+        Duration ttl = Duration.ofMillis(Math.max(ttlMs, 1));
+        this.byId = new BoundedTtlCache<>(maxEntries, ttl);
+        this.lists = new BoundedTtlCache<>(2, ttl);
+        invalidationBus.register(this);
+    }
+
+    public ResourceResponse get(UUID id, Supplier<ResourceResponse> loader) {
+        return cached(byId, id, loader);
+    }
+
+    public List<ResourceResponse> list(boolean activeOnly, Supplier<List<ResourceResponse>> loader) {
+        return cached(lists, activeOnly, () -> List.copyOf(loader.get()));
+    }
+
+    /**
+     * Drops the resource and both lists on every node once the current transaction commits.
+     */
+    public void invalidate(UUID id) {
+        invalidationBus.invalidate(NAME, id.toString());
+    }
+
+    public void invalidateAll() {
+        invalidationBus.invalidateAll(NAME);
+    }
+
+    /**
+     * Changes whenever a resource is written on any node, for derived views such as the
+     * in-memory search index that are rebuilt rather than evicted by key.
+     */
+    long generation() {
+        return generation.get();
+    }
+
+    @Override
+    public String cacheName() {
+        return NAME;
+    }
+
+    @Override
+    public void evict(String key) {
+        generation.incrementAndGet();
+        byId.remove(UUID.fromString(key));
+        lists.clear();
+    }
+
+    @Override
+    public void evictAll() {
+        generation.incrementAndGet();
+        byId.clear();
+        lists.clear();
+    }
+
+    private <K, V> V cached(BoundedTtlCache<K, V> cache, K key, Supplier<V> loader) {
+        if (!cacheEnabled) {
+            return loader.get();
+        }
+        Optional<V> hit = cache.get(key);
+        if (hit.isPresent()) {
+            return hit.get();
+        }
+        long loadedAt = generation.get();
+        V value = loader.get();
+        if (generation.get() == loadedAt) {
+            cache.put(key, value);
+        }
+        return value;
+    }
+}
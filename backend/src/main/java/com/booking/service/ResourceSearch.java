@@ -0,0 +1,67 @@
+package com.booking.service;
+
+import com.booking.dto.resource.ResourceSearchResponse;
+import com.booking.exception.BookingException;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Ranked full-text search over the names and descriptions of active resources. Every query
+ * term must match the start of a word; matches in the name rank above matches in the
+ * description. Backed by PostgreSQL full-text search, or by an in-memory index where the
+ * database has none (the H2 test profile), selected with {@code app.resource-search.engine}.
+ */
+public interface ResourceSearch {
+
+    int MAX_TERMS = 8;
+    int MAX_PAGE_SIZE = 100;
+
+    ResourceSearchResponse search(List<String> terms, int page, int size);
+
+    /**
+     * The terms of a search request, rejecting queries without any and negative pages so
+     * both web tiers answer bad requests the same way.
+     */
+    static List<String> requestTerms(String query, int page) {
+        List<String> terms = terms(query);
+        if (terms.isEmpty()) {
+            throw BookingException.badRequest("Search query must contain a letter or digit", "INVALID_QUERY");
+        }
+        if (page < 0) {
+            throw BookingException.badRequest("page must not be negative", "INVALID_PAGE");
+        }
+        return terms;
+    }
+
+    static int pageSize(int requested) {
+        return Math.min(Math.max(requested, 1), MAX_PAGE_SIZE);
+    }
+
+    /**
+     * Splits a query into lowercase words of letters and digits, the same way both engines
+     * split the indexed text. Anything else is a separator, so terms are safe to embed in a
+     * tsquery.
+     */
+    static List<String> terms(String query) {
+        return terms(query, MAX_TERMS);
+    }
+
+    static List<String> terms(String text, int limit) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (text == null) {
+            return List.of();
+        }
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (terms.size() == limit) {
+                break;
+            }
+            if (!word.isEmpty()) {
+                terms.add(word);
+            }
+        }
+        return List.copyOf(terms);
+    }
+}
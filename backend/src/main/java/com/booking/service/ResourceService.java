@@ -2,6 +2,7 @@ package com.booking.service;
 
 import com.booking.dto.resource.ResourceRequest;
 import com.booking.dto.resource.ResourceResponse;
+import com.booking.dto.resource.ResourceSearchResponse;
 import com.booking.entity.Resource;
 import com.booking.exception.BookingException;
 import com.booking.repository.ResourceRepository;
@@ -19,24 +20,30 @@ import java.util.UUID;
 public class ResourceService {
 
     private final ResourceRepository resourceRepository;
+    private final ResourceCache resourceCache;
+    private final ResourceSearch resourceSearch;
 
     public List<ResourceResponse> getActiveResources() {
-        return resourceRepository.findByActiveTrue()
+        return resourceCache.list(true, () -> resourceRepository.findByActiveTrue()
                 .stream()
                 .map(ResourceResponse::from)
-                .toList();
+                .toList());
     }
 
     public List<ResourceResponse> getAllResources() {
-        return resourceRepository.findAllByOrderByNameAsc()
+        return resourceCache.list(false, () -> resourceRepository.findAllByOrderByNameAsc()
                 .stream()
                 .map(ResourceResponse::from)
-                .toList();
+                .toList());
     }
 
     public ResourceResponse getResourceById(UUID id) {
-        Resource resource = findResourceById(id);
-        return ResourceResponse.from(resource);
+        return resourceCache.get(id, () -> ResourceResponse.from(findResourceById(id)));
+    }
+
+    public ResourceSearchResponse searchResources(String query, int page, int size) {
+        List<String> terms = ResourceSearch.requestTerms(query, page);
+        return resourceSearch.search(terms, page, ResourceSearch.pageSize(size));
     }
 
     @Transactional
@@ -45,9 +52,12 @@ public class ResourceService {
                 .name(request.getName())
                 .description(request.getDescription())
                 .active(request.getActive() != null ? request.getActive() : true)
+                .capacity(request.getCapacity())
+                .tags(ResourceAttributeIndex.normalizeTags(request.getTags()))
                 .build();
 
         resource = resourceRepository.save(resource);
+        resourceCache.invalidate(resource.getId());
         log.info("Resource created: {} ({})", resource.getName(), resource.getId());
 
         return ResourceResponse.from(resource);
@@ -62,8 +72,15 @@ public class ResourceService {
         if (request.getActive() != null) {
             resource.setActive(request.getActive());
         }
+        if (request.getCapacity() != null || request.isCapacityPresent()) {
+            resource.setCapacity(request.getCapacity());
+        }
+        if (request.getTags() != null) {
+            resource.setTags(ResourceAttributeIndex.normalizeTags(request.getTags()));
+        }
 
         resource = resourceRepository.save(resource);
+        resourceCache.invalidate(resource.getId());
         log.info("Resource updated: {} ({})", resource.getName(), resource.getId());
 
         return ResourceResponse.from(resource);
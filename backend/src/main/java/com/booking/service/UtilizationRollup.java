@@ -0,0 +1,66 @@
+package com.booking.service;
+
+import com.booking.event.BookingChangedEvent;
+import com.booking.repository.ResourceUtilizationDailyRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Applies each booking change to resource_utilization_daily inside the transaction that
+ * made it. Only confirmed bookings count: creating a booking or confirming a hold adds its
+ * minutes, cancelling a booking removes them, and holds that are cancelled or expire were
+ * never counted.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.utilization.enabled", havingValue = "true")
+public class UtilizationRollup {
+
+    private final ResourceUtilizationDailyRepository utilizationRepository;
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onBookingChanged(BookingChangedEvent event) {
+        int sign = switch (event.type()) {
+            case CREATED, CONFIRMED -> 1;
+            case CANCELLED -> -1;
+            case HELD, HOLD_CANCELLED, EXPIRED -> 0;
+        };
+        if (sign == 0) {
+            return;
+        }
+
+        LocalDate startDate = LocalDate.ofInstant(event.startAt(), ZoneOffset.UTC);
+        minutesPerDay(event.startAt(), event.endAt()).forEach((date, minutes) ->
+                utilizationRepository.addUsage(event.resourceId(), date,
+                        sign * minutes, date.equals(startDate) ? sign : 0));
+    }
+
+    /**
+     * Splits a booking at UTC midnight. Each slice is floored to whole minutes, the same
+     * rounding the backfill applies, so incremental and rebuilt rows agree.
+     */
+    static Map<LocalDate, Long> minutesPerDay(Instant startAt, Instant endAt) {
+        Map<LocalDate, Long> minutes = new LinkedHashMap<>();
+        Instant sliceStart = startAt;
+        while (sliceStart.isBefore(endAt)) {
+            LocalDate date = LocalDate.ofInstant(sliceStart, ZoneOffset.UTC);
+            Instant nextMidnight = date.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+            Instant sliceEnd = endAt.isBefore(nextMidnight) ? endAt : nextMidnight;
+            minutes.put(date, Duration.between(sliceStart, sliceEnd).toMinutes());
+            sliceStart = sliceEnd;
+        }
+        return minutes;
+    }
+}
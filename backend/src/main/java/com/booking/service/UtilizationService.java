@@ -0,0 +1,160 @@
+package com.booking.service;
+
+import com.booking.dto.utilization.UtilizationBackfillResponse;
+import com.booking.dto.utilization.UtilizationResponse;
+import com.booking.entity.Resource;
+import com.booking.entity.ResourceUtilizationDaily;
+import com.booking.exception.BookingException;
+import com.booking.job.UtilizationBackfillJob;
+import com.booking.repository.ResourceRepository;
+import com.booking.repository.ResourceUtilizationDailyRepository;
+import com.booking.sharding.ShardRouter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Serves utilization from the daily rollup. A request reads at most one row per resource
+ * and day in its range, however many bookings those days hold. Resources are available
+ * around the clock, so utilization is booked minutes over the period's minutes.
+ */
+@Service
+public class UtilizationService {
+
+    public enum Granularity {
+        DAY, WEEK, MONTH;
+
+        LocalDate periodStart(LocalDate date) {
+            return switch (this) {
+                case DAY -> date;
+                case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case MONTH -> date.withDayOfMonth(1);
+            };
+        }
+
+        LocalDate periodEnd(LocalDate periodStart) {
+            return switch (this) {
+                case DAY -> periodStart;
+                case WEEK -> periodStart.plusDays(6);
+                case MONTH -> periodStart.with(TemporalAdjusters.lastDayOfMonth());
+            };
+        }
+    }
+
+    private static final long MINUTES_PER_DAY = 24 * 60;
+    // findInRange's order; PostgreSQL compares UUIDs as unsigned bytes, which matches their string form
+    private static final Comparator<ResourceUtilizationDaily> BY_RESOURCE_AND_DATE = Comparator
+            .comparing((ResourceUtilizationDaily row) -> row.getResourceId().toString())
+            .thenComparing(ResourceUtilizationDaily::getUsageDate);
+
+    private final ResourceUtilizationDailyRepository utilizationRepository;
+    private final ResourceRepository resourceRepository;
+    private final ObjectProvider<UtilizationBackfillJob> backfillJob;
+    private final ShardRouter shardRouter;
+    private final int maxRangeDays;
+
+    public UtilizationService(
+            ResourceUtilizationDailyRepository utilizationRepository,
+            ResourceRepository resourceRepository,
+            ObjectProvider<UtilizationBackfillJob> backfillJob,
+            ShardRouter shardRouter,
+            @Value("${app.utilization.max-range-days:1100}") int maxRangeDays) {
+        this.utilizationRepository = utilizationRepository;
+        this.resourceRepository = resourceRepository;
+        this.backfillJob = backfillJob;
+        this.shardRouter = shardRouter;
+        this.maxRangeDays = maxRangeDays;
+    }
+
+    // Not transactional: without a resource the query scatters to every shard
+    public List<UtilizationResponse> getUtilization(
+            UUID resourceId, LocalDate from, LocalDate to, Granularity granularity) {
+        validateRange(from, to);
+
+        Supplier<List<ResourceUtilizationDaily>> query = () -> utilizationRepository.findInRange(resourceId, from, to);
+        List<ResourceUtilizationDaily> rows = resourceId != null
+                ? shardRouter.read(resourceId, query)
+                : shardRouter.gather(query, BY_RESOURCE_AND_DATE);
+        Set<UUID> resourceIds = rows.stream().map(ResourceUtilizationDaily::getResourceId).collect(Collectors.toSet());
+        Map<UUID, String> names = resourceRepository.findAllById(resourceIds).stream()
+                .collect(Collectors.toMap(Resource::getId, Resource::getName));
+
+        // Insertion order keeps the repository ordering: by resource, then period
+        Map<PeriodKey, UtilizationResponse> periods = new LinkedHashMap<>();
+        for (ResourceUtilizationDaily row : rows) {
+            LocalDate periodStart = granularity.periodStart(row.getUsageDate());
+            UtilizationResponse period = periods.computeIfAbsent(
+                    new PeriodKey(row.getResourceId(), periodStart),
+                    key -> emptyPeriod(key, names.get(key.resourceId()), granularity, from, to));
+            period.setBookedMinutes(period.getBookedMinutes() + row.getBookedMinutes());
+            period.setBookingCount(period.getBookingCount() + row.getBookingCount());
+        }
+
+        List<UtilizationResponse> result = new ArrayList<>(periods.values());
+        result.forEach(period -> period.setUtilization(
+                (double) period.getBookedMinutes() / (period.getDays() * MINUTES_PER_DAY)));
+        return result;
+    }
+
+    public UtilizationBackfillResponse backfill(LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        UtilizationBackfillJob job = backfillJob.getIfAvailable();
+        if (job == null) {
+            throw new BookingException(
+                    "Utilization rollups are disabled",
+                    "UTILIZATION_DISABLED",
+                    HttpStatus.SERVICE_UNAVAILABLE
+            );
+        }
+        return UtilizationBackfillResponse.builder()
+                .from(from)
+                .to(to)
+                .days(job.backfill(from, to))
+                .build();
+    }
+
+    private void validateRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw BookingException.badRequest("from must not be after to", "INVALID_DATE_RANGE");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxRangeDays) {
+            throw BookingException.badRequest(
+                    String.format("Date range cannot exceed %d days", maxRangeDays),
+                    "INVALID_DATE_RANGE"
+            );
+        }
+    }
+
+    // Periods at the edges of the range only count the days inside it
+    private static UtilizationResponse emptyPeriod(
+            PeriodKey key, String resourceName, Granularity granularity, LocalDate from, LocalDate to) {
+        LocalDate start = key.periodStart().isBefore(from) ? from : key.periodStart();
+        LocalDate periodEnd = granularity.periodEnd(key.periodStart());
+        LocalDate end = periodEnd.isAfter(to) ? to : periodEnd;
+        return UtilizationResponse.builder()
+                .resourceId(key.resourceId())
+                .resourceName(resourceName)
+                .periodStart(start)
+                .periodEnd(end)
+                .days((int) ChronoUnit.DAYS.between(start, end) + 1)
+                .build();
+    }
+
+    private record PeriodKey(UUID resourceId, LocalDate periodStart) {
+    }
+}
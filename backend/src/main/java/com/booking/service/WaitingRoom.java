@@ -0,0 +1,300 @@
+package com.booking.service;
+
+import com.booking.dto.booking.QueueTicketResponse;
+import com.booking.dto.booking.WaitingRoomStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Admission control for booking creation on hot resources. While a resource is flagged hot
+ * by an admin, or has seen more than the configured requests per second, callers receive a
+ * FIFO queue ticket and are admitted at a fixed rate.
+ *
+ * The server keeps two counters per resource (tickets issued and tickets admitted) and the
+ * one outstanding ticket of each waiting user. A retry without the ticket gets the same
+ * ticket back instead of a new place in the queue, and a ticket is consumed by the request
+ * it admits. Tickets are HMAC-signed tokens carrying their own sequence number.
+ */
+@Component
+public class WaitingRoom {
+
+    public static final String TICKET_HEADER = "Queue-Ticket";
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    private static final int PAYLOAD_BYTES = 16 + 16 + 8 + 8;
+
+    public record Admission(boolean admitted, QueueTicketResponse ticket) {
+
+        static final Admission ADMITTED = new Admission(true, null);
+    }
+
+    private final boolean enabled;
+    private final double admitPerSecond;
+    private final int overloadPerSecond;
+    private final long autoHotMillis;
+    private final long graceMillis;
+    private final SecretKeySpec key;
+    private final LongSupplier clock;
+    private final ConcurrentMap<UUID, Room> rooms = new ConcurrentHashMap<>();
+    private final Counter admitted;
+    private final Counter queued;
+
+    @Autowired
+    public WaitingRoom(
+            MeterRegistry meterRegistry,
+            @Value("${app.waiting-room.enabled:true}") boolean enabled,
+            @Value("${app.waiting-room.admit-per-second:5}") double admitPerSecond,
+            @Value("${app.waiting-room.overload-requests-per-second:50}") int overloadPerSecond,
+            @Value("${app.waiting-room.auto-hot-seconds:60}") long autoHotSeconds,
+            @Value("${app.waiting-room.grace-seconds:120}") long graceSeconds,
+            @Value("${app.waiting-room.secret:${app.jwt.secret}}") String secret) {
+        this(meterRegistry, enabled, admitPerSecond, overloadPerSecond, autoHotSeconds, graceSeconds, secret,
+                System::currentTimeMillis);
+    }
+
+    WaitingRoom(MeterRegistry meterRegistry, boolean enabled, double admitPerSecond, int overloadPerSecond,
+                long autoHotSeconds, long graceSeconds, String secret, LongSupplier clock) {
+        this.enabled = enabled;
+        this.admitPerSecond = admitPerSecond;
+        this.overloadPerSecond = overloadPerSecond;
+        this.autoHotMillis = TimeUnit.SECONDS.toMillis(autoHotSeconds);
+        this.graceMillis = TimeUnit.SECONDS.toMillis(graceSeconds);
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        this.clock = clock;
+        this.admitted = counter(meterRegistry, "admitted");
+        this.queued = counter(meterRegistry, "queued");
+    }
+
+    public Admission admit(UUID resourceId, UUID userId, String ticket) {
+        if (!enabled) {
+            return Admission.ADMITTED;
+        }
+
+        long now = clock.getAsLong();
+        Room room = rooms.computeIfAbsent(resourceId, id -> new Room());
+        if (!room.recordArrival(now)) {
+            return Admission.ADMITTED;
+        }
+
+        Optional<Ticket> presented = Optional.ofNullable(ticket).flatMap(this::decode);
+
+        Admission admission;
+        synchronized (room) {
+            room.advance(now, admitPerSecond);
+            room.dropExpired(now);
+            Ticket held = room.outstanding.get(userId);
+            if (held != null && held.expiresAt() < now) {
+                room.outstanding.remove(userId);
+                held = null;
+            }
+            if (held == null) {
+                admission = issue(room, resourceId, userId, now);
+            } else if (presented.isPresent() && presented.get().equals(held) && held.sequence() <= room.admitted) {
+                room.outstanding.remove(userId);
+                admission = Admission.ADMITTED;
+            } else {
+                // Retries without the ticket, or with a stale or forged one, keep the user's place
+                admission = waiting(room, held);
+            }
+        }
+
+        (admission.admitted() ? admitted : queued).increment();
+        return admission;
+    }
+
+    public void flagHot(UUID resourceId, boolean hot) {
+        rooms.computeIfAbsent(resourceId, id -> new Room()).flaggedHot = hot;
+    }
+
+    public List<WaitingRoomStatus> status() {
+        long now = clock.getAsLong();
+        return rooms.entrySet().stream()
+                .filter(entry -> entry.getValue().isHot(now))
+                .map(entry -> {
+                    Room room = entry.getValue();
+                    synchronized (room) {
+                        room.advance(now, admitPerSecond);
+                        return WaitingRoomStatus.builder()
+                                .resourceId(entry.getKey())
+                                .flaggedHot(room.flaggedHot)
+                                .overloaded(room.overloadedUntil > now)
+                                .waiting(room.issued - room.admitted)
+                                .build();
+                    }
+                })
+                .toList();
+    }
+
+    // Called with the room's monitor held
+    private Admission issue(Room room, UUID resourceId, UUID userId, long now) {
+        long sequence = ++room.issued;
+        long position = sequence - room.admitted;
+        long waitSeconds = estimatedWaitSeconds(position);
+        long expiresAt = now + TimeUnit.SECONDS.toMillis(waitSeconds) + graceMillis;
+        Ticket ticket = new Ticket(resourceId, userId, sequence, expiresAt);
+        room.outstanding.put(userId, ticket);
+        return new Admission(false, response(ticket, encode(ticket), position, waitSeconds));
+    }
+
+    // An admitted ticket reports position 0: the caller only has to retry with it
+    private Admission waiting(Room room, Ticket ticket) {
+        long position = Math.max(ticket.sequence() - room.admitted, 0);
+        return new Admission(false, response(ticket, encode(ticket), position, estimatedWaitSeconds(position)));
+    }
+
+    private QueueTicketResponse response(Ticket ticket, String token, long position, long waitSeconds) {
+        return QueueTicketResponse.builder()
+                .ticket(token)
+                .resourceId(ticket.resourceId())
+                .position(position)
+                .estimatedWaitSeconds(waitSeconds)
+                .build();
+    }
+
+    private long estimatedWaitSeconds(long position) {
+        return Math.max(1, (long) Math.ceil(position / admitPerSecond));
+    }
+
+    private String encode(Ticket ticket) {
+        ByteBuffer payload = ByteBuffer.allocate(PAYLOAD_BYTES)
+                .putLong(ticket.resourceId().getMostSignificantBits())
+                .putLong(ticket.resourceId().getLeastSignificantBits())
+                .putLong(ticket.userId().getMostSignificantBits())
+                .putLong(ticket.userId().getLeastSignificantBits())
+                .putLong(ticket.sequence())
+                .putLong(ticket.expiresAt());
+        byte[] bytes = payload.array();
+        return ENCODER.encodeToString(bytes) + "." + ENCODER.encodeToString(sign(bytes));
+    }
+
+    private Optional<Ticket> decode(String token) {
+        int dot = token.indexOf('.');
+        if (dot < 0) {
+            return Optional.empty();
+        }
+        try {
+            byte[] bytes = DECODER.decode(token.substring(0, dot));
+            byte[] signature = DECODER.decode(token.substring(dot + 1));
+            if (bytes.length != PAYLOAD_BYTES || !MessageDigest.isEqual(sign(bytes), signature)) {
+                return Optional.empty();
+            }
+            ByteBuffer payload = ByteBuffer.wrap(bytes);
+            return Optional.of(new Ticket(
+                    new UUID(payload.getLong(), payload.getLong()),
+                    new UUID(payload.getLong(), payload.getLong()),
+                    payload.getLong(),
+                    payload.getLong()));
+        } catch (IllegalArgumentException ex) {
+            return Optional.empty();
+        }
+    }
+
+    private byte[] sign(byte[] payload) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(key);
+            return mac.doFinal(payload);
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("HmacSHA256 is not available", ex);
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("booking.waiting_room.requests")
+                .description("Booking requests seen by the waiting room while a resource is hot")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record Ticket(UUID resourceId, UUID userId, long sequence, long expiresAt) {
+    }
+
+    private final class Room {
+
+        private volatile boolean flaggedHot;
+        private volatile long overloadedUntil;
+        private long windowStart;
+        private int windowCount;
+        private boolean queueing;
+        private long issued;
+        private long admitted;
+        private long lastAdvance;
+        // Waiting users' tickets in issue order, which is also roughly expiry order
+        private final Map<UUID, Ticket> outstanding = new LinkedHashMap<>();
+
+        // Returns whether the caller has to go through the queue
+        boolean recordArrival(long now) {
+            synchronized (this) {
+                if (now - windowStart >= 1000) {
+                    windowStart = now;
+                    windowCount = 0;
+                }
+                if (++windowCount > overloadPerSecond) {
+                    overloadedUntil = now + autoHotMillis;
+                }
+                if (!isHot(now)) {
+                    queueing = false;
+                    return false;
+                }
+                return true;
+            }
+        }
+
+        boolean isHot(long now) {
+            return flaggedHot || overloadedUntil > now;
+        }
+
+        // Moves the admitted counter forward at the admission rate. Capacity is not banked
+        // while nobody is waiting, and a room that just turned hot starts with an empty queue.
+        void advance(long now, double perSecond) {
+            if (!queueing) {
+                queueing = true;
+                outstanding.clear();
+                admitted = issued;
+                lastAdvance = now;
+                return;
+            }
+            long newlyAdmitted = (long) ((now - lastAdvance) * perSecond / 1000);
+            if (newlyAdmitted <= 0) {
+                return;
+            }
+            if (admitted + newlyAdmitted >= issued) {
+                admitted = issued;
+                lastAdvance = now;
+            } else {
+                admitted += newlyAdmitted;
+                lastAdvance += (long) (newlyAdmitted * 1000 / perSecond);
+            }
+        }
+
+        // Forgets tickets whose holders never came back in time
+        void dropExpired(long now) {
+            Iterator<Ticket> tickets = outstanding.values().iterator();
+            while (tickets.hasNext() && tickets.next().expiresAt() < now) {
+                tickets.remove();
+            }
+        }
+    }
+}
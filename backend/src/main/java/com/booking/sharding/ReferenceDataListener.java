@@ -0,0 +1,34 @@
+package com.booking.sharding;
+
+import com.booking.entity.Resource;
+import com.booking.entity.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Queues inserted and updated users and resources for copying to the other shards. Does
+ * nothing unless sharding is enabled.
+ */
+public class ReferenceDataListener {
+
+    private final ObjectProvider<ReferenceDataReplicator> replicator;
+
+    public ReferenceDataListener(ObjectProvider<ReferenceDataReplicator> replicator) {
+        this.replicator = replicator;
+    }
+
+    @PostPersist
+    @PostUpdate
+    void changed(Object entity) {
+        ReferenceDataReplicator target = replicator.getIfAvailable();
+        if (target == null) {
+            return;
+        }
+        if (entity instanceof User user) {
+            target.replicateAfterCommit(ReferenceDataReplicator.USERS, user.getId());
+        } else if (entity instanceof Resource resource) {
+            target.replicateAfterCommit(ReferenceDataReplicator.RESOURCES, resource.getId());
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.booking.sharding;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Copies users and resources from the default shard to the other shards. Bookings reference
+ * and join both tables, so every shard needs them; they are still only written on the
+ * default shard. Changed rows are copied when their transaction commits, retrying a failed
+ * copy a few times before the commit returns, and all rows are copied on startup. A periodic
+ * sweep re-copies recently updated rows in case a copy still failed.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.sharding.enabled", havingValue = "true")
+public class ReferenceDataReplicator {
+
+    public static final String USERS = "users";
+    public static final String RESOURCES = "resources";
+
+    private static final int CHUNK_SIZE = 500;
+
+    // A booking for a new user or resource fails on the other shards until its row is copied,
+    // so a failed copy is retried right away rather than left to the sweep
+    private static final int COPY_ATTEMPTS = 3;
+    private static final long COPY_RETRY_BACKOFF_MS = 100;
+
+    private final JdbcTemplate source;
+    private final List<JdbcTemplate> replicas = new ArrayList<>();
+    private final Map<String, List<String>> columns = new ConcurrentHashMap<>();
+    private volatile Instant lastSweep = Instant.EPOCH;
+
+    public ReferenceDataReplicator(ShardRoutingDataSource dataSource) {
+        Map<Integer, javax.sql.DataSource> shards = dataSource.shards();
+        this.source = new JdbcTemplate(shards.get(0));
+        shards.forEach((shard, target) -> {
+            if (shard != 0) {
+                replicas.add(new JdbcTemplate(target));
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void replicateAll() {
+        Instant started = Instant.now();
+        int users = copy(USERS, "TRUE", List.of());
+        int resources = copy(RESOURCES, "TRUE", List.of());
+        lastSweep = started;
+        log.info("Replicated {} users and {} resources to {} shards", users, resources, replicas.size());
+    }
+
+    @Scheduled(fixedDelayString = "${app.sharding.reference-sweep-ms:60000}")
+    public void sweep() {
+        Instant started = Instant.now();
+        // Overlap the previous sweep so rows committed while it ran are not missed
+        Timestamp since = Timestamp.from(lastSweep.minus(1, ChronoUnit.MINUTES));
+        try {
+            copy(USERS, "updated_at >= ?", List.of(since));
+            copy(RESOURCES, "updated_at >= ?", List.of(since));
+            lastSweep = started;
+        } catch (RuntimeException ex) {
+            log.warn("Reference data sweep failed, retrying on next run: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Copies the row once the current transaction commits, or right away without one. The copy
+     * runs on the committing thread, so the write only returns once the other shards have the
+     * row or the retries are exhausted.
+     */
+    @SuppressWarnings("unchecked")
+    public void replicateAfterCommit(String table, UUID id) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            replicateQuietly(table, Set.of(id));
+            return;
+        }
+
+        Map<String, Set<UUID>> pending = (Map<String, Set<UUID>>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Map<String, Set<UUID>> changes = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ReferenceDataReplicator.this);
+                    if (status == STATUS_COMMITTED) {
+                        changes.forEach(ReferenceDataReplicator.this::replicateQuietly);
+                    }
+                }
+            });
+            pending = changes;
+        }
+        pending.computeIfAbsent(table, key -> new LinkedHashSet<>()).add(id);
+    }
+
+    private void replicateQuietly(String table, Collection<UUID> ids) {
+        List<UUID> remaining = new ArrayList<>(ids);
+        for (int from = 0; from < remaining.size(); from += CHUNK_SIZE) {
+            List<UUID> chunk = remaining.subList(from, Math.min(from + CHUNK_SIZE, remaining.size()));
+            String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+            if (!copyWithRetries(table, "id IN (" + placeholders + ")", new ArrayList<>(chunk))) {
+                log.error("Could not replicate {} {} rows after {} attempts, the next sweep will retry",
+                        remaining.size() - from, table, COPY_ATTEMPTS);
+                return;
+            }
+        }
+    }
+
+    // The upsert is idempotent, so a copy that failed part way through can simply run again
+    private boolean copyWithRetries(String table, String where, List<Object> args) {
+        for (int attempt = 1; attempt <= COPY_ATTEMPTS; attempt++) {
+            try {
+                copy(table, where, args);
+                return true;
+            } catch (RuntimeException ex) {
+                log.warn("Replicating {} rows failed (attempt {} of {}): {}",
+                        table, attempt, COPY_ATTEMPTS, ex.getMessage());
+            }
+            if (attempt < COPY_ATTEMPTS) {
+                try {
+                    Thread.sleep(COPY_RETRY_BACKOFF_MS * attempt);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    private int copy(String table, String where, List<Object> args) {
+        List<String> tableColumns = columns.computeIfAbsent(table, this::loadColumns);
+        String columnList = String.join(", ", tableColumns);
+        List<Object[]> rows = source.query(
+                "SELECT " + columnList + " FROM " + table + " WHERE " + where,
+                (rs, rowNum) -> {
+                    Object[] row = new Object[tableColumns.size()];
+                    for (int i = 0; i < row.length; i++) {
+                        row[i] = rs.getObject(i + 1);
+                    }
+                    return row;
+                },
+                args.toArray());
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        String upsert = "INSERT INTO " + table + " (" + columnList + ") VALUES ("
+                + String.join(", ", Collections.nCopies(tableColumns.size(), "?")) + ") "
+                + "ON CONFLICT (id) DO UPDATE SET "
+                + tableColumns.stream().filter(column -> !column.equals("id"))
+                        .map(column -> column + " = EXCLUDED." + column)
+                        .collect(Collectors.joining(", "));
+        for (JdbcTemplate replica : replicas) {
+            replica.batchUpdate(upsert, rows);
+        }
+        return rows.size();
+    }
+
+    // Generated columns are computed on each shard and cannot be inserted
+    private List<String> loadColumns(String table) {
+        return source.queryForList("""
+                SELECT column_name FROM information_schema.columns
+                WHERE table_schema = current_schema() AND table_name = ? AND is_generated = 'NEVER'
+                ORDER BY ordinal_position
+                """, String.class, table);
+    }
+}
@@ -0,0 +1,100 @@
+package com.booking.sharding;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Keeps a changed shard ring from stranding bookings. The ring the bookings were placed with
+ * is stored in shard_layout on shard 0. When the configured ring differs, every resource it
+ * maps elsewhere is looked up on its previous shard; if any of them still has bookings there,
+ * startup fails, since those bookings would no longer be found. Otherwise the new ring is
+ * recorded.
+ */
+@Slf4j
+final class ShardLayoutGuard {
+
+    // Stays well below the bind parameter limit of the PostgreSQL protocol
+    private static final int CHUNK_SIZE = 1000;
+
+    private static final String BOOKED_SQL = """
+            SELECT resource_id FROM bookings WHERE resource_id IN (%1$s)
+            UNION
+            SELECT resource_id FROM bookings_archive WHERE resource_id IN (%1$s)""";
+
+    private final Map<Integer, DataSource> shards;
+    private final ShardRing ring;
+
+    ShardLayoutGuard(Map<Integer, DataSource> shards, ShardRing ring) {
+        this.shards = shards;
+        this.ring = ring;
+    }
+
+    void verify() {
+        JdbcTemplate layout = new JdbcTemplate(shards.get(0));
+        List<ShardRing> stored = layout.query("SELECT shard_count, virtual_nodes FROM shard_layout WHERE id = 1",
+                (rs, rowNum) -> new ShardRing(rs.getInt(1), rs.getInt(2)));
+        if (stored.isEmpty()) {
+            layout.update("INSERT INTO shard_layout (id, shard_count, virtual_nodes) VALUES (1, ?, ?)",
+                    ring.shardCount(), ring.virtualNodes());
+            return;
+        }
+
+        ShardRing previous = stored.get(0);
+        if (previous.shardCount() == ring.shardCount() && previous.virtualNodes() == ring.virtualNodes()) {
+            return;
+        }
+
+        Map<Integer, List<UUID>> moved = new TreeMap<>();
+        for (UUID resourceId : layout.queryForList("SELECT id FROM resources", UUID.class)) {
+            int from = previous.shardFor(resourceId);
+            if (from != ring.shardFor(resourceId)) {
+                moved.computeIfAbsent(from, shard -> new ArrayList<>()).add(resourceId);
+            }
+        }
+
+        Set<UUID> stranded = new HashSet<>();
+        moved.forEach((shard, resourceIds) -> stranded.addAll(booked(shard, resourceIds)));
+        if (!stranded.isEmpty()) {
+            throw new IllegalStateException(String.format(
+                    "The shard ring changed from %d shards with %d virtual nodes to %d shards with %d, which "
+                            + "maps %d resources with bookings (such as %s) away from the shard holding them. "
+                            + "Move their bookings first or restore the previous app.sharding settings.",
+                    previous.shardCount(), previous.virtualNodes(), ring.shardCount(), ring.virtualNodes(),
+                    stranded.size(), stranded.iterator().next()));
+        }
+
+        layout.update("UPDATE shard_layout SET shard_count = ?, virtual_nodes = ?, updated_at = NOW() WHERE id = 1",
+                ring.shardCount(), ring.virtualNodes());
+        log.info("Shard ring changed to {} shards with {} virtual nodes; {} resources moved without bookings",
+                ring.shardCount(), ring.virtualNodes(), moved.values().stream().mapToInt(List::size).sum());
+    }
+
+    // The resources among resourceIds with live or archived bookings on the shard
+    private List<UUID> booked(int shard, List<UUID> resourceIds) {
+        DataSource target = shards.get(shard);
+        if (target == null) {
+            // A shard that was dropped from the list cannot be checked, so its resources count as booked
+            return resourceIds;
+        }
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(target);
+        List<UUID> booked = new ArrayList<>();
+        for (int from = 0; from < resourceIds.size(); from += CHUNK_SIZE) {
+            List<UUID> chunk = resourceIds.subList(from, Math.min(from + CHUNK_SIZE, resourceIds.size()));
+            String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+            List<Object> args = new ArrayList<>(chunk);
+            args.addAll(chunk);
+            booked.addAll(jdbcTemplate.queryForList(BOOKED_SQL.formatted(placeholders), UUID.class, args.toArray()));
+        }
+        return booked;
+    }
+}
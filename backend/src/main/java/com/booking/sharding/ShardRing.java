@@ -0,0 +1,68 @@
+package com.booking.sharding;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Consistent-hash ring mapping resource ids to shard indexes. Each shard owns
+ * {@code virtualNodes} points on a 64-bit ring and a key belongs to the first point at or
+ * after its hash, so appending a shard moves only about 1/(n+1) of the resources. Point
+ * positions depend only on the shard index: shards may be appended but never reordered.
+ */
+public final class ShardRing {
+
+    private final int shardCount;
+    private final int virtualNodes;
+    private final long[] points;
+    private final int[] owners;
+
+    public ShardRing(int shardCount, int virtualNodes) {
+        if (shardCount < 1 || virtualNodes < 1) {
+            throw new IllegalArgumentException("A ring needs at least one shard and one virtual node per shard");
+        }
+        this.shardCount = shardCount;
+        this.virtualNodes = virtualNodes;
+
+        long[][] entries = new long[shardCount * virtualNodes][];
+        for (int shard = 0; shard < shardCount; shard++) {
+            for (int node = 0; node < virtualNodes; node++) {
+                entries[shard * virtualNodes + node] = new long[]{mix(((long) shard << 32) | node), shard};
+            }
+        }
+        Arrays.sort(entries, (a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+
+        this.points = new long[entries.length];
+        this.owners = new int[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            points[i] = entries[i][0];
+            owners[i] = (int) entries[i][1];
+        }
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    public int virtualNodes() {
+        return virtualNodes;
+    }
+
+    public int shardFor(UUID key) {
+        long hash = mix(key.getMostSignificantBits() ^ mix(key.getLeastSignificantBits()));
+        int index = Arrays.binarySearch(points, hash);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == points.length ? 0 : index];
+    }
+
+    // MurmurHash3 64-bit finalizer
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,284 @@
+package com.booking.sharding;
+
+import com.booking.exception.BookingException;
+import com.booking.repository.BookingRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Decides which database booking work runs against. A resource's bookings all live on the
+ * shard picked by {@link ShardRing}, so overlap checks and writes stay on one database;
+ * queries that are not scoped to a resource run on every shard in parallel and are merged.
+ *
+ * Without a ring (the default) there is one database: writes and single-booking reads run
+ * in the regular transaction and other reads run inline, exactly as if the router were not
+ * there. Work that scatters to every shard must be called outside a transaction, so the
+ * caller never holds a connection while the scatter threads wait for theirs.
+ */
+@Component
+public class ShardRouter {
+
+    private final TransactionTemplate transactionTemplate;
+    private final BookingRepository bookingRepository;
+    private final ShardRing ring;
+    private final long scatterTimeoutMs;
+    private final TransactionTemplate newTransaction;
+    private final TransactionTemplate newReadOnlyTransaction;
+    private final ExecutorService scatterExecutor;
+
+    @Autowired
+    public ShardRouter(
+            TransactionTemplate transactionTemplate,
+            BookingRepository bookingRepository,
+            ObjectProvider<ShardRing> shardRing,
+            @Value("${app.sharding.scatter-threads:16}") int scatterThreads,
+            @Value("${app.sharding.scatter-timeout-ms:10000}") long scatterTimeoutMs) {
+        this(transactionTemplate, bookingRepository, shardRing.getIfAvailable(), scatterThreads, scatterTimeoutMs);
+    }
+
+    ShardRouter(TransactionTemplate transactionTemplate, BookingRepository bookingRepository, ShardRing ring,
+                int scatterThreads, long scatterTimeoutMs) {
+        this.transactionTemplate = transactionTemplate;
+        this.bookingRepository = bookingRepository;
+        this.ring = ring;
+        this.scatterTimeoutMs = scatterTimeoutMs;
+        if (ring == null) {
+            this.newTransaction = null;
+            this.newReadOnlyTransaction = null;
+            this.scatterExecutor = null;
+            return;
+        }
+
+        this.newTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.newReadOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        newReadOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        newReadOnlyTransaction.setReadOnly(true);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.scatterExecutor = Executors.newFixedThreadPool(scatterThreads, task -> {
+            Thread thread = new Thread(task, "shard-scatter-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * A router for a single database, for tests and tools that build services by hand.
+     */
+    public static ShardRouter unsharded(TransactionTemplate transactionTemplate, BookingRepository bookingRepository) {
+        return new ShardRouter(transactionTemplate, bookingRepository, (ShardRing) null, 0, 0);
+    }
+
+    public boolean isSharded() {
+        return ring != null;
+    }
+
+    public int shardCount() {
+        return ring == null ? 1 : ring.shardCount();
+    }
+
+    public int shardFor(UUID resourceId) {
+        return ring == null ? 0 : ring.shardFor(resourceId);
+    }
+
+    /**
+     * Runs {@code work} in a transaction on the shard that holds the resource's bookings.
+     */
+    public <T> T write(UUID resourceId, TransactionCallback<T> work) {
+        if (ring == null) {
+            return transactionTemplate.execute(work);
+        }
+        return inTransactionOn(ring.shardFor(resourceId), work, false);
+    }
+
+    /**
+     * Runs {@code work} in a transaction on the shard that holds the booking. An unknown id
+     * runs on the default shard, where the caller's own lookup reports it as missing.
+     */
+    public <T> T writeBooking(UUID bookingId, TransactionCallback<T> work) {
+        if (ring == null) {
+            return transactionTemplate.execute(work);
+        }
+        return inTransactionOn(locateBooking(bookingId), work, false);
+    }
+
+    /**
+     * Runs a read of one booking in a transaction on the shard that holds it, so lazy
+     * associations can still be loaded by {@code work}.
+     */
+    public <T> T readBooking(UUID bookingId, Supplier<T> work) {
+        if (ring == null) {
+            return transactionTemplate.execute(status -> work.get());
+        }
+        return inTransactionOn(locateBooking(bookingId), status -> work.get(), true);
+    }
+
+    /**
+     * Runs a read scoped to one resource on its shard.
+     */
+    public <T> T read(UUID resourceId, Supplier<T> work) {
+        if (ring == null) {
+            return work.get();
+        }
+        return inTransactionOn(ring.shardFor(resourceId), status -> work.get(), true);
+    }
+
+    /**
+     * Runs {@code query} on every shard in parallel and merges the results. Each shard's
+     * list must already be sorted by {@code order}; a null order just concatenates.
+     */
+    public <T> List<T> gather(Supplier<List<T>> query, Comparator<? super T> order) {
+        if (ring == null) {
+            return query.get();
+        }
+        List<List<T>> perShard = scatter(query);
+        if (order == null) {
+            List<T> combined = new ArrayList<>();
+            perShard.forEach(combined::addAll);
+            return combined;
+        }
+        return mergeSorted(perShard, order);
+    }
+
+    /**
+     * Runs {@code work} once per shard, one after the other, for jobs that sweep all bookings.
+     * Must be called outside a transaction.
+     */
+    public void forEachShard(Runnable work) {
+        if (ring == null) {
+            work.run();
+            return;
+        }
+        Assert.state(!TransactionSynchronizationManager.isActualTransactionActive(),
+                "forEachShard must not be called inside a transaction");
+        for (int shard = 0; shard < ring.shardCount(); shard++) {
+            ShardContext.runOn(shard, work);
+        }
+    }
+
+    /**
+     * Runs {@code work} against one shard; transactions it opens use that shard.
+     */
+    public void onShard(int shard, Runnable work) {
+        if (ring == null) {
+            work.run();
+            return;
+        }
+        ShardContext.runOn(shard, work);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scatterExecutor != null) {
+            scatterExecutor.shutdownNow();
+        }
+    }
+
+    private int locateBooking(UUID bookingId) {
+        List<List<Boolean>> found = scatter(() -> List.of(bookingRepository.existsById(bookingId)));
+        for (int shard = 0; shard < found.size(); shard++) {
+            if (found.get(shard).get(0)) {
+                return shard;
+            }
+        }
+        return 0;
+    }
+
+    private <T> T inTransactionOn(int shard, TransactionCallback<T> work, boolean readOnly) {
+        // Join a transaction already open on this shard instead of taking a second connection
+        if (ShardContext.current() == shard && TransactionSynchronizationManager.isActualTransactionActive()) {
+            return transactionTemplate.execute(work);
+        }
+        TransactionTemplate template = readOnly ? newReadOnlyTransaction : newTransaction;
+        return ShardContext.callOn(shard, () -> template.execute(work));
+    }
+
+    private <T> List<List<T>> scatter(Supplier<List<T>> query) {
+        Assert.state(!TransactionSynchronizationManager.isActualTransactionActive(),
+                "Queries across shards must not be started inside a transaction");
+        List<Future<List<T>>> futures = new ArrayList<>(ring.shardCount());
+        for (int shard = 0; shard < ring.shardCount(); shard++) {
+            int target = shard;
+            futures.add(scatterExecutor.submit(() ->
+                    ShardContext.callOn(target, () -> newReadOnlyTransaction.execute(status -> query.get()))));
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(scatterTimeoutMs);
+        List<List<T>> results = new ArrayList<>(futures.size());
+        try {
+            for (int shard = 0; shard < futures.size(); shard++) {
+                results.add(await(futures.get(shard), shard, deadline));
+            }
+            return results;
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private static <T> List<T> await(Future<List<T>> future, int shard, long deadline) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (ex.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Query on shard " + shard + " failed", ex.getCause());
+        } catch (TimeoutException ex) {
+            throw new BookingException("Shard " + shard + " did not answer in time",
+                    "SHARD_TIMEOUT", HttpStatus.SERVICE_UNAVAILABLE);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for shard " + shard, ex);
+        }
+    }
+
+    static <T> List<T> mergeSorted(List<List<T>> sortedLists, Comparator<? super T> order) {
+        int total = sortedLists.stream().mapToInt(List::size).sum();
+        List<T> merged = new ArrayList<>(total);
+        // Each cursor is {list index, position}; ties go to the lower shard so the merge is stable
+        PriorityQueue<int[]> heads = new PriorityQueue<>((a, b) -> {
+            int byValue = order.compare(sortedLists.get(a[0]).get(a[1]), sortedLists.get(b[0]).get(b[1]));
+            return byValue != 0 ? byValue : Integer.compare(a[0], b[0]);
+        });
+        for (int list = 0; list < sortedLists.size(); list++) {
+            if (!sortedLists.get(list).isEmpty()) {
+                heads.add(new int[]{list, 0});
+            }
+        }
+        while (!heads.isEmpty()) {
+            int[] head = heads.poll();
+            List<T> source = sortedLists.get(head[0]);
+            merged.add(source.get(head[1]));
+            if (head[1] + 1 < source.size()) {
+                heads.add(new int[]{head[0], head[1] + 1});
+            }
+        }
+        return merged;
+    }
+}
@@ -0,0 +1,37 @@
+package com.booking.sharding;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Hands out connections from the shard selected in {@link ShardContext}.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.current();
+    }
+
+    /**
+     * The shard pools by index. Connections taken from them directly bypass routing and any
+     * transaction bound to this data source.
+     */
+    public Map<Integer, DataSource> shards() {
+        Map<Integer, DataSource> shards = new TreeMap<>();
+        getResolvedDataSources().forEach((key, dataSource) -> shards.put((Integer) key, dataSource));
+        return shards;
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource shard : getResolvedDataSources().values()) {
+            if (shard instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
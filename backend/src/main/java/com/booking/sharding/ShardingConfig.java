@@ -0,0 +1,86 @@
+package com.booking.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replaces the single data source with one pool per entry of {@code app.sharding.urls},
+ * routed by {@link ShardContext}. Shard 0 is the default shard: everything other than
+ * bookings (users, resources, idempotency keys, ...) is written there. Every shard gets the
+ * full schema, so Flyway migrates each of them. Before anything else starts,
+ * {@link ShardLayoutGuard} refuses a ring change that would strand existing bookings.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "app.sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Value("${app.sharding.urls}")
+    private List<String> urls;
+
+    @Bean
+    public ShardRing shardRing(@Value("${app.sharding.virtual-nodes:128}") int virtualNodes) {
+        if (urls.isEmpty() || urls.stream().anyMatch(String::isBlank)) {
+            throw new IllegalStateException("app.sharding.urls must list one JDBC url per shard");
+        }
+        return new ShardRing(urls.size(), virtualNodes);
+    }
+
+    @Bean
+    @Primary
+    public ShardRoutingDataSource dataSource(
+            DataSourceProperties properties,
+            @Value("${app.sharding.pool-size:10}") int poolSize,
+            @Value("${spring.jpa.open-in-view:true}") boolean openInView) {
+        // An EntityManager held open for the whole request would keep its first connection,
+        // and with it the first shard, for every later transaction in that request
+        if (openInView) {
+            throw new IllegalStateException("app.sharding.enabled requires spring.jpa.open-in-view=false");
+        }
+
+        Map<Object, Object> shards = new HashMap<>();
+        for (int shard = 0; shard < urls.size(); shard++) {
+            HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(urls.get(shard).trim())
+                    .build();
+            dataSource.setPoolName("shard-" + shard);
+            dataSource.setMaximumPoolSize(poolSize);
+            shards.put(shard, dataSource);
+        }
+
+        ShardRoutingDataSource routing = new ShardRoutingDataSource();
+        routing.setTargetDataSources(shards);
+        routing.setDefaultTargetDataSource(shards.get(0));
+        routing.setLenientFallback(false);
+        log.info("Sharding bookings across {} databases", shards.size());
+        return routing;
+    }
+
+    @Bean
+    public FlywayMigrationStrategy shardedFlywayMigration(ShardRoutingDataSource dataSource, ShardRing ring) {
+        return flyway -> {
+            dataSource.shards().forEach((shard, target) -> {
+                log.info("Migrating shard {}", shard);
+                Flyway.configure()
+                        .configuration(flyway.getConfiguration())
+                        .dataSource(target)
+                        .load()
+                        .migrate();
+            });
+            new ShardLayoutGuard(dataSource.shards(), ring).verify();
+        };
+    }
+}
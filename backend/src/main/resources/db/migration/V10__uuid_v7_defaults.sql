@@ -0,0 +1,22 @@
+-- Time-ordered UUIDv7 ids (RFC 9562). Random v4 ids spread inserts over the whole primary-key
+-- index; v7 ids grow with time, so new rows are appended to its right-most leaf pages.
+-- The application assigns ids itself (UuidV7Generator); these defaults cover rows inserted
+-- directly in SQL. Existing v4 ids are left as they are.
+CREATE OR REPLACE FUNCTION uuid_generate_v7() RETURNS UUID AS $$
+    -- Overwrite the first 48 bits of a random v4 id with the millisecond timestamp,
+    -- then turn version 0100 into 0111 by setting bits 52 and 53
+    SELECT encode(
+        set_bit(
+            set_bit(
+                overlay(uuid_send(gen_random_uuid())
+                        PLACING substring(int8send(floor(extract(epoch FROM clock_timestamp()) * 1000)::BIGINT) FROM 3)
+                        FROM 1 FOR 6),
+                52, 1),
+            53, 1),
+        'hex')::UUID;
+$$ LANGUAGE sql VOLATILE;
+
+ALTER TABLE users ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE resources ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+-- Recurses into the existing partitions; create_bookings_partition copies the default to new ones
+ALTER TABLE bookings ALTER COLUMN id SET DEFAULT uuid_generate_v7();
@@ -0,0 +1,9 @@
+-- Full-text search over resources. The 'simple' configuration lowercases words without
+-- stemming, which suits room names and allows prefix queries (term:*). Names weigh more
+-- than descriptions in the ranking.
+ALTER TABLE resources ADD COLUMN search_vector TSVECTOR GENERATED ALWAYS AS (
+    setweight(to_tsvector('simple', coalesce(name, '')), 'A') ||
+    setweight(to_tsvector('simple', coalesce(description, '')), 'B')
+) STORED;
+
+CREATE INDEX idx_resources_search ON resources USING GIN (search_vector);
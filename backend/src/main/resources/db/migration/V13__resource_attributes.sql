@@ -0,0 +1,15 @@
+-- Structured attributes for finding a resource that fits: seats and lowercase feature tags.
+-- Filtering by them happens in each node's in-memory bitmap index (ResourceAttributeIndex),
+-- so neither column is indexed here.
+ALTER TABLE resources
+    ADD COLUMN capacity INTEGER CHECK (capacity > 0),
+    ADD COLUMN tags TEXT[] NOT NULL DEFAULT '{}';
+
+UPDATE resources SET capacity = 20, tags = ARRAY['projector', 'whiteboard']
+WHERE id = 'c3d4e5f6-a7b8-9012-cdef-345678901234';
+
+UPDATE resources SET capacity = 6, tags = ARRAY['video-conferencing']
+WHERE id = 'd4e5f6a7-b8c9-0123-def0-456789012345';
+
+UPDATE resources SET capacity = 4, tags = ARRAY['outdoor']
+WHERE id = 'e5f6a7b8-c9d0-1234-ef01-567890123456';
@@ -0,0 +1,9 @@
+-- outbox_events.id comes from a per-database sequence, so with sharding the same id exists on
+-- every shard. event_id is unique across shards and is what consumers deduplicate on.
+ALTER TABLE outbox_events ADD COLUMN event_id UUID;
+
+UPDATE outbox_events SET event_id = uuid_generate_v7() WHERE event_id IS NULL;
+
+ALTER TABLE outbox_events
+    ALTER COLUMN event_id SET DEFAULT uuid_generate_v7(),
+    ALTER COLUMN event_id SET NOT NULL;
@@ -0,0 +1,8 @@
+-- The shard ring the bookings were last placed with, kept on shard 0. ShardLayoutGuard compares
+-- it with the configured ring on startup and refuses a change that would strand bookings.
+CREATE TABLE shard_layout (
+    id SMALLINT PRIMARY KEY CHECK (id = 1),
+    shard_count INTEGER NOT NULL,
+    virtual_nodes INTEGER NOT NULL,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW()
+);
@@ -0,0 +1,3 @@
+-- Signed into every calendar feed URL; incrementing it revokes the URLs handed out so far
+ALTER TABLE users ADD COLUMN calendar_feed_version INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE resources ADD COLUMN calendar_feed_version INTEGER NOT NULL DEFAULT 0;
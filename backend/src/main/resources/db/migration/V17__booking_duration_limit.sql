@@ -0,0 +1,8 @@
+-- The longest booking the schema accepts. Overlap queries bound start_at from below by this
+-- limit (BookingWindows.MAX_STORED_DURATION) rather than by app.booking.max-duration-hours,
+-- so lowering the configured maximum never hides longer bookings that are already stored.
+-- Both tables are checked: archived rows are still read by the analytics and rollup scans.
+ALTER TABLE bookings ADD CONSTRAINT chk_booking_max_duration
+    CHECK (end_at - start_at <= INTERVAL '24 hours');
+ALTER TABLE bookings_archive ADD CONSTRAINT chk_booking_archive_max_duration
+    CHECK (end_at - start_at <= INTERVAL '24 hours');
@@ -0,0 +1,6 @@
+-- A row without a response is a claim: the request is running on some node until expires_at.
+-- Headers a replay must repeat (Location, Preference-Applied) are stored as a JSON object.
+ALTER TABLE idempotency_keys
+    ALTER COLUMN response_status DROP NOT NULL,
+    ALTER COLUMN response_body DROP NOT NULL,
+    ADD COLUMN response_headers TEXT;
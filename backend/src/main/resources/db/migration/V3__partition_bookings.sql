@@ -0,0 +1,116 @@
+-- Convert bookings into a table range-partitioned by month on start_at.
+--
+-- PostgreSQL cannot enforce an exclusion constraint across partitions unless the
+-- partition key is compared with equality, so the overlap constraint is created
+-- on every partition instead. Bookings that straddle a month boundary are still
+-- checked by the service layer, which bounds its overlap query by the maximum
+-- booking duration.
+
+ALTER TABLE bookings RENAME TO bookings_legacy;
+ALTER TABLE bookings_legacy DROP CONSTRAINT exclude_overlapping_bookings;
+ALTER TABLE bookings_legacy RENAME CONSTRAINT bookings_pkey TO bookings_legacy_pkey;
+ALTER TABLE bookings_legacy RENAME CONSTRAINT chk_booking_time_range TO chk_booking_legacy_time_range;
+DROP INDEX idx_bookings_user_id;
+DROP INDEX idx_bookings_resource_id;
+DROP INDEX idx_bookings_status;
+DROP INDEX idx_bookings_start_at;
+
+CREATE TABLE bookings (
+    id UUID NOT NULL DEFAULT gen_random_uuid(),
+    user_id UUID NOT NULL REFERENCES users(id),
+    resource_id UUID NOT NULL REFERENCES resources(id),
+    start_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    end_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    status VARCHAR(50) NOT NULL DEFAULT 'ACTIVE',
+    notes TEXT,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    CONSTRAINT bookings_pkey PRIMARY KEY (id, start_at),
+    CONSTRAINT chk_booking_time_range CHECK (start_at < end_at)
+) PARTITION BY RANGE (start_at);
+
+CREATE INDEX idx_bookings_user_id ON bookings(user_id);
+CREATE INDEX idx_bookings_resource_id ON bookings(resource_id);
+CREATE INDEX idx_bookings_status ON bookings(status);
+CREATE INDEX idx_bookings_start_at ON bookings(start_at);
+
+-- Catches rows outside every monthly partition (e.g. bookings far in the future)
+CREATE TABLE bookings_default PARTITION OF bookings DEFAULT;
+ALTER TABLE bookings_default ADD CONSTRAINT bookings_default_no_overlap
+    EXCLUDE USING gist (
+        resource_id WITH =,
+        tstzrange(start_at, end_at) WITH &&
+    ) WHERE (status = 'ACTIVE');
+
+-- Creates the partition for the month containing p_month (UTC) if it does not exist yet.
+-- Rows already sitting in the default partition for that month are moved into it.
+CREATE OR REPLACE FUNCTION create_bookings_partition(p_month DATE) RETURNS TEXT AS $$
+DECLARE
+    v_start DATE := date_trunc('month', p_month)::DATE;
+    v_end DATE := (date_trunc('month', p_month) + INTERVAL '1 month')::DATE;
+    v_from TIMESTAMPTZ := v_start::TIMESTAMP AT TIME ZONE 'UTC';
+    v_to TIMESTAMPTZ := v_end::TIMESTAMP AT TIME ZONE 'UTC';
+    v_name TEXT := 'bookings_p' || to_char(v_start, 'YYYY_MM');
+BEGIN
+    IF to_regclass(v_name) IS NOT NULL THEN
+        RETURN NULL;
+    END IF;
+
+    EXECUTE format('CREATE TABLE %I (LIKE bookings INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', v_name);
+    EXECUTE format(
+        'WITH moved AS (DELETE FROM bookings_default WHERE start_at >= %L AND start_at < %L RETURNING *) '
+        'INSERT INTO %I SELECT * FROM moved',
+        v_from, v_to, v_name);
+    EXECUTE format('ALTER TABLE bookings ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+        v_name, v_from, v_to);
+    EXECUTE format(
+        'ALTER TABLE %I ADD CONSTRAINT %I EXCLUDE USING gist '
+        '(resource_id WITH =, tstzrange(start_at, end_at) WITH &&) WHERE (status = ''ACTIVE'')',
+        v_name, v_name || '_no_overlap');
+
+    RETURN v_name;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Detaches monthly partitions whose whole range lies before p_cutoff.
+-- Detached partitions are kept as standalone tables.
+CREATE OR REPLACE FUNCTION detach_bookings_partitions_before(p_cutoff DATE) RETURNS SETOF TEXT AS $$
+DECLARE
+    v_name TEXT;
+BEGIN
+    FOR v_name IN
+        SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'bookings'::regclass
+          AND c.relname ~ '^bookings_p[0-9]{4}_[0-9]{2}$'
+          AND to_date(substring(c.relname FROM 11), 'YYYY_MM') + INTERVAL '1 month' <= p_cutoff
+        ORDER BY c.relname
+    LOOP
+        EXECUTE format('ALTER TABLE bookings DETACH PARTITION %I', v_name);
+        RETURN NEXT v_name;
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Partitions for existing data plus the next three months
+DO $$
+DECLARE
+    v_month DATE;
+BEGIN
+    SELECT date_trunc('month', COALESCE(MIN(start_at), NOW()) AT TIME ZONE 'UTC')::DATE
+    INTO v_month
+    FROM bookings_legacy;
+
+    WHILE v_month <= (date_trunc('month', NOW() AT TIME ZONE 'UTC') + INTERVAL '3 months')::DATE LOOP
+        PERFORM create_bookings_partition(v_month);
+        v_month := (v_month + INTERVAL '1 month')::DATE;
+    END LOOP;
+END;
+$$;
+
+INSERT INTO bookings (id, user_id, resource_id, start_at, end_at, status, notes, created_at, updated_at)
+SELECT id, user_id, resource_id, start_at, end_at, status, notes, created_at, updated_at
+FROM bookings_legacy;
+
+DROP TABLE bookings_legacy;
@@ -0,0 +1,17 @@
+-- Cold storage for finished and cancelled bookings, filled by BookingArchiveJob
+CREATE TABLE bookings_archive (
+    id UUID PRIMARY KEY,
+    user_id UUID NOT NULL REFERENCES users(id),
+    resource_id UUID NOT NULL REFERENCES resources(id),
+    start_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    end_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    notes TEXT,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    archived_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX idx_bookings_archive_resource_start ON bookings_archive(resource_id, start_at);
+CREATE INDEX idx_bookings_archive_user_start ON bookings_archive(user_id, start_at DESC);
+CREATE INDEX idx_bookings_archive_start_at ON bookings_archive(start_at);
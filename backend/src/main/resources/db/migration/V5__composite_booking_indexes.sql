@@ -0,0 +1,16 @@
+-- Composite indexes matching the predicates used by BookingRepository.
+-- They supersede the single-column indexes on resource_id, user_id and status.
+
+-- Overlap checks and availability: resource_id = ? AND status = 'ACTIVE' AND start_at range
+CREATE INDEX idx_bookings_resource_active_start ON bookings(resource_id, start_at)
+    WHERE status = 'ACTIVE';
+
+-- Admin listing filtered by resource and start_at range, any status
+CREATE INDEX idx_bookings_resource_start ON bookings(resource_id, start_at);
+
+-- "My bookings": user_id = ? ORDER BY start_at DESC
+CREATE INDEX idx_bookings_user_start ON bookings(user_id, start_at DESC);
+
+DROP INDEX idx_bookings_resource_id;
+DROP INDEX idx_bookings_user_id;
+DROP INDEX idx_bookings_status;
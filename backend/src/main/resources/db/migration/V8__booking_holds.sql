@@ -0,0 +1,59 @@
+-- Temporary holds: HELD bookings block the slot like ACTIVE ones until hold_expires_at
+ALTER TABLE bookings ADD COLUMN hold_expires_at TIMESTAMP WITH TIME ZONE;
+ALTER TABLE bookings ADD CONSTRAINT chk_booking_hold_expiry
+    CHECK (status <> 'HELD' OR hold_expires_at IS NOT NULL);
+
+-- Outstanding holds are loaded once at startup
+CREATE INDEX idx_bookings_held ON bookings(hold_expires_at) WHERE status = 'HELD';
+
+-- Overlap checks now look at ACTIVE and HELD bookings
+DROP INDEX idx_bookings_resource_active_start;
+CREATE INDEX idx_bookings_resource_blocking_start ON bookings(resource_id, start_at)
+    WHERE status IN ('ACTIVE', 'HELD');
+
+-- Recreate the per-partition exclusion constraints with the wider predicate
+DO $$
+DECLARE
+    v_name TEXT;
+BEGIN
+    FOR v_name IN
+        SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'bookings'::regclass
+    LOOP
+        EXECUTE format('ALTER TABLE %I DROP CONSTRAINT IF EXISTS %I', v_name, v_name || '_no_overlap');
+        EXECUTE format(
+            'ALTER TABLE %I ADD CONSTRAINT %I EXCLUDE USING gist '
+            '(resource_id WITH =, tstzrange(start_at, end_at) WITH &&) WHERE (status IN (''ACTIVE'', ''HELD''))',
+            v_name, v_name || '_no_overlap');
+    END LOOP;
+END $$;
+
+CREATE OR REPLACE FUNCTION create_bookings_partition(p_month DATE) RETURNS TEXT AS $$
+DECLARE
+    v_start DATE := date_trunc('month', p_month)::DATE;
+    v_end DATE := (date_trunc('month', p_month) + INTERVAL '1 month')::DATE;
+    v_from TIMESTAMPTZ := v_start::TIMESTAMP AT TIME ZONE 'UTC';
+    v_to TIMESTAMPTZ := v_end::TIMESTAMP AT TIME ZONE 'UTC';
+    v_name TEXT := 'bookings_p' || to_char(v_start, 'YYYY_MM');
+BEGIN
+    IF to_regclass(v_name) IS NOT NULL THEN
+        RETURN NULL;
+    END IF;
+
+    EXECUTE format('CREATE TABLE %I (LIKE bookings INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', v_name);
+    EXECUTE format(
+        'WITH moved AS (DELETE FROM bookings_default WHERE start_at >= %L AND start_at < %L RETURNING *) '
+        'INSERT INTO %I SELECT * FROM moved',
+        v_from, v_to, v_name);
+    EXECUTE format('ALTER TABLE bookings ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+        v_name, v_from, v_to);
+    EXECUTE format(
+        'ALTER TABLE %I ADD CONSTRAINT %I EXCLUDE USING gist '
+        '(resource_id WITH =, tstzrange(start_at, end_at) WITH &&) WHERE (status IN (''ACTIVE'', ''HELD''))',
+        v_name, v_name || '_no_overlap');
+
+    RETURN v_name;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,12 @@
+-- Per resource and UTC day: minutes blocked by active bookings and holds, and bookings starting that day.
+-- Maintained by the booking transactions themselves; rebuilt from bookings and bookings_archive by the backfill.
+CREATE TABLE resource_utilization_daily (
+    resource_id UUID NOT NULL REFERENCES resources(id),
+    usage_date DATE NOT NULL,
+    booked_minutes BIGINT NOT NULL DEFAULT 0,
+    booking_count INTEGER NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (resource_id, usage_date)
+);
+
+CREATE INDEX idx_resource_utilization_daily_date ON resource_utilization_daily(usage_date);
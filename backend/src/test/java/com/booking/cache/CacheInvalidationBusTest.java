@@ -0,0 +1,141 @@
+package com.booking.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheInvalidationBusTest {
+
+    private final RecordingCache rooms = new RecordingCache("rooms");
+    private final RecordingCache users = new RecordingCache("users");
+
+    private CacheInvalidationBus bus;
+
+    @BeforeEach
+    void setUp() {
+        bus = new CacheInvalidationBus(new SimpleMeterRegistry(), true, 5);
+        bus.register(rooms);
+        bus.register(users);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void invalidate_InsideTransactionWaitsForCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        bus.invalidate("rooms", "a");
+        bus.invalidate("rooms", "a");
+        bus.invalidate("users", "b");
+
+        assertThat(rooms.evicted).isEmpty();
+        assertThat(bus.drainPayloads(PgNotifyInvalidationRelay.MAX_PAYLOAD_BYTES)).isEmpty();
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertThat(rooms.evicted).containsExactly("a");
+        assertThat(users.evicted).containsExactly("b");
+        List<String> payloads = bus.drainPayloads(PgNotifyInvalidationRelay.MAX_PAYLOAD_BYTES);
+        assertThat(payloads).singleElement().satisfies(payload ->
+                assertThat(payload).endsWith("\nrooms:a\nusers:b"));
+    }
+
+    @Test
+    void invalidate_RolledBackTransactionEvictsNothing() {
+        TransactionSynchronizationManager.initSynchronization();
+        bus.invalidate("rooms", "a");
+
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertThat(rooms.evicted).isEmpty();
+        assertThat(bus.drainPayloads(PgNotifyInvalidationRelay.MAX_PAYLOAD_BYTES)).isEmpty();
+    }
+
+    @Test
+    void drainPayloads_SplitsAtTheSizeLimit() {
+        for (int i = 0; i < 4; i++) {
+            bus.invalidate("rooms", "key-" + i);
+        }
+
+        List<String> payloads = bus.drainPayloads(60);
+
+        assertThat(payloads).hasSize(2);
+        assertThat(payloads).allSatisfy(payload -> assertThat(payload.length()).isLessThanOrEqualTo(60));
+        assertThat(String.join("\n", payloads)).contains("rooms:key-0", "rooms:key-3");
+    }
+
+    @Test
+    void drainPayloads_OverflowBecomesAFullFlushOnOtherNodes() {
+        for (int i = 0; i < 6; i++) {
+            bus.invalidate("rooms", "key-" + i);
+        }
+
+        List<String> payloads = bus.drainPayloads(PgNotifyInvalidationRelay.MAX_PAYLOAD_BYTES);
+        assertThat(payloads).singleElement().satisfies(payload -> assertThat(payload).endsWith("\n*"));
+
+        CacheInvalidationBus otherNode = new CacheInvalidationBus(new SimpleMeterRegistry(), true, 5);
+        RecordingCache otherRooms = new RecordingCache("rooms");
+        otherNode.register(otherRooms);
+        otherNode.receive(payloads.get(0));
+
+        assertThat(otherRooms.flushes).isEqualTo(1);
+    }
+
+    @Test
+    void receive_AppliesOtherNodesInvalidationsAndSkipsItsOwn() {
+        bus.invalidate("rooms", "mine");
+        String own = bus.drainPayloads(PgNotifyInvalidationRelay.MAX_PAYLOAD_BYTES).get(0);
+        rooms.evicted.clear();
+
+        bus.receive(own);
+        bus.receive("other-node\nrooms:a\nusers:*\nunknown:c");
+
+        assertThat(rooms.evicted).containsExactly("a");
+        assertThat(users.flushes).isEqualTo(1);
+        assertThat(bus.drainPayloads(PgNotifyInvalidationRelay.MAX_PAYLOAD_BYTES)).isEmpty();
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+    private static class RecordingCache implements InvalidatableCache {
+
+        private final String name;
+        private final List<String> evicted = new ArrayList<>();
+        private int flushes;
+
+        RecordingCache(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String cacheName() {
+            return name;
+        }
+
+        @Override
+        public void evict(String key) {
+            evicted.add(key);
+        }
+
+        @Override
+        public void evictAll() {
+            flushes++;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.booking.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two nodes sharing one PostgreSQL database exchange invalidations over LISTEN/NOTIFY.
+ */
+@Tag("postgres")
+@Testcontainers(disabledWithoutDocker = true)
+class PgNotifyInvalidationRelayTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private final List<PgNotifyInvalidationRelay> relays = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        relays.forEach(PgNotifyInvalidationRelay::stop);
+    }
+
+    @Test
+    void invalidationsReachOtherNodesAndReconnectFlushesEverything() throws Exception {
+        Node writer = new Node();
+        Node reader = new Node();
+        awaitTrue(() -> reader.cache.flushes.get() == 1);
+
+        writer.bus.invalidate("rooms", "a");
+        writer.bus.invalidate("rooms", "b");
+        writer.relay.flush();
+
+        awaitTrue(() -> reader.cache.evicted.size() == 2);
+        assertThat(reader.cache.evicted).containsExactly("a", "b");
+        assertThat(writer.cache.evicted).containsExactly("a", "b");
+
+        new JdbcTemplate(dataSource()).queryForList(
+                "SELECT pg_terminate_backend(pid) FROM pg_stat_activity "
+                        + "WHERE query = 'LISTEN cache_invalidation' AND pid <> pg_backend_pid()");
+
+        awaitTrue(() -> reader.cache.flushes.get() >= 2 && writer.cache.flushes.get() >= 2);
+    }
+
+    private static DriverManagerDataSource dataSource() {
+        return new DriverManagerDataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condition not met in time").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+
+    private class Node {
+
+        private final CacheInvalidationBus bus = new CacheInvalidationBus(new SimpleMeterRegistry(), true, 100);
+        private final RecordingCache cache = new RecordingCache();
+        private final PgNotifyInvalidationRelay relay;
+
+        Node() {
+            DataSourceProperties properties = new DataSourceProperties();
+            properties.setUrl(POSTGRES.getJdbcUrl());
+            properties.setUsername(POSTGRES.getUsername());
+            properties.setPassword(POSTGRES.getPassword());
+            bus.register(cache);
+            relay = new PgNotifyInvalidationRelay(bus, new JdbcTemplate(dataSource()), properties,
+                    "cache_invalidation", 200);
+            relays.add(relay);
+            relay.start();
+        }
+    }
+
+    private static class RecordingCache implements InvalidatableCache {
+
+        private final List<String> evicted = new CopyOnWriteArrayList<>();
+        private final AtomicInteger flushes = new AtomicInteger();
+
+        @Override
+        public String cacheName() {
+            return "rooms";
+        }
+
+        @Override
+        public void evict(String key) {
+            evicted.add(key);
+        }
+
+        @Override
+        public void evictAll() {
+            flushes.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.booking.config;
+
+import com.booking.dto.booking.BookingResponse;
+import com.booking.dto.resource.ResourceResponse;
+import com.booking.dto.user.UserResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.type.CollectionType;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Payload size and encode/decode time of an admin bookings list in JSON, CBOR and Smile.
+ * Excluded from the regular build; run with mvn -Pbenchmark test.
+ */
+@Tag("benchmark")
+class BinaryFormatsBenchmarkTest {
+
+    private static final int BOOKINGS = 10_000;
+    private static final int WARMUP_ROUNDS = 30;
+    private static final int MEASURED_ROUNDS = 50;
+
+    @Test
+    void compareEncodings() throws Exception {
+        List<BookingResponse> bookings = bookings();
+        Map<String, ObjectMapper> mappers = new LinkedHashMap<>();
+        mappers.put("json", Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build());
+        mappers.put("cbor", BinaryFormatsConfig.binaryMapper(Jackson2ObjectMapperBuilder.json(), new CBORFactory()));
+        mappers.put("smile", BinaryFormatsConfig.binaryMapper(Jackson2ObjectMapperBuilder.json(), new SmileFactory()));
+
+        System.out.printf("%d bookings%n%-6s %12s %12s %12s%n", BOOKINGS, "format", "bytes", "encode ms", "decode ms");
+        for (Map.Entry<String, ObjectMapper> entry : mappers.entrySet()) {
+            ObjectMapper mapper = entry.getValue();
+            CollectionType type = mapper.getTypeFactory().constructCollectionType(List.class, BookingResponse.class);
+
+            byte[] payload = mapper.writeValueAsBytes(bookings);
+            List<BookingResponse> decoded = mapper.readValue(payload, type);
+            assertThat(decoded).isEqualTo(bookings);
+
+            for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                mapper.readValue(mapper.writeValueAsBytes(bookings), type);
+            }
+
+            long encodeNanos = 0;
+            long decodeNanos = 0;
+            for (int i = 0; i < MEASURED_ROUNDS; i++) {
+                long start = System.nanoTime();
+                payload = mapper.writeValueAsBytes(bookings);
+                long encoded = System.nanoTime();
+                mapper.readValue(payload, type);
+                encodeNanos += encoded - start;
+                decodeNanos += System.nanoTime() - encoded;
+            }
+
+            System.out.printf("%-6s %12d %12.2f %12.2f%n", entry.getKey(), payload.length,
+                    encodeNanos / 1e6 / MEASURED_ROUNDS, decodeNanos / 1e6 / MEASURED_ROUNDS);
+        }
+    }
+
+    private static List<BookingResponse> bookings() {
+        List<ResourceResponse> resources = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            resources.add(ResourceResponse.builder()
+                    .id(UUID.randomUUID())
+                    .name("Meeting Room " + i)
+                    .description("Second floor, seats 8, screen and whiteboard")
+                    .active(true)
+                    .createdAt(Instant.parse("2024-01-01T00:00:00Z"))
+                    .updatedAt(Instant.parse("2024-01-01T00:00:00Z"))
+                    .build());
+        }
+        List<UserResponse> users = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            users.add(UserResponse.builder()
+                    .id(UUID.randomUUID())
+                    .email("user" + i + "@example.com")
+                    .role("USER")
+                    .createdAt(Instant.parse("2024-01-01T00:00:00Z"))
+                    .build());
+        }
+
+        Instant base = Instant.parse("2025-01-06T08:00:00Z");
+        List<BookingResponse> bookings = new ArrayList<>(BOOKINGS);
+        for (int i = 0; i < BOOKINGS; i++) {
+            Instant startAt = base.plus(i, ChronoUnit.HOURS);
+            bookings.add(BookingResponse.builder()
+                    .id(UUID.randomUUID())
+                    .resource(resources.get(i % resources.size()))
+                    .user(users.get(i % users.size()))
+                    .startAt(startAt)
+                    .endAt(startAt.plus(1, ChronoUnit.HOURS))
+                    .status("ACTIVE")
+                    .notes(i % 3 == 0 ? "Weekly sync" : null)
+                    .createdAt(startAt.minus(2, ChronoUnit.DAYS))
+                    .updatedAt(startAt.minus(2, ChronoUnit.DAYS))
+                    .build());
+        }
+        return bookings;
+    }
+}
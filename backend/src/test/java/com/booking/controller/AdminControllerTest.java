@@ -0,0 +1,204 @@
+package com.booking.controller;
+
+import com.booking.config.BinaryFormatsConfig;
+import com.booking.config.JacksonConfig;
+import com.booking.config.SecurityConfig;
+import com.booking.dto.booking.BookingResponse;
+import com.booking.dto.booking.CompactBookingPage;
+import com.booking.dto.resource.ResourceRequest;
+import com.booking.dto.resource.ResourceResponse;
+import com.booking.dto.user.UserResponse;
+import com.booking.entity.Booking;
+import com.booking.entity.Resource;
+import com.booking.entity.User;
+import com.booking.importer.BulkImportService;
+import com.booking.security.CustomUserDetailsService;
+import com.booking.security.JwtAuthenticationFilter;
+import com.booking.security.JwtService;
+import com.booking.service.BookingService;
+import com.booking.service.OccupancyAnalyticsService;
+import com.booking.service.ResourceService;
+import com.booking.service.UtilizationService;
+import com.booking.service.WaitingRoom;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.aMapWithSize;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = AdminController.class,
+        excludeFilters = @ComponentScan.Filter(
+                type = FilterType.ASSIGNABLE_TYPE,
+                classes = SecurityConfig.class))
+@AutoConfigureMockMvc(addFilters = false)
+@Import({JacksonConfig.class, BinaryFormatsConfig.class})
+class AdminControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private BookingService bookingService;
+
+    @MockBean
+    private ResourceService resourceService;
+
+    @MockBean
+    private WaitingRoom waitingRoom;
+
+    @MockBean
+    private UtilizationService utilizationService;
+
+    @MockBean
+    private OccupancyAnalyticsService occupancyAnalyticsService;
+
+    @MockBean
+    private BulkImportService bulkImportService;
+
+    @MockBean
+    private JwtService jwtService;
+
+    @MockBean
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    @MockBean
+    private CustomUserDetailsService customUserDetailsService;
+
+    @Test
+    void updateResource_TellsAnExplicitNullCapacityFromAnAbsentOne() throws Exception {
+        UUID id = UUID.randomUUID();
+        ArgumentCaptor<ResourceRequest> request = ArgumentCaptor.forClass(ResourceRequest.class);
+        when(resourceService.updateResource(eq(id), request.capture()))
+                .thenReturn(ResourceResponse.builder().id(id).name("Room A").build());
+
+        mockMvc.perform(put("/api/admin/resources/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Room A\",\"capacity\":null}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/api/admin/resources/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Room A\"}"))
+                .andExpect(status().isOk());
+
+        assertThat(request.getAllValues()).extracting(ResourceRequest::isCapacityPresent).containsExactly(true, false);
+        assertThat(request.getAllValues()).extracting(ResourceRequest::getCapacity).containsOnlyNulls();
+    }
+
+    @Test
+    void getAllBookings_CompactViewSideLoadsEachResourceAndUserOnce() throws Exception {
+        Resource resource = Resource.builder().id(UUID.randomUUID()).name("Room A").active(true).build();
+        User user = User.builder().id(UUID.randomUUID()).email("user@example.com").role(User.Role.USER).build();
+        CompactBookingPage page = new CompactBookingPage();
+        page.add(booking(resource, user, 1));
+        page.add(booking(resource, user, 2));
+        page.add(booking(resource, user, 3));
+        when(bookingService.getAllBookingsCompact(any(), any(), any(), anyBoolean())).thenReturn(page);
+
+        mockMvc.perform(get("/api/admin/bookings").param("view", "compact"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bookings.length()").value(3))
+                .andExpect(jsonPath("$.bookings[0].resourceId").value(resource.getId().toString()))
+                .andExpect(jsonPath("$.bookings[0]", not(hasKey("resource"))))
+                .andExpect(jsonPath("$.resources", aMapWithSize(1)))
+                .andExpect(jsonPath("$.users", aMapWithSize(1)))
+                .andExpect(jsonPath("$.resources['" + resource.getId() + "'].name").value("Room A"));
+    }
+
+    @Test
+    void getAllBookings_CompactMediaTypeSelectsCompactView() throws Exception {
+        when(bookingService.getAllBookingsCompact(any(), any(), any(), anyBoolean()))
+                .thenReturn(new CompactBookingPage());
+
+        mockMvc.perform(get("/api/admin/bookings").accept(AdminController.COMPACT_MEDIA_TYPE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(AdminController.COMPACT_MEDIA_TYPE))
+                .andExpect(jsonPath("$.bookings").isArray());
+    }
+
+    @Test
+    void getAllBookings_FieldsLimitsBookingProperties() throws Exception {
+        BookingResponse response = BookingResponse.builder()
+                .id(UUID.randomUUID())
+                .resource(ResourceResponse.builder().id(UUID.randomUUID()).name("Room A").build())
+                .user(UserResponse.builder().id(UUID.randomUUID()).email("user@example.com").build())
+                .startAt(Instant.now())
+                .status("ACTIVE")
+                .build();
+        when(bookingService.getAllBookings(any(), any(), any(), anyBoolean())).thenReturn(List.of(response));
+
+        mockMvc.perform(get("/api/admin/bookings").param("fields", "startAt,status"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(response.getId().toString()))
+                .andExpect(jsonPath("$[0].status").value("ACTIVE"))
+                .andExpect(jsonPath("$[0]", not(hasKey("resource"))))
+                .andExpect(jsonPath("$[0]", not(hasKey("user"))));
+    }
+
+    @Test
+    void getAllBookings_CborEncodesInstantsAsEpochMillisAndUuidsAsBinary() throws Exception {
+        Instant startAt = Instant.parse("2025-03-01T10:00:00Z");
+        BookingResponse response = BookingResponse.builder()
+                .id(UUID.randomUUID())
+                .startAt(startAt)
+                .status("ACTIVE")
+                .build();
+        when(bookingService.getAllBookings(any(), any(), any(), anyBoolean())).thenReturn(List.of(response));
+
+        byte[] body = mockMvc.perform(get("/api/admin/bookings").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode booking = new ObjectMapper(new CBORFactory()).readTree(body).get(0);
+        assertThat(booking.get("startAt").longValue()).isEqualTo(startAt.toEpochMilli());
+        assertThat(booking.get("id").isBinary()).isTrue();
+        assertThat(booking.get("id").binaryValue()).hasSize(16);
+    }
+
+    @Test
+    void getAllBookings_UnknownFieldIsRejected() throws Exception {
+        mockMvc.perform(get("/api/admin/bookings").param("fields", "status,password"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("INVALID_FIELDS"));
+    }
+
+    private static Booking booking(Resource resource, User user, int hoursFromNow) {
+        Instant startAt = Instant.now().plus(hoursFromNow, ChronoUnit.HOURS);
+        return Booking.builder()
+                .id(UUID.randomUUID())
+                .resource(resource)
+                .user(user)
+                .startAt(startAt)
+                .endAt(startAt.plus(1, ChronoUnit.HOURS))
+                .status(Booking.Status.ACTIVE)
+                .build();
+    }
+}
@@ -23,6 +23,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -130,4 +131,12 @@ class AuthControllerTest {
                 .andExpect(jsonPath("$.token").value("jwt-token"));
     }
 
+    @Test
+    void logout_RevokesBearerToken() throws Exception {
+        mockMvc.perform(post("/api/auth/logout")
+                        .header("Authorization", "Bearer jwt-token"))
+                .andExpect(status().isNoContent());
+
+        verify(authService).logout("jwt-token");
+    }
 }
@@ -0,0 +1,158 @@
+package com.booking.controller;
+
+import com.booking.config.SecurityConfig;
+import com.booking.security.CalendarFeedTokens;
+import com.booking.security.CalendarFeedTokens.Scope;
+import com.booking.security.CustomUserDetailsService;
+import com.booking.security.JwtAuthenticationFilter;
+import com.booking.security.JwtService;
+import com.booking.service.CalendarFeed;
+import com.booking.service.CalendarFeedService;
+import com.booking.service.CalendarFeedVersions;
+import com.booking.service.ResourceService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.OptionalInt;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = CalendarController.class,
+        excludeFilters = @ComponentScan.Filter(
+                type = FilterType.ASSIGNABLE_TYPE,
+                classes = SecurityConfig.class))
+@AutoConfigureMockMvc(addFilters = false)
+class CalendarControllerTest {
+
+    private static final CalendarFeedTokens TOKENS =
+            new CalendarFeedTokens("test-secret-key-for-testing-purposes-must-be-at-least-256-bits-long");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private CalendarFeedService calendarFeedService;
+
+    @MockBean
+    private CalendarFeedTokens feedTokens;
+
+    @MockBean
+    private CalendarFeedVersions feedVersions;
+
+    @MockBean
+    private ResourceService resourceService;
+
+    @MockBean
+    private JwtService jwtService;
+
+    @MockBean
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    @MockBean
+    private CustomUserDetailsService customUserDetailsService;
+
+    private final UUID resourceId = UUID.randomUUID();
+    private final CalendarFeed feed = new CalendarFeed(
+            "BEGIN:VCALENDAR\r\nEND:VCALENDAR\r\n".getBytes(StandardCharsets.UTF_8),
+            "\"abc123\"", Instant.parse("2030-01-15T09:00:00Z"));
+
+    @Test
+    void getResourceFeed_ReturnsTheCalendarWithValidators() throws Exception {
+        String token = allowToken(Scope.RESOURCE, resourceId);
+        when(calendarFeedService.getResourceFeed(resourceId)).thenReturn(feed);
+
+        mockMvc.perform(get("/api/calendar/resources/{id}.ics", resourceId).param("token", token))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/calendar;charset=UTF-8"))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc123\""))
+                .andExpect(header().string(HttpHeaders.LAST_MODIFIED, "Tue, 15 Jan 2030 09:00:00 GMT"))
+                .andExpect(content().bytes(feed.body()));
+    }
+
+    @Test
+    void getResourceFeed_MatchingEtagIsNotModified() throws Exception {
+        String token = allowToken(Scope.RESOURCE, resourceId);
+        when(calendarFeedService.getResourceFeed(resourceId)).thenReturn(feed);
+
+        mockMvc.perform(get("/api/calendar/resources/{id}.ics", resourceId).param("token", token)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"abc123\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void getUserFeed_InvalidTokenIsForbidden() throws Exception {
+        UUID userId = UUID.randomUUID();
+        when(feedTokens.signedVersion(any(), any(), any())).thenReturn(OptionalInt.empty());
+
+        mockMvc.perform(get("/api/calendar/users/{id}.ics", userId).param("token", "forged"))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.errorCode").value("FORBIDDEN"));
+
+        verifyNoInteractions(calendarFeedService, feedVersions);
+    }
+
+    @Test
+    void getResourceFeed_TokenOfARotatedVersionIsForbidden() throws Exception {
+        String token = TOKENS.sign(Scope.RESOURCE, resourceId, 1);
+        when(feedTokens.signedVersion(Scope.RESOURCE, resourceId, token)).thenReturn(OptionalInt.of(1));
+        when(feedVersions.current(Scope.RESOURCE, resourceId)).thenReturn(2);
+
+        mockMvc.perform(get("/api/calendar/resources/{id}.ics", resourceId).param("token", token))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(calendarFeedService);
+    }
+
+    @Test
+    void getResourceFeedUrl_ContainsTheSignedToken() throws Exception {
+        when(feedVersions.current(Scope.RESOURCE, resourceId)).thenReturn(0);
+        when(feedTokens.sign(Scope.RESOURCE, resourceId, 0)).thenReturn("signed");
+
+        mockMvc.perform(get("/api/calendar/resources/{id}/feed", resourceId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.url").value(
+                        "http://localhost/api/calendar/resources/" + resourceId + ".ics?token=signed"));
+
+        verify(resourceService).getResourceById(resourceId);
+    }
+
+    @Test
+    void rotateResourceFeedUrl_SignsTheNewVersion() throws Exception {
+        when(feedVersions.current(Scope.RESOURCE, resourceId)).thenReturn(1);
+        when(feedTokens.sign(Scope.RESOURCE, resourceId, 1)).thenReturn("1.signed");
+
+        mockMvc.perform(post("/api/calendar/resources/{id}/feed/rotate", resourceId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.url").value(
+                        "http://localhost/api/calendar/resources/" + resourceId + ".ics?token=1.signed"));
+
+        verify(feedVersions).rotate(Scope.RESOURCE, resourceId);
+    }
+
+    private String allowToken(Scope scope, UUID id) {
+        String token = TOKENS.sign(scope, id, 0);
+        when(feedTokens.signedVersion(scope, id, token)).thenReturn(OptionalInt.of(0));
+        when(feedVersions.current(scope, id)).thenReturn(0);
+        return token;
+    }
+}
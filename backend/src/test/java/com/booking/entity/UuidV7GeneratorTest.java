@@ -0,0 +1,46 @@
+package com.booking.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidV7GeneratorTest {
+
+    @Test
+    void next_SetsVersionVariantAndTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID id = UuidV7Generator.next();
+        long after = System.currentTimeMillis();
+
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        // The counter may carry into the next millisecond when ids are generated faster than 4096/ms
+        assertThat(id.getMostSignificantBits() >>> 16).isBetween(before, after + 1);
+    }
+
+    @Test
+    void next_IsStrictlyIncreasingWithinAndAcrossMilliseconds() {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            ids.add(UuidV7Generator.next());
+        }
+
+        assertThat(ids).isSorted().doesNotHaveDuplicates();
+        assertThat(ids).allSatisfy(id -> assertThat(id.version()).isEqualTo(7));
+    }
+
+    @Test
+    void next_CounterOverflowAdvancesTimestampInsteadOfWrapping() {
+        long millis = System.currentTimeMillis() + 1;
+        UUID last = null;
+        for (int i = 0; i < 4097; i++) {
+            last = UuidV7Generator.next(millis);
+        }
+
+        assertThat(last.getMostSignificantBits() >>> 16).isGreaterThan(millis);
+    }
+}
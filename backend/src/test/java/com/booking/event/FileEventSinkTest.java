@@ -0,0 +1,50 @@
+package com.booking.event;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileEventSinkTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void publish_AppendsOneJsonLinePerEventAcrossBatches() throws Exception {
+        Path file = tempDir.resolve("events/booking.ndjson");
+        FileEventSink sink = new FileEventSink(objectMapper, file);
+        UUID bookingId = UUID.randomUUID();
+
+        sink.publish(List.of(message(1, bookingId, "booking.created")));
+        sink.publish(List.of(message(2, bookingId, "booking.cancelled")));
+
+        List<String> lines = Files.readAllLines(file);
+        assertThat(lines).hasSize(2);
+
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertThat(first.get("id").asLong()).isEqualTo(1);
+        assertThat(first.get("eventId").asText()).isNotBlank();
+        assertThat(first.get("eventType").asText()).isEqualTo("booking.created");
+        assertThat(first.get("payload").get("bookingId").asText()).isEqualTo(bookingId.toString());
+        assertThat(objectMapper.readTree(lines.get(1)).get("eventType").asText()).isEqualTo("booking.cancelled");
+    }
+
+    private static OutboxMessage message(long id, UUID bookingId, String eventType) {
+        return new OutboxMessage(UUID.randomUUID(), id, "booking", bookingId, eventType,
+                "{\"bookingId\":\"" + bookingId + "\"}", Instant.parse("2030-01-15T10:00:00Z"));
+    }
+}
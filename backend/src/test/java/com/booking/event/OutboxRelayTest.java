@@ -0,0 +1,221 @@
+package com.booking.event;
+
+import com.booking.event.BookingChangedEvent.Type;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Booking events go through outbox_events: written only inside the producing transaction,
+ * relayed to the sink in id order by one relay per shard at a time, marked published, and
+ * retried after a failed delivery.
+ */
+@Tag("postgres")
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(properties = {
+        "app.outbox.sink=recording",
+        "app.outbox.relay.enabled=true",
+        "app.outbox.relay.batch-size=2",
+        "app.outbox.relay.poll-interval-ms=3600000",
+        "app.utilization.enabled=false"
+})
+class OutboxRelayTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private OutboxRelay relay;
+
+    @Autowired
+    private RecordingSink sink;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM outbox_events");
+        jdbcTemplate.update("DELETE FROM outbox_offsets");
+        sink.reset();
+    }
+
+    @Test
+    void writer_RequiresTheProducingTransaction() {
+        assertThatThrownBy(() -> eventPublisher.publishEvent(event(Type.CREATED)))
+                .isInstanceOf(IllegalTransactionStateException.class);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(event(Type.CREATED));
+            status.setRollbackOnly();
+        });
+        assertThat(unpublished()).isZero();
+
+        BookingChangedEvent committed = event(Type.CANCELLED);
+        transactionTemplate.executeWithoutResult(status -> eventPublisher.publishEvent(committed));
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT event_type FROM outbox_events WHERE aggregate_id = ?", String.class, committed.bookingId()))
+                .isEqualTo("booking.cancelled");
+    }
+
+    @Test
+    void relay_DeliversInIdOrderAcrossBatchesAndMarksRowsPublished() {
+        List<UUID> bookingIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            BookingChangedEvent event = event(Type.CREATED);
+            bookingIds.add(event.bookingId());
+            transactionTemplate.executeWithoutResult(status -> eventPublisher.publishEvent(event));
+        }
+
+        relay.relay();
+
+        assertThat(sink.delivered()).extracting(OutboxMessage::aggregateId).containsExactlyElementsOf(bookingIds);
+        assertThat(sink.delivered()).extracting(OutboxMessage::id).isSorted();
+        assertThat(sink.delivered()).extracting(OutboxMessage::eventId).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(unpublished()).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT last_event_id FROM outbox_offsets WHERE sink = ?",
+                Long.class, sink.name()))
+                .isEqualTo(sink.delivered().get(4).id());
+
+        relay.relay();
+        assertThat(sink.delivered()).hasSize(5);
+    }
+
+    @Test
+    void relay_LeavesRowsForTheNextRunWhenTheSinkFails() {
+        for (int i = 0; i < 3; i++) {
+            transactionTemplate.executeWithoutResult(status -> eventPublisher.publishEvent(event(Type.HELD)));
+        }
+        sink.failNext(1);
+
+        relay.relay();
+
+        assertThat(sink.delivered()).isEmpty();
+        assertThat(unpublished()).isEqualTo(3);
+
+        relay.relay();
+
+        assertThat(sink.delivered()).hasSize(3);
+        assertThat(sink.delivered()).extracting(OutboxMessage::id).doesNotHaveDuplicates();
+        assertThat(unpublished()).isZero();
+    }
+
+    @Test
+    void relay_SkipsTheShardWhileAnotherRelayIsDrainingIt() throws Exception {
+        transactionTemplate.executeWithoutResult(status -> eventPublisher.publishEvent(event(Type.CREATED)));
+
+        // Stands in for the relay of another node, part way through a batch
+        try (Connection otherNode = dataSource.getConnection()) {
+            otherNode.setAutoCommit(false);
+            try (PreparedStatement lock = otherNode.prepareStatement("SELECT pg_advisory_xact_lock(?, hashtext(?))")) {
+                lock.setInt(1, OutboxRelay.LOCK_NAMESPACE);
+                lock.setString(2, sink.name());
+                lock.execute();
+            }
+
+            relay.relay();
+            assertThat(sink.delivered()).isEmpty();
+
+            otherNode.commit();
+        }
+
+        relay.relay();
+        assertThat(sink.delivered()).hasSize(1);
+        assertThat(unpublished()).isZero();
+    }
+
+    private long unpublished() {
+        return jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM outbox_events WHERE published_at IS NULL", Long.class);
+    }
+
+    private static BookingChangedEvent event(Type type) {
+        Instant start = Instant.now().plus(1, ChronoUnit.DAYS).truncatedTo(ChronoUnit.HOURS);
+        return new BookingChangedEvent(type, UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(),
+                start, start.plus(1, ChronoUnit.HOURS));
+    }
+
+    @TestConfiguration
+    static class SinkConfig {
+
+        @Bean
+        RecordingSink recordingSink() {
+            return new RecordingSink();
+        }
+    }
+
+    static class RecordingSink implements EventSink {
+
+        private final List<OutboxMessage> delivered = new ArrayList<>();
+        private final AtomicInteger failures = new AtomicInteger();
+
+        @Override
+        public String name() {
+            return "recording";
+        }
+
+        @Override
+        public synchronized void publish(List<OutboxMessage> batch) throws IOException {
+            if (failures.getAndUpdate(remaining -> Math.max(remaining - 1, 0)) > 0) {
+                throw new IOException("sink unavailable");
+            }
+            delivered.addAll(batch);
+        }
+
+        synchronized List<OutboxMessage> delivered() {
+            return List.copyOf(delivered);
+        }
+
+        void failNext(int deliveries) {
+            failures.set(deliveries);
+        }
+
+        synchronized void reset() {
+            delivered.clear();
+            failures.set(0);
+        }
+    }
+}
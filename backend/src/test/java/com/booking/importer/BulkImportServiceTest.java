@@ -0,0 +1,294 @@
+package com.booking.importer;
+
+import com.booking.dto.importer.ImportReport;
+import com.booking.entity.Booking;
+import com.booking.entity.Resource;
+import com.booking.entity.User;
+import com.booking.event.BookingChangedEvent;
+import com.booking.exception.BookingException;
+import com.booking.repository.BookingRepository;
+import com.booking.repository.ResourceRepository;
+import com.booking.repository.UserRepository;
+import com.booking.service.HoldExpiryService;
+import com.booking.service.ResourceAdvisoryLock;
+import com.booking.service.ResourceCache;
+import com.booking.sharding.ShardRouter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BulkImportServiceTest {
+
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv");
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    @Mock
+    private ResourceRepository resourceRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ResourceCache resourceCache;
+
+    @Mock
+    private HoldExpiryService holdExpiryService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private BulkImportService importService;
+    private final UUID resourceId = UUID.randomUUID();
+    private final UUID userId = UUID.randomUUID();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        lenient().doAnswer(invocation -> {
+            invocation.getArgument(0, Consumer.class).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        importService = new BulkImportService(resourceRepository, bookingRepository, userRepository,
+                transactionTemplate, ShardRouter.unsharded(transactionTemplate, bookingRepository),
+                Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(),
+                resourceCache, new ResourceAdvisoryLock(null, false), holdExpiryService, eventPublisher, 2, 1000, 10, 8);
+    }
+
+    @Test
+    void importResources_OverTheRowLimitKeepsWhatWasWrittenAndReportsTheRest() {
+        importService = new BulkImportService(resourceRepository, bookingRepository, userRepository,
+                transactionTemplate, ShardRouter.unsharded(transactionTemplate, bookingRepository),
+                Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(),
+                resourceCache, new ResourceAdvisoryLock(null, false), holdExpiryService, eventPublisher, 2, 3, 10, 8);
+
+        ImportReport report = importService.importResources(
+                stream("name\nRoom A\nRoom B\nRoom C\nRoom D\nRoom E\n"), CSV);
+
+        assertThat(report.getRowsRead()).isEqualTo(3);
+        assertThat(report.getImported()).isEqualTo(3);
+        assertThat(report.isRowLimitReached()).isTrue();
+        assertThat(report.getErrors()).singleElement()
+                .satisfies(error -> assertThat(error.getRow()).isEqualTo(4));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importResources_CsvHandlesQuotingAndReportsInvalidRows() {
+        String csv = "\uFEFFname,description,active\r\n"
+                + "Room A,\"Quiet, with \"\"whiteboard\"\"\",true\r\n"
+                + "Room B,\"Two\nlines\",false\r\n"
+                + "\r\n"
+                + ",Missing name,true\r\n"
+                + "Room C,too,many,columns\r\n";
+
+        ImportReport report = importService.importResources(stream(csv), CSV);
+
+        assertThat(report.getRowsRead()).isEqualTo(4);
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(report.getFailed()).isEqualTo(2);
+        assertThat(report.getErrors()).extracting(ImportReport.RowError::getRow).containsExactly(3L, 4L);
+        assertThat(report.getErrors().get(1).getMessage()).isEqualTo("Expected 3 columns but found 4");
+
+        ArgumentCaptor<List<Resource>> saved = ArgumentCaptor.forClass(List.class);
+        verify(resourceRepository).saveAll(saved.capture());
+        assertThat(saved.getValue()).extracting(Resource::getDescription)
+                .containsExactly("Quiet, with \"whiteboard\"", "Two\nlines");
+        assertThat(saved.getValue()).extracting(Resource::getActive).containsExactly(true, false);
+    }
+
+    @Test
+    void importBookings_RejectsOverlapsWithinUploadAndWithStoredBookings() {
+        stubLookups();
+        Booking stored = Booking.builder()
+                .id(UUID.randomUUID())
+                .startAt(Instant.parse("2025-03-03T13:00:00Z"))
+                .endAt(Instant.parse("2025-03-03T14:00:00Z"))
+                .build();
+        when(bookingRepository.findOverlappingBookings(eq(resourceId), any(), any(), any()))
+                .thenReturn(List.of(stored));
+
+        String ndjson = booking("2025-03-03T10:00:00Z", "2025-03-03T11:00:00Z", "ACTIVE") + "\n"
+                + booking("2025-03-03T10:30:00Z", "2025-03-03T11:30:00Z", "ACTIVE") + "\n"
+                + booking("2025-03-03T10:30:00Z", "2025-03-03T11:30:00Z", "CANCELLED") + "\n"
+                + booking("2025-03-03T13:30:00Z", "2025-03-03T15:00:00Z", "ACTIVE") + "\n"
+                + booking("2025-03-03T14:00:00Z", "2025-03-03T15:00:00Z", "ACTIVE") + "\n";
+
+        ImportReport report = importService.importBookings(stream(ndjson), NDJSON);
+
+        assertThat(report.getImported()).isEqualTo(3);
+        assertThat(report.getErrors()).extracting(ImportReport.RowError::getRow).containsExactly(2L, 4L);
+        assertThat(report.getErrors().get(0).getMessage()).isEqualTo("Overlaps row 1");
+        assertThat(report.getErrors().get(1).getMessage()).isEqualTo("Overlaps existing booking " + stored.getId());
+
+        ArgumentCaptor<BookingChangedEvent> events = ArgumentCaptor.forClass(BookingChangedEvent.class);
+        verify(eventPublisher, times(4)).publishEvent(events.capture());
+        assertThat(events.getAllValues()).extracting(BookingChangedEvent::type).containsExactly(
+                BookingChangedEvent.Type.CREATED,
+                BookingChangedEvent.Type.CREATED, BookingChangedEvent.Type.CANCELLED,
+                BookingChangedEvent.Type.CREATED);
+        assertThat(events.getAllValues()).extracting(BookingChangedEvent::resourceId).containsOnly(resourceId);
+    }
+
+    @Test
+    void importBookings_OverTheRowLimitWritesNothing() {
+        stubLookups();
+        importService = new BulkImportService(resourceRepository, bookingRepository, userRepository,
+                transactionTemplate, ShardRouter.unsharded(transactionTemplate, bookingRepository),
+                Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(),
+                resourceCache, new ResourceAdvisoryLock(null, false), holdExpiryService, eventPublisher, 2, 1, 10, 8);
+
+        String ndjson = booking("2025-03-03T10:00:00Z", "2025-03-03T11:00:00Z", "ACTIVE") + "\n"
+                + booking("2025-03-03T12:00:00Z", "2025-03-03T13:00:00Z", "ACTIVE") + "\n";
+
+        assertThatThrownBy(() -> importService.importBookings(stream(ndjson), NDJSON))
+                .isInstanceOf(BookingException.class)
+                .hasFieldOrPropertyWithValue("errorCode", "IMPORT_TOO_LARGE");
+        verify(bookingRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importBookings_FailedBatchIsRetriedRowByRow() {
+        stubLookups();
+        when(bookingRepository.findOverlappingBookings(eq(resourceId), any(), any(), any())).thenReturn(List.of());
+        when(bookingRepository.saveAll(anyList())).thenThrow(new IllegalStateException("batch failed"));
+        when(bookingRepository.save(any(Booking.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0))
+                .thenThrow(new IllegalStateException("constraint violated"));
+
+        String ndjson = booking("2025-03-03T10:00:00Z", "2025-03-03T11:00:00Z", "ACTIVE") + "\n"
+                + booking("2025-03-03T12:00:00Z", "2025-03-03T13:00:00Z", "ACTIVE") + "\n";
+
+        ImportReport report = importService.importBookings(stream(ndjson), NDJSON);
+
+        assertThat(report.getImported()).isEqualTo(1);
+        assertThat(report.getErrors()).singleElement()
+                .satisfies(error -> {
+                    assertThat(error.getRow()).isEqualTo(2);
+                    assertThat(error.getMessage()).isEqualTo("constraint violated");
+                });
+    }
+
+    @Test
+    void importBookings_RechecksStoredBookingsBeforeWriting() {
+        stubLookups();
+        when(bookingRepository.findOverlappingBookings(eq(resourceId), any(), any(), any())).thenReturn(List.of());
+        // Booked by another node after the upload was swept
+        when(bookingRepository.existsOverlappingBooking(eq(resourceId), any(), any(), any()))
+                .thenAnswer(invocation -> invocation.getArgument(1).equals(Instant.parse("2025-03-03T12:00:00Z")));
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        String ndjson = booking("2025-03-03T10:00:00Z", "2025-03-03T11:00:00Z", "ACTIVE") + "\n"
+                + booking("2025-03-03T12:00:00Z", "2025-03-03T13:00:00Z", "ACTIVE") + "\n";
+
+        ImportReport report = importService.importBookings(stream(ndjson), NDJSON);
+
+        assertThat(report.getImported()).isEqualTo(1);
+        assertThat(report.getErrors()).singleElement()
+                .satisfies(error -> {
+                    assertThat(error.getRow()).isEqualTo(2);
+                    assertThat(error.getMessage()).isEqualTo("Overlaps a booking stored during the import");
+                });
+        verify(bookingRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importResources_NdjsonReadsTagArraysAndRejectsOtherNestedValues() {
+        String ndjson = "{\"name\":\"Room A\",\"capacity\":8,\"tags\":[\"projector\",\"whiteboard\"]}\n"
+                + "{\"name\":\"Room B\",\"tags\":\"Projector;tv\"}\n"
+                + "{\"name\":\"Room C\",\"tags\":{\"projector\":true}}\n"
+                + "{\"name\":\"Room D\",\"tags\":[[\"projector\"]]}\n";
+
+        ImportReport report = importService.importResources(stream(ndjson), NDJSON);
+
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(report.getErrors()).extracting(ImportReport.RowError::getRow).containsExactly(3L, 4L);
+        assertThat(report.getErrors().get(0).getMessage())
+                .isEqualTo("tags must be a string, number, boolean or array of those");
+
+        ArgumentCaptor<List<Resource>> saved = ArgumentCaptor.forClass(List.class);
+        verify(resourceRepository).saveAll(saved.capture());
+        assertThat(saved.getValue()).extracting(Resource::getTags).containsExactly(
+                new String[]{"projector", "whiteboard"}, new String[]{"projector", "tv"});
+        assertThat(saved.getValue()).extracting(Resource::getCapacity).containsExactly(8, null);
+    }
+
+    @Test
+    void importBookings_ValidatesEachRow() {
+        stubLookups();
+        when(userRepository.findByEmail("nobody@example.com")).thenReturn(Optional.empty());
+
+        String csv = "resourceId,userEmail,startAt,endAt\n"
+                + resourceId + ",nobody@example.com,2025-03-03T10:00:00Z,2025-03-03T11:00:00Z\n"
+                + resourceId + ",user@example.com,2025-03-03T11:00:00Z,2025-03-03T10:00:00Z\n"
+                + resourceId + ",user@example.com,2025-03-03T08:00:00Z,2025-03-03T18:00:00Z\n"
+                + resourceId + ",user@example.com,2025-03-03T08:00:00Z,2025-03-03T16:59:00Z\n"
+                + resourceId + ",user@example.com,yesterday,2025-03-03T18:00:00Z\n";
+
+        ImportReport report = importService.importBookings(stream(csv), CSV);
+
+        assertThat(report.getImported()).isZero();
+        assertThat(report.getErrors()).extracting(ImportReport.RowError::getMessage).containsExactly(
+                "No user with email nobody@example.com",
+                "startAt must be before endAt",
+                "Bookings cannot exceed 8 hours",
+                "Bookings cannot exceed 8 hours",
+                "startAt must be an ISO-8601 timestamp with offset, e.g. 2024-05-01T09:00:00Z");
+    }
+
+    private void stubLookups() {
+        User user = User.builder().id(userId).email("user@example.com").build();
+        lenient().when(resourceRepository.existsById(resourceId)).thenReturn(true);
+        lenient().when(resourceRepository.getReferenceById(resourceId))
+                .thenReturn(Resource.builder().id(resourceId).build());
+        lenient().when(userRepository.findByEmail("user@example.com")).thenReturn(Optional.of(user));
+        lenient().when(userRepository.getReferenceById(userId)).thenReturn(user);
+    }
+
+    private String booking(String startAt, String endAt, String status) {
+        return String.format(
+                "{\"resourceId\":\"%s\",\"userEmail\":\"user@example.com\",\"startAt\":\"%s\",\"endAt\":\"%s\",\"status\":\"%s\"}",
+                resourceId, startAt, endAt, status);
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,58 @@
+package com.booking.job;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HashedTimingWheelTest {
+
+    private static final long START = 1_000_000L;
+
+    private final HashedTimingWheel<String> wheel = new HashedTimingWheel<>(100, 8, START);
+
+    @Test
+    void advance_ReturnsEntriesOnceTheirTickHasPassed() {
+        wheel.schedule("a", START + 250);
+        wheel.schedule("b", START + 250);
+        wheel.schedule("c", START + 500);
+
+        assertThat(wheel.advance(START + 200)).isEmpty();
+        assertThat(wheel.advance(START + 300)).containsExactlyInAnyOrder("a", "b");
+        assertThat(wheel.advance(START + 500)).containsExactly("c");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void advance_KeepsDeadlinesBeyondOneRevolutionUntilDue() {
+        // 8 slots of 100ms: 1300ms later lands in the same slot as 500ms
+        wheel.schedule("near", START + 500);
+        wheel.schedule("far", START + 1300);
+
+        assertThat(wheel.advance(START + 500)).containsExactly("near");
+        assertThat(wheel.advance(START + 1200)).isEmpty();
+        assertThat(wheel.advance(START + 1300)).containsExactly("far");
+    }
+
+    @Test
+    void advance_CatchesUpAfterFallingBehindSeveralRevolutions() {
+        wheel.schedule("a", START + 150);
+        wheel.schedule("b", START + 2_000);
+
+        assertThat(wheel.advance(START + 10_000)).containsExactlyInAnyOrder("a", "b");
+    }
+
+    @Test
+    void cancel_RemovesScheduledEntry() {
+        wheel.schedule("a", START + 100);
+
+        assertThat(wheel.cancel("a")).isTrue();
+        assertThat(wheel.advance(START + 1_000)).isEmpty();
+    }
+
+    @Test
+    void schedule_PastDeadlineFiresOnNextTick() {
+        wheel.schedule("late", START - 5_000);
+
+        assertThat(wheel.advance(START + 100)).containsExactly("late");
+    }
+}
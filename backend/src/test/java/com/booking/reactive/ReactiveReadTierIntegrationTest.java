@@ -0,0 +1,142 @@
+package com.booking.reactive;
+
+import com.booking.security.JwtService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Boots the reactive read tier against a migrated PostgreSQL database and checks that it
+ * answers like the blocking tier: same JSON, same errors, same token rules.
+ */
+@Tag("postgres")
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(
+        classes = ReactiveReadApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.main.web-application-type=reactive")
+@ActiveProfiles(ReactiveReadApplication.PROFILE)
+class ReactiveReadTierIntegrationTest {
+
+    // Seeded by V2__seed_data.sql
+    private static final UUID SEEDED_USER = UUID.fromString("b2c3d4e5-f6a7-8901-bcde-f23456789012");
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private WebTestClient client;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private ReadTierRevocations revocations;
+
+    @DynamicPropertySource
+    static void databaseProperties(DynamicPropertyRegistry registry) {
+        Flyway.configure()
+                .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Test
+    void servesResourcesAndAvailability() {
+        JdbcTemplate jdbc = jdbc();
+        UUID resourceId = jdbc.queryForObject(
+                "INSERT INTO resources (name, description) VALUES ('Reactive room', 'Read tier') RETURNING id", UUID.class);
+        jdbc.update("INSERT INTO bookings (user_id, resource_id, start_at, end_at, status) VALUES (?, ?, ?, ?, 'ACTIVE')",
+                SEEDED_USER, resourceId, Timestamp.from(Instant.parse("2030-03-04T10:00:00Z")),
+                Timestamp.from(Instant.parse("2030-03-04T11:00:00Z")));
+        jdbc.update("INSERT INTO bookings (user_id, resource_id, start_at, end_at, status) VALUES (?, ?, ?, ?, 'CANCELLED')",
+                SEEDED_USER, resourceId, Timestamp.from(Instant.parse("2030-03-04T12:00:00Z")),
+                Timestamp.from(Instant.parse("2030-03-04T13:00:00Z")));
+        String token = jwtService.generateToken(SEEDED_USER, "user@example.com", "USER");
+
+        client.get().uri("/api/resources")
+                .headers(headers -> headers.setBearerAuth(token))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[?(@.id == '" + resourceId + "')].name").isEqualTo("Reactive room");
+
+        client.get().uri("/api/resources/{id}", resourceId)
+                .headers(headers -> headers.setBearerAuth(token))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.description").isEqualTo("Read tier")
+                .jsonPath("$.createdAt").exists();
+
+        client.get().uri("/api/resources/{id}/availability?date=2030-03-04", resourceId)
+                .headers(headers -> headers.setBearerAuth(token))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].startAt").isEqualTo("2030-03-04T10:00:00Z");
+
+        client.get().uri("/api/resources/{id}", UUID.randomUUID())
+                .headers(headers -> headers.setBearerAuth(token))
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.errorCode").isEqualTo("NOT_FOUND");
+    }
+
+    @Test
+    void rejectsMissingAndRevokedTokens() {
+        client.get().uri("/api/resources").exchange().expectStatus().isUnauthorized();
+
+        String token = jwtService.generateToken(SEEDED_USER, "user@example.com", "USER");
+        client.get().uri("/api/resources")
+                .headers(headers -> headers.setBearerAuth(token))
+                .exchange()
+                .expectStatus().isOk();
+
+        jdbc().update("INSERT INTO revoked_tokens (jti, user_id, expires_at) VALUES (?, ?, ?)",
+                UUID.fromString(jwtService.parseToken(token).getId()), SEEDED_USER,
+                Timestamp.from(Instant.now().plusSeconds(3600)));
+        revocations.refresh();
+
+        client.get().uri("/api/resources")
+                .headers(headers -> headers.setBearerAuth(token))
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    void writesAreNotServed() {
+        String token = jwtService.generateToken(SEEDED_USER, "user@example.com", "USER");
+
+        client.post().uri("/api/bookings")
+                .headers(headers -> headers.setBearerAuth(token))
+                .exchange()
+                .expectStatus().isForbidden();
+    }
+
+    private static JdbcTemplate jdbc() {
+        return new JdbcTemplate(new DriverManagerDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword()));
+    }
+}
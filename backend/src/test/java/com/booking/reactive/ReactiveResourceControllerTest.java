@@ -0,0 +1,81 @@
+package com.booking.reactive;
+
+import com.booking.dto.booking.AvailabilitySlot;
+import com.booking.dto.resource.ResourceResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReactiveResourceControllerTest {
+
+    private final ReactiveReadRepository repository = mock(ReactiveReadRepository.class);
+
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        client = WebTestClient.bindToController(new ReactiveResourceController(repository))
+                .controllerAdvice(new ReactiveExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void getActiveResources_ReturnsTheList() {
+        UUID id = UUID.randomUUID();
+        when(repository.findActiveResources()).thenReturn(Flux.just(
+                ResourceResponse.builder().id(id).name("Room A").active(true).build()));
+
+        client.get().uri("/api/resources")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].id").isEqualTo(id.toString())
+                .jsonPath("$[0].name").isEqualTo("Room A");
+    }
+
+    @Test
+    void getResource_UnknownIdIsNotFound() {
+        UUID id = UUID.randomUUID();
+        when(repository.findResource(id)).thenReturn(Mono.empty());
+
+        client.get().uri("/api/resources/{id}", id)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.errorCode").isEqualTo("NOT_FOUND")
+                .jsonPath("$.path").isEqualTo("/api/resources/" + id);
+    }
+
+    @Test
+    void getAvailability_ParsesTheIsoDate() {
+        UUID id = UUID.randomUUID();
+        Instant start = Instant.parse("2025-06-02T09:00:00Z");
+        when(repository.findAvailability(id, LocalDate.of(2025, 6, 2))).thenReturn(Flux.just(
+                AvailabilitySlot.builder().startAt(start).endAt(start.plusSeconds(3600)).booked(true).build()));
+
+        client.get().uri("/api/resources/{id}/availability?date=2025-06-02", id)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].booked").isEqualTo(true);
+    }
+
+    @Test
+    void getAvailability_InvalidDateIsBadRequest() {
+        client.get().uri("/api/resources/{id}/availability?date=tomorrow", UUID.randomUUID())
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.errorCode").isEqualTo("INVALID_REQUEST");
+    }
+}
@@ -0,0 +1,60 @@
+package com.booking.reactive;
+
+import com.booking.security.JwtService;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReactiveSecurityConfigTest {
+
+    private final JwtService jwtService = new JwtService(
+            "test-secret-key-for-testing-purposes-must-be-at-least-256-bits-long", 3600000);
+    private final ReadTierRevocations revocations = mock(ReadTierRevocations.class);
+    private final ReactiveAuthenticationManager manager =
+            new ReactiveSecurityConfig().bearerTokenAuthenticationManager(jwtService, revocations);
+
+    @Test
+    void authenticate_ValidTokenCarriesSubjectAndRole() {
+        UUID userId = UUID.randomUUID();
+        String token = jwtService.generateToken(userId, "user@example.com", "USER");
+
+        Authentication authentication = authenticate(token);
+
+        assertThat(authentication.isAuthenticated()).isTrue();
+        assertThat(authentication.getPrincipal()).isEqualTo(userId.toString());
+        assertThat(authentication.getAuthorities()).extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_USER");
+    }
+
+    @Test
+    void authenticate_RevokedTokenIsRejected() {
+        String token = jwtService.generateToken(UUID.randomUUID(), "user@example.com", "USER");
+        Claims claims = jwtService.parseToken(token);
+        when(revocations.isRevoked(claims.getId())).thenReturn(true);
+
+        assertThatThrownBy(() -> authenticate(token)).isInstanceOf(BadCredentialsException.class);
+    }
+
+    @Test
+    void authenticate_ForeignSignatureIsRejected() {
+        String token = new JwtService("another-secret-key-that-is-also-at-least-256-bits-long-for-hs256", 3600000)
+                .generateToken(UUID.randomUUID(), "user@example.com", "ADMIN");
+
+        assertThatThrownBy(() -> authenticate(token)).isInstanceOf(BadCredentialsException.class);
+    }
+
+    private Authentication authenticate(String token) {
+        return manager.authenticate(UsernamePasswordAuthenticationToken.unauthenticated(token, token)).block();
+    }
+}
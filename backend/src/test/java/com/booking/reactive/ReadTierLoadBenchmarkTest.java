@@ -0,0 +1,228 @@
+package com.booking.reactive;
+
+import com.booking.BookingApplication;
+import com.booking.security.JwtService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Availability latency while many slow clients download the full resource list, served by
+ * the blocking tier (Tomcat + JDBC) and by the reactive read tier (Netty + R2DBC) in turn.
+ * Slow clients read a few hundred bytes at a time through a small receive buffer, so each
+ * one keeps a request in flight for the whole run; fast probes measure what everyone else
+ * gets meanwhile. Writes p50/p99, throughput and errors per tier.
+ *
+ * Excluded from the regular build; run with mvn -Pbenchmark test (needs Docker).
+ * -Dbenchmark.read-tier.slow-clients (default 400) and -Dbenchmark.read-tier.seconds
+ * (default 30) size the run.
+ */
+@Tag("benchmark")
+@Testcontainers(disabledWithoutDocker = true)
+class ReadTierLoadBenchmarkTest {
+
+    private static final int SLOW_CLIENTS = Integer.getInteger("benchmark.read-tier.slow-clients", 400);
+    private static final int SECONDS = Integer.getInteger("benchmark.read-tier.seconds", 30);
+    private static final int PROBES = 16;
+    private static final int RESOURCES = 3000;
+    private static final int SLOW_READ_BYTES = 256;
+    private static final long SLOW_READ_PAUSE_MS = 100;
+    private static final Duration PROBE_TIMEOUT = Duration.ofSeconds(5);
+    private static final UUID SEEDED_USER = UUID.fromString("b2c3d4e5-f6a7-8901-bcde-f23456789012");
+    private static final Path OUTPUT = Path.of("target/read-tier-load.csv");
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withCommand("postgres", "-c", "max_connections=200");
+
+    @Test
+    void slowClientsAgainstBothTiers() throws Exception {
+        Flyway.configure()
+                .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+        UUID probedResource = seedResources();
+
+        List<String> csv = new ArrayList<>();
+        csv.add("tier,slow_clients,seconds,probe_requests,probe_errors,probe_rps,p50_ms,p99_ms");
+        System.out.printf("%-9s %10s %10s %8s %8s %8s%n", "tier", "requests", "errors", "rps", "p50 ms", "p99 ms");
+
+        try (ConfigurableApplicationContext blocking = start(BookingApplication.class, WebApplicationType.SERVLET)) {
+            csv.add(run("blocking", blocking, probedResource));
+        }
+        try (ConfigurableApplicationContext reactive = start(ReactiveReadApplication.class, WebApplicationType.REACTIVE)) {
+            String row = run("reactive", reactive, probedResource);
+            // Starvation is an expected outcome for the blocking tier, not for this one
+            assertThat(row).doesNotContain("NaN");
+            csv.add(row);
+        }
+
+        Files.createDirectories(OUTPUT.getParent());
+        Files.write(OUTPUT, csv);
+    }
+
+    private String run(String tier, ConfigurableApplicationContext context, UUID probedResource) throws Exception {
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        String token = context.getBean(JwtService.class).generateToken(SEEDED_USER, "user@example.com", "USER");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(SECONDS);
+
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger errors = new AtomicInteger();
+        HttpClient http = HttpClient.newBuilder().connectTimeout(PROBE_TIMEOUT).build();
+        ExecutorService slow = Executors.newFixedThreadPool(SLOW_CLIENTS);
+        ExecutorService probes = Executors.newFixedThreadPool(PROBES);
+        try {
+            for (int i = 0; i < SLOW_CLIENTS; i++) {
+                slow.submit(() -> slowClient(port, token, deadline));
+            }
+            // Lets the slow clients occupy the server before measuring
+            Thread.sleep(2000);
+
+            HttpRequest probe = HttpRequest.newBuilder(URI.create(
+                            "http://localhost:" + port + "/api/resources/" + probedResource + "/availability?date=2030-01-15"))
+                    .header("Authorization", "Bearer " + token)
+                    .timeout(PROBE_TIMEOUT)
+                    .build();
+            for (int i = 0; i < PROBES; i++) {
+                probes.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        long started = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = http.send(probe, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() == 200) {
+                                latencies.add(System.nanoTime() - started);
+                            } else {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception ex) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+            probes.shutdown();
+            probes.awaitTermination(SECONDS + 30, TimeUnit.SECONDS);
+        } finally {
+            probes.shutdownNow();
+            slow.shutdownNow();
+            slow.awaitTermination(10, TimeUnit.SECONDS);
+        }
+
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        double measuredSeconds = SECONDS - 2;
+        double p50 = percentileMillis(sorted, 0.50);
+        double p99 = percentileMillis(sorted, 0.99);
+        System.out.printf("%-9s %10d %10d %8.0f %8.1f %8.1f%n",
+                tier, sorted.size(), errors.get(), sorted.size() / measuredSeconds, p50, p99);
+        return String.format("%s,%d,%d,%d,%d,%.0f,%.1f,%.1f", tier, SLOW_CLIENTS, SECONDS,
+                sorted.size(), errors.get(), sorted.size() / measuredSeconds, p50, p99);
+    }
+
+    // Downloads the resource list as slowly as a congested mobile client, then starts over
+    private static Void slowClient(int port, String token, long deadline) {
+        byte[] buffer = new byte[SLOW_READ_BYTES];
+        String request = "GET /api/resources HTTP/1.1\r\nHost: localhost\r\nAuthorization: Bearer " + token
+                + "\r\nConnection: close\r\n\r\n";
+        while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+            try (Socket socket = new Socket()) {
+                socket.setReceiveBufferSize(4096);
+                socket.connect(new InetSocketAddress("localhost", port));
+                OutputStream out = socket.getOutputStream();
+                out.write(request.getBytes(StandardCharsets.US_ASCII));
+                out.flush();
+                InputStream in = socket.getInputStream();
+                while (System.nanoTime() < deadline && in.read(buffer) >= 0) {
+                    Thread.sleep(SLOW_READ_PAUSE_MS);
+                }
+            } catch (InterruptedException ex) {
+                return null;
+            } catch (Exception ex) {
+                // Refused or reset under load; reconnect
+            }
+        }
+        return null;
+    }
+
+    // Passed as command-line arguments: builder default properties lose to application.yml
+    private static ConfigurableApplicationContext start(Class<?> application, WebApplicationType type) {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(application).web(type);
+        if (type == WebApplicationType.REACTIVE) {
+            builder.profiles(ReactiveReadApplication.PROFILE);
+        }
+        return builder.run(
+                "--server.port=0",
+                "--spring.datasource.url=" + POSTGRES.getJdbcUrl(),
+                "--spring.datasource.username=" + POSTGRES.getUsername(),
+                "--spring.datasource.password=" + POSTGRES.getPassword(),
+                "--spring.flyway.enabled=false",
+                "--app.rate-limit.enabled=false",
+                "--app.waiting-room.enabled=false",
+                "--app.outbox.sink=memory",
+                "--app.cache-bus.enabled=false",
+                "--logging.level.com.booking=WARN");
+    }
+
+    // Descriptions make the list about 2 MB, far more than socket buffers absorb
+    private static UUID seedResources() throws Exception {
+        String description = "Seats twelve, screen, whiteboard. ".repeat(20);
+        try (Connection connection = DriverManager.getConnection(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+             PreparedStatement insert = connection.prepareStatement(
+                     "INSERT INTO resources (name, description) VALUES (?, ?)")) {
+            for (int i = 0; i < RESOURCES; i++) {
+                insert.setString(1, "Load room " + i);
+                insert.setString(2, description);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+            try (var rs = connection.createStatement().executeQuery("SELECT id FROM resources LIMIT 1")) {
+                rs.next();
+                return rs.getObject(1, UUID.class);
+            }
+        }
+    }
+
+    private static double percentileMillis(List<Long> sorted, double percentile) {
+        if (sorted.isEmpty()) {
+            return Double.NaN;
+        }
+        int index = (int) Math.min(sorted.size() - 1, Math.ceil(percentile * sorted.size()) - 1);
+        return sorted.get(Math.max(index, 0)) / 1e6;
+    }
+}
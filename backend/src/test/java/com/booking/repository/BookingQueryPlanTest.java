@@ -0,0 +1,307 @@
+package com.booking.repository;
+
+import com.booking.service.BookingWindows;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Calls each BookingRepository query against a generated dataset, records the SQL and
+ * parameters Hibernate sends, and runs them again under EXPLAIN (ANALYZE, BUFFERS). Fails on
+ * sequential scans of bookings, on queries that touch more partitions than expected, and on
+ * estimated costs that regress past the recorded baseline or have no baseline at all.
+ *
+ * Baseline costs live in src/test/resources/query-plans/baseline.json. Run with
+ * -DupdatePlanBaseline=true to rewrite it from the current plans; every run writes the
+ * measured plans and the recorded SQL to target/query-plans/.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Tag("postgres")
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BookingQueryPlanTest {
+
+    private static final Path BASELINE = Path.of("src/test/resources/query-plans/baseline.json");
+    private static final Path OUTPUT_DIR = Path.of("target/query-plans");
+    private static final double COST_TOLERANCE = 1.5;
+    private static final long SEQ_SCAN_ROW_THRESHOLD = 1000;
+    private static final int RESOURCES = 100;
+    private static final int USERS = 5000;
+    private static final int MONTHS_OF_HISTORY = 9;
+    private static final int MONTHS_AHEAD = 3;
+    private static final StatementRecorder RECORDER = new StatementRecorder();
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @TestConfiguration
+    static class RecordingConfig {
+
+        @Bean
+        static BeanPostProcessor recordingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? RECORDER.wrap(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, Double> measuredCosts = new TreeMap<>();
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private Connection connection;
+    private JsonNode baseline;
+    private UUID resourceId;
+    private UUID userId;
+    private Instant probeStart;
+
+    @BeforeAll
+    void setUp() throws Exception {
+        // Flyway has migrated the schema while the context started; this connection is not recorded
+        connection = DriverManager.getConnection(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+
+        generateDataset();
+
+        baseline = Files.exists(BASELINE)
+                ? objectMapper.readTree(BASELINE.toFile())
+                : objectMapper.createObjectNode();
+    }
+
+    @AfterAll
+    void tearDown() throws Exception {
+        Files.createDirectories(OUTPUT_DIR);
+        ObjectNode costs = objectMapper.createObjectNode();
+        measuredCosts.forEach(costs::put);
+        objectMapper.writerWithDefaultPrettyPrinter()
+                .writeValue(OUTPUT_DIR.resolve("costs.json").toFile(), costs);
+
+        if (Boolean.getBoolean("updatePlanBaseline")) {
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(BASELINE.toFile(), costs);
+        }
+
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    // Arguments are read when each query runs, after setUp has generated the dataset
+    Stream<PlannedQuery> repositoryQueries() {
+        return Stream.of(
+                new PlannedQuery("existsOverlappingBooking", 2, repository -> repository.existsOverlappingBooking(
+                        resourceId, probeStart, probeEnd(), earliestStart())),
+                new PlannedQuery("findOverlappingBookings", 2, repository -> repository.findOverlappingBookings(
+                        resourceId, probeStart, probeEnd(), earliestStart())),
+                new PlannedQuery("findActiveBookingsForResourceOnDate", 2, repository ->
+                        repository.findActiveBookingsForResourceOnDate(
+                                resourceId, probeDay(), probeDay().plus(1, ChronoUnit.DAYS))),
+                new PlannedQuery("findByUserIdOrderByStartAtDesc", Integer.MAX_VALUE, repository ->
+                        repository.findByUserIdOrderByStartAtDesc(userId)),
+                new PlannedQuery("findAllWithFilters", 2, repository -> repository.findAllWithFilters(
+                        resourceId, probeDay(), probeDay().plus(7, ChronoUnit.DAYS)))
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositoryQueries")
+    void queryPlanUsesIndexesAndStaysWithinBaseline(PlannedQuery query) throws Exception {
+        RECORDER.clear();
+        query.call().accept(bookingRepository);
+        List<StatementRecorder.Recorded> statements = RECORDER.statements();
+        assertThat(statements).as("statements executed by %s", query.name()).hasSize(1);
+        StatementRecorder.Recorded recorded = statements.get(0);
+
+        JsonNode plan = explain(recorded);
+        Files.createDirectories(OUTPUT_DIR);
+        Files.writeString(OUTPUT_DIR.resolve(query.name() + ".sql"), recorded.sql());
+        objectMapper.writerWithDefaultPrettyPrinter()
+                .writeValue(OUTPUT_DIR.resolve(query.name() + ".json").toFile(), plan);
+
+        JsonNode root = plan.get(0).get("Plan");
+        List<JsonNode> nodes = new ArrayList<>();
+        collectNodes(root, nodes);
+
+        assertThat(nodes)
+                .as("sequential scans on bookings in %s", query.name())
+                .noneMatch(node -> "Seq Scan".equals(node.path("Node Type").asText())
+                        && node.path("Relation Name").asText().startsWith("bookings")
+                        && rowsScanned(node) >= SEQ_SCAN_ROW_THRESHOLD);
+
+        long partitionsScanned = nodes.stream()
+                .map(node -> node.path("Relation Name").asText())
+                .filter(name -> name.startsWith("bookings_"))
+                .distinct()
+                .count();
+        assertThat(partitionsScanned)
+                .as("bookings partitions scanned by %s", query.name())
+                .isLessThanOrEqualTo(query.maxPartitions());
+
+        double totalCost = root.path("Total Cost").asDouble();
+        measuredCosts.put(query.name(), totalCost);
+
+        if (Boolean.getBoolean("updatePlanBaseline")) {
+            return;
+        }
+        JsonNode baselineCost = baseline.get(query.name());
+        assertThat(baselineCost)
+                .as("baseline cost of %s; record it with -DupdatePlanBaseline=true", query.name())
+                .isNotNull();
+        assertThat(totalCost)
+                .as("estimated cost of %s against baseline %s", query.name(), baselineCost.asDouble())
+                .isLessThanOrEqualTo(baselineCost.asDouble() * COST_TOLERANCE);
+    }
+
+    private JsonNode explain(StatementRecorder.Recorded recorded) throws Exception {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON) " + recorded.sql())) {
+            recorded.bind(statement);
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                return objectMapper.readTree(rs.getString(1));
+            }
+        }
+    }
+
+    private Instant probeEnd() {
+        return probeStart.plus(2, ChronoUnit.HOURS);
+    }
+
+    private Instant probeDay() {
+        return probeStart.truncatedTo(ChronoUnit.DAYS);
+    }
+
+    private Instant earliestStart() {
+        return BookingWindows.earliestOverlappingStart(probeStart);
+    }
+
+    // Scanning an empty or near-empty partition (e.g. bookings_default) sequentially is fine
+    private static long rowsScanned(JsonNode node) {
+        return node.path("Actual Rows").asLong() + node.path("Rows Removed by Filter").asLong();
+    }
+
+    private static void collectNodes(JsonNode node, List<JsonNode> nodes) {
+        nodes.add(node);
+        for (JsonNode child : node.path("Plans")) {
+            collectNodes(child, nodes);
+        }
+    }
+
+    private void generateDataset() throws SQLException {
+        LocalDate currentMonth = LocalDate.now(ZoneOffset.UTC).withDayOfMonth(1);
+        LocalDate firstMonth = currentMonth.minusMonths(MONTHS_OF_HISTORY);
+        LocalDate endMonth = currentMonth.plusMonths(MONTHS_AHEAD);
+
+        try (Statement statement = connection.createStatement()) {
+            for (LocalDate month = firstMonth; month.isBefore(endMonth); month = month.plusMonths(1)) {
+                statement.execute("SELECT create_bookings_partition('" + month + "')");
+            }
+
+            statement.execute("""
+                    INSERT INTO users (email, password, role)
+                    SELECT 'load' || g || '@example.com', 'x', 'USER'
+                    FROM generate_series(1, %d) g
+                    """.formatted(USERS));
+
+            statement.execute("""
+                    INSERT INTO resources (name, description, active)
+                    SELECT 'Load Resource ' || g, 'Generated for query plan tests', true
+                    FROM generate_series(1, %d) g
+                    """.formatted(RESOURCES));
+
+            // One booking of one or two hours every three hours per resource, so none overlap
+            statement.execute("""
+                    WITH u AS (SELECT array_agg(id) AS ids FROM users),
+                    slots AS (
+                        SELECT r.id AS resource_id, t AS start_at
+                        FROM resources r
+                        CROSS JOIN generate_series('%s'::timestamptz, '%s'::timestamptz, interval '3 hours') t
+                    )
+                    INSERT INTO bookings (user_id, resource_id, start_at, end_at, status)
+                    SELECT u.ids[1 + floor(random() * array_length(u.ids, 1))::int],
+                           s.resource_id,
+                           s.start_at,
+                           s.start_at + (1 + floor(random() * 2)::int) * interval '1 hour',
+                           CASE WHEN random() < 0.2 THEN 'CANCELLED' ELSE 'ACTIVE' END
+                    FROM slots s CROSS JOIN u
+                    """.formatted(
+                    firstMonth.atStartOfDay(ZoneOffset.UTC).toInstant(),
+                    endMonth.atStartOfDay(ZoneOffset.UTC).toInstant().minus(3, ChronoUnit.HOURS)));
+
+            statement.execute("ANALYZE");
+
+            try (ResultSet rs = statement.executeQuery(
+                    "SELECT id FROM resources WHERE name = 'Load Resource 1'")) {
+                rs.next();
+                resourceId = rs.getObject(1, UUID.class);
+            }
+            try (ResultSet rs = statement.executeQuery(
+                    "SELECT id FROM users WHERE email = 'load1@example.com'")) {
+                rs.next();
+                userId = rs.getObject(1, UUID.class);
+            }
+        }
+
+        probeStart = currentMonth.plusDays(14).atTime(10, 0).toInstant(ZoneOffset.UTC);
+    }
+
+    record PlannedQuery(String name, int maxPartitions, Consumer<BookingRepository> call) {
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.booking.repository;
+
+import com.booking.entity.UuidV7Generator;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Insert throughput into the partitioned bookings table with random v4 ids versus UUIDv7 ids.
+ * Each run starts from an empty table and reports rows/s per segment, so the slowdown of v4
+ * as the primary-key index outgrows shared_buffers is visible, plus the final index size.
+ *
+ * Excluded from the regular build; run with mvn -Pbenchmark test (needs Docker).
+ * -Dbenchmark.uuid.rows sets the rows per run (default 5,000,000).
+ */
+@Tag("benchmark")
+@Testcontainers(disabledWithoutDocker = true)
+class UuidInsertBenchmarkTest {
+
+    private static final int ROWS = Integer.getInteger("benchmark.uuid.rows", 5_000_000);
+    private static final int SEGMENTS = 5;
+    private static final int BATCH_SIZE = 1000;
+    private static final int RESOURCES = 100;
+    private static final int USERS = 1000;
+    private static final LocalDate FIRST_MONTH = LocalDate.of(2025, 1, 1);
+    private static final int MONTHS = 3;
+    private static final Path OUTPUT = Path.of("target/uuid-insert-benchmark.csv");
+
+    // Small shared_buffers so the benchmark reaches the index-larger-than-cache regime quickly
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withCommand("postgres", "-c", "shared_buffers=128MB", "-c", "max_wal_size=4GB",
+                    "-c", "synchronous_commit=off");
+
+    @Test
+    void compareV4AndV7Ids() throws Exception {
+        Flyway.configure()
+                .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+
+        try (Connection connection = DriverManager.getConnection(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())) {
+            List<UUID> resources = insertOwners(connection, "resources", RESOURCES);
+            List<UUID> users = insertOwners(connection, "users", USERS);
+            assertThat(resources).allSatisfy(id -> assertThat(id.version()).isEqualTo(7));
+            try (Statement statement = connection.createStatement()) {
+                for (int month = 0; month < MONTHS; month++) {
+                    statement.execute("SELECT create_bookings_partition('" + FIRST_MONTH.plusMonths(month) + "')");
+                }
+            }
+
+            List<String> csv = new ArrayList<>();
+            csv.add("ids,segment,rows,rows_per_second,pkey_bytes");
+            run(connection, "v4", UUID::randomUUID, resources, users, csv);
+            run(connection, "v7", UuidV7Generator::next, resources, users, csv);
+
+            Files.createDirectories(OUTPUT.getParent());
+            Files.write(OUTPUT, csv);
+        }
+    }
+
+    private void run(Connection connection, String label, Supplier<UUID> ids,
+                     List<UUID> resources, List<UUID> users, List<String> csv) throws Exception {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE bookings");
+            statement.execute("CHECKPOINT");
+        }
+
+        // Cancelled rows keep the partial overlap constraints out of the measurement
+        String sql = "INSERT INTO bookings (id, user_id, resource_id, start_at, end_at, status) "
+                + "VALUES (?, ?, ?, ?, ?, 'CANCELLED')";
+        Random random = new Random(42);
+        Instant first = FIRST_MONTH.atStartOfDay().toInstant(ZoneOffset.UTC);
+        long spanMinutes = ChronoUnit.MINUTES.between(first,
+                FIRST_MONTH.plusMonths(MONTHS).atStartOfDay().toInstant(ZoneOffset.UTC)) - 60;
+        int segmentRows = ROWS / SEGMENTS;
+
+        connection.setAutoCommit(false);
+        System.out.printf("%s ids, %d rows%n%8s %12s %14s%n", label, ROWS, "segment", "rows/s", "pkey MB");
+        try (PreparedStatement insert = connection.prepareStatement(sql)) {
+            for (int segment = 1; segment <= SEGMENTS; segment++) {
+                long started = System.nanoTime();
+                for (int row = 0; row < segmentRows; row++) {
+                    Instant startAt = first.plus(random.nextLong(spanMinutes), ChronoUnit.MINUTES);
+                    insert.setObject(1, ids.get());
+                    insert.setObject(2, users.get(random.nextInt(users.size())));
+                    insert.setObject(3, resources.get(random.nextInt(resources.size())));
+                    insert.setTimestamp(4, Timestamp.from(startAt));
+                    insert.setTimestamp(5, Timestamp.from(startAt.plus(1, ChronoUnit.HOURS)));
+                    insert.addBatch();
+                    if ((row + 1) % BATCH_SIZE == 0) {
+                        insert.executeBatch();
+                        connection.commit();
+                    }
+                }
+                insert.executeBatch();
+                connection.commit();
+
+                double rowsPerSecond = segmentRows / ((System.nanoTime() - started) / 1e9);
+                long pkeyBytes = primaryKeyBytes(connection);
+                System.out.printf("%8d %12.0f %14.1f%n", segment, rowsPerSecond, pkeyBytes / 1048576.0);
+                csv.add(String.format("%s,%d,%d,%.0f,%d", label, segment, segment * segmentRows,
+                        rowsPerSecond, pkeyBytes));
+            }
+        } finally {
+            connection.setAutoCommit(true);
+        }
+
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT count(*) FROM bookings")) {
+            rs.next();
+            assertThat(rs.getLong(1)).isEqualTo((long) segmentRows * SEGMENTS);
+        }
+    }
+
+    private static long primaryKeyBytes(Connection connection) throws Exception {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(
+                     "SELECT sum(pg_relation_size(relid)) FROM pg_partition_tree('bookings_pkey')")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static List<UUID> insertOwners(Connection connection, String table, int count) throws Exception {
+        String sql = "resources".equals(table)
+                ? "INSERT INTO resources (name) VALUES (?) RETURNING id"
+                : "INSERT INTO users (email, password, role) VALUES (?, 'x', 'USER') RETURNING id";
+        List<UUID> ids = new ArrayList<>(count);
+        try (PreparedStatement insert = connection.prepareStatement(sql)) {
+            for (int i = 0; i < count; i++) {
+                insert.setString(1, "resources".equals(table) ? "Benchmark room " + i : "bench" + i + "@example.com");
+                try (ResultSet rs = insert.executeQuery()) {
+                    rs.next();
+                    ids.add(rs.getObject(1, UUID.class));
+                }
+            }
+        }
+        return ids;
+    }
+}
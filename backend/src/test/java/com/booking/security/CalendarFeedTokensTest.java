@@ -0,0 +1,52 @@
+package com.booking.security;
+
+import com.booking.security.CalendarFeedTokens.Scope;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CalendarFeedTokensTest {
+
+    private final CalendarFeedTokens tokens =
+            new CalendarFeedTokens("test-secret-key-for-testing-purposes-must-be-at-least-256-bits-long");
+    private final UUID id = UUID.randomUUID();
+
+    @Test
+    void signedVersion_AcceptsTheTokenSignedForTheSameFeed() {
+        String token = tokens.sign(Scope.RESOURCE, id, 0);
+
+        assertThat(token).matches("[A-Za-z0-9_-]{43}");
+        assertThat(tokens.signedVersion(Scope.RESOURCE, id, token)).hasValue(0);
+    }
+
+    @Test
+    void signedVersion_ReturnsTheVersionOfARotatedFeed() {
+        String token = tokens.sign(Scope.USER, id, 3);
+
+        assertThat(token).matches("3\\.[A-Za-z0-9_-]{43}");
+        assertThat(tokens.signedVersion(Scope.USER, id, token)).hasValue(3);
+        assertThat(tokens.signedVersion(Scope.USER, id, "4" + token.substring(1))).isEmpty();
+        assertThat(tokens.signedVersion(Scope.USER, id, token.substring(2))).isEmpty();
+        assertThat(tokens.signedVersion(Scope.USER, id, "0." + tokens.sign(Scope.USER, id, 0))).isEmpty();
+    }
+
+    @Test
+    void signedVersion_RejectsTokensOfOtherFeedsAndSecrets() {
+        String token = tokens.sign(Scope.USER, id, 0);
+
+        assertThat(tokens.signedVersion(Scope.RESOURCE, id, token)).isEmpty();
+        assertThat(tokens.signedVersion(Scope.USER, UUID.randomUUID(), token)).isEmpty();
+        assertThat(new CalendarFeedTokens("another-secret-key-that-is-also-long-enough-for-hmac-sha256")
+                .signedVersion(Scope.USER, id, token)).isEmpty();
+    }
+
+    @Test
+    void signedVersion_RejectsMissingAndMalformedTokens() {
+        assertThat(tokens.signedVersion(Scope.USER, id, null)).isEmpty();
+        assertThat(tokens.signedVersion(Scope.USER, id, "")).isEmpty();
+        assertThat(tokens.signedVersion(Scope.USER, id, "not base64!")).isEmpty();
+        assertThat(tokens.signedVersion(Scope.USER, id, "x.abc")).isEmpty();
+    }
+}
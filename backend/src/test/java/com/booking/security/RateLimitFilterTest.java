@@ -0,0 +1,82 @@
+package com.booking.security;
+
+import com.booking.security.CalendarFeedTokens.Scope;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.catalina.filters.RemoteIpFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTest {
+
+    private final CalendarFeedTokens feedTokens =
+            new CalendarFeedTokens("test-secret-key-for-testing-purposes-must-be-at-least-256-bits-long");
+    private final RateLimitFilter filter = new RateLimitFilter(
+            new RateLimiter(true, Map.of(RateLimiter.EndpointClass.READ, new RateLimiter.Limit(1, 0.001)),
+                    100, System::nanoTime),
+            new ObjectMapper().findAndRegisterModules(), feedTokens);
+
+    @Test
+    void signedFeedsFromOneAddressEachGetTheirOwnBucket() throws Exception {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        assertThat(poll("resources", first, feedTokens.sign(Scope.RESOURCE, first, 0))).isEqualTo(200);
+        assertThat(poll("resources", second, feedTokens.sign(Scope.RESOURCE, second, 0))).isEqualTo(200);
+        assertThat(poll("resources", first, feedTokens.sign(Scope.RESOURCE, first, 0))).isEqualTo(429);
+    }
+
+    @Test
+    void unsignedFeedUrlsShareTheBucketOfTheAddress() throws Exception {
+        assertThat(poll("users", UUID.randomUUID(), "forged")).isEqualTo(200);
+        assertThat(poll("users", UUID.randomUUID(), null)).isEqualTo(429);
+        UUID resourceId = UUID.randomUUID();
+        assertThat(poll("resources", resourceId, feedTokens.sign(Scope.USER, resourceId, 0))).isEqualTo(429);
+    }
+
+    @Test
+    void clientsBehindATrustedProxyEachGetTheirOwnBucket() throws Exception {
+        // What server.forward-headers-strategy=native installs in front of the filter chain
+        RemoteIpFilter remoteIp = new RemoteIpFilter();
+
+        assertThat(viaProxy(remoteIp, "10.0.0.5", "198.51.100.1")).isEqualTo(200);
+        assertThat(viaProxy(remoteIp, "10.0.0.5", "198.51.100.2")).isEqualTo(200);
+        assertThat(viaProxy(remoteIp, "10.0.0.5", "198.51.100.1")).isEqualTo(429);
+        // A public caller cannot pick its own address
+        assertThat(viaProxy(remoteIp, "203.0.113.9", "198.51.100.3")).isEqualTo(200);
+        assertThat(viaProxy(remoteIp, "203.0.113.9", "198.51.100.4")).isEqualTo(429);
+    }
+
+    private int viaProxy(RemoteIpFilter remoteIp, String proxyAddress, String forwardedFor) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/resources");
+        request.setRemoteAddr(proxyAddress);
+        request.addHeader("X-Forwarded-For", forwardedFor);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) {
+            }
+        }, remoteIp, filter).doFilter(request, response);
+        return response.getStatus();
+    }
+
+    private int poll(String collection, UUID id, String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/calendar/" + collection + "/" + id + ".ics");
+        request.setRemoteAddr("203.0.113.7");
+        if (token != null) {
+            request.setParameter("token", token);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+}
@@ -0,0 +1,83 @@
+package com.booking.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.SECONDS.toNanos(1000));
+
+    private RateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        rateLimiter = new RateLimiter(
+                true,
+                Map.of(RateLimiter.EndpointClass.AVAILABILITY, new RateLimiter.Limit(3, 1)),
+                2,
+                clock::get);
+    }
+
+    @Test
+    void tryAcquire_AllowsBurstUpToCapacityThenThrottles() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(acquire("user-1").allowed()).isTrue();
+        }
+
+        RateLimiter.Decision decision = acquire("user-1");
+
+        assertThat(decision.allowed()).isFalse();
+        assertThat(decision.retryAfterSeconds()).isEqualTo(1);
+    }
+
+    @Test
+    void tryAcquire_RefillsOverTime() {
+        for (int i = 0; i < 3; i++) {
+            acquire("user-1");
+        }
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        assertThat(acquire("user-1").allowed()).isTrue();
+        assertThat(acquire("user-1").allowed()).isFalse();
+    }
+
+    @Test
+    void tryAcquire_BucketsAreIndependentPerCaller() {
+        for (int i = 0; i < 3; i++) {
+            acquire("user-1");
+        }
+
+        assertThat(acquire("user-1").allowed()).isFalse();
+        assertThat(acquire("user-2").allowed()).isTrue();
+    }
+
+    @Test
+    void evictIdleBuckets_RemovesOnlyRefilledBuckets() {
+        acquire("user-1");
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        acquire("user-2");
+
+        rateLimiter.evictIdleBuckets();
+
+        assertThat(rateLimiter.bucketCount()).isEqualTo(1);
+    }
+
+    @Test
+    void tryAcquire_UnconfiguredEndpointClassIsNotLimited() {
+        for (int i = 0; i < 10; i++) {
+            assertThat(rateLimiter.tryAcquire(RateLimiter.EndpointClass.READ, "user-1").allowed()).isTrue();
+        }
+        assertThat(rateLimiter.bucketCount()).isZero();
+    }
+
+    private RateLimiter.Decision acquire(String caller) {
+        return rateLimiter.tryAcquire(RateLimiter.EndpointClass.AVAILABILITY, caller);
+    }
+}
@@ -0,0 +1,68 @@
+package com.booking.security;
+
+import com.booking.cache.CacheInvalidationBus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenRevocationServiceTest {
+
+    private final UUID userId = UUID.randomUUID();
+
+    private TokenRevocationService revocationService;
+
+    @BeforeEach
+    void setUp() {
+        revocationService = new TokenRevocationService(
+                null, new CacheInvalidationBus(new SimpleMeterRegistry(), false, 100), false, 4, 0.01);
+    }
+
+    @Test
+    void isRevoked_OnlyForRevokedTokenIds() {
+        UUID revoked = UUID.randomUUID();
+
+        revocationService.revoke(revoked, userId, Instant.now().plus(1, ChronoUnit.HOURS));
+
+        assertThat(revocationService.isRevoked(revoked.toString())).isTrue();
+        assertThat(revocationService.isRevoked(UUID.randomUUID().toString())).isFalse();
+        assertThat(revocationService.isRevoked(null)).isFalse();
+        assertThat(revocationService.isRevoked("not-a-uuid")).isFalse();
+    }
+
+    @Test
+    void revoke_GrowsPastTheExpectedSizeWithoutLosingEntries() {
+        List<UUID> revoked = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            UUID tokenId = UUID.randomUUID();
+            revoked.add(tokenId);
+            revocationService.revoke(tokenId, userId, Instant.now().plus(1, ChronoUnit.HOURS));
+        }
+
+        assertThat(revoked).allMatch(tokenId -> revocationService.isRevoked(tokenId.toString()));
+    }
+
+    @Test
+    void purgeExpired_DropsEntriesWhoseTokensHaveExpired() throws Exception {
+        UUID shortLived = UUID.randomUUID();
+        UUID longLived = UUID.randomUUID();
+        revocationService.revoke(shortLived, userId, Instant.now().plusMillis(50));
+        revocationService.revoke(longLived, userId, Instant.now().plus(1, ChronoUnit.HOURS));
+        revocationService.revoke(UUID.randomUUID(), userId, Instant.now().minusSeconds(1));
+        assertThat(revocationService.size()).isEqualTo(2);
+
+        Thread.sleep(100);
+        revocationService.purgeExpired();
+
+        assertThat(revocationService.size()).isEqualTo(1);
+        assertThat(revocationService.isRevoked(shortLived.toString())).isFalse();
+        assertThat(revocationService.isRevoked(longLived.toString())).isTrue();
+    }
+}
@@ -0,0 +1,207 @@
+package com.booking.service;
+
+import com.booking.cache.CacheInvalidationBus;
+import com.booking.dto.booking.BookingRequest;
+import com.booking.dto.booking.BookingTicketResponse;
+import com.booking.entity.Booking;
+import com.booking.entity.Resource;
+import com.booking.entity.User;
+import com.booking.repository.BookingRepository;
+import com.booking.repository.UserRepository;
+import com.booking.security.UserPrincipal;
+import com.booking.sharding.ShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncBookingPipelineTest {
+
+    @Mock
+    private BookingService bookingService;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ResourceService resourceService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private HoldExpiryService holdExpiryService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final List<Booking> stored = new CopyOnWriteArrayList<>();
+
+    private AsyncBookingPipeline pipeline;
+    private UserPrincipal principal;
+    private UUID resourceId;
+    private Instant base;
+
+    @BeforeEach
+    void setUp() {
+        User user = User.builder()
+                .id(UUID.randomUUID())
+                .email("test@example.com")
+                .password("encoded")
+                .role(User.Role.USER)
+                .build();
+        Resource resource = Resource.builder()
+                .id(UUID.randomUUID())
+                .name("Court 1")
+                .active(true)
+                .build();
+        principal = UserPrincipal.from(user);
+        resourceId = resource.getId();
+        base = Instant.now().plus(1, ChronoUnit.DAYS).truncatedTo(ChronoUnit.HOURS);
+
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().when(resourceService.findResourceById(resourceId)).thenReturn(resource);
+        lenient().when(userRepository.findAllById(anyIterable())).thenReturn(List.of(user));
+        // Stand-in for the database: bookings saved by earlier batches are visible to later ones
+        lenient().when(bookingRepository.findOverlappingBookings(eq(resourceId), any(), any(), any()))
+                .thenAnswer(invocation -> List.copyOf(stored));
+        lenient().when(bookingRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
+            Iterable<Booking> bookings = invocation.getArgument(0);
+            bookings.forEach(booking -> {
+                booking.setId(UUID.randomUUID());
+                stored.add(booking);
+            });
+            return List.copyOf(stored);
+        });
+
+        pipeline = pipeline(new ResourceLockStripe(new SimpleMeterRegistry(), 16, 1000));
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipeline.shutdown();
+    }
+
+    @Test
+    void submit_RequeuesTheBatchWhileTheLockStripeIsBusy() throws Exception {
+        ResourceLockStripe lockStripe = new ResourceLockStripe(new SimpleMeterRegistry(), 16, 10);
+        pipeline.shutdown();
+        pipeline = pipeline(lockStripe);
+
+        BookingTicketResponse ticket;
+        try (ResourceLockStripe.Permit ignored = lockStripe.acquire(resourceId)) {
+            ticket = pipeline.submit(request(0, 60), principal);
+            Thread.sleep(50);
+            assertThat(pipeline.getTicket(ticket.getTicketId(), principal).getStatus())
+                    .isEqualTo(BookingTicketResponse.PENDING);
+        }
+
+        assertThat(await(ticket).getStatus()).isEqualTo(BookingTicketResponse.CONFIRMED);
+        assertThat(stored).hasSize(1);
+    }
+
+    @Test
+    void submit_RejectsWithResourceBusyOnceRetriesRunOut() throws Exception {
+        ResourceLockStripe lockStripe = new ResourceLockStripe(new SimpleMeterRegistry(), 16, 1);
+        pipeline.shutdown();
+        pipeline = pipeline(lockStripe);
+
+        try (ResourceLockStripe.Permit ignored = lockStripe.acquire(resourceId)) {
+            BookingTicketResponse rejected = await(pipeline.submit(request(0, 60), principal));
+            assertThat(rejected.getStatus()).isEqualTo(BookingTicketResponse.REJECTED);
+            assertThat(rejected.getErrorCode()).isEqualTo("RESOURCE_BUSY");
+        }
+        assertThat(stored).isEmpty();
+    }
+
+    @Test
+    void drain_DropsTheLaneOnceItIsIdle() throws Exception {
+        await(pipeline.submit(request(0, 60), principal));
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (pipeline.laneCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(pipeline.laneCount()).isZero();
+
+        assertThat(await(pipeline.submit(request(60, 120), principal)).getStatus())
+                .isEqualTo(BookingTicketResponse.CONFIRMED);
+    }
+
+    @Test
+    void submit_DecidesConflictsInArrivalOrder() throws Exception {
+        BookingTicketResponse first = pipeline.submit(request(0, 60), principal);
+        BookingTicketResponse overlapping = pipeline.submit(request(30, 90), principal);
+
+        // A worker may already have decided the first request by the time submit returns
+        assertThat(first.getStatus()).isIn(BookingTicketResponse.PENDING, BookingTicketResponse.CONFIRMED);
+        assertThat(await(first).getStatus()).isEqualTo(BookingTicketResponse.CONFIRMED);
+        assertThat(await(first).getBooking().getStartAt()).isEqualTo(base);
+
+        BookingTicketResponse rejected = await(overlapping);
+        assertThat(rejected.getStatus()).isEqualTo(BookingTicketResponse.REJECTED);
+        assertThat(rejected.getErrorCode()).isEqualTo("BOOKING_OVERLAP");
+        assertThat(stored).hasSize(1);
+    }
+
+    @Test
+    void getTicket_OnlyVisibleToOwner() {
+        BookingTicketResponse ticket = pipeline.submit(request(0, 60), principal);
+        UserPrincipal stranger = UserPrincipal.from(User.builder()
+                .id(UUID.randomUUID())
+                .email("other@example.com")
+                .password("encoded")
+                .role(User.Role.USER)
+                .build());
+
+        assertThatThrownBy(() -> pipeline.getTicket(ticket.getTicketId(), stranger))
+                .hasMessageContaining("not found");
+    }
+
+    private BookingTicketResponse await(BookingTicketResponse ticket) throws Exception {
+        return pipeline.whenCompleted(ticket.getTicketId(), principal).get(5, TimeUnit.SECONDS);
+    }
+
+    private AsyncBookingPipeline pipeline(ResourceLockStripe lockStripe) {
+        return new AsyncBookingPipeline(
+                bookingService, bookingRepository, userRepository, resourceService, lockStripe,
+                new ResourceAdvisoryLock(null, false), holdExpiryService,
+                new RecentBookings(new CacheInvalidationBus(new SimpleMeterRegistry(), false, 100), 10_000),
+                ShardRouter.unsharded(transactionTemplate, bookingRepository), eventPublisher,
+                new SimpleMeterRegistry(), 2, 8, 2, 600);
+    }
+
+    private BookingRequest request(int startMinutes, int endMinutes) {
+        return BookingRequest.builder()
+                .resourceId(resourceId)
+                .startAt(base.plus(startMinutes, ChronoUnit.MINUTES))
+                .endAt(base.plus(endMinutes, ChronoUnit.MINUTES))
+                .build();
+    }
+}
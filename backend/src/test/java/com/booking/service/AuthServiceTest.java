@@ -7,6 +7,8 @@ import com.booking.entity.User;
 import com.booking.exception.BookingException;
 import com.booking.repository.UserRepository;
 import com.booking.security.JwtService;
+import com.booking.security.TokenRevocationService;
+import io.jsonwebtoken.Jwts;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -19,6 +21,8 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -42,6 +46,9 @@ class AuthServiceTest {
     @Mock
     private AuthenticationManager authenticationManager;
 
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
     @InjectMocks
     private AuthService authService;
 
@@ -120,4 +127,42 @@ class AuthServiceTest {
         assertThatThrownBy(() -> authService.login(request))
                 .isInstanceOf(BadCredentialsException.class);
     }
+
+    @Test
+    void logout_RevokesTokenUntilItExpires() {
+        UUID tokenId = UUID.randomUUID();
+        Instant expiresAt = Instant.now().plus(1, ChronoUnit.HOURS).truncatedTo(ChronoUnit.SECONDS);
+        when(jwtService.parseToken("jwt-token")).thenReturn(Jwts.claims()
+                .id(tokenId.toString())
+                .subject(testUser.getId().toString())
+                .expiration(Date.from(expiresAt))
+                .build());
+
+        authService.logout("jwt-token");
+
+        verify(tokenRevocationService).revoke(tokenId, testUser.getId(), expiresAt);
+    }
+
+    @Test
+    void logout_TokenWithoutIdIsReportedAsNotRevocable() {
+        when(jwtService.parseToken("legacy-token")).thenReturn(Jwts.claims()
+                .subject(testUser.getId().toString())
+                .expiration(Date.from(Instant.now().plus(1, ChronoUnit.HOURS)))
+                .build());
+
+        assertThatThrownBy(() -> authService.logout("legacy-token"))
+                .isInstanceOf(BookingException.class)
+                .hasFieldOrPropertyWithValue("errorCode", "TOKEN_NOT_REVOCABLE");
+        verifyNoInteractions(tokenRevocationService);
+    }
+
+    @Test
+    void logout_InvalidToken() {
+        when(jwtService.parseToken("garbage")).thenReturn(null);
+
+        assertThatThrownBy(() -> authService.logout("garbage"))
+                .isInstanceOf(BookingException.class)
+                .hasFieldOrPropertyWithValue("errorCode", "UNAUTHORIZED");
+        verifyNoInteractions(tokenRevocationService);
+    }
 }
@@ -0,0 +1,113 @@
+package com.booking.service;
+
+import com.booking.cache.CacheInvalidationBus;
+import com.booking.dto.booking.AvailabilitySlot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AvailabilityCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UUID resourceId = UUID.randomUUID();
+    private final LocalDate date = LocalDate.of(2030, 1, 15);
+
+    private AvailabilityCache availabilityCache;
+
+    @BeforeEach
+    void setUp() {
+        availabilityCache = new AvailabilityCache(new CacheInvalidationBus(meterRegistry, false, 100), meterRegistry, 60_000, 100);
+    }
+
+    @Test
+    void get_ConcurrentIdenticalReadsShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        int callers = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+
+        try {
+            List<Future<List<AvailabilitySlot>>> futures = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                futures.add(executor.submit(() -> availabilityCache.get(resourceId, date, () -> {
+                    loads.incrementAndGet();
+                    started.countDown();
+                    awaitQuietly(release);
+                    return List.of(AvailabilitySlot.builder().booked(true).build());
+                })));
+            }
+
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<List<AvailabilitySlot>> future : futures) {
+                assertThat(future.get()).hasSize(1);
+            }
+            assertThat(loads).hasValue(1);
+            assertThat(count("miss") + count("coalesced") + count("hit")).isEqualTo(callers);
+            assertThat(count("miss")).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void get_ServesRepeatedReadsFromCacheUntilInvalidated() {
+        AtomicInteger loads = new AtomicInteger();
+
+        availabilityCache.get(resourceId, date, () -> load(loads));
+        availabilityCache.get(resourceId, date, () -> load(loads));
+        assertThat(loads).hasValue(1);
+        assertThat(count("hit")).isEqualTo(1);
+
+        availabilityCache.invalidate(resourceId);
+        availabilityCache.get(resourceId, date, () -> load(loads));
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void get_DoesNotCacheResultLoadedBeforeAWrite() {
+        AtomicInteger loads = new AtomicInteger();
+
+        availabilityCache.get(resourceId, date, () -> {
+            availabilityCache.invalidate(resourceId);
+            return load(loads);
+        });
+        availabilityCache.get(resourceId, date, () -> load(loads));
+
+        assertThat(loads).hasValue(2);
+    }
+
+    private List<AvailabilitySlot> load(AtomicInteger loads) {
+        loads.incrementAndGet();
+        return List.of();
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("booking.availability.requests").tag("result", result).counter().count();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,31 +1,49 @@
 package com.booking.service;
 
+import com.booking.cache.CacheInvalidationBus;
 import com.booking.dto.booking.BookingRequest;
 import com.booking.dto.booking.BookingResponse;
+import com.booking.entity.ArchivedBooking;
 import com.booking.entity.Booking;
 import com.booking.entity.Resource;
 import com.booking.entity.User;
+import com.booking.event.BookingChangedEvent;
 import com.booking.exception.BookingException;
+import com.booking.repository.ArchivedBookingRepository;
 import com.booking.repository.BookingRepository;
 import com.booking.repository.UserRepository;
 import com.booking.security.UserPrincipal;
+import com.booking.sharding.ShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,12 +52,37 @@ class BookingServiceTest {
     @Mock
     private BookingRepository bookingRepository;
 
+    @Mock
+    private ArchivedBookingRepository archivedBookingRepository;
+
     @Mock
     private UserRepository userRepository;
 
     @Mock
     private ResourceService resourceService;
 
+    @Mock
+    private AvailabilityCache availabilityCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Spy
+    private ResourceLockStripe resourceLockStripe = new ResourceLockStripe(new SimpleMeterRegistry(), 16, 100);
+
+    @Mock
+    private HoldExpiryService holdExpiryService;
+
+    @Mock
+    private ResourceAdvisoryLock resourceAdvisoryLock;
+
+    @Spy
+    private RecentBookings recentBookings =
+            new RecentBookings(new CacheInvalidationBus(new SimpleMeterRegistry(), false, 100), 10_000);
+
     @InjectMocks
     private BookingService bookingService;
 
@@ -52,6 +95,10 @@ class BookingServiceTest {
     @BeforeEach
     void setUp() {
         ReflectionTestUtils.setField(bookingService, "maxDurationHours", 8);
+        ReflectionTestUtils.setField(bookingService, "shardRouter",
+                ShardRouter.unsharded(transactionTemplate, bookingRepository));
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
 
         userId = UUID.randomUUID();
         resourceId = UUID.randomUUID();
@@ -98,7 +145,8 @@ class BookingServiceTest {
                 .build();
 
         when(resourceService.findResourceById(resourceId)).thenReturn(testResource);
-        when(bookingRepository.existsOverlappingBooking(resourceId, startAt, endAt)).thenReturn(false);
+        when(bookingRepository.existsOverlappingBooking(
+                resourceId, startAt, endAt, BookingWindows.earliestOverlappingStart(startAt))).thenReturn(false);
         when(userRepository.findById(userId)).thenReturn(Optional.of(testUser));
         when(bookingRepository.save(any(Booking.class))).thenReturn(savedBooking);
 
@@ -121,11 +169,114 @@ class BookingServiceTest {
                 .build();
 
         when(resourceService.findResourceById(resourceId)).thenReturn(testResource);
-        when(bookingRepository.existsOverlappingBooking(resourceId, startAt, endAt)).thenReturn(true);
+        when(bookingRepository.existsOverlappingBooking(
+                resourceId, startAt, endAt, BookingWindows.earliestOverlappingStart(startAt))).thenReturn(true);
+
+        assertThatThrownBy(() -> bookingService.createBooking(request, testPrincipal))
+                .isInstanceOf(BookingException.class)
+                .hasMessageContaining("overlaps");
+    }
+
+    @Test
+    void createBooking_LocksTheResourceAndReleasesExpiredHoldsBeforeTheOverlapCheck() {
+        Instant startAt = Instant.now().plus(1, ChronoUnit.HOURS);
+        Instant endAt = startAt.plus(2, ChronoUnit.HOURS);
+        BookingRequest request = BookingRequest.builder()
+                .resourceId(resourceId)
+                .startAt(startAt)
+                .endAt(endAt)
+                .build();
+
+        when(resourceService.findResourceById(resourceId)).thenReturn(testResource);
+        when(bookingRepository.existsOverlappingBooking(
+                resourceId, startAt, endAt, BookingWindows.earliestOverlappingStart(startAt))).thenReturn(true);
+
+        assertThatThrownBy(() -> bookingService.createBooking(request, testPrincipal))
+                .isInstanceOf(BookingException.class);
+
+        InOrder order = inOrder(resourceAdvisoryLock, holdExpiryService, bookingRepository);
+        order.verify(resourceAdvisoryLock).lock(resourceId);
+        order.verify(holdExpiryService).releaseExpiredOverlapping(resourceId, startAt, endAt);
+        order.verify(bookingRepository).existsOverlappingBooking(any(), any(), any(), any());
+    }
+
+    @Test
+    void checkMaxDuration_RejectsMoreThanTheSchemaAccepts() {
+        ReflectionTestUtils.setField(bookingService, "maxDurationHours", 25);
+
+        assertThatThrownBy(() -> bookingService.checkMaxDuration())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("24");
+    }
+
+    @Test
+    void createBooking_SlotJustBookedOnThisNodeRejectedWithoutDatabase() {
+        Instant startAt = Instant.now().plus(1, ChronoUnit.HOURS);
+        Instant endAt = startAt.plus(2, ChronoUnit.HOURS);
+        recentBookings.record(resourceId, UUID.randomUUID(), startAt.plus(30, ChronoUnit.MINUTES), endAt);
+
+        BookingRequest request = BookingRequest.builder()
+                .resourceId(resourceId)
+                .startAt(startAt)
+                .endAt(endAt)
+                .build();
 
         assertThatThrownBy(() -> bookingService.createBooking(request, testPrincipal))
                 .isInstanceOf(BookingException.class)
                 .hasMessageContaining("overlaps");
+        verifyNoInteractions(bookingRepository, resourceService);
+        verify(resourceLockStripe, never()).acquire(resourceId);
+    }
+
+    @Test
+    void createHold_SavesHeldBookingAndSchedulesExpiry() {
+        Instant startAt = Instant.now().plus(1, ChronoUnit.HOURS);
+        Instant endAt = startAt.plus(1, ChronoUnit.HOURS);
+        ReflectionTestUtils.setField(bookingService, "holdTtlSeconds", 300L);
+
+        BookingRequest request = BookingRequest.builder()
+                .resourceId(resourceId)
+                .startAt(startAt)
+                .endAt(endAt)
+                .build();
+
+        when(resourceService.findResourceById(resourceId)).thenReturn(testResource);
+        when(bookingRepository.existsOverlappingBooking(
+                resourceId, startAt, endAt, BookingWindows.earliestOverlappingStart(startAt))).thenReturn(false);
+        when(userRepository.findById(userId)).thenReturn(Optional.of(testUser));
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> {
+            Booking booking = invocation.getArgument(0);
+            booking.setId(UUID.randomUUID());
+            return booking;
+        });
+
+        BookingResponse response = bookingService.createHold(request, testPrincipal);
+
+        assertThat(response.getStatus()).isEqualTo("HELD");
+        assertThat(response.getHoldExpiresAt()).isAfter(Instant.now().plus(290, ChronoUnit.SECONDS));
+        verify(holdExpiryService).schedule(response.getId(), response.getHoldExpiresAt());
+    }
+
+    @Test
+    void confirmHold_ExpiredHoldIsRejected() {
+        UUID bookingId = UUID.randomUUID();
+        Booking held = Booking.builder()
+                .id(bookingId)
+                .user(testUser)
+                .resource(testResource)
+                .startAt(Instant.now().plus(1, ChronoUnit.HOURS))
+                .endAt(Instant.now().plus(2, ChronoUnit.HOURS))
+                .status(Booking.Status.HELD)
+                .holdExpiresAt(Instant.now().minus(1, ChronoUnit.MINUTES))
+                .build();
+
+        when(bookingRepository.confirmHold(any(), any(), anyBoolean(), any())).thenReturn(0);
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(held));
+
+        assertThatThrownBy(() -> bookingService.confirmHold(bookingId, testPrincipal))
+                .isInstanceOf(BookingException.class)
+                .hasMessageContaining("expired");
+        verify(holdExpiryService, never()).cancel(bookingId);
     }
 
     @Test
@@ -180,6 +331,22 @@ class BookingServiceTest {
                 .hasMessageContaining("exceed");
     }
 
+    @Test
+    void createBooking_ExceedsMaxDurationByMinutes() {
+        Instant startAt = Instant.now().plus(1, ChronoUnit.HOURS);
+        Instant endAt = startAt.plus(8, ChronoUnit.HOURS).plus(59, ChronoUnit.MINUTES);
+
+        BookingRequest request = BookingRequest.builder()
+                .resourceId(resourceId)
+                .startAt(startAt)
+                .endAt(endAt)
+                .build();
+
+        assertThatThrownBy(() -> bookingService.createBooking(request, testPrincipal))
+                .isInstanceOf(BookingException.class)
+                .hasMessageContaining("exceed");
+    }
+
     @Test
     void cancelBooking_Success() {
         UUID bookingId = UUID.randomUUID();
@@ -203,6 +370,32 @@ class BookingServiceTest {
         assertThat(response.getStatus()).isEqualTo("CANCELLED");
     }
 
+    @Test
+    void cancelBooking_HoldIsReportedAsACancelledHold() {
+        UUID bookingId = UUID.randomUUID();
+
+        Booking booking = Booking.builder()
+                .id(bookingId)
+                .user(testUser)
+                .resource(testResource)
+                .startAt(Instant.now().plus(1, ChronoUnit.HOURS))
+                .endAt(Instant.now().plus(2, ChronoUnit.HOURS))
+                .status(Booking.Status.HELD)
+                .holdExpiresAt(Instant.now().plus(5, ChronoUnit.MINUTES))
+                .createdAt(Instant.now())
+                .updatedAt(Instant.now())
+                .build();
+
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(i -> i.getArgument(0));
+
+        bookingService.cancelBooking(bookingId, testPrincipal);
+
+        // The utilization rollup never counted the hold, so it must not subtract it
+        verify(eventPublisher).publishEvent(
+                BookingChangedEvent.of(BookingChangedEvent.Type.HOLD_CANCELLED, booking));
+    }
+
     @Test
     void cancelBooking_NotOwner() {
         UUID bookingId = UUID.randomUUID();
@@ -264,4 +457,36 @@ class BookingServiceTest {
 
         assertThat(bookings).isEmpty();
     }
+
+    @Test
+    void getAllBookings_IncludeArchived_MergesByStartDescending() {
+        Instant now = Instant.now();
+
+        Booking current = Booking.builder()
+                .id(UUID.randomUUID())
+                .user(testUser)
+                .resource(testResource)
+                .startAt(now.minus(1, ChronoUnit.DAYS))
+                .endAt(now.minus(1, ChronoUnit.DAYS).plus(1, ChronoUnit.HOURS))
+                .status(Booking.Status.ACTIVE)
+                .build();
+
+        ArchivedBooking archived = ArchivedBooking.builder()
+                .id(UUID.randomUUID())
+                .user(testUser)
+                .resource(testResource)
+                .startAt(now.minus(400, ChronoUnit.DAYS))
+                .endAt(now.minus(400, ChronoUnit.DAYS).plus(1, ChronoUnit.HOURS))
+                .status(Booking.Status.ACTIVE)
+                .build();
+
+        when(bookingRepository.findAllWithFilters(null, null, null)).thenReturn(List.of(current));
+        when(archivedBookingRepository.findAllWithFilters(null, null, null)).thenReturn(List.of(archived));
+
+        List<BookingResponse> bookings = bookingService.getAllBookings(null, null, null, true);
+
+        assertThat(bookings).extracting(BookingResponse::getId)
+                .containsExactly(current.getId(), archived.getId());
+        assertThat(bookings.get(1).isArchived()).isTrue();
+    }
 }
@@ -0,0 +1,82 @@
+package com.booking.service;
+
+import com.booking.cache.CacheInvalidationBus;
+import com.booking.event.BookingChangedEvent;
+import com.booking.security.CalendarFeedTokens.Scope;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CalendarFeedCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UUID resourceId = UUID.randomUUID();
+    private final UUID userId = UUID.randomUUID();
+    private final AtomicInteger builds = new AtomicInteger();
+
+    private CalendarFeedCache feedCache;
+
+    @BeforeEach
+    void setUp() {
+        feedCache = new CalendarFeedCache(new CacheInvalidationBus(meterRegistry, false, 100), meterRegistry, 60_000, 100);
+    }
+
+    @Test
+    void get_ServesRepeatedPollsFromOneBuild() {
+        CalendarFeed first = feedCache.get(Scope.RESOURCE, resourceId, this::build);
+        CalendarFeed second = feedCache.get(Scope.RESOURCE, resourceId, this::build);
+
+        assertThat(second).isSameAs(first);
+        assertThat(builds.get()).isEqualTo(1);
+    }
+
+    @Test
+    void onBookingChanged_RebuildsTheResourceAndUserFeedsOnly() {
+        UUID otherResource = UUID.randomUUID();
+        feedCache.get(Scope.RESOURCE, resourceId, this::build);
+        feedCache.get(Scope.USER, userId, this::build);
+        feedCache.get(Scope.RESOURCE, otherResource, this::build);
+
+        feedCache.onBookingChanged(new BookingChangedEvent(BookingChangedEvent.Type.CANCELLED,
+                UUID.randomUUID(), resourceId, userId, Instant.now(), Instant.now().plusSeconds(3600)));
+
+        feedCache.get(Scope.RESOURCE, resourceId, this::build);
+        feedCache.get(Scope.USER, userId, this::build);
+        feedCache.get(Scope.RESOURCE, otherResource, this::build);
+        assertThat(builds.get()).isEqualTo(5);
+    }
+
+    @Test
+    void get_BuildOverlappingAnInvalidationIsNotStored() {
+        feedCache.get(Scope.USER, userId, () -> {
+            feedCache.evict("user:" + userId);
+            return build();
+        });
+
+        feedCache.get(Scope.USER, userId, this::build);
+
+        assertThat(builds.get()).isEqualTo(2);
+    }
+
+    @Test
+    void get_InvalidatingAnotherFeedDuringABuildStillStoresIt() {
+        feedCache.get(Scope.USER, userId, () -> {
+            feedCache.evict("resource:" + resourceId);
+            return build();
+        });
+
+        feedCache.get(Scope.USER, userId, this::build);
+
+        assertThat(builds.get()).isEqualTo(1);
+    }
+
+    private CalendarFeed build() {
+        return new CalendarFeed(new byte[]{(byte) builds.incrementAndGet()}, "\"" + builds.get() + "\"", Instant.now());
+    }
+}
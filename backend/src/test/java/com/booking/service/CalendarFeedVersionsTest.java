@@ -0,0 +1,91 @@
+package com.booking.service;
+
+import com.booking.cache.CacheInvalidationBus;
+import com.booking.exception.BookingException;
+import com.booking.security.CalendarFeedTokens.Scope;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CalendarFeedVersionsTest {
+
+    private final UUID userId = UUID.randomUUID();
+
+    private JdbcTemplate jdbcTemplate;
+    private CalendarFeedVersions feedVersions;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:feed-versions-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL"));
+        jdbcTemplate.execute("CREATE TABLE users (id UUID PRIMARY KEY, calendar_feed_version INTEGER NOT NULL DEFAULT 0)");
+        jdbcTemplate.execute("CREATE TABLE resources (id UUID PRIMARY KEY, calendar_feed_version INTEGER NOT NULL DEFAULT 0)");
+        jdbcTemplate.update("INSERT INTO users (id) VALUES (?)", userId);
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        feedVersions = new CalendarFeedVersions(jdbcTemplate, new CacheInvalidationBus(meterRegistry, false, 100),
+                60_000, 100);
+    }
+
+    @Test
+    void rotate_MovesTheFeedToTheNextVersion() {
+        assertThat(feedVersions.current(Scope.USER, userId)).isZero();
+
+        assertThat(feedVersions.rotate(Scope.USER, userId)).isEqualTo(1);
+
+        assertThat(feedVersions.current(Scope.USER, userId)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT calendar_feed_version FROM users WHERE id = ?", Integer.class, userId)).isEqualTo(1);
+    }
+
+    @Test
+    void current_IsCachedUntilEvicted() {
+        feedVersions.current(Scope.USER, userId);
+        jdbcTemplate.update("UPDATE users SET calendar_feed_version = 5 WHERE id = ?", userId);
+
+        assertThat(feedVersions.current(Scope.USER, userId)).isZero();
+
+        feedVersions.evict("user:" + userId);
+        assertThat(feedVersions.current(Scope.USER, userId)).isEqualTo(5);
+    }
+
+    @Test
+    void current_DoesNotCacheAVersionReadWhileTheFeedWasEvicted() {
+        JdbcTemplate evictingMidRead = new JdbcTemplate(jdbcTemplate.getDataSource()) {
+            @Override
+            public <T> List<T> queryForList(String sql, Class<T> elementType, Object... args) {
+                List<T> found = super.queryForList(sql, elementType, args);
+                // A rotation on another node lands after the read but before the put
+                feedVersions.evict("user:" + userId);
+                return found;
+            }
+        };
+        CalendarFeedVersions racing = new CalendarFeedVersions(
+                evictingMidRead, new CacheInvalidationBus(new SimpleMeterRegistry(), false, 100), 60_000, 100);
+        feedVersions = racing;
+
+        assertThat(racing.current(Scope.USER, userId)).isZero();
+        jdbcTemplate.update("UPDATE users SET calendar_feed_version = 1 WHERE id = ?", userId);
+
+        assertThat(racing.current(Scope.USER, userId)).isEqualTo(1);
+    }
+
+    @Test
+    void unknownFeedsAreNotFound() {
+        UUID resourceId = UUID.randomUUID();
+
+        assertThatThrownBy(() -> feedVersions.current(Scope.RESOURCE, resourceId))
+                .isInstanceOf(BookingException.class)
+                .hasMessageContaining("Resource not found");
+        assertThatThrownBy(() -> feedVersions.rotate(Scope.RESOURCE, resourceId))
+                .isInstanceOf(BookingException.class);
+    }
+}
@@ -0,0 +1,165 @@
+package com.booking.service;
+
+import com.booking.cache.CacheInvalidationBus;
+import com.booking.dto.resource.ResourceResponse;
+import com.booking.entity.Resource;
+import com.booking.exception.BookingException;
+import com.booking.repository.ResourceRepository;
+import com.booking.sharding.ShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FreeResourceServiceTest {
+
+    private final ResourceRepository resourceRepository = mock(ResourceRepository.class);
+    private final List<Resource> resources = new ArrayList<>();
+    private final Instant window = Instant.now().plus(1, ChronoUnit.DAYS).truncatedTo(ChronoUnit.HOURS);
+
+    private JdbcTemplate jdbcTemplate;
+    private ResourceCache resourceCache;
+    private ResourceAttributeIndex attributeIndex;
+    private FreeResourceService service;
+
+    private Resource smallRoom;
+    private Resource projectorRoom;
+    private Resource hall;
+    private Resource storage;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = spy(new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:free-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL")));
+        jdbcTemplate.execute("CREATE TABLE bookings (id UUID PRIMARY KEY, resource_id UUID NOT NULL, "
+                + "status VARCHAR(20) NOT NULL, start_at TIMESTAMP WITH TIME ZONE NOT NULL, "
+                + "end_at TIMESTAMP WITH TIME ZONE NOT NULL, hold_expires_at TIMESTAMP WITH TIME ZONE)");
+
+        resourceCache = new ResourceCache(new CacheInvalidationBus(new SimpleMeterRegistry(), false, 100), 60_000, 100);
+        attributeIndex = new ResourceAttributeIndex(resourceRepository, resourceCache);
+        service = new FreeResourceService(attributeIndex, jdbcTemplate, ShardRouter.unsharded(null, null), 8);
+        when(resourceRepository.findByActiveTrue()).thenAnswer(invocation -> List.copyOf(resources));
+
+        smallRoom = resource("Huddle Room", 4, "whiteboard");
+        projectorRoom = resource("Conference Room A", 12, "projector", "whiteboard");
+        hall = resource("Main Hall", 80, "projector", "stage");
+        storage = resource("Storage", null);
+    }
+
+    @Test
+    void candidates_IntersectsCapacityAndTagsSmallestFirst() {
+        assertThat(names(attributeIndex.candidates(10, List.of("projector"))))
+                .containsExactly("Conference Room A", "Main Hall");
+        assertThat(names(attributeIndex.candidates(null, List.of("Whiteboard"))))
+                .containsExactly("Huddle Room", "Conference Room A");
+        assertThat(names(attributeIndex.candidates(12, List.of())))
+                .containsExactly("Conference Room A", "Main Hall");
+        assertThat(attributeIndex.candidates(null, List.of("projector", "pool"))).isEmpty();
+        assertThat(attributeIndex.candidates(100, null)).isEmpty();
+    }
+
+    @Test
+    void candidates_RebuildAfterAResourceChanges() {
+        assertThat(attributeIndex.candidates(null, List.of("stage"))).hasSize(1);
+
+        resource("Auditorium", 200, "stage");
+        resourceCache.evictAll();
+
+        assertThat(names(attributeIndex.candidates(null, List.of("stage")))).containsExactly("Main Hall", "Auditorium");
+    }
+
+    @Test
+    void findFree_RemovesResourcesWithOverlappingBookings() {
+        book(projectorRoom, "ACTIVE", window.minus(30, ChronoUnit.MINUTES), window.plus(30, ChronoUnit.MINUTES));
+        book(hall, "CANCELLED", window, window.plus(1, ChronoUnit.HOURS));
+        book(smallRoom, "HELD", window.plus(1, ChronoUnit.HOURS), window.plus(2, ChronoUnit.HOURS));
+        // Expired, but not released yet
+        book(storage, "HELD", window, window.plus(1, ChronoUnit.HOURS), Instant.now().minusSeconds(60));
+
+        List<ResourceResponse> free = service.findFree(window, window.plus(1, ChronoUnit.HOURS), null, List.of(), 20);
+
+        assertThat(names(free)).containsExactly("Huddle Room", "Main Hall", "Storage");
+    }
+
+    @Test
+    void findFree_AppliesAttributesAndLimit() {
+        book(projectorRoom, "HELD", window, window.plus(1, ChronoUnit.HOURS));
+
+        assertThat(names(service.findFree(window, window.plus(1, ChronoUnit.HOURS), 10, List.of("projector"), 20)))
+                .containsExactly("Main Hall");
+        assertThat(names(service.findFree(window, window.plus(1, ChronoUnit.HOURS), null, null, 2)))
+                .containsExactly("Huddle Room", "Main Hall");
+    }
+
+    @Test
+    void findFree_ProbesInCapacityOrderAndStopsOnceTheLimitIsFound() {
+        List<Resource> rooms = new ArrayList<>();
+        for (int seats = 100; seats < 120; seats++) {
+            rooms.add(resource("Room " + seats, seats));
+        }
+        resourceCache.evictAll();
+        rooms.subList(0, 5).forEach(room -> book(room, "ACTIVE", window, window.plus(1, ChronoUnit.HOURS)));
+
+        List<ResourceResponse> free = service.findFree(window, window.plus(1, ChronoUnit.HOURS), 100, null, 1);
+
+        assertThat(names(free)).containsExactly("Room 105");
+        // Candidates 1-4, then 5-12: the remaining eight are never probed
+        verify(jdbcTemplate, times(2)).queryForList(anyString(), eq(UUID.class), any(Object[].class));
+    }
+
+    @Test
+    void findFree_RejectsInvalidWindows() {
+        assertThatThrownBy(() -> service.findFree(window, window, null, null, 20))
+                .isInstanceOf(BookingException.class)
+                .hasFieldOrPropertyWithValue("errorCode", "INVALID_TIME_RANGE");
+        assertThatThrownBy(() -> service.findFree(window, window.plus(9, ChronoUnit.HOURS), null, null, 20))
+                .isInstanceOf(BookingException.class)
+                .hasFieldOrPropertyWithValue("errorCode", "DURATION_EXCEEDED");
+    }
+
+    private Resource resource(String name, Integer capacity, String... tags) {
+        Resource resource = Resource.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .active(true)
+                .capacity(capacity)
+                .tags(ResourceAttributeIndex.normalizeTags(List.of(tags)))
+                .build();
+        resources.add(resource);
+        return resource;
+    }
+
+    private void book(Resource resource, String status, Instant startAt, Instant endAt) {
+        book(resource, status, startAt, endAt, status.equals("HELD") ? Instant.now().plusSeconds(300) : null);
+    }
+
+    private void book(Resource resource, String status, Instant startAt, Instant endAt, Instant holdExpiresAt) {
+        jdbcTemplate.update("INSERT INTO bookings (id, resource_id, status, start_at, end_at, hold_expires_at) "
+                        + "VALUES (?, ?, ?, ?, ?, ?)",
+                UUID.randomUUID(), resource.getId(), status, Timestamp.from(startAt), Timestamp.from(endAt),
+                holdExpiresAt == null ? null : Timestamp.from(holdExpiresAt));
+    }
+
+    private static List<String> names(List<ResourceResponse> resources) {
+        return resources.stream().map(ResourceResponse::getName).toList();
+    }
+}
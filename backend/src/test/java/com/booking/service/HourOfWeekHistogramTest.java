@@ -0,0 +1,80 @@
+package com.booking.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneRules;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HourOfWeekHistogramTest {
+
+    private static final ZoneRules UTC = ZoneOffset.UTC.getRules();
+
+    @Test
+    void compute_SplitsIntervalsAtHourBoundaries() {
+        // Monday 2025-03-03 09:30 to 11:00 UTC
+        long start = Instant.parse("2025-03-03T09:30:00Z").getEpochSecond();
+        long end = Instant.parse("2025-03-03T11:00:00Z").getEpochSecond();
+
+        HourOfWeekHistogram.Partial partial = new HourOfWeekHistogram(
+                new long[]{start}, new long[]{end}, 0, Long.MAX_VALUE, UTC).compute();
+
+        assertThat(partial.occupiedSeconds()[9]).isEqualTo(1800);
+        assertThat(partial.occupiedSeconds()[10]).isEqualTo(3600);
+        assertThat(partial.starts()[9]).isEqualTo(1);
+    }
+
+    @Test
+    void compute_UsesLocalHourAcrossDaylightSavingChange() {
+        ZoneRules madrid = ZoneId.of("Europe/Madrid").getRules();
+        // Sunday 2025-03-30: 01:00 UTC is 03:00 local after clocks move forward
+        long start = Instant.parse("2025-03-30T01:00:00Z").getEpochSecond();
+
+        HourOfWeekHistogram.Partial partial = new HourOfWeekHistogram(
+                new long[]{start}, new long[]{start + 3600}, 0, Long.MAX_VALUE, madrid).compute();
+
+        assertThat(partial.occupiedSeconds()[6 * 24 + 3]).isEqualTo(3600);
+    }
+
+    @Test
+    void compute_ClipsToWindowAndCountsOnlyStartsInside() {
+        long windowStart = Instant.parse("2025-03-03T10:00:00Z").getEpochSecond();
+        long start = windowStart - 1800;
+
+        HourOfWeekHistogram.Partial partial = new HourOfWeekHistogram(
+                new long[]{start}, new long[]{windowStart + 1800}, windowStart, Long.MAX_VALUE, UTC).compute();
+
+        assertThat(partial.occupiedSeconds()[9]).isZero();
+        assertThat(partial.occupiedSeconds()[10]).isEqualTo(1800);
+        assertThat(partial.starts()).containsOnly(0);
+    }
+
+    @Test
+    void compute_ForkJoinMatchesSequentialResult() {
+        Random random = new Random(42);
+        int count = 50_000;
+        long[] starts = new long[count];
+        long[] ends = new long[count];
+        long base = Instant.parse("2025-01-06T00:00:00Z").getEpochSecond();
+        for (int i = 0; i < count; i++) {
+            starts[i] = base + random.nextInt(365 * 86_400);
+            ends[i] = starts[i] + 900 + random.nextInt(8 * 3600 - 900);
+        }
+
+        HourOfWeekHistogram.Partial parallel = new ForkJoinPool(4).invoke(
+                new HourOfWeekHistogram(starts, ends, 0, Long.MAX_VALUE, UTC));
+
+        HourOfWeekHistogram.Partial sequential = HourOfWeekHistogram.Partial.empty();
+        for (int i = 0; i < count; i++) {
+            sequential.merge(new HourOfWeekHistogram(
+                    new long[]{starts[i]}, new long[]{ends[i]}, 0, Long.MAX_VALUE, UTC).compute());
+        }
+        assertThat(parallel.occupiedSeconds()).isEqualTo(sequential.occupiedSeconds());
+        assertThat(parallel.starts()).isEqualTo(sequential.starts());
+    }
+}
@@ -0,0 +1,59 @@
+package com.booking.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IcsWriterTest {
+
+    @Test
+    void writesACompleteCalendarWithCrlfLines() throws Exception {
+        UUID bookingId = UUID.randomUUID();
+        Instant start = Instant.parse("2030-01-15T09:00:00Z");
+
+        String ics = render(writer -> writer.event(bookingId, start, start.plusSeconds(5400),
+                Instant.parse("2030-01-01T12:30:00Z"), "Room A", null));
+
+        assertThat(ics).startsWith("BEGIN:VCALENDAR\r\nVERSION:2.0\r\n")
+                .contains("UID:" + bookingId + "@booking-mvp\r\n")
+                .contains("DTSTART:20300115T090000Z\r\n")
+                .contains("DTEND:20300115T103000Z\r\n")
+                .contains("DTSTAMP:20300101T123000Z\r\n")
+                .doesNotContain("DESCRIPTION")
+                .endsWith("END:VEVENT\r\nEND:VCALENDAR\r\n");
+        assertThat(ics.replace("\r\n", "")).doesNotContain("\n").doesNotContain("\r");
+    }
+
+    @Test
+    void escapesTextAndFoldsLongLinesOnCharacterBoundaries() throws Exception {
+        String notes = "Quarterly review; budget, hiring\nBring the café's ✓ list " + "é".repeat(60);
+
+        String ics = render(writer -> writer.event(UUID.randomUUID(), Instant.EPOCH, Instant.EPOCH.plusSeconds(60),
+                Instant.EPOCH, "Room A", notes));
+
+        for (String line : ics.split("\r\n")) {
+            assertThat(line.getBytes(StandardCharsets.UTF_8).length).isLessThanOrEqualTo(75);
+        }
+        String unfolded = ics.replace("\r\n ", "");
+        assertThat(unfolded).contains("DESCRIPTION:Quarterly review\\; budget\\, hiring\\nBring the café's ✓ list "
+                + "é".repeat(60) + "\r\n");
+    }
+
+    private static String render(Body body) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IcsWriter writer = new IcsWriter(out);
+        writer.begin("Test");
+        body.write(writer);
+        writer.end();
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private interface Body {
+        void write(IcsWriter writer) throws Exception;
+    }
+}
@@ -0,0 +1,170 @@
+package com.booking.service;
+
+import com.booking.dto.booking.BookingRequest;
+import com.booking.dto.booking.BookingTicketResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.net.URI;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Two services over one idempotency_keys table stand in for two nodes.
+ */
+@Tag("postgres")
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class IdempotencyJdbcStoreTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private JdbcTemplate jdbcTemplate;
+    private IdempotencyService nodeA;
+    private IdempotencyService nodeB;
+    private UUID userId;
+    private BookingRequest request;
+
+    @BeforeAll
+    void migrate() {
+        Flyway.configure()
+                .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword()));
+    }
+
+    @BeforeEach
+    void setUp() {
+        nodeA = node();
+        nodeB = node();
+        userId = UUID.randomUUID();
+        Instant startAt = Instant.now().plus(1, ChronoUnit.DAYS).truncatedTo(ChronoUnit.SECONDS);
+        request = BookingRequest.builder()
+                .resourceId(UUID.randomUUID())
+                .startAt(startAt)
+                .endAt(startAt.plus(1, ChronoUnit.HOURS))
+                .build();
+    }
+
+    @Test
+    void execute_DuplicateOnAnotherNodeWaitsForTheClaimAndReplaysItsHeaders() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        UUID ticketId = UUID.randomUUID();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            Future<ResponseEntity<BookingTicketResponse>> first = executor.submit(() -> nodeA.execute(
+                    userId, "key-1", request, BookingTicketResponse.class, () -> {
+                        calls.incrementAndGet();
+                        started.countDown();
+                        awaitQuietly(release);
+                        return accepted(ticketId);
+                    }));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+            Future<ResponseEntity<BookingTicketResponse>> duplicate = executor.submit(() -> nodeB.execute(
+                    userId, "key-1", request, BookingTicketResponse.class, () -> {
+                        calls.incrementAndGet();
+                        return accepted(UUID.randomUUID());
+                    }));
+            Thread.sleep(200);
+            assertThat(duplicate).isNotDone();
+            release.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS).getBody().getTicketId()).isEqualTo(ticketId);
+            ResponseEntity<BookingTicketResponse> replayed = duplicate.get(5, TimeUnit.SECONDS);
+            assertThat(calls).hasValue(1);
+            assertThat(replayed.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+            assertThat(replayed.getBody().getTicketId()).isEqualTo(ticketId);
+            assertThat(replayed.getHeaders().getLocation()).hasToString("/api/bookings/tickets/" + ticketId);
+            assertThat(replayed.getHeaders().getFirst("Preference-Applied")).isEqualTo("respond-async");
+            assertThat(replayed.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_FailedRequestReleasesItsClaim() {
+        AtomicInteger calls = new AtomicInteger();
+        assertThatThrownBy(() -> nodeA.execute(userId, "key-2", request, BookingTicketResponse.class, () -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        // The claim row was deleted, so the other node takes the key
+        nodeB.execute(userId, "key-2", request, BookingTicketResponse.class, () -> {
+            calls.incrementAndGet();
+            return accepted(UUID.randomUUID());
+        });
+
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void execute_ExpiredClaimOfADeadNodeIsTakenOver() {
+        jdbcTemplate.update("INSERT INTO idempotency_keys (user_id, idempotency_key, request_fingerprint, expires_at) "
+                + "VALUES (?, 'key-3', 'left-by-a-dead-node', NOW() - INTERVAL '1 second')", userId);
+        AtomicInteger calls = new AtomicInteger();
+
+        nodeA.execute(userId, "key-3", request, BookingTicketResponse.class, () -> {
+            calls.incrementAndGet();
+            return accepted(UUID.randomUUID());
+        });
+
+        assertThat(calls).hasValue(1);
+        List<Integer> statuses = jdbcTemplate.queryForList(
+                "SELECT response_status FROM idempotency_keys WHERE user_id = ? AND idempotency_key = 'key-3'",
+                Integer.class, userId);
+        assertThat(statuses).containsExactly(202);
+    }
+
+    private IdempotencyService node() {
+        return new IdempotencyService(new ObjectMapper().findAndRegisterModules(), jdbcTemplate, true,
+                3600, 1000, 5000, 60_000);
+    }
+
+    private static ResponseEntity<BookingTicketResponse> accepted(UUID ticketId) {
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/bookings/tickets/" + ticketId))
+                .header("Preference-Applied", "respond-async")
+                .body(BookingTicketResponse.builder().ticketId(ticketId).status(BookingTicketResponse.PENDING).build());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.booking.service;
+
+import com.booking.dto.booking.BookingRequest;
+import com.booking.dto.booking.BookingResponse;
+import com.booking.dto.booking.BookingTicketResponse;
+import com.booking.exception.BookingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.net.URI;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotencyServiceTest {
+
+    private IdempotencyService idempotencyService;
+    private UUID userId;
+    private BookingRequest request;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        idempotencyService = new IdempotencyService(objectMapper, null, false, 3600, 1000, 5000, 60_000);
+
+        userId = UUID.randomUUID();
+        Instant startAt = Instant.now().plus(1, ChronoUnit.DAYS).truncatedTo(ChronoUnit.SECONDS);
+        request = BookingRequest.builder()
+                .resourceId(UUID.randomUUID())
+                .startAt(startAt)
+                .endAt(startAt.plus(1, ChronoUnit.HOURS))
+                .build();
+    }
+
+    @Test
+    void execute_ReplaysStoredResponseWithoutRunningAction() {
+        AtomicInteger calls = new AtomicInteger();
+
+        ResponseEntity<BookingResponse> first = idempotencyService.execute(
+                userId, "key-1", request, BookingResponse.class, () -> created(calls));
+        ResponseEntity<BookingResponse> second = idempotencyService.execute(
+                userId, "key-1", request, BookingResponse.class, () -> created(calls));
+
+        assertThat(calls).hasValue(1);
+        assertThat(second.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(second.getBody().getId()).isEqualTo(first.getBody().getId());
+        assertThat(second.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+    }
+
+    @Test
+    void execute_ReplaysTheTicketLocationOfAnAsyncResponse() {
+        UUID ticketId = UUID.randomUUID();
+        Supplier<ResponseEntity<BookingTicketResponse>> submit = () -> ResponseEntity.accepted()
+                .location(URI.create("/api/bookings/tickets/" + ticketId))
+                .header("Preference-Applied", "respond-async")
+                .body(BookingTicketResponse.builder().ticketId(ticketId).status(BookingTicketResponse.PENDING).build());
+
+        idempotencyService.execute(userId, "key-6", request, BookingTicketResponse.class, submit);
+        ResponseEntity<BookingTicketResponse> replayed =
+                idempotencyService.execute(userId, "key-6", request, BookingTicketResponse.class, submit);
+
+        assertThat(replayed.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+        assertThat(replayed.getHeaders().getLocation()).hasToString("/api/bookings/tickets/" + ticketId);
+        assertThat(replayed.getHeaders().getFirst("Preference-Applied")).isEqualTo("respond-async");
+    }
+
+    @Test
+    void execute_ConcurrentDuplicatesWaitForInFlightRequest() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        int duplicates = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(duplicates);
+
+        try {
+            List<Future<ResponseEntity<BookingResponse>>> futures = new ArrayList<>();
+            for (int i = 0; i < duplicates; i++) {
+                futures.add(executor.submit(() -> idempotencyService.execute(
+                        userId, "key-2", request, BookingResponse.class, () -> {
+                            awaitQuietly(release);
+                            return created(calls);
+                        })));
+            }
+
+            Thread.sleep(100);
+            release.countDown();
+
+            UUID bookingId = null;
+            for (Future<ResponseEntity<BookingResponse>> future : futures) {
+                ResponseEntity<BookingResponse> response = future.get();
+                bookingId = bookingId == null ? response.getBody().getId() : bookingId;
+                assertThat(response.getBody().getId()).isEqualTo(bookingId);
+            }
+            assertThat(calls).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_KeyReusedWithDifferentRequest() {
+        AtomicInteger calls = new AtomicInteger();
+        idempotencyService.execute(userId, "key-3", request, BookingResponse.class, () -> created(calls));
+
+        request.setNotes("changed");
+
+        assertThatThrownBy(() -> idempotencyService.execute(
+                userId, "key-3", request, BookingResponse.class, () -> created(calls)))
+                .isInstanceOf(BookingException.class)
+                .hasMessageContaining("different request");
+    }
+
+    @Test
+    void execute_FailedRequestIsNotStored() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThatThrownBy(() -> idempotencyService.execute(
+                userId, "key-4", request, BookingResponse.class, () -> {
+                    calls.incrementAndGet();
+                    throw BookingException.conflict("overlap", "BOOKING_OVERLAP");
+                }))
+                .isInstanceOf(BookingException.class);
+
+        idempotencyService.execute(userId, "key-4", request, BookingResponse.class, () -> created(calls));
+
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void findReplay_OnlyAnswersKeysThatWereAlreadyHandled() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThat(idempotencyService.findReplay(userId, "key-5", request, BookingResponse.class)).isEmpty();
+
+        ResponseEntity<BookingResponse> first = idempotencyService.execute(
+                userId, "key-5", request, BookingResponse.class, () -> created(calls));
+
+        assertThat(idempotencyService.findReplay(userId, "key-5", request, BookingResponse.class))
+                .hasValueSatisfying(replayed -> {
+                    assertThat(replayed.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+                    assertThat(replayed.getBody().getId()).isEqualTo(first.getBody().getId());
+                    assertThat(replayed.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+                });
+        assertThat(calls).hasValue(1);
+    }
+
+    private ResponseEntity<BookingResponse> created(AtomicInteger calls) {
+        calls.incrementAndGet();
+        BookingResponse body = BookingResponse.builder()
+                .id(UUID.randomUUID())
+                .startAt(request.getStartAt())
+                .endAt(request.getEndAt())
+                .status("ACTIVE")
+                .build();
+        return ResponseEntity.status(HttpStatus.CREATED).body(body);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.booking.service;
+
+import com.booking.cache.CacheInvalidationBus;
+import com.booking.dto.resource.ResourceResponse;
+import com.booking.dto.resource.ResourceSearchResponse;
+import com.booking.entity.Resource;
+import com.booking.exception.BookingException;
+import com.booking.repository.ResourceRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class InMemoryResourceSearchTest {
+
+    private final ResourceRepository resourceRepository = mock(ResourceRepository.class);
+    private final List<Resource> resources = new ArrayList<>();
+
+    private ResourceCache resourceCache;
+    private InMemoryResourceSearch search;
+
+    @BeforeEach
+    void setUp() {
+        resourceCache = new ResourceCache(new CacheInvalidationBus(new SimpleMeterRegistry(), false, 100), 60_000, 100);
+        search = new InMemoryResourceSearch(resourceRepository, resourceCache);
+        when(resourceRepository.findByActiveTrue()).thenAnswer(invocation -> List.copyOf(resources));
+
+        resources.add(resource("Conference Room A", "Projector and whiteboard, seats 12"));
+        resources.add(resource("Board Room", "Video conferencing for 8"));
+        resources.add(resource("Phone Booth", "Quiet single-person booth"));
+    }
+
+    @Test
+    void terms_SplitsOnNonWordCharactersAndDropsDuplicates() {
+        assertThat(ResourceSearch.terms("  Conférence-room, ROOM 2b!")).containsExactly("conférence", "room", "2b");
+        assertThat(ResourceSearch.terms("a b c d e f g h i j")).hasSize(ResourceSearch.MAX_TERMS);
+        assertThat(ResourceSearch.terms("&:*!")).isEmpty();
+    }
+
+    @Test
+    void requestTerms_RejectsQueriesWithoutTerms() {
+        assertThatThrownBy(() -> ResourceSearch.requestTerms(" :* ", 0))
+                .isInstanceOf(BookingException.class)
+                .hasFieldOrPropertyWithValue("errorCode", "INVALID_QUERY");
+    }
+
+    @Test
+    void search_MatchesWordPrefixesAndRanksNameAboveDescription() {
+        ResourceSearchResponse response = search.search(List.of("conf"), 0, 20);
+
+        assertThat(names(response)).containsExactly("Conference Room A", "Board Room");
+        assertThat(response.getTotalResults()).isEqualTo(2);
+    }
+
+    @Test
+    void search_RequiresEveryTerm() {
+        assertThat(names(search.search(List.of("room", "video"), 0, 20))).containsExactly("Board Room");
+        assertThat(names(search.search(List.of("room", "quiet"), 0, 20))).isEmpty();
+    }
+
+    @Test
+    void search_PagesThroughRankedResults() {
+        ResourceSearchResponse second = search.search(List.of("room"), 1, 1);
+
+        assertThat(names(second)).containsExactly("Conference Room A");
+        assertThat(second.getTotalResults()).isEqualTo(2);
+        assertThat(search.search(List.of("room"), 2, 1).getResults()).isEmpty();
+    }
+
+    @Test
+    void search_RebuildsOnlyAfterAResourceChanges() {
+        search.search(List.of("room"), 0, 20);
+        search.search(List.of("booth"), 0, 20);
+        verify(resourceRepository, times(1)).findByActiveTrue();
+
+        resources.add(resource("Meeting Pod", "Room for two"));
+        resourceCache.evictAll();
+
+        assertThat(names(search.search(List.of("room"), 0, 20)))
+                .containsExactly("Board Room", "Conference Room A", "Meeting Pod");
+        verify(resourceRepository, times(2)).findByActiveTrue();
+    }
+
+    private static List<String> names(ResourceSearchResponse response) {
+        return response.getResults().stream().map(ResourceResponse::getName).toList();
+    }
+
+    private static Resource resource(String name, String description) {
+        return Resource.builder().id(UUID.randomUUID()).name(name).description(description).active(true).build();
+    }
+}
@@ -0,0 +1,95 @@
+package com.booking.service;
+
+import com.booking.dto.analytics.OccupancyHeatmapResponse;
+import com.booking.repository.ArchivedBookingRepository;
+import com.booking.repository.BookingInterval;
+import com.booking.repository.BookingRepository;
+import com.booking.repository.ResourceRepository;
+import com.booking.sharding.ShardRouter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OccupancyAnalyticsServiceTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private ArchivedBookingRepository archivedBookingRepository;
+
+    @Mock
+    private ResourceRepository resourceRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OccupancyAnalyticsService analyticsService;
+
+    @BeforeEach
+    void setUp() {
+        analyticsService = new OccupancyAnalyticsService(bookingRepository, archivedBookingRepository,
+                resourceRepository, ShardRouter.unsharded(null, null), transactionManager, "UTC", 2, 1, 800, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        analyticsService.shutdown();
+    }
+
+    @Test
+    void getOccupancyHeatmap_PagesThroughBothTablesByKeyset() {
+        BookingInterval first = interval("2025-03-03T09:00:00Z");
+        BookingInterval second = interval("2025-03-03T10:00:00Z");
+        BookingInterval third = interval("2025-03-10T09:00:00Z");
+        BookingInterval archived = interval("2025-03-04T09:00:00Z");
+
+        when(bookingRepository.findIntervalsAfter(any(), any(), any(), any(), any(), any()))
+                .thenReturn(List.of(first, second));
+        when(bookingRepository.findIntervalsAfter(any(), any(), any(), eq(second.startAt()), eq(second.id()), any()))
+                .thenReturn(List.of(third));
+        when(archivedBookingRepository.findIntervalsAfter(any(), any(), any(), any(), any(), any()))
+                .thenReturn(List.of(archived));
+        when(resourceRepository.count()).thenReturn(2L);
+
+        OccupancyHeatmapResponse heatmap = analyticsService.getOccupancyHeatmap(
+                null, LocalDate.parse("2025-03-03"), LocalDate.parse("2025-03-16"), null);
+
+        assertThat(heatmap.getBookingsScanned()).isEqualTo(4);
+        assertThat(heatmap.getBookedMinutes()[0][9]).isEqualTo(120);
+        assertThat(heatmap.getBookedMinutes()[0][10]).isEqualTo(60);
+        assertThat(heatmap.getBookedMinutes()[1][9]).isEqualTo(60);
+        assertThat(heatmap.getBookingStarts()[0][9]).isEqualTo(2);
+        // Two Mondays in range, two resources: 120 booked minutes out of 240
+        assertThat(heatmap.getOccupancy()[0][9]).isEqualTo(0.5);
+        assertThat(heatmap.getDays()).first().isEqualTo("MONDAY");
+        // Both tables are read from one snapshot, so a booking archived mid-scan is not counted twice
+        verify(transactionManager).getTransaction(argThat(definition ->
+                definition.isReadOnly()
+                        && definition.getIsolationLevel() == TransactionDefinition.ISOLATION_REPEATABLE_READ));
+    }
+
+    private static BookingInterval interval(String start) {
+        Instant startAt = Instant.parse(start);
+        return new BookingInterval(UUID.randomUUID(), startAt, startAt.plus(1, ChronoUnit.HOURS));
+    }
+}
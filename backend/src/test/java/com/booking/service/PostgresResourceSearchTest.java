@@ -0,0 +1,74 @@
+package com.booking.service;
+
+import com.booking.dto.resource.ResourceResponse;
+import com.booking.dto.resource.ResourceSearchResponse;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("postgres")
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PostgresResourceSearchTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private JdbcTemplate jdbcTemplate;
+    private PostgresResourceSearch search;
+
+    @BeforeAll
+    void setUp() {
+        Flyway.configure()
+                .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword()));
+        search = new PostgresResourceSearch(jdbcTemplate);
+
+        jdbcTemplate.update("DELETE FROM resources");
+        insert("Conference Room A", "Projector and whiteboard, seats 12", true);
+        insert("Board Room", "Video conferencing for 8", true);
+        insert("Phone Booth", "Quiet single-person booth", true);
+        insert("Old Conference Room", "Closed for renovation", false);
+    }
+
+    @Test
+    void search_MatchesWordPrefixesAndRanksNameAboveDescription() {
+        ResourceSearchResponse response = search.search(List.of("conf"), 0, 20);
+
+        assertThat(names(response)).containsExactly("Conference Room A", "Board Room");
+        assertThat(response.getTotalResults()).isEqualTo(2);
+    }
+
+    @Test
+    void search_RequiresEveryTermAndCountsPastTheLastPage() {
+        assertThat(names(search.search(List.of("room", "video"), 0, 20))).containsExactly("Board Room");
+
+        ResourceSearchResponse pastEnd = search.search(List.of("room"), 5, 1);
+        assertThat(pastEnd.getResults()).isEmpty();
+        assertThat(pastEnd.getTotalResults()).isEqualTo(2);
+    }
+
+    private void insert(String name, String description, boolean active) {
+        jdbcTemplate.update("INSERT INTO resources (id, name, description, active, created_at, updated_at) "
+                + "VALUES (gen_random_uuid(), ?, ?, ?, now(), now())", name, description, active);
+    }
+
+    private static List<String> names(ResourceSearchResponse response) {
+        return response.getResults().stream().map(ResourceResponse::getName).toList();
+    }
+}
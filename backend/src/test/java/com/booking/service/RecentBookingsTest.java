@@ -0,0 +1,47 @@
+package com.booking.service;
+
+import com.booking.cache.CacheInvalidationBus;
+import com.booking.event.BookingChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecentBookingsTest {
+
+    private final UUID resourceId = UUID.randomUUID();
+    private final UUID bookingId = UUID.randomUUID();
+    private final Instant startAt = Instant.parse("2025-03-03T10:00:00Z");
+    private final Instant endAt = Instant.parse("2025-03-03T11:00:00Z");
+
+    private RecentBookings recentBookings;
+
+    @BeforeEach
+    void setUp() {
+        recentBookings = new RecentBookings(new CacheInvalidationBus(new SimpleMeterRegistry(), false, 100), 10_000);
+        recentBookings.record(resourceId, bookingId, startAt, endAt);
+    }
+
+    @Test
+    void onBookingChanged_CancellingForgetsTheInterval() {
+        recentBookings.onBookingChanged(new BookingChangedEvent(
+                BookingChangedEvent.Type.CANCELLED, bookingId, resourceId, UUID.randomUUID(), startAt, endAt));
+
+        assertThat(recentBookings.overlapsKnownBooking(resourceId, startAt, endAt)).isFalse();
+    }
+
+    @Test
+    void evict_ForgetsABookingCancelledOnAnotherNode() {
+        UUID otherBooking = UUID.randomUUID();
+        recentBookings.record(resourceId, otherBooking, endAt, endAt.plusSeconds(3600));
+
+        recentBookings.evict(resourceId + ":" + bookingId);
+
+        assertThat(recentBookings.overlapsKnownBooking(resourceId, startAt, endAt)).isFalse();
+        assertThat(recentBookings.overlapsKnownBooking(resourceId, endAt, endAt.plusSeconds(60))).isTrue();
+    }
+}
@@ -0,0 +1,61 @@
+package com.booking.service;
+
+import com.booking.exception.BookingException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ResourceLockStripeTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ResourceLockStripe lockStripe = new ResourceLockStripe(meterRegistry, 16, 50);
+
+    @Test
+    void acquire_SecondCallerTimesOutWhileStripeIsHeld() throws Exception {
+        UUID resourceId = UUID.randomUUID();
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> {
+            try (ResourceLockStripe.Permit ignored = lockStripe.acquire(resourceId)) {
+                held.countDown();
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        assertThat(held.await(5, TimeUnit.SECONDS)).isTrue();
+        try {
+            assertThatThrownBy(() -> lockStripe.acquire(resourceId))
+                    .isInstanceOf(BookingException.class)
+                    .extracting("errorCode")
+                    .isEqualTo("RESOURCE_BUSY");
+        } finally {
+            release.countDown();
+            holder.get(5, TimeUnit.SECONDS);
+        }
+
+        assertThat(meterRegistry.get("booking.lock.contended").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("booking.lock.timeouts").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void acquire_LockIsReleasedWhenPermitCloses() {
+        UUID resourceId = UUID.randomUUID();
+
+        try (ResourceLockStripe.Permit ignored = lockStripe.acquire(resourceId)) {
+            assertThat(lockStripe.indexOf(resourceId)).isBetween(0, 15);
+        }
+
+        CompletableFuture.runAsync(() -> lockStripe.acquire(resourceId).close()).join();
+        assertThat(meterRegistry.get("booking.lock.timeouts").counter().count()).isZero();
+    }
+}
@@ -0,0 +1,72 @@
+package com.booking.service;
+
+import com.booking.event.BookingChangedEvent;
+import com.booking.repository.ResourceUtilizationDailyRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class UtilizationRollupTest {
+
+    @Mock
+    private ResourceUtilizationDailyRepository utilizationRepository;
+
+    @InjectMocks
+    private UtilizationRollup utilizationRollup;
+
+    private final UUID resourceId = UUID.randomUUID();
+
+    @Test
+    void minutesPerDay_SplitsAtUtcMidnight() {
+        assertThat(UtilizationRollup.minutesPerDay(
+                Instant.parse("2025-03-01T22:30:00Z"), Instant.parse("2025-03-02T01:00:00Z")))
+                .containsExactly(
+                        entry(LocalDate.parse("2025-03-01"), 90L),
+                        entry(LocalDate.parse("2025-03-02"), 60L));
+    }
+
+    @Test
+    void onBookingChanged_CreateAddsAndCancelSubtracts() {
+        utilizationRollup.onBookingChanged(event(BookingChangedEvent.Type.CREATED));
+        utilizationRollup.onBookingChanged(event(BookingChangedEvent.Type.CANCELLED));
+
+        verify(utilizationRepository).addUsage(resourceId, LocalDate.parse("2025-03-01"), 90L, 1);
+        verify(utilizationRepository).addUsage(resourceId, LocalDate.parse("2025-03-02"), 60L, 0);
+        verify(utilizationRepository).addUsage(resourceId, LocalDate.parse("2025-03-01"), -90L, -1);
+        verify(utilizationRepository).addUsage(resourceId, LocalDate.parse("2025-03-02"), -60L, 0);
+    }
+
+    @Test
+    void onBookingChanged_HoldsOnlyCountOnceConfirmed() {
+        utilizationRollup.onBookingChanged(event(BookingChangedEvent.Type.HELD));
+        utilizationRollup.onBookingChanged(event(BookingChangedEvent.Type.HOLD_CANCELLED));
+        utilizationRollup.onBookingChanged(event(BookingChangedEvent.Type.EXPIRED));
+
+        verify(utilizationRepository, never()).addUsage(any(), any(), anyLong(), anyInt());
+
+        utilizationRollup.onBookingChanged(event(BookingChangedEvent.Type.CONFIRMED));
+
+        verify(utilizationRepository).addUsage(resourceId, LocalDate.parse("2025-03-01"), 90L, 1);
+        verify(utilizationRepository).addUsage(resourceId, LocalDate.parse("2025-03-02"), 60L, 0);
+    }
+
+    private BookingChangedEvent event(BookingChangedEvent.Type type) {
+        return new BookingChangedEvent(type, UUID.randomUUID(), resourceId, UUID.randomUUID(),
+                Instant.parse("2025-03-01T22:30:00Z"), Instant.parse("2025-03-02T01:00:00Z"));
+    }
+}
@@ -0,0 +1,96 @@
+package com.booking.service;
+
+import com.booking.dto.utilization.UtilizationResponse;
+import com.booking.entity.Resource;
+import com.booking.entity.ResourceUtilizationDaily;
+import com.booking.exception.BookingException;
+import com.booking.job.UtilizationBackfillJob;
+import com.booking.repository.ResourceRepository;
+import com.booking.repository.ResourceUtilizationDailyRepository;
+import com.booking.sharding.ShardRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UtilizationServiceTest {
+
+    @Mock
+    private ResourceUtilizationDailyRepository utilizationRepository;
+
+    @Mock
+    private ResourceRepository resourceRepository;
+
+    @Mock
+    private ObjectProvider<UtilizationBackfillJob> backfillJob;
+
+    private UtilizationService utilizationService;
+    private final UUID resourceId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        utilizationService = new UtilizationService(utilizationRepository, resourceRepository, backfillJob,
+                ShardRouter.unsharded(null, null), 1100);
+    }
+
+    @Test
+    void getUtilization_WeeklyPeriodsAreClippedToRequestedRange() {
+        LocalDate from = LocalDate.parse("2025-03-05");
+        LocalDate to = LocalDate.parse("2025-03-11");
+        when(utilizationRepository.findInRange(null, from, to)).thenReturn(List.of(
+                row("2025-03-05", 120, 1),
+                row("2025-03-09", 240, 2),
+                row("2025-03-10", 1440, 1)));
+        when(resourceRepository.findAllById(any())).thenReturn(List.of(
+                Resource.builder().id(resourceId).name("Room A").build()));
+
+        List<UtilizationResponse> weeks =
+                utilizationService.getUtilization(null, from, to, UtilizationService.Granularity.WEEK);
+
+        assertThat(weeks).hasSize(2);
+        UtilizationResponse first = weeks.get(0);
+        assertThat(first.getResourceName()).isEqualTo("Room A");
+        assertThat(first.getPeriodStart()).isEqualTo(from);
+        assertThat(first.getPeriodEnd()).isEqualTo(LocalDate.parse("2025-03-09"));
+        assertThat(first.getDays()).isEqualTo(5);
+        assertThat(first.getBookedMinutes()).isEqualTo(360);
+        assertThat(first.getBookingCount()).isEqualTo(3);
+        assertThat(first.getUtilization()).isEqualTo(360.0 / (5 * 1440));
+
+        UtilizationResponse second = weeks.get(1);
+        assertThat(second.getPeriodStart()).isEqualTo(LocalDate.parse("2025-03-10"));
+        assertThat(second.getDays()).isEqualTo(2);
+        assertThat(second.getUtilization()).isEqualTo(0.5);
+    }
+
+    @Test
+    void backfill_DisabledRollupIsReported() {
+        LocalDate day = LocalDate.parse("2025-03-01");
+
+        assertThatThrownBy(() -> utilizationService.backfill(day, day))
+                .isInstanceOf(BookingException.class)
+                .extracting("errorCode")
+                .isEqualTo("UTILIZATION_DISABLED");
+    }
+
+    private ResourceUtilizationDaily row(String date, long minutes, int count) {
+        return ResourceUtilizationDaily.builder()
+                .resourceId(resourceId)
+                .usageDate(LocalDate.parse(date))
+                .bookedMinutes(minutes)
+                .bookingCount(count)
+                .build();
+    }
+}
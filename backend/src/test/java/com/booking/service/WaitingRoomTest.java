@@ -0,0 +1,106 @@
+package com.booking.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WaitingRoomTest {
+
+    private static final String SECRET = "test-secret-key-for-waiting-room-tickets";
+
+    private final AtomicLong clock = new AtomicLong(1_000_000L);
+    private final UUID resourceId = UUID.randomUUID();
+
+    private final WaitingRoom waitingRoom = new WaitingRoom(
+            new SimpleMeterRegistry(), true, 2, 100, 60, 30, SECRET, clock::get);
+
+    @Test
+    void admit_PassesThroughWhenResourceIsNotHot() {
+        assertThat(waitingRoom.admit(resourceId, UUID.randomUUID(), null).admitted()).isTrue();
+    }
+
+    @Test
+    void admit_HotResourceIssuesFifoTicketsAndAdmitsAtConfiguredRate() {
+        waitingRoom.flagHot(resourceId, true);
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+
+        WaitingRoom.Admission first = waitingRoom.admit(resourceId, alice, null);
+        WaitingRoom.Admission second = waitingRoom.admit(resourceId, bob, null);
+
+        assertThat(first.admitted()).isFalse();
+        assertThat(first.ticket().getPosition()).isEqualTo(1);
+        assertThat(second.ticket().getPosition()).isEqualTo(2);
+        assertThat(second.ticket().getEstimatedWaitSeconds()).isEqualTo(1);
+
+        clock.addAndGet(500);
+        assertThat(waitingRoom.admit(resourceId, alice, first.ticket().getTicket()).admitted()).isTrue();
+        WaitingRoom.Admission stillWaiting = waitingRoom.admit(resourceId, bob, second.ticket().getTicket());
+        assertThat(stillWaiting.admitted()).isFalse();
+        assertThat(stillWaiting.ticket().getPosition()).isEqualTo(1);
+
+        clock.addAndGet(500);
+        assertThat(waitingRoom.admit(resourceId, bob, second.ticket().getTicket()).admitted()).isTrue();
+    }
+
+    @Test
+    void admit_RejectsTicketsThatWereTamperedWithOrBelongToSomeoneElse() {
+        waitingRoom.flagHot(resourceId, true);
+        UUID alice = UUID.randomUUID();
+        String ticket = waitingRoom.admit(resourceId, alice, null).ticket().getTicket();
+        clock.addAndGet(5_000);
+
+        WaitingRoom.Admission stolen = waitingRoom.admit(resourceId, UUID.randomUUID(), ticket);
+        assertThat(stolen.admitted()).isFalse();
+
+        String tampered = (ticket.charAt(0) == 'A' ? "B" : "A") + ticket.substring(1);
+        assertThat(waitingRoom.admit(resourceId, alice, tampered).admitted()).isFalse();
+        assertThat(waitingRoom.admit(resourceId, alice, ticket).admitted()).isTrue();
+    }
+
+    @Test
+    void admit_RetriesWithoutTheTicketKeepTheSamePlace() {
+        waitingRoom.flagHot(resourceId, true);
+        UUID alice = UUID.randomUUID();
+        WaitingRoom.Admission first = waitingRoom.admit(resourceId, alice, null);
+        WaitingRoom.Admission bob = waitingRoom.admit(resourceId, UUID.randomUUID(), null);
+
+        WaitingRoom.Admission retried = waitingRoom.admit(resourceId, alice, null);
+
+        assertThat(retried.admitted()).isFalse();
+        assertThat(retried.ticket().getTicket()).isEqualTo(first.ticket().getTicket());
+        assertThat(retried.ticket().getPosition()).isEqualTo(1);
+        assertThat(bob.ticket().getPosition()).isEqualTo(2);
+    }
+
+    @Test
+    void admit_ConsumesTheTicketItAdmits() {
+        waitingRoom.flagHot(resourceId, true);
+        UUID alice = UUID.randomUUID();
+        String ticket = waitingRoom.admit(resourceId, alice, null).ticket().getTicket();
+        clock.addAndGet(1_000);
+
+        assertThat(waitingRoom.admit(resourceId, alice, ticket).admitted()).isTrue();
+
+        WaitingRoom.Admission reused = waitingRoom.admit(resourceId, alice, ticket);
+        assertThat(reused.admitted()).isFalse();
+        assertThat(reused.ticket().getTicket()).isNotEqualTo(ticket);
+    }
+
+    @Test
+    void admit_DetectsOverloadWithoutAdminFlag() {
+        WaitingRoom room = new WaitingRoom(new SimpleMeterRegistry(), true, 2, 3, 60, 30, SECRET, clock::get);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(room.admit(resourceId, UUID.randomUUID(), null).admitted()).isTrue();
+        }
+
+        assertThat(room.admit(resourceId, UUID.randomUUID(), null).admitted()).isFalse();
+        assertThat(room.status()).singleElement()
+                .satisfies(status -> assertThat(status.isOverloaded()).isTrue());
+    }
+}
@@ -0,0 +1,88 @@
+package com.booking.sharding;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ShardLayoutGuardTest {
+
+    private final TreeMap<Integer, DataSource> shards = new TreeMap<>();
+    private List<UUID> resourceIds;
+
+    @BeforeEach
+    void setUp() {
+        for (int shard = 0; shard < 3; shard++) {
+            DataSource dataSource = new DriverManagerDataSource(
+                    "jdbc:h2:mem:layout-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL");
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.execute("CREATE TABLE resources (id UUID PRIMARY KEY)");
+            jdbcTemplate.execute("CREATE TABLE bookings (id UUID PRIMARY KEY, resource_id UUID NOT NULL)");
+            jdbcTemplate.execute("CREATE TABLE bookings_archive (id UUID PRIMARY KEY, resource_id UUID NOT NULL)");
+            jdbcTemplate.execute("CREATE TABLE shard_layout (id SMALLINT PRIMARY KEY, shard_count INTEGER NOT NULL, "
+                    + "virtual_nodes INTEGER NOT NULL, updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW())");
+            shards.put(shard, dataSource);
+        }
+        resourceIds = IntStream.range(0, 50).mapToObj(i -> UUID.randomUUID()).toList();
+        resourceIds.forEach(id -> shard(0).update("INSERT INTO resources (id) VALUES (?)", id));
+    }
+
+    @Test
+    void verify_RecordsTheFirstRingAndAcceptsItAgain() {
+        guard(2, 16).verify();
+        bookAll(new ShardRing(2, 16), "bookings");
+
+        guard(2, 16).verify();
+
+        assertThat(layout()).containsExactly(2, 16);
+    }
+
+    @Test
+    void verify_AcceptsAnAppendedShardWhenTheMovedResourcesHaveNoBookings() {
+        guard(2, 16).verify();
+
+        guard(3, 16).verify();
+
+        assertThat(layout()).containsExactly(3, 16);
+    }
+
+    @Test
+    void verify_RefusesARingThatStrandsBookings() {
+        guard(2, 16).verify();
+        bookAll(new ShardRing(2, 16), "bookings_archive");
+
+        assertThatThrownBy(() -> guard(3, 16).verify())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("from 2 shards with 16 virtual nodes to 3 shards with 16");
+        assertThatThrownBy(() -> guard(2, 32).verify())
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(layout()).containsExactly(2, 16);
+    }
+
+    private ShardLayoutGuard guard(int shardCount, int virtualNodes) {
+        return new ShardLayoutGuard(shards.headMap(shardCount), new ShardRing(shardCount, virtualNodes));
+    }
+
+    private void bookAll(ShardRing ring, String table) {
+        resourceIds.forEach(id -> shard(ring.shardFor(id))
+                .update("INSERT INTO " + table + " (id, resource_id) VALUES (?, ?)", UUID.randomUUID(), id));
+    }
+
+    private List<Integer> layout() {
+        return shard(0).queryForObject("SELECT shard_count, virtual_nodes FROM shard_layout WHERE id = 1",
+                (rs, rowNum) -> List.of(rs.getInt(1), rs.getInt(2)));
+    }
+
+    private JdbcTemplate shard(int shard) {
+        return new JdbcTemplate(shards.get(shard));
+    }
+}
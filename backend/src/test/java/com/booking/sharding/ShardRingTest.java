@@ -0,0 +1,60 @@
+package com.booking.sharding;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShardRingTest {
+
+    private static final int KEYS = 100_000;
+
+    @Test
+    void shardFor_SpreadsKeysEvenly() {
+        ShardRing ring = new ShardRing(4, 128);
+        int[] counts = new int[4];
+        keys().forEach(key -> counts[ring.shardFor(key)]++);
+
+        // With 128 points per shard each share is within roughly a fifth of the ideal
+        for (int count : counts) {
+            assertThat(count).isBetween((int) (KEYS / 4 * 0.75), (int) (KEYS / 4 * 1.25));
+        }
+    }
+
+    @Test
+    void shardFor_AppendingAShardOnlyMovesKeysToIt() {
+        ShardRing before = new ShardRing(4, 128);
+        ShardRing after = new ShardRing(5, 128);
+
+        int moved = 0;
+        for (UUID key : keys()) {
+            int from = before.shardFor(key);
+            int to = after.shardFor(key);
+            if (from != to) {
+                assertThat(to).isEqualTo(4);
+                moved++;
+            }
+        }
+        assertThat(moved).isBetween((int) (KEYS / 5 * 0.75), (int) (KEYS / 5 * 1.25));
+    }
+
+    @Test
+    void shardFor_SingleShardOwnsEverything() {
+        ShardRing ring = new ShardRing(1, 16);
+
+        assertThat(keys()).allSatisfy(key -> assertThat(ring.shardFor(key)).isZero());
+    }
+
+    private static List<UUID> keys() {
+        Random random = new Random(7);
+        List<UUID> keys = new ArrayList<>(KEYS);
+        for (int i = 0; i < KEYS; i++) {
+            keys.add(new UUID(random.nextLong(), random.nextLong()));
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,52 @@
+package com.booking.sharding;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class ShardRouterTest {
+
+    @Test
+    void mergeSorted_InterleavesSortedShardResults() {
+        List<List<Integer>> perShard = List.of(
+                List.of(9, 5, 1),
+                List.of(),
+                List.of(8, 5, 2, 0));
+
+        List<Integer> merged = ShardRouter.mergeSorted(perShard, Comparator.<Integer>reverseOrder());
+
+        assertThat(merged).containsExactly(9, 8, 5, 5, 2, 1, 0);
+    }
+
+    @Test
+    void unsharded_RunsReadsInlineOnTheOnlyShard() {
+        ShardRouter router = ShardRouter.unsharded(null, null);
+
+        assertThat(router.isSharded()).isFalse();
+        assertThat(router.shardCount()).isEqualTo(1);
+        assertThat(router.gather(() -> List.of(3, 1, 2), Comparator.naturalOrder())).containsExactly(3, 1, 2);
+        assertThat(router.read(null, () -> ShardContext.current())).isZero();
+    }
+
+    @Test
+    void gather_RefusesToScatterFromInsideATransaction() {
+        ShardRouter router = new ShardRouter(new TransactionTemplate(mock(PlatformTransactionManager.class)), null,
+                new ShardRing(2, 16), 2, 1000);
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertThatThrownBy(() -> router.gather(List::of, null))
+                    .isInstanceOf(IllegalStateException.class);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+            router.shutdown();
+        }
+    }
+}
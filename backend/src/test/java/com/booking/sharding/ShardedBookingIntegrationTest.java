@@ -0,0 +1,189 @@
+package com.booking.sharding;
+
+import com.booking.dto.booking.AvailabilitySlot;
+import com.booking.dto.booking.BookingRequest;
+import com.booking.dto.booking.BookingResponse;
+import com.booking.dto.resource.ResourceRequest;
+import com.booking.exception.BookingException;
+import com.booking.repository.UserRepository;
+import com.booking.security.UserPrincipal;
+import com.booking.service.BookingService;
+import com.booking.service.HoldExpiryService;
+import com.booking.service.ResourceService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the application against three PostgreSQL databases with sharding enabled and checks
+ * that bookings land on their resource's shard while reads still see every shard.
+ */
+@Tag("postgres")
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(properties = {
+        "app.sharding.enabled=true",
+        "spring.jpa.open-in-view=false",
+        "app.outbox.sink=memory"
+})
+class ShardedBookingIntegrationTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> SHARD_0 = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Container
+    private static final PostgreSQLContainer<?> SHARD_1 = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Container
+    private static final PostgreSQLContainer<?> SHARD_2 = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void shards(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", SHARD_0::getJdbcUrl);
+        registry.add("spring.datasource.username", SHARD_0::getUsername);
+        registry.add("spring.datasource.password", SHARD_0::getPassword);
+        registry.add("app.sharding.urls",
+                () -> String.join(",", SHARD_0.getJdbcUrl(), SHARD_1.getJdbcUrl(), SHARD_2.getJdbcUrl()));
+    }
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private ResourceService resourceService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private HoldExpiryService holdExpiryService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private ShardRoutingDataSource dataSource;
+
+    @Test
+    void bookingsLandOnTheirResourceShardAndReadsSeeAllShards() {
+        UserPrincipal user = UserPrincipal.from(userRepository.findByEmail("user@example.com").orElseThrow());
+        Map<Integer, UUID> resourceByShard = resourcesOnEveryShard();
+
+        List<JdbcTemplate> shards = new ArrayList<>();
+        dataSource.shards().values().forEach(shard -> shards.add(new JdbcTemplate(shard)));
+        for (JdbcTemplate shard : shards) {
+            for (UUID resourceId : resourceByShard.values()) {
+                assertThat(shard.queryForObject("SELECT count(*) FROM resources WHERE id = ?", Long.class, resourceId))
+                        .isEqualTo(1);
+            }
+        }
+
+        Instant start = Instant.now().plus(2, ChronoUnit.DAYS).truncatedTo(ChronoUnit.HOURS);
+        List<BookingResponse> created = new ArrayList<>();
+        resourceByShard.forEach((shard, resourceId) -> created.add(bookingService.createBooking(
+                request(resourceId, start.plus(shard, ChronoUnit.HOURS)), user)));
+
+        for (BookingResponse booking : created) {
+            int home = shardRouter.shardFor(booking.getResource().getId());
+            for (int shard = 0; shard < shards.size(); shard++) {
+                assertThat(shards.get(shard).queryForObject(
+                        "SELECT count(*) FROM bookings WHERE id = ?", Long.class, booking.getId()))
+                        .isEqualTo(shard == home ? 1 : 0);
+            }
+        }
+
+        assertThat(bookingService.getUserBookings(user.getId()))
+                .extracting(BookingResponse::getId)
+                .containsSubsequence(created.stream()
+                        .sorted(Comparator.comparing(BookingResponse::getStartAt).reversed())
+                        .map(BookingResponse::getId)
+                        .toList());
+
+        UUID farResource = resourceByShard.get(2);
+        assertThatThrownBy(() -> bookingService.createBooking(
+                request(farResource, start.plus(2, ChronoUnit.HOURS).plus(30, ChronoUnit.MINUTES)), user))
+                .isInstanceOf(BookingException.class)
+                .hasFieldOrPropertyWithValue("errorCode", "BOOKING_OVERLAP");
+
+        BookingResponse onShardTwo = created.get(2);
+        assertThat(bookingService.cancelBooking(onShardTwo.getId(), user).getStatus()).isEqualTo("CANCELLED");
+        assertThat(bookingService.getBookingById(onShardTwo.getId(), user).getStatus()).isEqualTo("CANCELLED");
+    }
+
+    @Test
+    void expiredHoldsAreReleasedByTheSweepOrByABookingForTheirSlot() {
+        UserPrincipal user = UserPrincipal.from(userRepository.findByEmail("user@example.com").orElseThrow());
+        UUID resourceId = resourcesOnEveryShard().get(1);
+        JdbcTemplate shard = new JdbcTemplate(dataSource.shards().get(1));
+        Instant start = Instant.now().plus(3, ChronoUnit.DAYS).truncatedTo(ChronoUnit.HOURS);
+
+        // Held on a node that went away before their deadline, so nothing has them scheduled
+        UUID taken = expiredHold(shard, resourceId, user.getId(), start);
+        UUID swept = expiredHold(shard, resourceId, user.getId(), start.plus(2, ChronoUnit.HOURS));
+
+        assertThat(bookingService.getAvailability(resourceId, start.atZone(ZoneOffset.UTC).toLocalDate()))
+                .extracting(AvailabilitySlot::getBookingId)
+                .doesNotContain(taken, swept);
+
+        BookingResponse booked = bookingService.createBooking(request(resourceId, start), user);
+        assertThat(booked.getStatus()).isEqualTo("ACTIVE");
+        assertThat(status(shard, taken)).isEqualTo("CANCELLED");
+        assertThat(status(shard, swept)).isEqualTo("HELD");
+
+        holdExpiryService.sweep();
+        assertThat(status(shard, swept)).isEqualTo("CANCELLED");
+    }
+
+    private static UUID expiredHold(JdbcTemplate shard, UUID resourceId, UUID userId, Instant startAt) {
+        UUID id = UUID.randomUUID();
+        shard.update("INSERT INTO bookings (id, user_id, resource_id, start_at, end_at, status, hold_expires_at) "
+                        + "VALUES (?, ?, ?, ?, ?, 'HELD', now() - INTERVAL '1 minute')",
+                id, userId, resourceId, Timestamp.from(startAt), Timestamp.from(startAt.plus(1, ChronoUnit.HOURS)));
+        return id;
+    }
+
+    private static String status(JdbcTemplate shard, UUID bookingId) {
+        return shard.queryForObject("SELECT status FROM bookings WHERE id = ?", String.class, bookingId);
+    }
+
+    // Resource ids are random, so keep creating resources until each shard owns one
+    private Map<Integer, UUID> resourcesOnEveryShard() {
+        Map<Integer, UUID> resourceByShard = new TreeMap<>();
+        for (int i = 0; resourceByShard.size() < shardRouter.shardCount(); i++) {
+            UUID id = resourceService.createResource(ResourceRequest.builder()
+                    .name("Sharded room " + i)
+                    .active(true)
+                    .build()).getId();
+            resourceByShard.putIfAbsent(shardRouter.shardFor(id), id);
+        }
+        return resourceByShard;
+    }
+
+    private static BookingRequest request(UUID resourceId, Instant startAt) {
+        return BookingRequest.builder()
+                .resourceId(resourceId)
+                .startAt(startAt)
+                .endAt(startAt.plus(1, ChronoUnit.HOURS))
+                .build();
+    }
+}
@@ -16,6 +16,8 @@ export interface Resource {
   name: string;
   description: string | null;
   active: boolean;
+  capacity: number | null;
+  tags: string[];
   createdAt: string;
   updatedAt: string;
 }
@@ -26,8 +28,9 @@ export interface Booking {
   user: User;
   startAt: string;
   endAt: string;
-  status: 'ACTIVE' | 'CANCELLED';
+  status: 'ACTIVE' | 'HELD' | 'CANCELLED';
   notes: string | null;
+  holdExpiresAt: string | null;
   createdAt: string;
   updatedAt: string;
 }
@@ -68,4 +71,6 @@ export interface ResourceRequest {
   name: string;
   description?: string;
   active?: boolean;
+  capacity?: number;
+  tags?: string[];
 }